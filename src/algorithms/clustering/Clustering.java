@@ -1,5 +1,6 @@
 package algorithms.clustering;
 
+import core.components.BitMatrixGraph;
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 
@@ -100,18 +101,68 @@ public class Clustering<V, E> {
     }
 
     /**
-     * Find the average clustering coefficient for the graph.
+     * Find the clustering coefficient for a vertex using the adjacency bit matrix of
+     * the graph. Gives the same result as {@link #coefficient(Graph, Object)} but the
+     * edges between neighbours are counted by intersecting matrix rows, so build the
+     * matrix once when computing the coefficient of many vertices.
+     *
+     * @param matrix The bit matrix of the graph to search.
+     * @param vertex The vertex to find the coefficient of.
+     * @param <V> The vertex type
+     * @return A double with the clustering coefficient, or null
+     *         if the vertex does not exist.
+     */
+    public static<V> Double coefficient(BitMatrixGraph<V> matrix, V vertex) {
+
+        int v = matrix.indexOf(vertex);
+        if (v < 0) {
+            System.out.println("Vertex is not in the graph.");
+            return null;
+        }
+
+        int degree = matrix.getOutDegree(v);
+        if (matrix.isDirected() && degree <= 2) {
+            return 0.0;
+        }
+
+        int[] neighbours = new int[degree];
+        matrix.getNeighbours(v, neighbours);
+
+        // For each neighbour, the neighbours it shares with the vertex are the
+        // edges between neighbours that start at it.
+        int edgesBetweenNeighbours = 0;
+        for (int neighbour : neighbours) {
+            edgesBetweenNeighbours += matrix.commonNeighbourCount(neighbour, v);
+        }
+
+        if (matrix.isDirected()) {
+            return ( edgesBetweenNeighbours / (double)(degree * (degree - 1)) );
+        }
+        return ((2 * edgesBetweenNeighbours) / (double)(degree * (degree - 1)) );
+    }
+
+    /**
+     * Find the average clustering coefficient for the graph. Dense graphs are
+     * converted to a bit matrix first.
      * @param graph The graph to compute the average clustering coefficient for.
      * @param <V> The vertex type.
      * @param <E> The edge type.
      * @return A double value for the average clustering coefficient.
+     * @see BitMatrixGraph#isDense(Graph)
      */
     public static<V,E> Double average(Graph<V,E> graph) {
 
         Double coefficientSum = 0.0;
 
-        for (V vertex : graph.getVertices()) {
-            coefficientSum += coefficient(graph, vertex);
+        if (BitMatrixGraph.isDense(graph)) {
+            BitMatrixGraph<V> matrix = BitMatrixGraph.of(graph);
+            for (V vertex : graph.getVertices()) {
+                coefficientSum += coefficient(matrix, vertex);
+            }
+        } else {
+            for (V vertex : graph.getVertices()) {
+                coefficientSum += coefficient(graph, vertex);
+            }
         }
 
         return (coefficientSum/graph.getVertices().size());
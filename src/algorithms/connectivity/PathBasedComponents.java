@@ -1,5 +1,9 @@
 package algorithms.connectivity;
 
+import algorithms.search.DepthFirstTraversal;
+import algorithms.search.DepthFirstVisitor;
+import core.components.CompactGraph;
+import core.components.IntGraph;
 import core.components.Vertex;
 import edu.uci.ics.jung.algorithms.layout.KKLayout;
 import edu.uci.ics.jung.graph.Graph;
@@ -64,125 +68,142 @@ public class PathBasedComponents<V extends Vertex, E> implements StrongConnected
 	 * component in the graph.
 	 */
 	private List<List<V>> components;
-	/**
-	 * This is the stack S in the algorithm for tracking
-	 * nodes in the component
-	 */
-	private Stack<V> unassignedCC;
-	/**
-	 * The stack P from the algorithm tracking the current
-	 * search path.
-	 */
-	private Stack<V> currentPath;
-	/**
-	 * This maps vertices to the depth the vertex was visited at
-	 */
-	private HashMap<V, Integer> preorderMap;
-	/**
-	 * This map keeps a record of which vertices have been assigned
-	 * to connected components.
-	 */
-	private HashMap<V, Integer> assignedVars;
-	/**
-	 * The graph to search. It is a wrapping of the given user graph.
-	 */
-//	private Graph<V>, E> wrappedGraph;
 
-	/**
-	 * Counter for tracking how deep on the search path we are
-	 */
-	private int ctr = 1;
-	/**
-	 * Keep track of which component number we are at
-	 */
-	private int ccNumber = 0;
-	
 	public PathBasedComponents() {
 		components = new ArrayList<>();
-		unassignedCC = new Stack<>();
-		currentPath = new Stack<>();
-		preorderMap = new HashMap<>();
-		assignedVars = new HashMap<>();
 	}
 	
+	/**
+	 * Takes a compact snapshot of the graph and finds the components
+	 * on that, see {@link #findComponents(CompactGraph)}.
+	 */
 	@Override
 	public List<List<V>> findComponents(Graph<V, E> graph) {
+		return findComponents(CompactGraph.of(graph));
+	}
+
+	/**
+	 * Finds the strongly connected components of a compact snapshot of
+	 * the graph. Each vertex gets a "component" attribute with the number
+	 * of the component it was assigned to, stored in an int column when
+	 * the vertices share an attribute table.
+	 *
+	 * @param graph The snapshot to search
+	 * @return A 2D collection of lists representing each component
+	 */
+	public List<List<V>> findComponents(CompactGraph<V, E> graph) {
 
 		components.clear();
-		unassignedCC.clear();
-		currentPath.clear();
-		preorderMap.clear();
-		assignedVars.clear();
-		
-		// Store user node in a wrapper vertex with info needed
-		// for detecting components.
-//		wrappedGraph = wrapGraph(graph);
 
-		// Place each vertex in the maps and initialize the values
-		for (V v : graph.getVertices()) {
-			preorderMap.put(v,-1);
-			assignedVars.put(v,-1);
+		int[] componentOf = findComponentIndices(graph);
+		int componentCount = 0;
+		for (int component : componentOf) {
+			componentCount = Math.max(componentCount, component + 1);
 		}
-
-		// While there is a vertex not assigned to a component perform a DFS
-		// search from the vertex
-		while (assignedVars.containsValue(-1)) {
-			for (V vertex : graph.getVertices()) {
-				if (assignedVars.get(vertex) == -1) {
-					dfs(graph, vertex);
-				}	
-			}	
+		for (int i = 0; i < componentCount; i++) {
+			components.add(new ArrayList<>());
+		}
+		for (int v = 0; v < componentOf.length; v++) {
+			V vertex = graph.getVertex(v);
+			components.get(componentOf[v]).add(vertex);
+			vertex.addAttribute("component", componentOf[v]);
 		}
 		return components;
 	}
 
-	private void dfs(Graph<V, E> graph, V vertex) {
-		
-		// Set preorder value
-		preorderMap.put(vertex, ctr);
-		ctr++;
-		
-		// Push onto stacks
-		unassignedCC.push(vertex);
-		currentPath.push(vertex);
-		
-		Collection<V> neighbours = new HashSet<>();
-		// Need to use Out edges to ensure correctness for digraphs
-		for (E edge : graph.getOutEdges(vertex)) {
-			neighbours.add(graph.getDest(edge));
+	/**
+	 * Index based version of the algorithm, run on a
+	 * {@link DepthFirstTraversal} so deep graphs can't overflow the Java stack.
+	 * Step 1 and 2 happen when a vertex is discovered, the popping of P for
+	 * neighbours that were already visited on every arc that is not a tree
+	 * edge, and step 4 when the vertex is finished. Works on any
+	 * {@link IntGraph}, including compressed graphs.
+	 *
+	 * @param graph The graph to search
+	 * @return The component number of each vertex, numbered in the order the
+	 * 		   components were completed.
+	 */
+	public static int[] findComponentIndices(IntGraph graph) {
+		DepthFirstTraversal traversal = new DepthFirstTraversal(graph);
+		ComponentVisitor visitor = new ComponentVisitor(traversal, graph.getVertexCount());
+		traversal.traverseAll(visitor);
+		return visitor.assigned;
+	}
+
+	/**
+	 * The steps of the algorithm as traversal events. The preorder of a
+	 * vertex is its discovery time.
+	 */
+	private static class ComponentVisitor implements DepthFirstVisitor {
+
+		private final DepthFirstTraversal traversal;
+		// Component of each vertex, -1 until assigned
+		private final int[] assigned;
+		// The stacks S and P from the algorithm
+		private final int[] unassignedCC;
+		private final int[] currentPath;
+		private int unassignedTop = 0;
+		private int pathTop = 0;
+		private int ccNumber = 0;
+
+		ComponentVisitor(DepthFirstTraversal traversal, int n) {
+			this.traversal = traversal;
+			assigned = new int[n];
+			Arrays.fill(assigned, -1);
+			unassignedCC = new int[n];
+			currentPath = new int[n];
 		}
-		
-		// Iterate over neighbours
-		for (V neighbour : neighbours) {
-			// If not marked yet continue dfs from neighbour
-			if (preorderMap.get(neighbour) == -1) {
-				dfs(graph, neighbour);
-			} 
-			// Otherwise, if it is not assigned remove all nodes on path with a higher ordering
-			else if (assignedVars.get(neighbour) == -1) {
-				while(preorderMap.get(currentPath.peek()) > preorderMap.get(neighbour)) {
-					currentPath.pop();
+
+		@Override
+		public void discoverVertex(int v, int time) {
+			unassignedCC[unassignedTop++] = v;
+			currentPath[pathTop++] = v;
+		}
+
+		@Override
+		public void backEdge(int u, int w) {
+			popPath(w);
+		}
+
+		@Override
+		public void forwardEdge(int u, int w) {
+			popPath(w);
+		}
+
+		@Override
+		public void crossEdge(int u, int w) {
+			popPath(w);
+		}
+
+		/**
+		 * If w is not assigned remove all nodes on path with a higher ordering.
+		 */
+		private void popPath(int w) {
+			if (assigned[w] == -1) {
+				int preorder = traversal.getDiscoveryTime(w);
+				while (traversal.getDiscoveryTime(currentPath[pathTop - 1]) > preorder) {
+					pathTop--;
 				}
 			}
 		}
-		// If the removing terminates at the given vertex add all remaining 
-		// into the connected component, clearing the path and finally increasing
-		// the connected component number.
-		if (currentPath.peek().equals(vertex)) {
-			components.add(new ArrayList<>());
-			while (!unassignedCC.isEmpty()) {
-				V componentPart = unassignedCC.pop();
-				components.get(ccNumber).add(componentPart);
-				componentPart.addAttribute("component", ""+ccNumber);
-				assignedVars.put(componentPart, 1);
-				
-				if (componentPart.equals(vertex)) {
-					currentPath.pop();
-					ccNumber++;
-					break;
-				}
-			} // end while
-		} // end if
+
+		/**
+		 * If the removing terminates at the given vertex add all remaining into
+		 * the connected component, clearing the path and finally increasing the
+		 * connected component number.
+		 */
+		@Override
+		public void finishVertex(int v, int time) {
+			if (currentPath[pathTop - 1] == v) {
+				int componentPart;
+				do {
+					componentPart = unassignedCC[--unassignedTop];
+					assigned[componentPart] = ccNumber;
+				} while (componentPart != v);
+				pathTop--;
+				ccNumber++;
+			}
+		}
 	}
 
 //	Visualization Stuff from here down -------------------------------------------------------
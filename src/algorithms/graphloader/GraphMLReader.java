@@ -19,7 +19,12 @@ import org.dom4j.io.SAXReader;
 import org.dom4j.tree.DefaultElement;
 import org.dom4j.tree.DefaultText;
 
+import core.components.AttributeColumn;
+import core.components.AttributeTable;
+import core.components.AttributeType;
+import core.components.DoubleWeightedEdge;
 import core.components.Edge;
+import core.components.LongWeightedEdge;
 import core.components.Pair;
 import core.components.Vertex;
 import edu.uci.ics.jung.graph.Graph;
@@ -48,6 +53,17 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 	 */
 	private HashMap<String, Vertex> vertexMap;
 
+	/**
+	 * Column store shared by all the vertices of the last graph loaded
+	 */
+	private AttributeTable vertexTable;
+
+	/**
+	 * Column store shared by all the edges of the last graph loaded, rows are
+	 * the edges in document order
+	 */
+	private AttributeTable edgeTable;
+
 	private boolean isDirected;
 
 	/*
@@ -93,49 +109,9 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 				return null;
 			}
 
-			SAXReader reader = new SAXReader();
 			try {
-
-				Document document = reader.read(url);
-				Element rootElement = document.getRootElement();
-
-				// Root element iterator gets attribute info for nodes, edges
-				Iterator<?> i = rootElement.elementIterator("key");
-
-				// Load default attributes defined for the graph
-				while (i.hasNext()) {
-					Element attributeSet = (Element) i.next();
-					parseAttributeSet(attributeSet);
-				}
-
-				i = rootElement.elementIterator("graph");
-				Element graphAttributes = (Element) i.next();
-				// Iterate over set of graph attributes, look if edges are directed
-				for (Iterator<?> itr = graphAttributes.attributeIterator(); itr.hasNext();) {
-					Attribute attribute = (Attribute) itr.next(); 
-					if (attribute.getName().equals("edgedefault")) {
-						String directed = attribute.getValue();
-						if (directed.equals("directed")) {
-							isDirected = true;
-						} else {
-							isDirected = false;
-						}
-					}
-				}
-
-				// Now iterate over nodes and edges
-				List<?> nodeSet = graphAttributes.elements("node");
-				loadNodes(nodeSet, graph);
-
-				List<?> edgeSet = graphAttributes.elements("edge");
-				loadEdges(edgeSet, graph);
-				
-				// Clean-up
-				vertexAttr.clear();
-				edgeAttr.clear();
-				vertexMap.clear();
-							
-			} catch (DocumentException | GraphLoadingException e) {
+				loadGraph(graph, url);
+			} catch (GraphLoadingException e) {
 				// Invalid option, tell the user and prompt again.
 				JOptionPane.showMessageDialog(null,
 						"Must select a valid GraphML Format (.graphml) file.",
@@ -154,6 +130,70 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 		return graph;
 	}
 
+	/**
+	 * Loads a GraphML file into the graph without asking the user for it.
+	 * Values under typed keys that don't parse as the type, empty ones
+	 * included, are left unset, so they read as the key's default.
+	 * 
+	 * @param graph The graph to load to
+	 * @param url The location of the GraphML file
+	 * @return The graph, with the vertices and edges of the file added.
+	 * @throws GraphLoadingException If the file can't be read or its edges are malformed.
+	 */
+	public Graph<Vertex, Edge> loadGraph(Graph<Vertex, Edge> graph, URL url) throws GraphLoadingException {
+
+		SAXReader reader = new SAXReader();
+		try {
+
+			Document document = reader.read(url);
+			Element rootElement = document.getRootElement();
+
+			// Root element iterator gets attribute info for nodes, edges
+			Iterator<?> i = rootElement.elementIterator("key");
+
+			// Load default attributes defined for the graph
+			while (i.hasNext()) {
+				Element attributeSet = (Element) i.next();
+				parseAttributeSet(attributeSet);
+			}
+
+			i = rootElement.elementIterator("graph");
+			Element graphAttributes = (Element) i.next();
+			// Iterate over set of graph attributes, look if edges are directed
+			for (Iterator<?> itr = graphAttributes.attributeIterator(); itr.hasNext();) {
+				Attribute attribute = (Attribute) itr.next(); 
+				if (attribute.getName().equals("edgedefault")) {
+					String directed = attribute.getValue();
+					if (directed.equals("directed")) {
+						isDirected = true;
+					} else {
+						isDirected = false;
+					}
+				}
+			}
+
+			vertexTable = createAttributeTable(vertexAttr);
+			edgeTable = createAttributeTable(edgeAttr);
+
+			// Now iterate over nodes and edges
+			List<?> nodeSet = graphAttributes.elements("node");
+			loadNodes(nodeSet, graph);
+
+			List<?> edgeSet = graphAttributes.elements("edge");
+			loadEdges(edgeSet, graph);
+
+		} catch (DocumentException e) {
+			throw new GraphLoadingException("Could not read GraphML from " + url + ": " + e.getMessage());
+		} finally {
+			// Clean-up
+			vertexAttr.clear();
+			edgeAttr.clear();
+			vertexMap.clear();
+		}
+
+		return graph;
+	}
+
 	/**
 	 * Iterates over the specified set of attributes. Is currently used for parsing
 	 * edge and vertex attribute information.
@@ -209,10 +249,50 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 		}
 	}
 
+	/**
+	 * Creates a column store with a typed column for each declared key. Default
+	 * values are kept on the column rather than copied into every row.
+	 * 
+	 * @param attributes The parsed key declarations for nodes or edges
+	 * @return A table with the declared columns.
+	 */
+	private AttributeTable createAttributeTable(HashMap<String, HashMap<String, Pair<String, String>>> attributes) {
+		AttributeTable table = new AttributeTable();
+		for (HashMap<String, Pair<String, String>> values : attributes.values()) {
+			for (String name : values.keySet()) {
+				Pair<String, String> typeValue = values.get(name);
+				AttributeColumn column = table.declare(name, AttributeType.fromGraphML(typeValue.getLeft()));
+				try {
+					column.setDefaultValue(typeValue.getRight());
+				} catch (NumberFormatException e) {
+					// A default that isn't of the key's type is dropped
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * @return The attribute table shared by the vertices of the last graph loaded,
+	 * 			null if no graph has been loaded.
+	 */
+	public AttributeTable getVertexAttributeTable() {
+		return vertexTable;
+	}
+
+	/**
+	 * @return The attribute table shared by the edges of the last graph loaded,
+	 * 			null if no graph has been loaded.
+	 */
+	public AttributeTable getEdgeAttributeTable() {
+		return edgeTable;
+	}
+
 	private void loadNodes(List<?> nodeList, Graph<Vertex, Edge> graph) {
 
 		for (Object obj : nodeList) {
 			Vertex vertex = new Vertex();
+			vertex.setAttributeTable(vertexTable);
 			Element element = (Element) obj;
 			for (Iterator<?> itr = element.attributeIterator(); itr.hasNext();) {
 				Attribute attr = (Attribute) itr.next();
@@ -229,9 +309,9 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 									
 			}
 
-			// If the node has data, assign it to the attributes. Otherwise, check
-			// if there are any default values and assign the attribute(s) accordingly
-				if (element.hasContent()) {
+			// If the node has data, assign it to the attributes. Keys without
+			// data fall back to the column's default value.
+			if (element.hasContent()) {
 				for (Iterator<?> itr = element.elementIterator(); itr.hasNext();) {
 
 					Element data = (Element) itr.next();
@@ -242,22 +322,9 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 					// think this through further if multiple attributes allowed
 					String attr = vertexAttr.get(key).keySet().iterator().next();
 
+					// Left unset if not of the key's type, the row keeps the default
 					vertex.addAttribute(attr, value);
 				}
-			} else {
-				if (!vertexAttr.isEmpty()) {
-					// Otherwise add the default values from the attribute list into the
-					// vertex set of attributes
-					for (HashMap<String, Pair<String, String>> values : vertexAttr.values()) {
-						for (String type : values.keySet()) {
-							String defaultValue = values.get(type).getRight();
-							if (defaultValue != null) {
-								vertex.addAttribute(type, defaultValue);
-							}
-						}
-					}
-
-				}
 			}
 
 			graph.addVertex(vertex);
@@ -268,8 +335,11 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 	private void loadEdges(List<?> edgeList, Graph<Vertex, Edge> graph) 
 			throws GraphLoadingException {
 
+		String weightType = getWeightType();
+
 		for (Object obj : edgeList) {
-			Edge edge = new Edge();
+			Edge edge = createEdge(weightType);
+			edge.setAttributeTable(edgeTable);
 			Element element = (Element) obj;
 
 			// Iterate over attributes specified in <edge> tag
@@ -305,8 +375,8 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 				edge.addAttribute(type, value);
 			}
 
-			// If the edge has additional data iterate over it and store in the
-			// edges map.
+			// If the edge has additional data iterate over it and store it in
+			// the edge's row. Keys without data fall back to the column's default.
 			if (element.hasContent()) {
 				for (Iterator<?> itr = element.elementIterator(); itr.hasNext();) {
 					Element data = (Element) itr.next();
@@ -320,36 +390,66 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 
 					if (attr.equals("weight")) {
 						String type = edgeAttr.get(key).get(attr).getLeft();
-						Number weight = getNumberValue(type, Double.valueOf(value));
+						Number weight;
+						try {
+							weight = getNumberValue(type, Double.valueOf(value));
+						} catch (NumberFormatException e) {
+							// Not a number, the edge keeps its weight and the column default
+							continue;
+						}
 						edge.setWeight(weight);
+						// The weight column holds the same value, so table sums see it
+						edge.addAttribute(attr, weight != null ? weight : value);
 						continue;
 					}
 
+					// Left unset if not of the key's type, the row keeps the default
 					edge.addAttribute(attr, value);
 
 				}
-			// Otherwise load the default edge attributes (if any) into the
-			// attribute list of the edge being constructed.
-			} else {
-			
-				if (!edgeAttr.isEmpty()) {
-					// Otherwise add the default values from the attribute list into the
-					// vertex set of attributes
-					for (HashMap<String, Pair<String, String>> values : edgeAttr.values()) {
-						for (String type : values.keySet()) {
-							String defaultValue = values.get(type).getRight();
-							if (defaultValue != null) {
-								edge.addAttribute(type, defaultValue);
-							}
-						}
-					}
-				}
-
 			}
 		}
 		
 	}
 
+	/**
+	 * Finds the declared type of the edge weight attribute, if there is one.
+	 * 
+	 * @return The GraphML type of the weight key, null if no weight key was declared.
+	 */
+	private String getWeightType() {
+		for (HashMap<String, Pair<String, String>> values : edgeAttr.values()) {
+			Pair<String, String> weight = values.get("weight");
+			if (weight != null) {
+				return weight.getLeft();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates an edge that stores the weight unboxed when the weight type is known.
+	 * 
+	 * @param weightType The GraphML type of the weight key, may be null
+	 * @return A new edge for the type of weight.
+	 */
+	private Edge createEdge(String weightType) {
+		if (weightType == null) {
+			return new Edge();
+		}
+		switch(weightType) {
+			case "double":
+			case "float":
+				return new DoubleWeightedEdge(0.0);
+			case "long":
+			case "int":
+			case "integer":
+				return new LongWeightedEdge(0L);
+			default:
+				return new Edge();
+		}
+	}
+
 	/**
 	 *  Instance where graph type isn't specified, signaled by int,
 	 *  see the GraphLoader Interface to see allowed ints
@@ -393,6 +493,7 @@ public class GraphMLReader implements GraphLoader<Vertex, Edge> {
 				return value.floatValue();
 			case "long":
 				return value.longValue();
+			case "int":
 			case "integer":
 				return value.intValue();
 		}
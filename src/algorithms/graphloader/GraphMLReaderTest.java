@@ -0,0 +1,95 @@
+package algorithms.graphloader;
+
+import core.components.AttributeTable;
+import core.components.Edge;
+import core.components.Vertex;
+import core.tools.Tools;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test class for GraphMLReader.
+ *
+ * @author agent
+ */
+public class GraphMLReaderTest {
+
+    @Test
+    public void loadGraph_badTypedValues_leftUnset() throws Exception {
+        File file = write(
+                "<key id=\"d0\" for=\"node\" attr.name=\"age\" attr.type=\"int\"><default>7</default></key>",
+                "<key id=\"d1\" for=\"node\" attr.name=\"score\" attr.type=\"double\"/>",
+                "<key id=\"d2\" for=\"edge\" attr.name=\"lanes\" attr.type=\"int\"><default>many</default></key>",
+                "<graph id=\"G\" edgedefault=\"directed\">",
+                "<node id=\"n0\"><data key=\"d0\">abc</data><data key=\"d1\"></data></node>",
+                "<node id=\"n1\"><data key=\"d0\">3</data><data key=\"d1\">1.5</data></node>",
+                "<edge id=\"e0\" source=\"n0\" target=\"n1\"><data key=\"d2\"> </data></edge>",
+                "</graph>");
+        GraphMLReader reader = new GraphMLReader();
+        Graph<Vertex, Edge> graph = reader.loadGraph(new DirectedSparseGraph<>(), file.toURI().toURL());
+
+        Vertex n0 = Tools.getVertex(graph, "n0");
+        Vertex n1 = Tools.getVertex(graph, "n1");
+        assertEquals("7", n0.getAttribute("age"));
+        assertNull(n0.getAttribute("score"));
+        assertEquals("3", n1.getAttribute("age"));
+        assertEquals("1.5", n1.getAttribute("score"));
+
+        AttributeTable vertices = reader.getVertexAttributeTable();
+        assertFalse(vertices.getColumn("age").isSet(n0.getAttributeRow()));
+        assertEquals(1.5, vertices.sum("score"), 0.0);
+        assertNull(Tools.getEdge(graph, "e0").getAttribute("lanes"));
+    }
+
+    @Test
+    public void loadGraph_weightKey_setsWeightAndColumn() throws Exception {
+        File file = write(
+                "<key id=\"w\" for=\"edge\" attr.name=\"weight\" attr.type=\"double\"><default>1.0</default></key>",
+                "<graph id=\"G\" edgedefault=\"directed\">",
+                "<node id=\"a\"/>",
+                "<node id=\"b\"/>",
+                "<edge id=\"ab\" source=\"a\" target=\"b\"><data key=\"w\">1.5</data></edge>",
+                "<edge id=\"ba\" source=\"b\" target=\"a\"><data key=\"w\">2.5</data></edge>",
+                "<edge id=\"aa\" source=\"a\" target=\"a\"><data key=\"w\">heavy</data></edge>",
+                "</graph>");
+        GraphMLReader reader = new GraphMLReader();
+        Graph<Vertex, Edge> graph = reader.loadGraph(new DirectedSparseGraph<>(), file.toURI().toURL());
+
+        Edge ab = Tools.getEdge(graph, "ab");
+        assertEquals(1.5, ab.getDoubleWeight(), 0.0);
+        assertEquals(1.5, ab.getAttribute("weight"));
+        assertEquals(2.5, Tools.getEdge(graph, "ba").getAttribute("weight"));
+        // Not a number, the column default is read
+        assertEquals(1.0, Tools.getEdge(graph, "aa").getAttribute("weight"));
+        assertEquals(4.0, reader.getEdgeAttributeTable().sum("weight"), 0.0);
+    }
+
+    /**
+     * Writes a GraphML document with the given elements to a temporary file.
+     */
+    private static File write(String... elements) throws IOException {
+        File file = File.createTempFile("graph", ".graphml");
+        file.deleteOnExit();
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
+            for (String element : elements) {
+                writer.write(element);
+                writer.write('\n');
+            }
+            writer.write("</graphml>\n");
+        }
+        return file;
+    }
+}
@@ -10,6 +10,7 @@ import javax.swing.JOptionPane;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import core.components.Edge;
+import core.components.LongWeightedEdge;
 import edu.uci.ics.jung.graph.DelegateForest;
 import edu.uci.ics.jung.graph.DelegateTree;
 import edu.uci.ics.jung.graph.DirectedOrderedSparseMultigraph;
@@ -110,9 +111,9 @@ public class TGFLoader {
 					Edge newEdge;
 					
 					if (isWeighted) {
-						newEdge = new Edge(Integer.valueOf(edgeSpecs[2].trim()));
+						newEdge = new LongWeightedEdge(Long.parseLong(edgeSpecs[2].trim()));
 					} else {
-						newEdge = new Edge(1);
+						newEdge = new LongWeightedEdge(1);
 					}
 					
 					graph.addEdge(newEdge, v1, v2);
@@ -0,0 +1,154 @@
+package algorithms.ordering;
+
+import java.util.Random;
+
+import algorithms.ranking.PageRank;
+import algorithms.search.BreadthFirstSearch;
+import algorithms.triangles.Triangles;
+import core.components.CompactGraph;
+import core.components.IntGraph;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+
+/**
+ * Compares the vertex orderings on a graph with strong locality whose vertex
+ * labels have been shuffled, which is how graphs loaded from files or crawls
+ * usually look. For every ordering it reports the time of a full BFS, 20
+ * rounds of PageRank and a Fast-Forward triangle count, next to two locality
+ * measures that stand in for the cache miss counters Java can't read: the
+ * average log of the index distance of an arc and the share of arcs whose
+ * endpoints are within one 64 byte cache line of ints of each other.
+ *
+ * Usage: OrderingBenchmark [vertices] [neighbours per vertex]
+ *
+ * @author agent
+ */
+public class OrderingBenchmark {
+
+	private static final int REPEATS = 3;
+
+	public static void main(String[] args) {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int k = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+
+		System.out.println("Generating graph with " + n + " vertices");
+		CompactGraph<Integer, Integer> graph = CompactGraph.of(createGeometricGraph(n, k, new Random(42)));
+		System.out.println(graph.getArcCount() + " arcs");
+		System.out.println();
+		System.out.printf("%-14s %10s %10s %10s %10s %10s %10s%n",
+				"ordering", "order ms", "log gap", "same line", "bfs ms", "rank ms", "ffwd ms");
+
+		print("input", 0.0, graph);
+
+		long start = System.nanoTime();
+		int[] permutation = VertexOrdering.degree(graph);
+		report("degree", graph, permutation, start);
+
+		start = System.nanoTime();
+		permutation = VertexOrdering.cuthillMcKee(graph, true);
+		report("rcm", graph, permutation, start);
+
+		start = System.nanoTime();
+		permutation = VertexOrdering.gorder(graph, 5);
+		report("gorder", graph, permutation, start);
+	}
+
+	private static void report(String name, CompactGraph<Integer, Integer> graph, int[] permutation, long start) {
+		double orderTime = (System.nanoTime() - start) / 1e6;
+		CompactGraph<Integer, Integer> permuted = graph.permute(permutation);
+		print(name, orderTime, permuted);
+	}
+
+	private static void print(String name, double orderTime, CompactGraph<Integer, Integer> graph) {
+		int root = graph.indexOf(0);
+		double bfs = time(() -> BreadthFirstSearch.searchIndices(graph, root));
+		double rank = time(() -> PageRank.rankIndices(graph, PageRank.DEFAULT_DAMPING, 20, 0.0));
+		double triangles = time(() -> Triangles.fastForwardArcCounts(graph));
+
+		System.out.printf("%-14s %10.1f %10.2f %9.1f%% %10.1f %10.1f %10.1f%n", name, orderTime,
+				averageLogDistance(graph), 100 * sameLineShare(graph), bfs, rank, triangles);
+	}
+
+	/**
+	 * @return The best of a few runs in milliseconds.
+	 */
+	private static double time(Runnable task) {
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < REPEATS; i++) {
+			long start = System.nanoTime();
+			task.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+
+	/**
+	 * @return The average of log2(1 + |u - v|) over the arcs, the number of
+	 * 		   bits needed to store the index gaps. Unlike the plain average it
+	 * 		   isn't dominated by the few long range arcs.
+	 */
+	private static double averageLogDistance(IntGraph graph) {
+		double total = 0;
+		for (int v = 0; v < graph.getVertexCount(); v++) {
+			for (int i = 0; i < graph.getOutDegree(v); i++) {
+				total += Math.log(1 + Math.abs(graph.getNeighbour(v, i) - v));
+			}
+		}
+		return total / Math.log(2) / Math.max(1, graph.getArcCount());
+	}
+
+	private static double sameLineShare(IntGraph graph) {
+		long same = 0;
+		for (int v = 0; v < graph.getVertexCount(); v++) {
+			for (int i = 0; i < graph.getOutDegree(v); i++) {
+				if (graph.getNeighbour(v, i) >>> 4 == v >>> 4) {
+					same++;
+				}
+			}
+		}
+		return same / (double) Math.max(1, graph.getArcCount());
+	}
+
+	/**
+	 * Places the vertices on a grid and connects each to k random vertices
+	 * nearby, plus the odd long range link. The labels are shuffled so the
+	 * vertex numbers say nothing about the position.
+	 */
+	private static Graph<Integer, Integer> createGeometricGraph(int n, int k, Random random) {
+		int[] label = new int[n];
+		for (int i = 0; i < n; i++) {
+			label[i] = i;
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = label[i];
+			label[i] = label[j];
+			label[j] = swap;
+		}
+
+		int side = (int) Math.ceil(Math.sqrt(n));
+		Graph<Integer, Integer> graph = new UndirectedSparseGraph<>();
+		for (int i = 0; i < n; i++) {
+			graph.addVertex(label[i]);
+		}
+		int edge = 0;
+		for (int i = 0; i < n; i++) {
+			int x = i % side;
+			int y = i / side;
+			for (int j = 0; j < k / 2; j++) {
+				int target;
+				if (random.nextDouble() < 0.05) {
+					target = random.nextInt(n);
+				} else {
+					int tx = Math.min(side - 1, Math.max(0, x + random.nextInt(7) - 3));
+					int ty = Math.max(0, y + random.nextInt(7) - 3);
+					target = Math.min(n - 1, ty * side + tx);
+				}
+				if (target != i && graph.findEdge(label[i], label[target]) == null) {
+					graph.addEdge(edge++, label[i], label[target]);
+				}
+			}
+		}
+		return graph;
+	}
+}
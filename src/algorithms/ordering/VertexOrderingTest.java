@@ -0,0 +1,101 @@
+package algorithms.ordering;
+
+import algorithms.ranking.PageRank;
+import algorithms.triangles.Triangles;
+import core.components.CompactGraph;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for VertexOrdering.
+ *
+ * @author agent
+ */
+public class VertexOrderingTest {
+
+    @Test
+    public void orderings_gridGraph_validPermutations() {
+        CompactGraph<Integer, String> graph = CompactGraph.of(createGrid(12));
+        int[] identity = new int[graph.getVertexCount()];
+        for (int v = 0; v < identity.length; v++) {
+            identity[v] = v;
+        }
+
+        for (int[] permutation : Arrays.asList(VertexOrdering.degree(graph),
+                VertexOrdering.cuthillMcKee(graph, false),
+                VertexOrdering.cuthillMcKee(graph, true),
+                VertexOrdering.gorder(graph, 5))) {
+            int[] sorted = permutation.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(identity, sorted);
+        }
+    }
+
+    @Test
+    public void permute_gorderOrdering_sameVerticesAndNeighbours() {
+        CompactGraph<Integer, String> graph = CompactGraph.of(createGrid(12));
+        int[] permutation = VertexOrdering.gorder(graph, 5);
+        CompactGraph<Integer, String> permuted = graph.permute(permutation);
+
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            int p = permutation[v];
+            assertEquals(graph.getVertex(v), permuted.getVertex(p));
+            assertEquals(p, permuted.indexOf(graph.getVertex(v)));
+            assertEquals(graph.getOutDegree(v), permuted.getOutDegree(p));
+            for (int i = 1; i < permuted.getOutDegree(p); i++) {
+                assertTrue(permuted.getNeighbour(p, i - 1) <= permuted.getNeighbour(p, i));
+            }
+        }
+    }
+
+    @Test
+    public void fastForwardCount_permutedGraph_sameTriangles() {
+        Graph<Integer, String> grid = createGrid(12);
+        grid.addEdge("0-13", 0, 13);
+        grid.addEdge("5-18", 5, 18);
+        CompactGraph<Integer, String> graph = CompactGraph.of(grid);
+        CompactGraph<Integer, String> permuted = graph.permute(VertexOrdering.cuthillMcKee(graph, true));
+
+        Triangles.GraphTriangles<String> triangles = Triangles.fastForwardCount(permuted);
+        assertEquals(4, triangles.getTotalTriangles());
+        assertEquals(2, triangles.getNumberOfTrianglesForEdge("0-13"));
+    }
+
+    @Test
+    public void rank_permutedGraph_sameRanks() {
+        CompactGraph<Integer, String> graph = CompactGraph.of(createGrid(12));
+        HashMap<Integer, Double> ranks = PageRank.rank(graph);
+        HashMap<Integer, Double> permutedRanks = PageRank.rank(graph.permute(VertexOrdering.degree(graph)));
+
+        double total = 0.0;
+        for (Integer vertex : ranks.keySet()) {
+            assertEquals(ranks.get(vertex), permutedRanks.get(vertex), 1e-9);
+            total += ranks.get(vertex);
+        }
+        assertEquals(1.0, total, 1e-9);
+    }
+
+    private Graph<Integer, String> createGrid(int side) {
+        Graph<Integer, String> graph = new UndirectedSparseGraph<>();
+        for (int i = 0; i < side * side; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < side * side; i++) {
+            if (i % side < side - 1) {
+                graph.addEdge(i + "-" + (i + 1), i, i + 1);
+            }
+            if (i + side < side * side) {
+                graph.addEdge(i + "-" + (i + side), i, i + side);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,104 @@
+package algorithms.ranking;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import core.components.CompactGraph;
+import core.components.IntGraph;
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * PageRank by power iteration. Every round each vertex pushes its rank,
+ * split evenly, to its out-neighbours. Rank of vertices without out-arcs is
+ * spread over all vertices, as is the teleport share of 1 - damping.
+ *
+ * @author agent
+ */
+public class PageRank {
+
+	public static final double DEFAULT_DAMPING = 0.85;
+	public static final int DEFAULT_MAX_ITERATIONS = 100;
+	/**
+	 * Iteration stops once the ranks change by less than this in total
+	 */
+	public static final double DEFAULT_TOLERANCE = 1e-9;
+
+	/**
+	 * Computes the PageRank of every vertex with the default settings.
+	 *
+	 * @param graph The graph to rank
+	 * @param <V> The vertex type
+	 * @param <E> The edge type
+	 * @return The rank of each vertex, the ranks add up to 1.
+	 */
+	public static <V, E> HashMap<V, Double> rank(Graph<V, E> graph) {
+		return rank(CompactGraph.of(graph));
+	}
+
+	/**
+	 * Computes the PageRank of every vertex of a snapshot with the default settings.
+	 * The snapshot may be relabelled, the ranks are mapped back to the vertices.
+	 *
+	 * @param graph The snapshot to rank
+	 * @param <V> The vertex type
+	 * @param <E> The edge type
+	 * @return The rank of each vertex, the ranks add up to 1.
+	 */
+	public static <V, E> HashMap<V, Double> rank(CompactGraph<V, E> graph) {
+		double[] ranks = rankIndices(graph, DEFAULT_DAMPING, DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE);
+		HashMap<V, Double> result = new HashMap<>(2 * ranks.length);
+		for (int v = 0; v < ranks.length; v++) {
+			result.put(graph.getVertex(v), ranks[v]);
+		}
+		return result;
+	}
+
+	/**
+	 * Index based PageRank, works on any {@link IntGraph}.
+	 *
+	 * @param graph The graph to rank
+	 * @param damping Probability of following an arc rather than jumping to
+	 * 		  a random vertex
+	 * @param maxIterations The most rounds to run
+	 * @param tolerance Stop once the sum of the changes in rank is below this
+	 * @return The rank of each vertex by index.
+	 */
+	public static double[] rankIndices(IntGraph graph, double damping, int maxIterations, double tolerance) {
+		int n = graph.getVertexCount();
+		double[] rank = new double[n];
+		double[] next = new double[n];
+		if (n == 0) {
+			return rank;
+		}
+		Arrays.fill(rank, 1.0 / n);
+		int[] neighbours = new int[graph.getMaxDegree()];
+
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			Arrays.fill(next, 0.0);
+			double dangling = 0.0;
+			for (int v = 0; v < n; v++) {
+				int degree = graph.getNeighbours(v, neighbours);
+				if (degree == 0) {
+					dangling += rank[v];
+					continue;
+				}
+				double share = rank[v] / degree;
+				for (int i = 0; i < degree; i++) {
+					next[neighbours[i]] += share;
+				}
+			}
+
+			double base = (1.0 - damping + damping * dangling) / n;
+			double change = 0.0;
+			for (int v = 0; v < n; v++) {
+				double value = base + damping * next[v];
+				change += Math.abs(value - rank[v]);
+				rank[v] = value;
+			}
+			if (change < tolerance) {
+				break;
+			}
+		}
+		return rank;
+	}
+}
@@ -0,0 +1,208 @@
+package algorithms.search;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import core.components.Heuristic;
+import core.components.State;
+import core.components.WeightedEdge;
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * A* search over {@link State}s, either the vertices of a graph or states
+ * generated on demand by a {@link SuccessorFunction}. Every state reached is
+ * recorded in a {@link SearchNodeTable}, which doubles as the closed set and
+ * keeps the cost, heuristic value and parent of each state in arrays, so the
+ * search allocates nothing per state and never writes to the states. The
+ * open list is ordered on f with ties going to the smaller h, the state
+ * closer to the goal.
+ *
+ * With a consistent heuristic every state is expanded at most once. With an
+ * admissible but inconsistent one a closed state can later be reached by a
+ * cheaper path, it is then re-opened and expanded again, which keeps the
+ * result optimal. A heuristic value of {@link Integer#MAX_VALUE} marks a
+ * state the goal can't be reached from, such states are never queued.
+ *
+ * An engine is reusable but not thread safe. As the states are only read,
+ * separate engines can search the same graph or state space concurrently.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ * @param <E> The edge type
+ */
+public class AStarSearch<V extends State, E extends WeightedEdge> implements InformedSearch<V, E> {
+
+	private final SuccessorFunction<V> successorFunction;
+	private final Heuristic<V> heuristic;
+	private final SuccessorFunction.Successors<V> relax = this::relax;
+	private final OpenList open = new OpenList();
+	private final SearchNodeTable<V> nodes = new SearchNodeTable<>();
+	private TranspositionTable transpositions;
+	private StateEncoder<? super V> encoder;
+	private int current;
+	private long expandedCount;
+	private long prunedCount;
+	private long reopenedCount;
+
+	/**
+	 * Searches the vertices of a graph, the cost of a step is the weight of
+	 * the edge.
+	 *
+	 * @param graph The graph to search
+	 * @param heuristic An admissible estimate of the cost to the goal
+	 */
+	public AStarSearch(Graph<V, E> graph, Heuristic<V> heuristic) {
+		this(SuccessorFunction.of(graph), heuristic);
+	}
+
+	/**
+	 * Searches a state space generated on demand.
+	 *
+	 * @param successorFunction Generates the successors of a state
+	 * @param heuristic An admissible estimate of the cost to the goal
+	 */
+	public AStarSearch(SuccessorFunction<V> successorFunction, Heuristic<V> heuristic) {
+		this.successorFunction = successorFunction;
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * Detects states reached before through their keys in a transposition
+	 * table as well, pruning a state when the table knows a path to it that
+	 * is at least as cheap. This catches repeated states whose equals can't
+	 * tell they are the same. The table is cleared at the start of every
+	 * search.
+	 *
+	 * @param table The table to use, null to stop using one
+	 * @param encoder Gives the key of a state
+	 */
+	public void setTranspositionTable(TranspositionTable table, StateEncoder<? super V> encoder) {
+		if (table != null && encoder == null) {
+			throw new IllegalArgumentException("A transposition table needs an encoder");
+		}
+		this.transpositions = table;
+		this.encoder = encoder;
+	}
+
+	@Override
+	public List<V> search(V start, V goal) {
+		return search(start, goal::equals);
+	}
+
+	/**
+	 * Searches for a cheapest path to any state accepted by the goal test.
+	 *
+	 * @param start The state to search from
+	 * @param goalTest Accepts the goal states
+	 * @return The states on the path from the start to the goal, or null if
+	 * 		   no goal can be reached.
+	 * @throws IllegalArgumentException If a step has a negative cost.
+	 */
+	public List<V> search(V start, Predicate<? super V> goalTest) {
+		nodes.clear();
+		open.clear();
+		expandedCount = 0;
+		reopenedCount = 0;
+		prunedCount = 0;
+		if (transpositions != null) {
+			transpositions.clear();
+			transpositions.offer(encoder.encode(start), 0.0);
+		}
+
+		int estimate = heuristic.evaluate(start);
+		nodes.add(start, 0.0, estimate, -1);
+		if (estimate != Integer.MAX_VALUE) {
+			open.insertOrDecrease(0, estimate, estimate);
+		}
+		while (!open.isEmpty()) {
+			int node = open.poll();
+			nodes.setClosed(node, true);
+			expandedCount++;
+			V state = nodes.getState(node);
+			if (goalTest.test(state)) {
+				nodes.setGoal(node);
+				break;
+			}
+			current = node;
+			successorFunction.expand(state, relax);
+		}
+		return nodes.getPath();
+	}
+
+	private void relax(V successor, double cost) {
+		if (cost < 0) {
+			throw new IllegalArgumentException("Negative cost " + cost + " from " + nodes.getState(current));
+		}
+		double alternateCost = nodes.getG(current) + cost;
+		if (transpositions != null && !transpositions.offer(encoder.encode(successor), alternateCost)) {
+			prunedCount++;
+			return;
+		}
+		int node = nodes.indexOf(successor);
+		if (node < 0) {
+			node = nodes.add(successor, alternateCost, heuristic.evaluate(successor), current);
+		} else if (alternateCost >= nodes.getG(node)) {
+			return;
+		} else {
+			nodes.update(node, alternateCost, current);
+			if (nodes.isClosed(node)) {
+				// Only an inconsistent heuristic lets a closed state be reached more cheaply
+				nodes.setClosed(node, false);
+				reopenedCount++;
+			}
+		}
+		int estimate = nodes.getH(node);
+		if (estimate != Integer.MAX_VALUE) {
+			open.insertOrDecrease(node, alternateCost + estimate, estimate);
+		}
+	}
+
+	/**
+	 * @return The records of the last search, valid until the next one.
+	 */
+	@Override
+	public SearchNodeTable<V> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return The cost of the path found by the last search, infinity if
+	 * 		   there is none.
+	 */
+	public double getPathCost() {
+		int goal = nodes.getGoal();
+		return goal >= 0 ? nodes.getG(goal) : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return The number of expansions in the last search, counting a state
+	 * 		   again each time it is re-opened.
+	 */
+	public long getExpandedCount() {
+		return expandedCount;
+	}
+
+	/**
+	 * @return The number of distinct states reached by the last search.
+	 */
+	public int getGeneratedCount() {
+		return nodes.size();
+	}
+
+	/**
+	 * @return The number of times a closed state was re-opened in the last
+	 * 		   search.
+	 */
+	public long getReopenedCount() {
+		return reopenedCount;
+	}
+
+	/**
+	 * @return The number of states the transposition table pruned in the
+	 * 		   last search.
+	 */
+	public long getPrunedCount() {
+		return prunedCount;
+	}
+}
@@ -0,0 +1,185 @@
+package algorithms.search;
+
+import algorithms.search.SearchFixtures.Cell;
+import algorithms.search.SearchFixtures.Node;
+import algorithms.search.SearchFixtures.Road;
+import core.components.Heuristic;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for AStarSearch.
+ *
+ * @author agent
+ */
+public class AStarSearchTest {
+
+    private static final int SIZE = 60;
+
+    @Test
+    public void search_implicitGrid_sameCostAsBreadthFirst() {
+        boolean[][] wall = new boolean[SIZE][SIZE];
+        Random random = new Random(5);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                wall[x][y] = random.nextInt(4) == 0;
+            }
+        }
+        wall[0][0] = false;
+        wall[SIZE - 1][SIZE - 1] = false;
+
+        Cell goal = new Cell(SIZE - 1, SIZE - 1);
+        SuccessorFunction<Cell> moves = (cell, successors) -> {
+            int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+            for (int[] step : steps) {
+                int x = cell.x + step[0];
+                int y = cell.y + step[1];
+                if (x >= 0 && y >= 0 && x < SIZE && y < SIZE && !wall[x][y]) {
+                    successors.add(new Cell(x, y), 1);
+                }
+            }
+        };
+        Heuristic<Cell> manhattan = cell -> Math.abs(goal.x - cell.x) + Math.abs(goal.y - cell.y);
+        AStarSearch<Cell, Road> search = new AStarSearch<>(moves, manhattan);
+
+        List<Cell> path = search.search(new Cell(0, 0), goal);
+        int expected = breadthFirstDistance(wall);
+        if (expected < 0) {
+            assertNull(path);
+            return;
+        }
+        assertEquals(expected, search.getPathCost(), 0.0);
+        assertEquals(expected + 1, path.size());
+        assertEquals(goal, path.get(path.size() - 1));
+        for (int i = 1; i < path.size(); i++) {
+            Cell a = path.get(i - 1);
+            Cell b = path.get(i);
+            assertEquals(1, Math.abs(a.x - b.x) + Math.abs(a.y - b.y));
+        }
+        assertEquals(0, search.getReopenedCount());
+        assertTrue(search.getExpandedCount() < SIZE * SIZE);
+    }
+
+    @Test
+    public void search_inconsistentHeuristic_reopensAndStaysOptimal() {
+        Graph<Node, Road> graph = new DirectedSparseGraph<>();
+        Node s = new Node("S", 0);
+        Node a = new Node("A", 5);
+        Node b = new Node("B", 0);
+        Node g = new Node("G", 0);
+        graph.addEdge(new Road(1), s, a);
+        graph.addEdge(new Road(3), s, b);
+        graph.addEdge(new Road(1), a, b);
+        graph.addEdge(new Road(5), b, g);
+
+        AStarSearch<Node, Road> search = new AStarSearch<>(graph, node -> node.estimate);
+        List<Node> path = search.search(s, g);
+
+        assertEquals(Arrays.asList(s, a, b, g), path);
+        assertEquals(7.0, search.getPathCost(), 0.0);
+        assertEquals(1, search.getReopenedCount());
+        SearchNodeTable<Node> nodes = search.getNodes();
+        assertEquals(0, nodes.indexOf(s));
+        assertEquals(nodes.indexOf(g), nodes.getGoal());
+        assertTrue(nodes.isOnPath(nodes.indexOf(b)));
+        assertEquals(2.0, nodes.getG(nodes.indexOf(b)), 0.0);
+        // The states themselves are left untouched
+        assertEquals(Integer.MAX_VALUE, b.getG());
+    }
+
+    @Test
+    public void search_concurrentSearchesOnSharedGraph_sameAsSequential() throws Exception {
+        Graph<Node, Road> graph = new DirectedSparseGraph<>();
+        Random random = new Random(9);
+        Node[] nodes = new Node[500];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i, 0);
+            graph.addVertex(nodes[i]);
+        }
+        for (int i = 0; i < 3000; i++) {
+            graph.addEdge(new Road(1 + random.nextInt(20)),
+                    nodes[random.nextInt(nodes.length)], nodes[random.nextInt(nodes.length)]);
+        }
+
+        double[] expected = new double[nodes.length];
+        AStarSearch<Node, Road> sequential = new AStarSearch<>(graph, node -> 0);
+        for (int i = 0; i < nodes.length; i++) {
+            sequential.search(nodes[0], nodes[i]);
+            expected[i] = sequential.getPathCost();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<double[]>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(pool.submit(() -> {
+                    AStarSearch<Node, Road> search = new AStarSearch<>(graph, node -> 0);
+                    double[] costs = new double[nodes.length];
+                    for (int i = 0; i < nodes.length; i++) {
+                        search.search(nodes[0], nodes[i]);
+                        costs[i] = search.getPathCost();
+                    }
+                    return costs;
+                }));
+            }
+            for (Future<double[]> result : results) {
+                assertArrayEquals(expected, result.get(), 0.0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void search_unreachableGoal_returnsNull() {
+        Graph<Node, Road> graph = new DirectedSparseGraph<>();
+        Node s = new Node("S", 0);
+        Node t = new Node("T", 0);
+        graph.addVertex(s);
+        graph.addVertex(t);
+        graph.addEdge(new Road(2), t, s);
+
+        AStarSearch<Node, Road> search = new AStarSearch<>(graph, node -> node.estimate);
+        assertNull(search.search(s, t));
+        assertEquals(Double.POSITIVE_INFINITY, search.getPathCost(), 0.0);
+        assertEquals(1, search.getExpandedCount());
+    }
+
+    private static int breadthFirstDistance(boolean[][] wall) {
+        int[][] distance = new int[SIZE][SIZE];
+        for (int[] row : distance) {
+            Arrays.fill(row, -1);
+        }
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        distance[0][0] = 0;
+        queue.add(new int[] {0, 0});
+        while (!queue.isEmpty()) {
+            int[] cell = queue.poll();
+            int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+            for (int[] step : steps) {
+                int x = cell[0] + step[0];
+                int y = cell[1] + step[1];
+                if (x >= 0 && y >= 0 && x < SIZE && y < SIZE && !wall[x][y] && distance[x][y] < 0) {
+                    distance[x][y] = distance[cell[0]][cell[1]] + 1;
+                    queue.add(new int[] {x, y});
+                }
+            }
+        }
+        return distance[SIZE - 1][SIZE - 1];
+    }
+}
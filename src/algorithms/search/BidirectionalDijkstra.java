@@ -0,0 +1,222 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+import core.components.CompactGraph;
+import core.components.IndexedDaryHeap;
+import core.components.IntGraph;
+
+/**
+ * Point to point Dijkstra search running a forward search from the source and
+ * a backward search from the target over the reversed arcs, always expanding
+ * the side whose next vertex is closer. Each time an arc connects the two
+ * searches the length of the path through it is compared with the best one
+ * so far, and the search stops as soon as the smallest keys of the two heaps
+ * add up to at least that length, since no path found later can be shorter.
+ * On road-like graphs the two balls together cover far less than the single
+ * ball of a one-way search with the same radius.
+ *
+ * Like {@link DijkstraSearch} the engine is reusable, the arrays of both
+ * sides are allocated once and reset lazily per query.
+ *
+ * @author agent
+ */
+public class BidirectionalDijkstra {
+
+	private final Side forward;
+	private final Side backward;
+	private int query;
+	private double bestDistance;
+	private int meeting;
+
+	/**
+	 * Creates an engine for a graph that is its own reverse, or a compact
+	 * snapshot that can be reversed.
+	 *
+	 * @param graph The graph to search, arc weights must not be negative
+	 * @throws IllegalArgumentException If the graph is directed and not a
+	 * 		   {@link CompactGraph}, use {@link #BidirectionalDijkstra(IntGraph, IntGraph)}.
+	 */
+	public BidirectionalDijkstra(IntGraph graph) {
+		this(graph, reverseOf(graph));
+	}
+
+	/**
+	 * @param graph The graph to search, arc weights must not be negative
+	 * @param reverse The graph with every arc reversed, the graph itself if
+	 * 		  it is not directed
+	 */
+	public BidirectionalDijkstra(IntGraph graph, IntGraph reverse) {
+		if (graph.getVertexCount() != reverse.getVertexCount()) {
+			throw new IllegalArgumentException("The reverse graph has a different number of vertices");
+		}
+		forward = new Side(graph);
+		backward = new Side(reverse);
+	}
+
+	/**
+	 * @return The graph itself if it is not directed, the reversed snapshot
+	 * 		   for a directed {@link CompactGraph}.
+	 * @throws IllegalArgumentException For other directed graphs.
+	 */
+	static IntGraph reverseOf(IntGraph graph) {
+		if (!graph.isDirected()) {
+			return graph;
+		}
+		if (graph instanceof CompactGraph) {
+			return ((CompactGraph<?, ?>) graph).reverse();
+		}
+		throw new IllegalArgumentException("Directed graphs need the reversed graph as well");
+	}
+
+	/**
+	 * Searches for a shortest path from the source to the target.
+	 *
+	 * @param source Index of the vertex to start from
+	 * @param target Index of the goal vertex
+	 * @return True if the target can be reached.
+	 * @throws IllegalArgumentException If the search runs into a negative weight.
+	 */
+	public boolean search(int source, int target) {
+		if (++query == Integer.MAX_VALUE) {
+			forward.clearMarks();
+			backward.clearMarks();
+			query = 1;
+		}
+		forward.start(source, query);
+		backward.start(target, query);
+		bestDistance = source == target ? 0.0 : Double.POSITIVE_INFINITY;
+		meeting = source == target ? source : -1;
+
+		while (!forward.heap.isEmpty() && !backward.heap.isEmpty()
+				&& forward.heap.peekKey() + backward.heap.peekKey() < bestDistance) {
+			if (forward.heap.peekKey() <= backward.heap.peekKey()) {
+				expand(forward, backward);
+			} else {
+				expand(backward, forward);
+			}
+		}
+		return meeting >= 0;
+	}
+
+	/**
+	 * Settles the next vertex of one side, checking every arc that reaches
+	 * a vertex already seen by the other side for a shorter connection.
+	 */
+	private void expand(Side side, Side other) {
+		int vertex = side.heap.poll();
+		side.settledCount++;
+		double base = side.distance[vertex];
+		IntGraph graph = side.graph;
+		int degree = graph.getOutDegree(vertex);
+		for (int i = 0; i < degree; i++) {
+			int neighbour = graph.getNeighbour(vertex, i);
+			double weight = graph.getWeight(vertex, i);
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative weight " + weight
+						+ " on arc " + vertex + "->" + neighbour);
+			}
+			double alternateDistance = base + weight;
+			if (side.reached[neighbour] != query) {
+				side.reach(neighbour, alternateDistance, vertex, query);
+			} else if (alternateDistance < side.distance[neighbour] && side.heap.contains(neighbour)) {
+				side.distance[neighbour] = alternateDistance;
+				side.parent[neighbour] = vertex;
+				side.heap.decreaseKey(neighbour, alternateDistance);
+			}
+			if (other.reached[neighbour] == query) {
+				double through = side.distance[neighbour] + other.distance[neighbour];
+				if (through < bestDistance) {
+					bestDistance = through;
+					meeting = neighbour;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The length of the path found by the last query, infinity if
+	 * 		   there is none.
+	 */
+	public double getDistance() {
+		return bestDistance;
+	}
+
+	/**
+	 * @return The number of vertices settled by both sides in the last query.
+	 */
+	public int getSettledCount() {
+		return forward.settledCount + backward.settledCount;
+	}
+
+	/**
+	 * @return The indices on the path found by the last query from the source
+	 * 		   to the target, or null if there is none.
+	 */
+	public int[] getPath() {
+		if (meeting < 0) {
+			return null;
+		}
+		int forwardLength = 0;
+		for (int vertex = meeting; vertex != -1; vertex = forward.parent[vertex]) {
+			forwardLength++;
+		}
+		int length = forwardLength;
+		for (int vertex = backward.parent[meeting]; vertex != -1; vertex = backward.parent[vertex]) {
+			length++;
+		}
+
+		int[] path = new int[length];
+		int position = forwardLength;
+		for (int vertex = meeting; vertex != -1; vertex = forward.parent[vertex]) {
+			path[--position] = vertex;
+		}
+		position = forwardLength;
+		for (int vertex = backward.parent[meeting]; vertex != -1; vertex = backward.parent[vertex]) {
+			path[position++] = vertex;
+		}
+		return path;
+	}
+
+	/**
+	 * The state of the search in one direction.
+	 */
+	private static class Side {
+
+		final IntGraph graph;
+		final IndexedDaryHeap heap;
+		final double[] distance;
+		final int[] parent;
+		/**
+		 * The query each vertex was last reached in
+		 */
+		final int[] reached;
+		int settledCount;
+
+		Side(IntGraph graph) {
+			this.graph = graph;
+			int n = graph.getVertexCount();
+			heap = new IndexedDaryHeap(n);
+			distance = new double[n];
+			parent = new int[n];
+			reached = new int[n];
+		}
+
+		void clearMarks() {
+			Arrays.fill(reached, 0);
+		}
+
+		void start(int root, int query) {
+			heap.clear();
+			settledCount = 0;
+			reach(root, 0.0, -1, query);
+		}
+
+		void reach(int vertex, double pathDistance, int from, int query) {
+			reached[vertex] = query;
+			distance[vertex] = pathDistance;
+			parent[vertex] = from;
+			heap.insert(vertex, pathDistance);
+		}
+	}
+}
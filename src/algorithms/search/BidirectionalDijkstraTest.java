@@ -0,0 +1,122 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import core.components.DoubleWeightedEdge;
+import core.components.Edge;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static algorithms.search.SearchFixtures.pathLength;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for BidirectionalDijkstra.
+ *
+ * @author agent
+ */
+public class BidirectionalDijkstraTest {
+
+    @Test
+    public void search_randomDirectedGraph_sameDistancesAsDijkstra() {
+        Graph<Integer, Edge> graph = new DirectedSparseGraph<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 400; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 1600; i++) {
+            graph.addEdge(new DoubleWeightedEdge("e" + i, 1 + random.nextInt(20)),
+                    random.nextInt(400), random.nextInt(400));
+        }
+        CompactGraph<Integer, Edge> snapshot = CompactGraph.of(graph);
+        DijkstraSearch dijkstra = new DijkstraSearch(snapshot);
+        BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(snapshot);
+
+        for (int query = 0; query < 50; query++) {
+            int source = random.nextInt(400);
+            int target = random.nextInt(400);
+            boolean found = dijkstra.search(source, target);
+            assertEquals(found, bidirectional.search(source, target));
+            assertEquals(dijkstra.getDistance(target), bidirectional.getDistance(), 1e-9);
+            if (found) {
+                int[] path = bidirectional.getPath();
+                assertEquals(source, path[0]);
+                assertEquals(target, path[path.length - 1]);
+                assertEquals(bidirectional.getDistance(), pathLength(snapshot, path), 1e-9);
+            } else {
+                assertNull(bidirectional.getPath());
+            }
+        }
+    }
+
+    @Test
+    public void bidirectionalSearch_undirectedGrid_fewerSettledVertices() {
+        int side = 60;
+        Graph<Integer, Edge> graph = new UndirectedSparseGraph<>();
+        for (int i = 0; i < side * side; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < side * side; i++) {
+            if (i % side < side - 1) {
+                graph.addEdge(new DoubleWeightedEdge(i + "-" + (i + 1), 1.0), i, i + 1);
+            }
+            if (i + side < side * side) {
+                graph.addEdge(new DoubleWeightedEdge(i + "-" + (i + side), 1.0), i, i + side);
+            }
+        }
+        CompactGraph<Integer, Edge> snapshot = CompactGraph.of(graph);
+        int source = snapshot.indexOf(side * 30 + 10);
+        int target = snapshot.indexOf(side * 30 + 50);
+
+        DijkstraSearch dijkstra = new DijkstraSearch(snapshot);
+        BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(snapshot);
+        assertTrue(dijkstra.search(source, target));
+        assertTrue(bidirectional.search(source, target));
+        assertEquals(40.0, bidirectional.getDistance(), 0.0);
+        assertTrue(bidirectional.getSettledCount() < dijkstra.getSettledCount());
+
+        List<Integer> path = new ShortestPath<Integer, Edge>().bidirectionalSearch(snapshot, side * 30 + 10, side * 30 + 50);
+        assertEquals(41, path.size());
+        assertFalse(path.contains(null));
+    }
+
+    @Test
+    public void bidirectionalSearch_repeatedQueries_followCurrentSnapshot() {
+        Graph<Integer, Edge> graph = new DirectedSparseGraph<>();
+        Random random = new Random(8);
+        for (int i = 0; i < 200; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 700; i++) {
+            graph.addEdge(new DoubleWeightedEdge("e" + i, 1 + random.nextInt(20)),
+                    random.nextInt(200), random.nextInt(200));
+        }
+        ShortestPath<Integer, Edge> shortestPath = new ShortestPath<>();
+        CompactGraph<Integer, Edge> snapshot = CompactGraph.of(graph);
+        for (int query = 0; query < 30; query++) {
+            int source = random.nextInt(200);
+            int target = random.nextInt(200);
+            List<Integer> expected = shortestPath.search(snapshot, source, target);
+            List<Integer> path = shortestPath.bidirectionalSearch(snapshot, source, target);
+            if (expected == null) {
+                assertNull(path);
+            } else {
+                assertEquals(pathLength(snapshot, expected), pathLength(snapshot, path), 1e-9);
+            }
+        }
+
+        // A new snapshot must not be searched with the reverse of the old one
+        graph.addVertex(200);
+        graph.addEdge(new DoubleWeightedEdge("new", 1.0), 0, 200);
+        CompactGraph<Integer, Edge> changed = CompactGraph.of(graph);
+        assertNull(shortestPath.bidirectionalSearch(snapshot, 0, 200));
+        assertEquals(2, shortestPath.bidirectionalSearch(changed, 0, 200).size());
+    }
+}
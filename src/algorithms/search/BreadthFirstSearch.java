@@ -6,12 +6,10 @@ import java.awt.Dimension;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Queue;
 
 import javax.swing.BorderFactory;
 import javax.swing.JFrame;
@@ -20,13 +18,14 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 
+import core.components.CompactGraph;
 import core.components.Edge;
+import core.components.IntGraph;
 import edu.uci.ics.jung.algorithms.layout.KKLayout;
 import edu.uci.ics.jung.algorithms.layout.TreeLayout;
 import edu.uci.ics.jung.graph.DelegateForest;
 import edu.uci.ics.jung.graph.Forest;
 import edu.uci.ics.jung.graph.Graph;
-import edu.uci.ics.jung.graph.util.EdgeType;
 import edu.uci.ics.jung.visualization.VisualizationViewer;
 import edu.uci.ics.jung.visualization.control.CrossoverScalingControl;
 import edu.uci.ics.jung.visualization.control.PluggableGraphMouse;
@@ -72,45 +71,47 @@ public class BreadthFirstSearch<V, E extends Edge> implements UninformedSearch<V
 //	}
 	
 	/**
-	 * Simple breadth first search implementation. Currently proceeds in reverse order
-	 * edges are added in the graph.
+	 * Simple breadth first search implementation. Takes a compact snapshot of
+	 * the graph and searches that, see {@link #search(CompactGraph, Object)}.
 	 */
 	public List<V> search(Graph<V,E> graph, V root) {
-		List<V> nodeOrder = new ArrayList<>();
-		Queue<V> queue = new ArrayDeque<>();
-		
-		boolean directed = false;
-		
-		if (graph.getDefaultEdgeType() == EdgeType.DIRECTED) {
-			directed = true;
-		}
-		
-		queue.add(root);
-		
-		while (!queue.isEmpty()) {
-		
-			V currentNode = queue.poll();
-			
-			nodeOrder.add(currentNode);
-			
-			Collection<V> neighbours = null;
-			if (directed) {
-				neighbours = getDirectedNeighbours(graph, currentNode);
-			} else {
-				neighbours = graph.getNeighbors(currentNode);
-			}
-			
-			for (V neighbour : neighbours) {
-				// Discovery check
-				if (nodeOrder.contains(neighbour) || queue.contains(neighbour)){
-					continue;
-				}
-				queue.add(neighbour);
-				
-			}
+		return search(CompactGraph.of(graph), root);
+	}
+
+	/**
+	 * Breadth first search over a compact snapshot of the graph. Build the
+	 * snapshot once with {@link CompactGraph#of(Graph)} when searching the same
+	 * graph many times.
+	 *
+	 * @param graph The snapshot to search
+	 * @param root The node to start from
+	 * @return A list with the order nodes were visited, or null if the root
+	 * 		   is not in the graph.
+	 */
+	public List<V> search(CompactGraph<V,E> graph, V root) {
+		int rootIndex = graph.indexOf(root);
+		if (rootIndex < 0) {
+			return null;
 		}
-		
-		return nodeOrder;
+		int[] order = searchIndices(graph, rootIndex);
+		return graph.toVertices(order, order.length);
+	}
+
+	/**
+	 * Index based breadth first search. Works on any {@link IntGraph}, including
+	 * graphs mapped from disk or compressed. Every graph is searched with a
+	 * {@link DirectionOptimizingSearch}, which also gives the depths and
+	 * parents. Directed graphs are searched top-down only, as no reverse graph
+	 * is passed, and come out in queue order. Graphs that are not directed can
+	 * take bottom-up steps, which visit the vertices of a level in index order,
+	 * so the order is breadth first but can differ from a queue based search.
+	 *
+	 * @param graph The graph to search
+	 * @param root Index of the node to start from
+	 * @return The indices of the nodes in the order they were visited.
+	 */
+	public static int[] searchIndices(IntGraph graph, int root) {
+		return new DirectionOptimizingSearch().search(graph, root).getOrder();
 	}
 
 	/**
@@ -139,66 +140,26 @@ public class BreadthFirstSearch<V, E extends Edge> implements UninformedSearch<V
 	public void visualizeSearch(Graph<V,E> userGraph, V root) {
 				
 		Forest<ExtendedVertex<V>, Integer> wrapperGraph = new DelegateForest<>();
-		
-		List<List<V> > layerList = new ArrayList<>();
-		List<V> discoveredList = new ArrayList<>();
-		List<V> closedList = new ArrayList<>();
-		
-		boolean directed = false;
-		E edge = userGraph.getEdges().iterator().next();
-		if (userGraph.getEdgeType(edge) == EdgeType.DIRECTED) {
-			directed = true;
-		}
 
-	
-		// Overkill but will do for now
-		for (int i = 0; i < userGraph.getVertexCount(); i++) {
-			layerList.add(new ArrayList<V>());
+		// Search once, then build the tree from the parent of each visited node
+		CompactGraph<V, E> snapshot = CompactGraph.of(userGraph);
+		BreadthFirstTree tree = new DirectionOptimizingSearch().search(snapshot, snapshot.indexOf(root));
+
+		List<ExtendedVertex<V>> extended = new ArrayList<>(snapshot.getVertexCount());
+		for (int v = 0; v < snapshot.getVertexCount(); v++) {
+			extended.add(null);
 		}
-		
-		// Use the wrapper class, make a queue of these extended nodes
-		ExtendedVertex<V> extendedRoot = new ExtendedVertex<V>(root, 0);		
-		Queue<ExtendedVertex<V> > queue = new ArrayDeque<>();		
-		queue.add(extendedRoot);
-		
-		// Performs BFS, stores nodes and records the layers, maintaining expanded nodes in a bucket
-		// to aid visualization
 		int edgeCtr = 0;
-		while (!queue.isEmpty()) {
-		
-			ExtendedVertex<V> currentVertex = queue.poll();
-			V currentNode = currentVertex.getVertex();
-			int layer = currentVertex.getLayer();
-			
-			layerList.get(layer).add(currentNode);
-			closedList.add(currentNode);
-			
-			if (!wrapperGraph.containsVertex(currentVertex)){
-				wrapperGraph.addVertex(currentVertex);
-			}
-			
-			Collection<V> neighbours = null;
-			if (directed) {
-				neighbours = getDirectedNeighbours(userGraph, currentNode);
+		for (int v : tree.getOrder()) {
+			ExtendedVertex<V> extendedVertex = new ExtendedVertex<>(snapshot.getVertex(v), tree.getDepth(v));
+			extended.set(v, extendedVertex);
+			if (tree.getParent(v) == -1) {
+				wrapperGraph.addVertex(extendedVertex);
 			} else {
-				neighbours = userGraph.getNeighbors(currentNode);
+				wrapperGraph.addEdge(edgeCtr++, extended.get(tree.getParent(v)), extendedVertex);
 			}
-			
-			for (V neighbour : neighbours) {	
-				if (closedList.contains(neighbour) || discoveredList.contains(neighbour)) {
-					continue;
-				}
-				discoveredList.add(neighbour);
-				
-				ExtendedVertex<V> extendedNeighbour = new ExtendedVertex<>(neighbour, layer+1);
-				queue.add(extendedNeighbour);
-				if (!wrapperGraph.containsVertex(extendedNeighbour)){
-					wrapperGraph.addVertex(extendedNeighbour);
-				}
-				wrapperGraph.addEdge(new Integer(edgeCtr++), currentVertex, extendedNeighbour);
-			}	
 		}
-	
+
 		createGraphViewer(userGraph, wrapperGraph, root);
 		
 	}
@@ -0,0 +1,95 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+/**
+ * Result of an index based breadth first search: the order the vertices were
+ * visited in, and the depth and parent of every vertex in the search tree.
+ * Vertices that were not reached have depth and parent -1.
+ *
+ * @author agent
+ */
+public class BreadthFirstTree {
+
+	private final int root;
+	private final int[] order;
+	private final int visitedCount;
+	private final int[] depth;
+	private final int[] parent;
+
+	BreadthFirstTree(int root, int[] order, int visitedCount, int[] depth, int[] parent) {
+		this.root = root;
+		this.order = order;
+		this.visitedCount = visitedCount;
+		this.depth = depth;
+		this.parent = parent;
+	}
+
+	public int getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return The number of vertices reached from the root, including the root.
+	 */
+	public int getVisitedCount() {
+		return visitedCount;
+	}
+
+	/**
+	 * @return The indices of the reached vertices in the order they were
+	 * 		   visited, level by level.
+	 */
+	public int[] getOrder() {
+		return visitedCount == order.length ? order : Arrays.copyOf(order, visitedCount);
+	}
+
+	/**
+	 * @return The depth of every vertex by index, -1 for unreached vertices.
+	 */
+	public int[] getDepths() {
+		return depth;
+	}
+
+	/**
+	 * @return The parent of every vertex by index, -1 for the root and
+	 * 		   unreached vertices.
+	 */
+	public int[] getParents() {
+		return parent;
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return The number of arcs on a shortest path from the root to v, or -1
+	 * 		   if v was not reached.
+	 */
+	public int getDepth(int v) {
+		return depth[v];
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return The vertex v was discovered from, -1 for the root and unreached vertices.
+	 */
+	public int getParent(int v) {
+		return parent[v];
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return The indices on the tree path from the root to v, or null if v
+	 * 		   was not reached.
+	 */
+	public int[] getPath(int v) {
+		if (depth[v] < 0) {
+			return null;
+		}
+		int[] path = new int[depth[v] + 1];
+		for (int i = path.length - 1; i >= 0; i--) {
+			path[i] = v;
+			v = parent[v];
+		}
+		return path;
+	}
+}
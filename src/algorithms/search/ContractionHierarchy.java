@@ -0,0 +1,832 @@
+package algorithms.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import core.components.CompactGraph;
+import core.components.IndexedDaryHeap;
+import core.components.IntGraph;
+
+/**
+ * Contraction hierarchy (Geisberger, Sanders, Schultes and Delling,
+ * "Contraction Hierarchies: Faster and Simpler Hierarchical Routing in Road
+ * Networks") for answering many point to point shortest path queries on a
+ * graph that does not change between them.
+ *
+ * Preprocessing removes the vertices one at a time, least important first.
+ * When a vertex v is removed, every pair of neighbours u and w for which
+ * u-v-w is the only shortest path left gets a shortcut arc u-w of the same
+ * length, so the distances between the remaining vertices stay the same. A
+ * local witness search from u that avoids v decides whether a shortcut is
+ * needed, giving up after a fixed number of settled vertices, which can only
+ * add shortcuts that were not strictly necessary. Vertices are ordered by
+ * their edge difference, the number of shortcuts their removal would add minus
+ * the number of arcs it removes, plus terms for the number of neighbours
+ * already removed and for the depth of the hierarchy below the vertex, which
+ * spread the contraction evenly over the graph. Priorities are
+ * updated for the neighbours of each removed vertex and checked again lazily
+ * when a vertex comes to the top of the queue.
+ *
+ * Every original arc and shortcut is kept with its lower ranked end: arcs
+ * leaving a vertex towards higher ranks in the upward forward graph and arcs
+ * arriving from higher ranks in the upward backward graph. A query runs a
+ * Dijkstra search upwards from both ends and stops each side once its
+ * smallest key is no better than the best connection, which settles only a
+ * few hundred vertices on road networks. Vertices that are reached faster
+ * through a higher ranked vertex are stalled and not expanded. Shortcuts remember the vertex they
+ * bypass so paths are unpacked into original arcs.
+ *
+ * The hierarchy works on vertex indices, it can be written to a file after
+ * preprocessing and read back as long as the indices of the graph stay the
+ * same.
+ *
+ * @author agent
+ */
+public class ContractionHierarchy {
+
+	public static final int MAGIC = 0x4A474348;
+	public static final int VERSION = 1;
+	/**
+	 * Number of vertices a witness search settles before giving up
+	 */
+	public static final int DEFAULT_WITNESS_LIMIT = 500;
+	/**
+	 * Witness search limit while only estimating the shortcuts for a priority
+	 */
+	public static final int SIMULATION_LIMIT = 50;
+
+	private final int vertexCount;
+	/**
+	 * The position of each vertex in the contraction order
+	 */
+	private final int[] rank;
+	private final UpwardGraph forward;
+	private final UpwardGraph backward;
+	/**
+	 * Query used by the convenience methods, created on first use
+	 */
+	private Query sharedQuery;
+
+	private ContractionHierarchy(int[] rank, UpwardGraph forward, UpwardGraph backward) {
+		this.vertexCount = rank.length;
+		this.rank = rank;
+		this.forward = forward;
+		this.backward = backward;
+	}
+
+	/**
+	 * Builds the hierarchy with the default witness search limit.
+	 *
+	 * @param graph The graph, arc weights must not be negative
+	 * @return The hierarchy.
+	 */
+	public static ContractionHierarchy build(IntGraph graph) {
+		return build(graph, DEFAULT_WITNESS_LIMIT);
+	}
+
+	/**
+	 * Builds the hierarchy.
+	 *
+	 * @param graph The graph, arc weights must not be negative
+	 * @param witnessLimit The number of vertices a witness search settles
+	 * 		  before giving up, lower limits preprocess faster but add more
+	 * 		  shortcuts
+	 * @return The hierarchy.
+	 * @throws IllegalArgumentException If the graph has a negative weight.
+	 */
+	public static ContractionHierarchy build(IntGraph graph, int witnessLimit) {
+		return new Contraction(graph, witnessLimit).run();
+	}
+
+	/**
+	 * Reads a hierarchy written by {@link #write(File)}.
+	 *
+	 * @param file The file to read
+	 * @return The hierarchy.
+	 * @throws IOException If the file can't be read or is not a hierarchy.
+	 */
+	public static ContractionHierarchy read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a contraction hierarchy file");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported contraction hierarchy version " + version);
+			}
+			int vertexCount = in.readInt();
+			int[] rank = new int[vertexCount];
+			for (int v = 0; v < vertexCount; v++) {
+				rank[v] = in.readInt();
+			}
+			UpwardGraph forward = UpwardGraph.read(in, vertexCount);
+			UpwardGraph backward = UpwardGraph.read(in, vertexCount);
+			return new ContractionHierarchy(rank, forward, backward);
+		}
+	}
+
+	/**
+	 * Saves the hierarchy to a file, see {@link #read(File)}.
+	 *
+	 * @param file The file to write
+	 * @throws IOException If the file can't be written.
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(vertexCount);
+			for (int r : rank) {
+				out.writeInt(r);
+			}
+			forward.write(out);
+			backward.write(out);
+		}
+	}
+
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return The position of v in the contraction order, higher ranks are
+	 * 		   more important.
+	 */
+	public int getRank(int v) {
+		return rank[v];
+	}
+
+	/**
+	 * @return The number of arcs in the upward graphs, original arcs and
+	 * 		   shortcuts together.
+	 */
+	public int getArcCount() {
+		return forward.targets.length + backward.targets.length;
+	}
+
+	/**
+	 * @return The number of shortcut arcs added by the preprocessing.
+	 */
+	public int getShortcutCount() {
+		return forward.shortcutCount() + backward.shortcutCount();
+	}
+
+	/**
+	 * Creates a query engine. Engines are not safe to use from several
+	 * threads, create one per thread, they share the hierarchy.
+	 *
+	 * @return A new query engine.
+	 */
+	public Query newQuery() {
+		return new Query();
+	}
+
+	/**
+	 * Distance between two vertices, using a query engine kept by the hierarchy.
+	 *
+	 * @param source Index of the vertex to start from
+	 * @param target Index of the goal vertex
+	 * @return The length of a shortest path, infinity if there is none.
+	 */
+	public double distance(int source, int target) {
+		Query query = getSharedQuery();
+		query.search(source, target);
+		return query.getDistance();
+	}
+
+	/**
+	 * Same as {@link ShortestPath#search(CompactGraph, Object, Object)},
+	 * using a query engine kept by the hierarchy.
+	 *
+	 * @param graph The snapshot the hierarchy was built from
+	 * @param source The vertex to start the search from
+	 * @param destination The goal vertex
+	 * @return A list with the order of vertices on the shortest path,
+	 * 		   null if no path exists in the graph.
+	 */
+	public <V> List<V> search(CompactGraph<V, ?> graph, V source, V destination) {
+		int sourceIndex = graph.indexOf(source);
+		int destinationIndex = graph.indexOf(destination);
+		if (sourceIndex < 0 || destinationIndex < 0) {
+			return null;
+		}
+		Query query = getSharedQuery();
+		if (!query.search(sourceIndex, destinationIndex)) {
+			return null;
+		}
+		int[] path = query.getPath();
+		return graph.toVertices(path, path.length);
+	}
+
+	private Query getSharedQuery() {
+		if (sharedQuery == null) {
+			sharedQuery = new Query();
+		}
+		return sharedQuery;
+	}
+
+	/**
+	 * Reusable bidirectional upward search. The arrays of both sides are
+	 * allocated once and reset lazily per query like {@link DijkstraSearch}.
+	 */
+	public class Query {
+
+		private final Side up;
+		private final Side down;
+		private int query;
+		private double bestDistance;
+		private int meeting;
+
+		private Query() {
+			up = new Side(forward, backward);
+			down = new Side(backward, forward);
+		}
+
+		/**
+		 * Searches for a shortest path from the source to the target.
+		 *
+		 * @param source Index of the vertex to start from
+		 * @param target Index of the goal vertex
+		 * @return True if the target can be reached.
+		 */
+		public boolean search(int source, int target) {
+			if (++query == Integer.MAX_VALUE) {
+				Arrays.fill(up.reached, 0);
+				Arrays.fill(down.reached, 0);
+				query = 1;
+			}
+			up.start(source, query);
+			down.start(target, query);
+			bestDistance = Double.POSITIVE_INFINITY;
+			meeting = -1;
+
+			while (true) {
+				boolean upActive = !up.heap.isEmpty() && up.heap.peekKey() < bestDistance;
+				boolean downActive = !down.heap.isEmpty() && down.heap.peekKey() < bestDistance;
+				if (!upActive && !downActive) {
+					break;
+				}
+				if (upActive && (!downActive || up.heap.peekKey() <= down.heap.peekKey())) {
+					settle(up, down);
+				} else {
+					settle(down, up);
+				}
+			}
+			return meeting >= 0;
+		}
+
+		/**
+		 * Settles the next vertex of one side, checking whether the other side
+		 * has reached it, then relaxes its upward arcs.
+		 */
+		private void settle(Side side, Side other) {
+			int vertex = side.heap.poll();
+			side.settledCount++;
+			double base = side.distance[vertex];
+			if (other.reached[vertex] == query && base + other.distance[vertex] < bestDistance) {
+				bestDistance = base + other.distance[vertex];
+				meeting = vertex;
+			}
+
+			if (isStalled(side, vertex, base)) {
+				return;
+			}
+
+			UpwardGraph graph = side.graph;
+			for (int arc = graph.offsets[vertex]; arc < graph.offsets[vertex + 1]; arc++) {
+				int neighbour = graph.targets[arc];
+				double alternateDistance = base + graph.weights[arc];
+				if (side.reached[neighbour] != query) {
+					side.reached[neighbour] = query;
+					side.distance[neighbour] = alternateDistance;
+					side.parentArc[neighbour] = arc;
+					side.parent[neighbour] = vertex;
+					side.heap.insert(neighbour, alternateDistance);
+				} else if (alternateDistance < side.distance[neighbour] && side.heap.contains(neighbour)) {
+					side.distance[neighbour] = alternateDistance;
+					side.parentArc[neighbour] = arc;
+					side.parent[neighbour] = vertex;
+					side.heap.decreaseKey(neighbour, alternateDistance);
+				}
+			}
+		}
+
+		/**
+		 * Stall on demand, a vertex reached with a longer distance than through
+		 * a higher ranked vertex this side has already seen can't be on a
+		 * shortest path, so its arcs are not relaxed.
+		 */
+		private boolean isStalled(Side side, int vertex, double base) {
+			UpwardGraph opposite = side.opposite;
+			for (int arc = opposite.offsets[vertex]; arc < opposite.offsets[vertex + 1]; arc++) {
+				int higher = opposite.targets[arc];
+				if (side.reached[higher] == query && side.distance[higher] + opposite.weights[arc] < base) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @return The length of the path found by the last query, infinity if
+		 * 		   there is none.
+		 */
+		public double getDistance() {
+			return bestDistance;
+		}
+
+		/**
+		 * @return The number of vertices settled by both sides in the last query.
+		 */
+		public int getSettledCount() {
+			return up.settledCount + down.settledCount;
+		}
+
+		/**
+		 * @return The indices on the path found by the last query from the
+		 * 		   source to the target, with every shortcut unpacked into the
+		 * 		   original arcs, or null if there is none.
+		 */
+		public int[] getPath() {
+			if (meeting < 0) {
+				return null;
+			}
+			// Up arcs from the source to the meeting vertex, collected backwards
+			int[] arcs = new int[16];
+			int upCount = 0;
+			for (int vertex = meeting; up.parent[vertex] != -1; vertex = up.parent[vertex]) {
+				arcs = grow(arcs, upCount);
+				arcs[upCount++] = vertex;
+			}
+
+			PathBuilder path = new PathBuilder();
+			int vertex = meeting;
+			for (int i = 0; i < upCount; i++) {
+				vertex = up.parent[vertex];
+			}
+			path.add(vertex);
+			for (int i = upCount - 1; i >= 0; i--) {
+				int head = arcs[i];
+				unpack(path, up.parent[head], head, forward.middles[up.parentArc[head]]);
+			}
+			// Down arcs from the meeting vertex to the target, stored as arcs of
+			// the backward graph pointing the other way
+			for (vertex = meeting; down.parent[vertex] != -1; vertex = down.parent[vertex]) {
+				unpack(path, vertex, down.parent[vertex], backward.middles[down.parentArc[vertex]]);
+			}
+			return path.toArray();
+		}
+	}
+
+	/**
+	 * Appends the original vertices of the arc tail to head after tail,
+	 * replacing every shortcut by the two arcs it bypasses.
+	 */
+	private void unpack(PathBuilder path, int tail, int head, int middle) {
+		// Pending arcs as tail, head and middle triples, the next one on top
+		int[] stack = new int[48];
+		int top = 0;
+		stack[top++] = tail;
+		stack[top++] = head;
+		stack[top++] = middle;
+		while (top > 0) {
+			middle = stack[--top];
+			head = stack[--top];
+			tail = stack[--top];
+			if (middle < 0) {
+				path.add(head);
+				continue;
+			}
+			// tail-middle is stored as an arc into middle from above, middle-head as
+			// an arc out of middle upwards, since middle was contracted first
+			int first = backward.find(middle, tail);
+			int second = forward.find(middle, head);
+			if (top + 6 > stack.length) {
+				stack = Arrays.copyOf(stack, 2 * stack.length);
+			}
+			stack[top++] = middle;
+			stack[top++] = head;
+			stack[top++] = forward.middles[second];
+			stack[top++] = tail;
+			stack[top++] = middle;
+			stack[top++] = backward.middles[first];
+		}
+	}
+
+	private static int[] grow(int[] array, int size) {
+		return size < array.length ? array : Arrays.copyOf(array, 2 * array.length);
+	}
+
+	/**
+	 * Growable list of vertex indices.
+	 */
+	private static class PathBuilder {
+
+		private int[] vertices = new int[16];
+		private int size;
+
+		void add(int v) {
+			vertices = grow(vertices, size);
+			vertices[size++] = v;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(vertices, size);
+		}
+	}
+
+	/**
+	 * The state of one side of a query.
+	 */
+	private static class Side {
+
+		final UpwardGraph graph;
+		/**
+		 * The arcs of the other direction, used for stalling
+		 */
+		final UpwardGraph opposite;
+		final IndexedDaryHeap heap;
+		final double[] distance;
+		final int[] parent;
+		final int[] parentArc;
+		/**
+		 * The query each vertex was last reached in
+		 */
+		final int[] reached;
+		int settledCount;
+
+		Side(UpwardGraph graph, UpwardGraph opposite) {
+			this.graph = graph;
+			this.opposite = opposite;
+			int n = graph.offsets.length - 1;
+			heap = new IndexedDaryHeap(n);
+			distance = new double[n];
+			parent = new int[n];
+			parentArc = new int[n];
+			reached = new int[n];
+		}
+
+		void start(int root, int query) {
+			heap.clear();
+			settledCount = 0;
+			reached[root] = query;
+			distance[root] = 0.0;
+			parent[root] = -1;
+			heap.insert(root, 0.0);
+		}
+	}
+
+	/**
+	 * Arcs of the hierarchy in CSR form, grouped by their lower ranked end.
+	 * The middle of each arc is the vertex a shortcut bypasses, -1 for
+	 * original arcs.
+	 */
+	private static class UpwardGraph {
+
+		final int[] offsets;
+		final int[] targets;
+		final double[] weights;
+		final int[] middles;
+
+		UpwardGraph(int[] offsets, int[] targets, double[] weights, int[] middles) {
+			this.offsets = offsets;
+			this.targets = targets;
+			this.weights = weights;
+			this.middles = middles;
+		}
+
+		/**
+		 * @return The position of the arc between v and target.
+		 */
+		int find(int v, int target) {
+			for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+				if (targets[arc] == target) {
+					return arc;
+				}
+			}
+			throw new IllegalStateException("Missing arc " + v + "-" + target + " in hierarchy");
+		}
+
+		int shortcutCount() {
+			int count = 0;
+			for (int middle : middles) {
+				if (middle >= 0) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		static UpwardGraph of(ArcList[] lists) {
+			int n = lists.length;
+			int[] offsets = new int[n + 1];
+			for (int v = 0; v < n; v++) {
+				offsets[v + 1] = offsets[v] + lists[v].size;
+			}
+			int[] targets = new int[offsets[n]];
+			double[] weights = new double[offsets[n]];
+			int[] middles = new int[offsets[n]];
+			for (int v = 0; v < n; v++) {
+				ArcList list = lists[v];
+				System.arraycopy(list.targets, 0, targets, offsets[v], list.size);
+				System.arraycopy(list.weights, 0, weights, offsets[v], list.size);
+				System.arraycopy(list.middles, 0, middles, offsets[v], list.size);
+			}
+			return new UpwardGraph(offsets, targets, weights, middles);
+		}
+
+		static UpwardGraph read(DataInputStream in, int vertexCount) throws IOException {
+			int[] offsets = new int[vertexCount + 1];
+			for (int v = 0; v <= vertexCount; v++) {
+				offsets[v] = in.readInt();
+			}
+			int arcCount = offsets[vertexCount];
+			int[] targets = new int[arcCount];
+			double[] weights = new double[arcCount];
+			int[] middles = new int[arcCount];
+			for (int arc = 0; arc < arcCount; arc++) {
+				targets[arc] = in.readInt();
+				weights[arc] = in.readDouble();
+				middles[arc] = in.readInt();
+			}
+			return new UpwardGraph(offsets, targets, weights, middles);
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			for (int offset : offsets) {
+				out.writeInt(offset);
+			}
+			for (int arc = 0; arc < targets.length; arc++) {
+				out.writeInt(targets[arc]);
+				out.writeDouble(weights[arc]);
+				out.writeInt(middles[arc]);
+			}
+		}
+	}
+
+	/**
+	 * Growable list of arcs of one vertex, parallel arcs are merged keeping
+	 * the shortest.
+	 */
+	private static class ArcList {
+
+		int[] targets = new int[4];
+		double[] weights = new double[4];
+		int[] middles = new int[4];
+		int size;
+
+		int indexOf(int target) {
+			for (int i = 0; i < size; i++) {
+				if (targets[i] == target) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * @return True if the list changed.
+		 */
+		boolean put(int target, double weight, int middle) {
+			int i = indexOf(target);
+			if (i >= 0) {
+				if (weight >= weights[i]) {
+					return false;
+				}
+				weights[i] = weight;
+				middles[i] = middle;
+				return true;
+			}
+			if (size == targets.length) {
+				targets = Arrays.copyOf(targets, 2 * size);
+				weights = Arrays.copyOf(weights, 2 * size);
+				middles = Arrays.copyOf(middles, 2 * size);
+			}
+			targets[size] = target;
+			weights[size] = weight;
+			middles[size] = middle;
+			size++;
+			return true;
+		}
+
+		void remove(int target) {
+			int i = indexOf(target);
+			if (i >= 0) {
+				size--;
+				targets[i] = targets[size];
+				weights[i] = weights[size];
+				middles[i] = middles[size];
+			}
+		}
+	}
+
+	/**
+	 * State of the preprocessing: the remaining graph with its shortcuts as
+	 * out and in lists, the contraction queue and the witness search.
+	 */
+	private static class Contraction {
+
+		final int n;
+		final int witnessLimit;
+		final ArcList[] out;
+		final ArcList[] in;
+		final ArcList[] upForward;
+		final ArcList[] upBackward;
+		final int[] removedNeighbours;
+		/**
+		 * Upper bound on the number of hierarchy levels below each vertex
+		 */
+		final int[] level;
+		final int[] rank;
+		final IndexedDaryHeap queue;
+
+		// Witness search state, reset lazily per search
+		final IndexedDaryHeap witnessHeap;
+		final double[] witnessDistance;
+		final int[] witnessReached;
+		int witnessQuery;
+
+		Contraction(IntGraph graph, int witnessLimit) {
+			n = graph.getVertexCount();
+			this.witnessLimit = witnessLimit;
+			out = new ArcList[n];
+			in = new ArcList[n];
+			upForward = new ArcList[n];
+			upBackward = new ArcList[n];
+			for (int v = 0; v < n; v++) {
+				out[v] = new ArcList();
+				in[v] = new ArcList();
+			}
+			for (int v = 0; v < n; v++) {
+				int degree = graph.getOutDegree(v);
+				for (int i = 0; i < degree; i++) {
+					int w = graph.getNeighbour(v, i);
+					double weight = graph.getWeight(v, i);
+					if (weight < 0) {
+						throw new IllegalArgumentException("Negative weight " + weight
+								+ " on arc " + v + "->" + w);
+					}
+					if (w != v) {
+						out[v].put(w, weight, -1);
+						in[w].put(v, weight, -1);
+					}
+				}
+			}
+			removedNeighbours = new int[n];
+			level = new int[n];
+			rank = new int[n];
+			queue = new IndexedDaryHeap(n);
+			witnessHeap = new IndexedDaryHeap(n);
+			witnessDistance = new double[n];
+			witnessReached = new int[n];
+		}
+
+		ContractionHierarchy run() {
+			for (int v = 0; v < n; v++) {
+				queue.insert(v, priority(v));
+			}
+			int nextRank = 0;
+			while (!queue.isEmpty()) {
+				int v = queue.peek();
+				// Lazy update, the priority may have grown since it was computed
+				queue.changeKey(v, priority(v));
+				if (queue.peek() != v) {
+					continue;
+				}
+				queue.poll();
+				contract(v);
+				rank[v] = nextRank++;
+			}
+			return new ContractionHierarchy(rank, UpwardGraph.of(upForward), UpwardGraph.of(upBackward));
+		}
+
+		double priority(int v) {
+			int shortcuts = addShortcuts(v, true);
+			int edgeDifference = shortcuts - out[v].size - in[v].size;
+			return 4 * edgeDifference + 2 * level[v] + removedNeighbours[v];
+		}
+
+		/**
+		 * Removes v from the remaining graph, keeping its arcs as upward arcs
+		 * and adding the shortcuts between its neighbours.
+		 */
+		void contract(int v) {
+			addShortcuts(v, false);
+			upForward[v] = out[v];
+			upBackward[v] = in[v];
+
+			for (int i = 0; i < out[v].size; i++) {
+				in[out[v].targets[i]].remove(v);
+			}
+			for (int i = 0; i < in[v].size; i++) {
+				out[in[v].targets[i]].remove(v);
+			}
+			updateNeighbours(v, out[v]);
+			updateNeighbours(v, in[v]);
+			out[v] = null;
+			in[v] = null;
+		}
+
+		private void updateNeighbours(int v, ArcList arcs) {
+			for (int i = 0; i < arcs.size; i++) {
+				int neighbour = arcs.targets[i];
+				if (queue.contains(neighbour)) {
+					removedNeighbours[neighbour]++;
+					level[neighbour] = Math.max(level[neighbour], level[v] + 1);
+					queue.changeKey(neighbour, priority(neighbour));
+				}
+			}
+		}
+
+		/**
+		 * Finds the shortcuts removing v needs, adding them unless this is a
+		 * simulation for the priority.
+		 *
+		 * @return The number of shortcuts.
+		 */
+		int addShortcuts(int v, boolean simulate) {
+			ArcList incoming = in[v];
+			ArcList outgoing = out[v];
+			int shortcuts = 0;
+			if (outgoing.size == 0) {
+				return 0;
+			}
+			for (int i = 0; i < incoming.size; i++) {
+				int u = incoming.targets[i];
+				double toV = incoming.weights[i];
+				double maxDistance = 0.0;
+				for (int j = 0; j < outgoing.size; j++) {
+					if (outgoing.targets[j] != u) {
+						maxDistance = Math.max(maxDistance, toV + outgoing.weights[j]);
+					}
+				}
+				witnessSearch(u, v, maxDistance, simulate ? Math.min(witnessLimit, SIMULATION_LIMIT) : witnessLimit);
+				for (int j = 0; j < outgoing.size; j++) {
+					int w = outgoing.targets[j];
+					if (w == u) {
+						continue;
+					}
+					double via = toV + outgoing.weights[j];
+					if (witnessReached[w] == witnessQuery && witnessDistance[w] <= via) {
+						continue;
+					}
+					shortcuts++;
+					if (!simulate) {
+						out[u].put(w, via, v);
+						in[w].put(u, via, v);
+					}
+				}
+			}
+			return shortcuts;
+		}
+
+		/**
+		 * Dijkstra search from source in the remaining graph without the
+		 * vertex skipped, up to the given distance or the witness limit.
+		 */
+		private void witnessSearch(int source, int skipped, double maxDistance, int limit) {
+			if (++witnessQuery == Integer.MAX_VALUE) {
+				Arrays.fill(witnessReached, 0);
+				witnessQuery = 1;
+			}
+			witnessHeap.clear();
+			witnessReached[source] = witnessQuery;
+			witnessDistance[source] = 0.0;
+			witnessHeap.insert(source, 0.0);
+			int settled = 0;
+			while (!witnessHeap.isEmpty() && settled < limit) {
+				if (witnessHeap.peekKey() > maxDistance) {
+					break;
+				}
+				int vertex = witnessHeap.poll();
+				settled++;
+				ArcList arcs = out[vertex];
+				double base = witnessDistance[vertex];
+				for (int i = 0; i < arcs.size; i++) {
+					int neighbour = arcs.targets[i];
+					if (neighbour == skipped) {
+						continue;
+					}
+					double alternateDistance = base + arcs.weights[i];
+					if (witnessReached[neighbour] != witnessQuery) {
+						witnessReached[neighbour] = witnessQuery;
+						witnessDistance[neighbour] = alternateDistance;
+						witnessHeap.insert(neighbour, alternateDistance);
+					} else if (alternateDistance < witnessDistance[neighbour] && witnessHeap.contains(neighbour)) {
+						witnessDistance[neighbour] = alternateDistance;
+						witnessHeap.decreaseKey(neighbour, alternateDistance);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import core.components.Edge;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static algorithms.search.SearchFixtures.createRandomGraph;
+import static algorithms.search.SearchFixtures.pathLength;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test class for ContractionHierarchy.
+ *
+ * @author agent
+ */
+public class ContractionHierarchyTest {
+
+    @Test
+    public void distance_randomGraph_sameAsDijkstra() throws IOException {
+        CompactGraph<Integer, Edge> graph = createRandomGraph(300, 1200, 17);
+        ContractionHierarchy built = ContractionHierarchy.build(graph);
+
+        File file = File.createTempFile("hierarchy", ".bin");
+        file.deleteOnExit();
+        built.write(file);
+        ContractionHierarchy hierarchy = ContractionHierarchy.read(file);
+        assertEquals(built.getArcCount(), hierarchy.getArcCount());
+
+        DijkstraSearch dijkstra = new DijkstraSearch(graph);
+        Random random = new Random(4);
+        for (int query = 0; query < 200; query++) {
+            int source = random.nextInt(300);
+            int target = random.nextInt(300);
+            dijkstra.search(source, target);
+            assertEquals(dijkstra.getDistance(target), hierarchy.distance(source, target), 1e-9);
+        }
+    }
+
+    @Test
+    public void search_shortcutsOnPath_unpacksOriginalVertices() {
+        CompactGraph<Integer, Edge> graph = createRandomGraph(200, 900, 8);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        ShortestPath<Integer, Edge> shortestPath = new ShortestPath<>();
+
+        for (int source = 0; source < 20; source++) {
+            int destination = 199 - source;
+            List<Integer> expected = shortestPath.search(graph, source, destination);
+            List<Integer> path = hierarchy.search(graph, source, destination);
+            if (expected == null) {
+                assertNull(path);
+                continue;
+            }
+            assertEquals(Integer.valueOf(source), path.get(0));
+            assertEquals(Integer.valueOf(destination), path.get(path.size() - 1));
+            assertEquals(pathLength(graph, expected), pathLength(graph, path), 1e-9);
+        }
+    }
+}
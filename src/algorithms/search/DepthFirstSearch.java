@@ -1,12 +1,13 @@
 package algorithms.search;
 
+import core.components.CompactGraph;
 import core.components.Edge;
+import core.components.IntGraph;
 import edu.uci.ics.jung.algorithms.layout.KKLayout;
 import edu.uci.ics.jung.algorithms.layout.TreeLayout;
 import edu.uci.ics.jung.graph.DelegateForest;
 import edu.uci.ics.jung.graph.Forest;
 import edu.uci.ics.jung.graph.Graph;
-import edu.uci.ics.jung.graph.util.EdgeType;
 import edu.uci.ics.jung.visualization.VisualizationViewer;
 import edu.uci.ics.jung.visualization.control.CrossoverScalingControl;
 import edu.uci.ics.jung.visualization.control.PluggableGraphMouse;
@@ -28,46 +29,52 @@ public class DepthFirstSearch<V, E extends Edge> implements UninformedSearch<V,
 
 
 	/**
-	 * Non-recursive implementation of a Depth First Search
+	 * Non-recursive implementation of a Depth First Search. Takes a compact
+	 * snapshot of the graph and searches that, see {@link #search(CompactGraph, Object)}.
 	 * @param graph The graph to search
 	 * @param root The root node to search from.
 	 * @return A list with the ordering nodes were visited during
 	 *         the search.
 	 */
 	public List<V> search(Graph<V,E> graph, V root) {
+		return search(CompactGraph.of(graph), root);
+	}
 
-		List<V> nodeOrder = new ArrayList<>();
-		Stack<V> openList = new Stack<>();
-		boolean directed = false;
-
-		if (graph.getDefaultEdgeType() == EdgeType.DIRECTED) {
-			directed = true;
+	/**
+	 * Depth first search over a compact snapshot of the graph.
+	 * @param graph The snapshot to search
+	 * @param root The root node to search from.
+	 * @return A list with the ordering nodes were visited during
+	 *         the search, or null if the root is not in the graph.
+	 */
+	public List<V> search(CompactGraph<V,E> graph, V root) {
+		int rootIndex = graph.indexOf(root);
+		if (rootIndex < 0) {
+			return null;
 		}
-		
-		openList.push(root);
-		
-		while (!openList.isEmpty()) {
-	
-			V currentNode = openList.pop();
-			nodeOrder.add(currentNode);
-			
-			Collection<V> neighbours = null;
-			
-			if (directed) {
-				neighbours = getDirectedNeighbours(graph, currentNode);
-			} else {
-				neighbours = graph.getNeighbors(currentNode);
-			}
-			
-			for (V neighbour : neighbours) {
-				if (nodeOrder.contains(neighbour) || openList.contains(neighbour)){
-					continue;
-				}
-				openList.push(neighbour);
-			}
+		int[] order = searchIndices(graph, rootIndex);
+		return graph.toVertices(order, order.length);
+	}
 
-		}		
-		return nodeOrder;
+	/**
+	 * Index based depth first search, run on a {@link DepthFirstTraversal}.
+	 * Nodes are visited when they are entered, so the result is the preorder
+	 * of the search tree. Works on any {@link IntGraph}.
+	 * @param graph The graph to search
+	 * @param root Index of the node to search from.
+	 * @return The indices of the nodes in the order they were visited.
+	 */
+	public static int[] searchIndices(IntGraph graph, int root) {
+
+		int[] nodeOrder = new int[graph.getVertexCount()];
+		int[] visited = new int[1];
+		new DepthFirstTraversal(graph).traverse(root, new DepthFirstVisitor() {
+			@Override
+			public void discoverVertex(int v, int time) {
+				nodeOrder[visited[0]++] = v;
+			}
+		});
+		return visited[0] == nodeOrder.length ? nodeOrder : Arrays.copyOf(nodeOrder, visited[0]);
 	}
 	
 	/**
@@ -90,58 +97,28 @@ public class DepthFirstSearch<V, E extends Edge> implements UninformedSearch<V,
 	public void visualizeSearch(Graph<V, E> userGraph, V root) {
 
 		Forest<ExtendedVertex<V>, Integer> wrapperGraph = new DelegateForest<>();
-		List<List<V> > layerList = new ArrayList<>();
 
-		boolean directed = false;
-		E edge = userGraph.getEdges().iterator().next();
-		if (userGraph.getEdgeType(edge) == EdgeType.DIRECTED) {
-			directed = true;
+		// Build the tree from the tree edges of a single traversal
+		CompactGraph<V, E> snapshot = CompactGraph.of(userGraph);
+		List<ExtendedVertex<V>> extended = new ArrayList<>(snapshot.getVertexCount());
+		for (int v = 0; v < snapshot.getVertexCount(); v++) {
+			extended.add(null);
 		}
-
-
-		// Overkill but will do for now
-		for (int i = 0; i <= userGraph.getVertexCount(); i++) {
-			layerList.add(new ArrayList<V>());
-		}
-
-		List<ExtendedVertex<V>> nodeOrder = new ArrayList<>();
-		Stack<ExtendedVertex<V>> openList = new Stack<>();
-		ExtendedVertex<V> extendedRoot = new ExtendedVertex<V>(root, 0);
-
-		openList.push(extendedRoot);
-
-		int edgeCtr = 0;
-
-		while (!openList.isEmpty()) {
-
-			ExtendedVertex<V> currentVertex = openList.pop();
-			V currentNode = currentVertex.getVertex();
-			int layer = currentVertex.getLayer();
-
-			layerList.get(layer).add(currentNode);
-
-			nodeOrder.add(currentVertex);
-			Collection<V> neighbours = null;
-
-			if (directed) {
-				neighbours = getDirectedNeighbours(userGraph, currentNode);
-			} else {
-				neighbours = userGraph.getNeighbors(currentNode);
+		int rootIndex = snapshot.indexOf(root);
+		extended.set(rootIndex, new ExtendedVertex<>(root, 0));
+		wrapperGraph.addVertex(extended.get(rootIndex));
+
+		new DepthFirstTraversal(snapshot).traverse(rootIndex, new DepthFirstVisitor() {
+			private int edgeCtr = 0;
+
+			@Override
+			public void treeEdge(int u, int w) {
+				ExtendedVertex<V> parent = extended.get(u);
+				ExtendedVertex<V> child = new ExtendedVertex<>(snapshot.getVertex(w), parent.getLayer() + 1);
+				extended.set(w, child);
+				wrapperGraph.addEdge(edgeCtr++, parent, child);
 			}
-
-			for (V neighbour : neighbours) {
-				ExtendedVertex<V> nextVertex = new ExtendedVertex<>(neighbour, layer+1);
-				if (nodeOrder.contains(nextVertex) || openList.contains(nextVertex)){
-					continue;
-				}
-				if (!wrapperGraph.containsVertex(nextVertex)){
-					wrapperGraph.addVertex(nextVertex);
-				}
-				wrapperGraph.addEdge(new Integer(edgeCtr++), currentVertex, nextVertex);
-				openList.push(nextVertex);
-			}
-
-		}
+		});
 		createGraphViewer(userGraph, wrapperGraph, root);
 	}
 
@@ -0,0 +1,172 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+import core.components.IntGraph;
+
+/**
+ * Iterative depth first traversal of an {@link IntGraph} that reports its
+ * events to a {@link DepthFirstVisitor}. The recursion is replaced by an
+ * explicit call stack of primitive arrays and discovered/finished vertices are
+ * kept in bitsets, all allocated when the traversal is created, so traversals
+ * allocate nothing apart from growing the stack of pending neighbours the
+ * first few times it runs out of space.
+ *
+ * The neighbours of a vertex are read once when it is entered and kept on the
+ * pending stack until they are looked at, so graphs without cheap random
+ * access to their lists, such as a compressed graph, work as well.
+ *
+ * Graphs that are not directed are traversed as two arcs per edge, so the arc
+ * from a vertex back to its parent is reported as a back edge and each other
+ * back edge is seen again as a forward edge from the ancestor's side.
+ *
+ * The state is kept between calls to {@link #traverse(int, DepthFirstVisitor)},
+ * so several roots can be searched as one forest, call {@link #reset()} to
+ * start over on the same graph.
+ *
+ * @author agent
+ */
+public class DepthFirstTraversal {
+
+	private final IntGraph graph;
+	private final long[] discovered;
+	private final long[] finished;
+	private final int[] discovery;
+
+	/**
+	 * Explicit recursion stack, the neighbours of vertex callVertex[d] still to
+	 * look at are pending[callPosition[d]] to pending[callEnd[d] - 1]
+	 */
+	private final int[] callVertex;
+	private final int[] callPosition;
+	private final int[] callEnd;
+	private final int[] neighbours;
+	private int[] pending;
+	private int time;
+
+	/**
+	 * @param graph The graph to traverse
+	 */
+	public DepthFirstTraversal(IntGraph graph) {
+		this.graph = graph;
+		int n = graph.getVertexCount();
+		discovered = new long[(n + 63) >>> 6];
+		finished = new long[discovered.length];
+		discovery = new int[n];
+		callVertex = new int[n];
+		callPosition = new int[n];
+		callEnd = new int[n];
+		neighbours = new int[graph.getMaxDegree()];
+		pending = new int[Math.max(16, 2 * graph.getMaxDegree())];
+	}
+
+	/**
+	 * Forgets every vertex visited so far and restarts the clock.
+	 */
+	public void reset() {
+		Arrays.fill(discovered, 0L);
+		Arrays.fill(finished, 0L);
+		time = 0;
+	}
+
+	public boolean isDiscovered(int v) {
+		return (discovered[v >>> 6] & (1L << v)) != 0;
+	}
+
+	public boolean isFinished(int v) {
+		return (finished[v >>> 6] & (1L << v)) != 0;
+	}
+
+	/**
+	 * @param v A discovered vertex
+	 * @return The time v was discovered at.
+	 */
+	public int getDiscoveryTime(int v) {
+		return discovery[v];
+	}
+
+	/**
+	 * Traverses from every vertex not discovered yet, in index order.
+	 *
+	 * @param visitor Receives the events
+	 * @return False if the visitor stopped the traversal.
+	 */
+	public boolean traverseAll(DepthFirstVisitor visitor) {
+		for (int root = 0; root < discovery.length; root++) {
+			if (!isDiscovered(root) && !traverse(root, visitor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Traverses the vertices reachable from the root that were not discovered
+	 * by an earlier call. Does nothing if the root was already discovered.
+	 *
+	 * @param root Index of the vertex to start from
+	 * @param visitor Receives the events
+	 * @return False if the visitor stopped the traversal.
+	 */
+	public boolean traverse(int root, DepthFirstVisitor visitor) {
+		if (isDiscovered(root)) {
+			return true;
+		}
+		int depth = 0;
+		enter(root, 0, 0, visitor);
+		if (visitor.isDone()) {
+			return false;
+		}
+
+		while (depth >= 0) {
+			int v = callVertex[depth];
+			int position = callPosition[depth];
+
+			if (position < callEnd[depth]) {
+				callPosition[depth]++;
+				int w = pending[position];
+				if (!isDiscovered(w)) {
+					visitor.treeEdge(v, w);
+					depth++;
+					enter(w, depth, callEnd[depth - 1], visitor);
+				} else if (!isFinished(w)) {
+					visitor.backEdge(v, w);
+				} else if (discovery[v] < discovery[w]) {
+					visitor.forwardEdge(v, w);
+				} else {
+					visitor.crossEdge(v, w);
+				}
+				if (visitor.isDone()) {
+					return false;
+				}
+				continue;
+			}
+
+			finished[v >>> 6] |= 1L << v;
+			visitor.finishVertex(v, time++);
+			if (visitor.isDone()) {
+				return false;
+			}
+			depth--;
+		}
+		return true;
+	}
+
+	/**
+	 * Discovers v and pushes it on the call stack with its neighbours on top
+	 * of the pending stack.
+	 */
+	private void enter(int v, int depth, int pendingTop, DepthFirstVisitor visitor) {
+		discovered[v >>> 6] |= 1L << v;
+		discovery[v] = time;
+		int degree = graph.getNeighbours(v, neighbours);
+		if (pendingTop + degree > pending.length) {
+			pending = Arrays.copyOf(pending, Math.max(2 * pending.length, pendingTop + degree));
+		}
+		System.arraycopy(neighbours, 0, pending, pendingTop, degree);
+		callVertex[depth] = v;
+		callPosition[depth] = pendingTop;
+		callEnd[depth] = pendingTop + degree;
+		visitor.discoverVertex(v, time++);
+	}
+}
@@ -0,0 +1,81 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for DepthFirstTraversal.
+ *
+ * @author agent
+ */
+public class DepthFirstTraversalTest {
+
+    @Test
+    public void traverse_smallDirectedGraph_classifiesEveryArc() {
+        // 0->1->2->0 is a cycle, 0->2 skips ahead after 2 is finished, 3->1 crosses over
+        CompactGraph<Integer, String> graph = CompactGraph.of(createGraph(4,
+                new int[][]{{0, 1}, {1, 2}, {2, 0}, {0, 2}, {3, 1}}));
+        List<String> events = new ArrayList<>();
+        new DepthFirstTraversal(graph).traverseAll(new DepthFirstVisitor() {
+            @Override
+            public void treeEdge(int u, int w) {
+                events.add("tree " + graph.getVertex(u) + graph.getVertex(w));
+            }
+
+            @Override
+            public void backEdge(int u, int w) {
+                events.add("back " + graph.getVertex(u) + graph.getVertex(w));
+            }
+
+            @Override
+            public void forwardEdge(int u, int w) {
+                events.add("forward " + graph.getVertex(u) + graph.getVertex(w));
+            }
+
+            @Override
+            public void crossEdge(int u, int w) {
+                events.add("cross " + graph.getVertex(u) + graph.getVertex(w));
+            }
+        });
+
+        assertEquals(5, events.size());
+        assertTrue(events.contains("tree 01"));
+        assertTrue(events.contains("tree 12"));
+        assertTrue(events.contains("back 20"));
+        assertTrue(events.contains("forward 02"));
+        assertTrue(events.contains("cross 31"));
+    }
+
+    @Test
+    public void traverseAll_visitorDone_stopsEarly() {
+        CompactGraph<Integer, String> graph = CompactGraph.of(createGraph(3,
+                new int[][]{{0, 1}, {1, 2}, {2, 1}}));
+        DepthFirstTraversal traversal = new DepthFirstTraversal(graph);
+        assertFalse(traversal.traverseAll(new DepthFirstVisitor() {
+            @Override
+            public boolean isDone() {
+                return true;
+            }
+        }));
+    }
+
+    private Graph<Integer, String> createGraph(int n, int[][] arcs) {
+        Graph<Integer, String> graph = new DirectedSparseGraph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addVertex(i);
+        }
+        for (int[] arc : arcs) {
+            graph.addEdge(arc[0] + "-" + arc[1], arc[0], arc[1]);
+        }
+        return graph;
+    }
+}
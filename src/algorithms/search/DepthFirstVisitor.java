@@ -0,0 +1,59 @@
+package algorithms.search;
+
+/**
+ * Callbacks of a {@link DepthFirstTraversal}. Every method has an empty
+ * default so visitors only implement the events they need. Times come from a
+ * single clock that ticks once when a vertex is discovered and once when it
+ * is finished, so the interval of a descendant lies inside the interval of
+ * each of its ancestors.
+ *
+ * Each arc u to w leaving a vertex is reported exactly once, as a tree edge
+ * when w is discovered through it, as a back edge when w is an ancestor of u
+ * still being searched, as a forward edge when w is a finished descendant of
+ * u and as a cross edge otherwise.
+ *
+ * @author agent
+ */
+public interface DepthFirstVisitor {
+
+	/**
+	 * @param v The vertex entered
+	 * @param time The discovery time of v
+	 */
+	default void discoverVertex(int v, int time) {
+	}
+
+	/**
+	 * Called once all the arcs leaving v were looked at.
+	 *
+	 * @param v The vertex left
+	 * @param time The finish time of v
+	 */
+	default void finishVertex(int v, int time) {
+	}
+
+	/**
+	 * Called just before w is discovered from u.
+	 */
+	default void treeEdge(int u, int w) {
+	}
+
+	default void backEdge(int u, int w) {
+	}
+
+	default void forwardEdge(int u, int w) {
+	}
+
+	default void crossEdge(int u, int w) {
+	}
+
+	/**
+	 * Checked after every event, returning true stops the traversal, for
+	 * example once a cycle was found.
+	 *
+	 * @return True if the traversal should stop.
+	 */
+	default boolean isDone() {
+		return false;
+	}
+}
@@ -0,0 +1,182 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+import core.components.IndexedDaryHeap;
+import core.components.IntGraph;
+
+/**
+ * Reusable Dijkstra engine for an {@link IntGraph}. The open vertices are
+ * kept in an {@link IndexedDaryHeap} whose keys are lowered in place when a
+ * shorter path is found, so the heap never holds more than one entry per
+ * vertex. Distances and parents live in primitive arrays allocated once per
+ * engine and are initialised lazily: every vertex remembers the query it was
+ * last reached in and counts as unreached in any other, so a query only pays
+ * for the vertices it touches and a search allocates nothing.
+ *
+ * The results of the last query stay readable until the next one. An engine
+ * is not safe to use from several threads, create one per thread instead.
+ *
+ * @author agent
+ */
+public class DijkstraSearch {
+
+	private final IntGraph graph;
+	private final IndexedDaryHeap heap;
+	private final double[] distance;
+	private final int[] parent;
+	/**
+	 * The query each vertex was last reached in
+	 */
+	private final int[] reached;
+	private int query;
+	private int settledCount;
+
+	/**
+	 * @param graph The graph to search, arc weights must not be negative
+	 */
+	public DijkstraSearch(IntGraph graph) {
+		this.graph = graph;
+		int n = graph.getVertexCount();
+		heap = new IndexedDaryHeap(n);
+		distance = new double[n];
+		parent = new int[n];
+		reached = new int[n];
+	}
+
+	public IntGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Computes the shortest path tree of every vertex reachable from the source.
+	 *
+	 * @param source Index of the vertex to start from
+	 */
+	public void search(int source) {
+		search(source, -1);
+	}
+
+	/**
+	 * Searches from the source until the target is settled, leaving the
+	 * vertices further away than the target unsettled.
+	 *
+	 * @param source Index of the vertex to start from
+	 * @param target Index of the goal vertex, or -1 to settle every reachable vertex
+	 * @return True if the target was reached, always true without a target.
+	 * @throws IllegalArgumentException If the search runs into a negative weight.
+	 */
+	public boolean search(int source, int target) {
+		startQuery();
+		heap.clear();
+		settledCount = 0;
+		reach(source, 0.0, -1);
+
+		while (!heap.isEmpty()) {
+			int vertex = heap.poll();
+			settledCount++;
+			if (vertex == target) {
+				return true;
+			}
+
+			double base = distance[vertex];
+			int degree = graph.getOutDegree(vertex);
+			for (int i = 0; i < degree; i++) {
+				int neighbour = graph.getNeighbour(vertex, i);
+				double weight = graph.getWeight(vertex, i);
+				if (weight < 0) {
+					throw new IllegalArgumentException("Negative weight " + weight
+							+ " on arc " + vertex + "->" + neighbour);
+				}
+				double alternateDistance = base + weight;
+				if (reached[neighbour] != query) {
+					reach(neighbour, alternateDistance, vertex);
+				} else if (alternateDistance < distance[neighbour] && heap.contains(neighbour)) {
+					distance[neighbour] = alternateDistance;
+					parent[neighbour] = vertex;
+					heap.decreaseKey(neighbour, alternateDistance);
+				}
+			}
+		}
+		return target < 0;
+	}
+
+	/**
+	 * Moves to the next query number, clearing the marks when it wraps around.
+	 */
+	private void startQuery() {
+		if (++query == Integer.MAX_VALUE) {
+			Arrays.fill(reached, 0);
+			query = 1;
+		}
+	}
+
+	private void reach(int vertex, double pathDistance, int from) {
+		reached[vertex] = query;
+		distance[vertex] = pathDistance;
+		parent[vertex] = from;
+		heap.insert(vertex, pathDistance);
+	}
+
+	/**
+	 * @return The number of vertices settled by the last query.
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return True if the last query reached v, its distance is final once
+	 * 		   it is also settled.
+	 */
+	public boolean isReached(int v) {
+		return reached[v] == query;
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return True if the shortest distance to v is known.
+	 */
+	public boolean isSettled(int v) {
+		return reached[v] == query && !heap.contains(v);
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return The distance from the source of the last query to v, an upper
+	 * 		   bound if v is not settled, infinity if v was not reached.
+	 */
+	public double getDistance(int v) {
+		return reached[v] == query ? distance[v] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return The vertex before v on the path from the source, -1 for the
+	 * 		   source and unreached vertices.
+	 */
+	public int getParent(int v) {
+		return reached[v] == query ? parent[v] : -1;
+	}
+
+	/**
+	 * @param v A vertex index
+	 * @return The indices on the path from the source to v, or null if v was
+	 * 		   not reached.
+	 */
+	public int[] getPath(int v) {
+		if (reached[v] != query) {
+			return null;
+		}
+		int length = 1;
+		for (int ancestor = parent[v]; ancestor != -1; ancestor = parent[ancestor]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int vertex = v; vertex != -1; vertex = parent[vertex]) {
+			path[--length] = vertex;
+		}
+		return path;
+	}
+}
@@ -0,0 +1,130 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import core.components.DoubleWeightedEdge;
+import core.components.Edge;
+import core.components.IndexedDaryHeap;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static algorithms.search.SearchFixtures.arcWeight;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for DijkstraSearch and IndexedDaryHeap.
+ *
+ * @author agent
+ */
+public class DijkstraSearchTest {
+
+    @Test
+    public void heap_decreaseKeys_pollsInKeyOrder() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(100);
+        Random random = new Random(1);
+        double[] keys = new double[100];
+        for (int i = 0; i < 100; i++) {
+            keys[i] = random.nextDouble();
+            heap.insert(i, keys[i]);
+        }
+        for (int i = 0; i < 100; i += 3) {
+            keys[i] /= 2;
+            heap.decreaseKey(i, keys[i]);
+        }
+        assertFalse(heap.insertOrDecrease(5, 2.0));
+
+        double previous = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            double key = heap.peekKey();
+            int item = heap.poll();
+            assertEquals(keys[item], key, 0.0);
+            assertTrue(previous <= key);
+            assertFalse(heap.contains(item));
+            previous = key;
+        }
+    }
+
+    @Test
+    public void search_nullWeightEdges_countAsOne() {
+        Graph<Integer, Edge> graph = new DirectedSparseGraph<>();
+        graph.addEdge(new Edge("a", null), 0, 1);
+        graph.addEdge(new Edge("b", null), 1, 2);
+        graph.addEdge(new DoubleWeightedEdge("c", 1.5), 0, 2);
+        CompactGraph<Integer, Edge> snapshot = CompactGraph.of(graph);
+        DijkstraSearch dijkstra = new DijkstraSearch(snapshot);
+
+        assertTrue(dijkstra.search(snapshot.indexOf(0), snapshot.indexOf(2)));
+        assertEquals(1.5, dijkstra.getDistance(snapshot.indexOf(2)), 0.0);
+        assertEquals(1.0, arcWeight(snapshot, snapshot.indexOf(0), snapshot.indexOf(1)), 0.0);
+    }
+
+    @Test
+    public void search_randomGraph_sameDistancesAsBellmanFord() {
+        Graph<Integer, Edge> graph = new DirectedSparseGraph<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 300; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 1500; i++) {
+            graph.addEdge(new DoubleWeightedEdge("e" + i, random.nextInt(100)),
+                    random.nextInt(300), random.nextInt(300));
+        }
+        CompactGraph<Integer, Edge> snapshot = CompactGraph.of(graph);
+        DijkstraSearch dijkstra = new DijkstraSearch(snapshot);
+
+        // Reuse the engine for several queries to check the lazy reset
+        for (int source = 0; source < 5; source++) {
+            double[] expected = bellmanFord(snapshot, source);
+            dijkstra.search(source);
+            for (int v = 0; v < snapshot.getVertexCount(); v++) {
+                assertEquals(expected[v], dijkstra.getDistance(v), 0.0);
+                if (v != source && dijkstra.isReached(v)) {
+                    int p = dijkstra.getParent(v);
+                    assertTrue(dijkstra.isSettled(v));
+                    assertEquals(expected[v], expected[p] + arcWeight(snapshot, p, v), 0.0);
+                }
+            }
+
+            int target = (source * 41 + 7) % 300;
+            assertEquals(!Double.isInfinite(expected[target]), dijkstra.search(source, target));
+            assertEquals(expected[target], dijkstra.getDistance(target), 0.0);
+        }
+    }
+
+    @Test
+    public void searchIndices_unreachableDestination_returnsNull() {
+        Graph<Integer, Edge> graph = new DirectedSparseGraph<>();
+        for (int i = 0; i < 3; i++) {
+            graph.addVertex(i);
+        }
+        graph.addEdge(new DoubleWeightedEdge("a", 2.5), 0, 1);
+        graph.addEdge(new DoubleWeightedEdge("b", 1.0), 2, 1);
+        CompactGraph<Integer, Edge> snapshot = CompactGraph.of(graph);
+
+        assertNull(ShortestPath.searchIndices(snapshot, snapshot.indexOf(0), snapshot.indexOf(2)));
+        assertArrayEquals(new int[]{snapshot.indexOf(0), snapshot.indexOf(1)},
+                ShortestPath.searchIndices(snapshot, snapshot.indexOf(0), snapshot.indexOf(1)));
+    }
+
+    private double[] bellmanFord(CompactGraph<Integer, Edge> graph, int source) {
+        double[] distance = new double[graph.getVertexCount()];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[source] = 0.0;
+        for (int round = 1; round < distance.length; round++) {
+            for (int u = 0; u < distance.length; u++) {
+                for (int i = 0; i < graph.getOutDegree(u); i++) {
+                    int v = graph.getNeighbour(u, i);
+                    distance[v] = Math.min(distance[v], distance[u] + graph.getWeight(u, i));
+                }
+            }
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,196 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+import core.components.IntGraph;
+
+/**
+ * Direction optimizing breadth first search (Beamer, Asanovic and Patterson,
+ * "Direction-Optimizing Breadth-First Search"). Each level is expanded either
+ * top-down, where the frontier vertices look at all their out-neighbours, or
+ * bottom-up, where every unvisited vertex looks through its in-neighbours for
+ * one in the frontier and stops at the first it finds. Bottom-up steps pay off
+ * once the frontier holds a large part of the graph, which on small-world
+ * graphs happens after a couple of levels.
+ *
+ * The search switches to bottom-up when the arcs leaving the frontier exceed
+ * 1/alpha of the arcs leaving unvisited vertices while the frontier grows, and
+ * back to top-down when the frontier shrinks below 1/beta of the vertices.
+ * Visited vertices and the bottom-up frontier are kept in bitsets, the
+ * top-down frontier is a slice of the visit order.
+ *
+ * Within a level, top-down steps visit vertices in discovery order and
+ * bottom-up steps in index order, so the visit order is a valid breadth first
+ * order but can differ from a plain queue based search.
+ *
+ * @author agent
+ */
+public class DirectionOptimizingSearch {
+
+	public static final int DEFAULT_ALPHA = 14;
+	public static final int DEFAULT_BETA = 24;
+
+	private final int alpha;
+	private final int beta;
+
+	public DirectionOptimizingSearch() {
+		this(DEFAULT_ALPHA, DEFAULT_BETA);
+	}
+
+	/**
+	 * @param alpha Switch to bottom-up once the frontier has more than
+	 * 		  1/alpha of the unexplored arcs
+	 * @param beta Switch back to top-down once the frontier has fewer than
+	 * 		  1/beta of the vertices
+	 */
+	public DirectionOptimizingSearch(int alpha, int beta) {
+		if (alpha <= 0 || beta <= 0) {
+			throw new IllegalArgumentException("alpha and beta must be positive");
+		}
+		this.alpha = alpha;
+		this.beta = beta;
+	}
+
+	/**
+	 * Searches a graph from the root. Graphs that are not directed are their
+	 * own reverse, directed graphs are searched top-down only, use
+	 * {@link #search(IntGraph, IntGraph, int)} with the reversed graph to
+	 * allow bottom-up steps on them.
+	 *
+	 * @param graph The graph to search
+	 * @param root Index of the vertex to start from
+	 * @return The search tree.
+	 */
+	public BreadthFirstTree search(IntGraph graph, int root) {
+		return search(graph, graph.isDirected() ? null : graph, root);
+	}
+
+	/**
+	 * Searches a graph from the root.
+	 *
+	 * @param graph The graph to search
+	 * @param reverse The graph with all arcs reversed, for example from
+	 * 		  {@link core.components.CompactGraph#reverse()}, or null to only
+	 * 		  use top-down steps. Bottom-up steps stop at the first in-neighbour
+	 * 		  found in the frontier. On a reverse graph without
+	 * 		  {@link IntGraph#hasRandomAccess() random access} each list is
+	 * 		  decoded once first.
+	 * @param root Index of the vertex to start from
+	 * @return The search tree.
+	 */
+	public BreadthFirstTree search(IntGraph graph, IntGraph reverse, int root) {
+		int n = graph.getVertexCount();
+		int[] order = new int[n];
+		int[] depth = new int[n];
+		int[] parent = new int[n];
+		Arrays.fill(depth, -1);
+		Arrays.fill(parent, -1);
+		long[] visited = new long[(n + 63) >>> 6];
+		long[] frontier = reverse == null ? null : new long[visited.length];
+		int[] neighbours = new int[graph.getMaxDegree()];
+		int[] inNeighbours = reverse == null || reverse.hasRandomAccess()
+				? null
+				: new int[reverse.getMaxDegree()];
+
+		order[0] = root;
+		depth[root] = 0;
+		visited[root >>> 6] |= 1L << root;
+
+		int levelStart = 0;
+		int levelEnd = 1;
+		int level = 0;
+		int previousSize = 0;
+		long frontierArcs = graph.getOutDegree(root);
+		long unexploredArcs = graph.getArcCount() - frontierArcs;
+		boolean bottomUp = false;
+
+		while (levelStart < levelEnd) {
+			int frontierSize = levelEnd - levelStart;
+			if (reverse != null) {
+				if (!bottomUp) {
+					bottomUp = frontierSize > previousSize && frontierArcs > unexploredArcs / alpha;
+				} else {
+					bottomUp = frontierSize >= previousSize || frontierSize >= n / beta;
+				}
+			}
+
+			int tail = levelEnd;
+			long nextArcs = 0;
+			if (bottomUp) {
+				Arrays.fill(frontier, 0L);
+				for (int i = levelStart; i < levelEnd; i++) {
+					frontier[order[i] >>> 6] |= 1L << order[i];
+				}
+				for (int word = 0; word < visited.length; word++) {
+					long unvisited = ~visited[word];
+					while (unvisited != 0) {
+						int v = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+						unvisited &= unvisited - 1;
+						if (v >= n) {
+							break;
+						}
+						int u = findParent(reverse, v, frontier, inNeighbours);
+						if (u >= 0) {
+							visited[word] |= 1L << v;
+							depth[v] = level + 1;
+							parent[v] = u;
+							order[tail++] = v;
+							nextArcs += graph.getOutDegree(v);
+						}
+					}
+				}
+			} else {
+				for (int i = levelStart; i < levelEnd; i++) {
+					int v = order[i];
+					int degree = graph.getNeighbours(v, neighbours);
+					for (int j = 0; j < degree; j++) {
+						int w = neighbours[j];
+						if ((visited[w >>> 6] & (1L << w)) == 0) {
+							visited[w >>> 6] |= 1L << w;
+							depth[w] = level + 1;
+							parent[w] = v;
+							order[tail++] = w;
+							nextArcs += graph.getOutDegree(w);
+						}
+					}
+				}
+			}
+
+			unexploredArcs -= nextArcs;
+			frontierArcs = nextArcs;
+			previousSize = frontierSize;
+			levelStart = levelEnd;
+			levelEnd = tail;
+			level++;
+		}
+
+		return new BreadthFirstTree(root, order, levelEnd, depth, parent);
+	}
+
+	/**
+	 * Looks through the in-neighbours of v for one in the frontier, reading
+	 * them one at a time or, given a buffer, decoding the list into it first.
+	 *
+	 * @return The first in-neighbour in the frontier, -1 if there is none.
+	 */
+	private static int findParent(IntGraph reverse, int v, long[] frontier, int[] buffer) {
+		if (buffer == null) {
+			int degree = reverse.getOutDegree(v);
+			for (int i = 0; i < degree; i++) {
+				int u = reverse.getNeighbour(v, i);
+				if ((frontier[u >>> 6] & (1L << u)) != 0) {
+					return u;
+				}
+			}
+			return -1;
+		}
+		int degree = reverse.getNeighbours(v, buffer);
+		for (int i = 0; i < degree; i++) {
+			int u = buffer[i];
+			if ((frontier[u >>> 6] & (1L << u)) != 0) {
+				return u;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,94 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import core.components.CompressedGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.UndirectedSparseGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for DirectionOptimizingSearch.
+ *
+ * @author agent
+ */
+public class DirectionOptimizingSearchTest {
+
+    @Test
+    public void search_starGraph_bottomUpFindsEveryLeaf() {
+        // The frontier after the root holds every arc, forcing a bottom-up step
+        Graph<Integer, String> graph = new UndirectedSparseGraph<>();
+        for (int i = 0; i <= 100; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i <= 100; i++) {
+            graph.addEdge("0-" + i, 0, i);
+            if (i > 1) {
+                graph.addEdge((i - 1) + "-" + i, i - 1, i);
+            }
+        }
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(graph);
+        BreadthFirstTree tree = new DirectionOptimizingSearch().search(snapshot, snapshot.indexOf(0));
+
+        assertEquals(101, tree.getVisitedCount());
+        for (int i = 1; i <= 100; i++) {
+            int v = snapshot.indexOf(i);
+            assertEquals(1, tree.getDepth(v));
+            assertEquals(snapshot.indexOf(0), tree.getParent(v));
+        }
+    }
+
+    @Test
+    public void search_compressedUndirectedGraph_sameTreeAsCompact() {
+        // Bottom-up steps on a compressed graph decode each list once instead of per neighbour
+        Graph<Integer, String> graph = new UndirectedSparseGraph<>();
+        for (int i = 0; i < 400; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 400; i++) {
+            graph.addEdge(i + "-" + (i * 7 + 3) % 400, i, (i * 7 + 3) % 400);
+            graph.addEdge(i + "-" + (i * 13 + 5) % 400, i, (i * 13 + 5) % 400);
+            graph.addEdge(i + "-" + (i + 1) % 400, i, (i + 1) % 400);
+        }
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(graph);
+        CompressedGraph compressed = CompressedGraph.of(snapshot);
+        int root = snapshot.indexOf(0);
+
+        BreadthFirstTree expected = new DirectionOptimizingSearch(1, 1000).search(snapshot, root);
+        BreadthFirstTree tree = new DirectionOptimizingSearch(1, 1000).search(compressed, root);
+
+        assertEquals(expected.getVisitedCount(), tree.getVisitedCount());
+        assertArrayEquals(expected.getDepths(), tree.getDepths());
+    }
+
+    @Test
+    public void search_directedGraphWithReverse_sameDepthsAsTopDown() {
+        Graph<Integer, String> graph = new DirectedSparseGraph<>();
+        for (int i = 0; i < 300; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 300; i++) {
+            graph.addEdge(i + "-" + (i + 1) % 300, i, (i + 1) % 300);
+            graph.addEdge(i + "-" + (i * 7 + 3) % 300, i, (i * 7 + 3) % 300);
+            graph.addEdge(i + "-" + (i * 13 + 5) % 300, i, (i * 13 + 5) % 300);
+        }
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(graph);
+        int root = snapshot.indexOf(0);
+
+        BreadthFirstTree topDown = new DirectionOptimizingSearch().search(snapshot, null, root);
+        BreadthFirstTree optimized = new DirectionOptimizingSearch(1, 1000).search(snapshot, snapshot.reverse(), root);
+
+        assertEquals(topDown.getVisitedCount(), optimized.getVisitedCount());
+        assertArrayEquals(topDown.getDepths(), optimized.getDepths());
+        for (int v : optimized.getOrder()) {
+            int[] path = optimized.getPath(v);
+            assertEquals(root, path[0]);
+            for (int i = 1; i < path.length; i++) {
+                assertEquals(path[i - 1], optimized.getParent(path[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package algorithms.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+import core.components.Heuristic;
+import core.components.State;
+import core.components.WeightedEdge;
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * Hash distributed A* (HDA*), a parallel A* where every state is owned by one
+ * of a number of workers, chosen by the hash of its key. Each worker keeps its
+ * own {@link OpenList} and {@link SearchNodeTable} and expands its own states
+ * best first. The successors it generates are sent to their owners through
+ * lock-free mailboxes, in batches per owner, and the owner evaluates the
+ * heuristic, detects duplicates and queues them. No lock is taken per state
+ * and the heuristic is spread over the workers, which pays off most when it
+ * is expensive.
+ *
+ * The workers don't expand states in the global order of f, so the first
+ * goal expanded need not be optimal. Its cost becomes the incumbent, after
+ * which no worker expands or sends a state that can't lead to a cheaper
+ * solution, and cheaper goals found later replace it. The search ends when
+ * every worker is out of such states and no batch is in flight, at which
+ * point nothing cheaper than the incumbent is left anywhere and, with an
+ * admissible heuristic, it is optimal. This is detected with a single counter
+ * of the workers that are busy plus the batches sent and not yet taken in,
+ * see {@link Worker#run()}.
+ *
+ * Every search runs its workers on threads of its own, the calling thread
+ * being one of them, as the workers wait on each other and can't share
+ * threads. The successor function, heuristic and goal test are called from
+ * all of them at once and must be thread safe. An engine is reusable but
+ * runs one search at a time.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ */
+public class HashDistributedAStar<V extends State> {
+
+	/**
+	 * The most states sent to one worker in a batch
+	 */
+	public static final int BATCH_SIZE = 64;
+	/**
+	 * Expansions between sending the batches that aren't full yet, so states
+	 * don't wait long to be seen by their owners
+	 */
+	public static final int FLUSH_INTERVAL = 16;
+
+	private final SuccessorFunction<V> successorFunction;
+	private final Heuristic<V> heuristic;
+	private final StateEncoder<? super V> encoder;
+	private final List<Worker<V>> workers = new ArrayList<>();
+
+	/**
+	 * Workers busy plus batches in flight, the search is over once it is 0
+	 */
+	private final AtomicLong work = new AtomicLong();
+	private volatile boolean done;
+	private volatile double incumbent;
+	private int goalWorker;
+	private int goalNode;
+	private Throwable failure;
+	private Predicate<? super V> goalTest;
+
+	/**
+	 * Searches the vertices of a graph, the cost of a step is the weight of
+	 * the edge. The graph is only read and may be shared by the workers.
+	 *
+	 * @param graph The graph to search
+	 * @param heuristic An admissible estimate of the cost to the goal
+	 * @param workerCount The number of workers
+	 */
+	public <E extends WeightedEdge> HashDistributedAStar(Graph<V, E> graph, Heuristic<V> heuristic, int workerCount) {
+		this(SuccessorFunction.of(graph), heuristic, workerCount);
+	}
+
+	/**
+	 * Searches a state space generated on demand, assigning states to
+	 * workers by their hash code.
+	 *
+	 * @param successorFunction Generates the successors of a state
+	 * @param heuristic An admissible estimate of the cost to the goal
+	 * @param workerCount The number of workers
+	 */
+	public HashDistributedAStar(SuccessorFunction<V> successorFunction, Heuristic<V> heuristic, int workerCount) {
+		this(successorFunction, heuristic, workerCount, State::hashCode);
+	}
+
+	/**
+	 * Searches a state space generated on demand, assigning states to
+	 * workers by their keys, for instance to spread states whose hash codes
+	 * are poor, or to use a {@link ZobristEncoder} that is cheap to update.
+	 * Equal states must have equal keys.
+	 *
+	 * @param successorFunction Generates the successors of a state
+	 * @param heuristic An admissible estimate of the cost to the goal
+	 * @param workerCount The number of workers
+	 * @param encoder Gives the key of a state
+	 */
+	public HashDistributedAStar(SuccessorFunction<V> successorFunction, Heuristic<V> heuristic, int workerCount,
+			StateEncoder<? super V> encoder) {
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("Need at least one worker, not " + workerCount);
+		}
+		this.successorFunction = successorFunction;
+		this.heuristic = heuristic;
+		this.encoder = encoder;
+		for (int i = 0; i < workerCount; i++) {
+			workers.add(new Worker<>(this, i, workerCount));
+		}
+	}
+
+	public int getWorkerCount() {
+		return workers.size();
+	}
+
+	public List<V> search(V start, V goal) {
+		return search(start, goal::equals);
+	}
+
+	/**
+	 * Searches for a cheapest path to any state accepted by the goal test.
+	 *
+	 * @param start The state to search from
+	 * @param goalTest Accepts the goal states, called from every worker
+	 * @return The states on the path from the start to the goal, or null if
+	 * 		   no goal can be reached.
+	 * @throws IllegalArgumentException If a step has a negative cost.
+	 */
+	public List<V> search(V start, Predicate<? super V> goalTest) {
+		this.goalTest = goalTest;
+		done = false;
+		incumbent = Double.POSITIVE_INFINITY;
+		goalWorker = -1;
+		goalNode = -1;
+		failure = null;
+		for (Worker<V> worker : workers) {
+			worker.clear();
+		}
+		workers.get(owner(start)).receive(start, 0.0, -1, -1);
+		work.set(workers.size());
+
+		Thread[] threads = new Thread[workers.size()];
+		threads[0] = Thread.currentThread();
+		for (int i = 1; i < threads.length; i++) {
+			threads[i] = new Thread(workers.get(i), "hda-worker-" + i);
+			threads[i].setDaemon(true);
+		}
+		for (int i = 0; i < threads.length; i++) {
+			workers.get(i).thread = threads[i];
+		}
+		for (int i = 1; i < threads.length; i++) {
+			threads[i].start();
+		}
+		workers.get(0).run();
+		boolean interrupted = false;
+		for (int i = 1; i < threads.length; i++) {
+			while (true) {
+				try {
+					threads[i].join();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		this.goalTest = null;
+
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		return getPath();
+	}
+
+	/**
+	 * @return The worker that owns a state, taken from the high bits of its
+	 * 		   key times the golden ratio.
+	 */
+	private int owner(V state) {
+		long mixed = (encoder.encode(state) * 0x9E3779B97F4A7C15L) >>> 32;
+		return (int) ((mixed * workers.size()) >>> 32);
+	}
+
+	private synchronized void offerSolution(int worker, int node, double cost) {
+		if (cost < incumbent) {
+			incumbent = cost;
+			goalWorker = worker;
+			goalNode = node;
+		}
+	}
+
+	private synchronized void fail(Throwable e) {
+		if (failure == null) {
+			failure = e;
+		}
+		finish();
+	}
+
+	private void finish() {
+		done = true;
+		for (Worker<V> worker : workers) {
+			LockSupport.unpark(worker.thread);
+		}
+	}
+
+	private List<V> getPath() {
+		if (goalWorker < 0) {
+			return null;
+		}
+		List<V> path = new ArrayList<>();
+		int worker = goalWorker;
+		int node = goalNode;
+		while (node != -1) {
+			Worker<V> owner = workers.get(worker);
+			path.add(owner.nodes.getState(node));
+			worker = owner.parentWorker[node];
+			node = owner.nodes.getParent(node);
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * @return The cost of the path found by the last search, infinity if
+	 * 		   there is none.
+	 */
+	public double getPathCost() {
+		return goalWorker >= 0 ? incumbent : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return The number of expansions of each worker in the last search.
+	 */
+	public long[] getExpandedCounts() {
+		long[] counts = new long[workers.size()];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = workers.get(i).expandedCount;
+		}
+		return counts;
+	}
+
+	/**
+	 * @return The number of expansions of all workers in the last search.
+	 */
+	public long getExpandedCount() {
+		long count = 0;
+		for (Worker<V> worker : workers) {
+			count += worker.expandedCount;
+		}
+		return count;
+	}
+
+	/**
+	 * @return The number of states sent from one worker to another in the
+	 * 		   last search.
+	 */
+	public long getSentCount() {
+		long count = 0;
+		for (Worker<V> worker : workers) {
+			count += worker.sentCount;
+		}
+		return count;
+	}
+
+	/**
+	 * A state on its way to its owner.
+	 */
+	private static class Message<V> {
+
+		final V state;
+		final double cost;
+		final int fromWorker;
+		final int fromNode;
+
+		Message(V state, double cost, int fromWorker, int fromNode) {
+			this.state = state;
+			this.cost = cost;
+			this.fromWorker = fromWorker;
+			this.fromNode = fromNode;
+		}
+	}
+
+	/**
+	 * One worker, with the open list and records of the states it owns. The
+	 * parent of a state can belong to another worker, so its worker is kept
+	 * beside the node number stored in the table.
+	 */
+	private static class Worker<V extends State> implements Runnable, SuccessorFunction.Successors<V> {
+
+		final HashDistributedAStar<V> search;
+		final int id;
+		final OpenList open = new OpenList();
+		final SearchNodeTable<V> nodes = new SearchNodeTable<>();
+		final Queue<List<Message<V>>> mailbox = new ConcurrentLinkedQueue<>();
+		/**
+		 * The states waiting to be sent, per owner
+		 */
+		final List<List<Message<V>>> outboxes = new ArrayList<>();
+		int[] parentWorker = new int[64];
+		Thread thread;
+		int current;
+		long expandedCount;
+		long sentCount;
+
+		Worker(HashDistributedAStar<V> search, int id, int workerCount) {
+			this.search = search;
+			this.id = id;
+			for (int i = 0; i < workerCount; i++) {
+				outboxes.add(new ArrayList<>(BATCH_SIZE));
+			}
+		}
+
+		void clear() {
+			open.clear();
+			nodes.clear();
+			mailbox.clear();
+			for (List<Message<V>> outbox : outboxes) {
+				outbox.clear();
+			}
+			expandedCount = 0;
+			sentCount = 0;
+		}
+
+		/**
+		 * Expands states until the search is over. The worker counts as busy
+		 * in the shared counter while it runs, and every batch counts from
+		 * being sent until its owner has taken it in, so the counter only
+		 * reaches 0 when nobody is busy and nothing is in flight. A worker out
+		 * of useful states sends what it holds, stops counting itself and
+		 * waits; it only counts itself again for a batch in its mailbox, which
+		 * is still counted, so once the counter is 0 it stays 0.
+		 */
+		@Override
+		public void run() {
+			// An interrupted thread never parks, so the flag is held back until
+			// the worker is done instead of letting it spin on the mailbox
+			boolean interrupted = false;
+			try {
+				while (!search.done) {
+					List<Message<V>> batch;
+					while ((batch = mailbox.poll()) != null) {
+						for (Message<V> message : batch) {
+							receive(message.state, message.cost, message.fromWorker, message.fromNode);
+						}
+						search.work.decrementAndGet();
+					}
+
+					if (!open.isEmpty() && open.peekPrimary() < search.incumbent) {
+						expand(open.poll());
+						if (expandedCount % FLUSH_INTERVAL == 0) {
+							flush();
+						}
+						continue;
+					}
+
+					flush();
+					if (search.work.decrementAndGet() == 0) {
+						search.finish();
+						break;
+					}
+					while (!search.done && mailbox.isEmpty()) {
+						LockSupport.park(this);
+						if (Thread.interrupted()) {
+							interrupted = true;
+						}
+					}
+					if (!search.done) {
+						search.work.incrementAndGet();
+					}
+				}
+			} catch (Throwable e) {
+				search.fail(e);
+			} finally {
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		private void expand(int node) {
+			nodes.setClosed(node, true);
+			expandedCount++;
+			V state = nodes.getState(node);
+			if (search.goalTest.test(state)) {
+				// Anything beyond the goal costs at least as much
+				search.offerSolution(id, node, nodes.getG(node));
+				return;
+			}
+			current = node;
+			search.successorFunction.expand(state, this);
+		}
+
+		@Override
+		public void add(V successor, double cost) {
+			if (cost < 0) {
+				throw new IllegalArgumentException("Negative cost " + cost + " from " + nodes.getState(current));
+			}
+			double alternateCost = nodes.getG(current) + cost;
+			if (alternateCost >= search.incumbent) {
+				return;
+			}
+			int owner = search.owner(successor);
+			if (owner == id) {
+				receive(successor, alternateCost, id, current);
+				return;
+			}
+			List<Message<V>> outbox = outboxes.get(owner);
+			outbox.add(new Message<>(successor, alternateCost, id, current));
+			if (outbox.size() == BATCH_SIZE) {
+				send(owner);
+			}
+		}
+
+		/**
+		 * Takes in a state reached with some cost, queueing it unless it was
+		 * reached at least as cheaply before.
+		 */
+		void receive(V state, double cost, int fromWorker, int fromNode) {
+			int node = nodes.indexOf(state);
+			if (node < 0) {
+				node = nodes.add(state, cost, search.heuristic.evaluate(state), fromNode);
+				if (node == parentWorker.length) {
+					parentWorker = Arrays.copyOf(parentWorker, 2 * node);
+				}
+			} else if (cost >= nodes.getG(node)) {
+				return;
+			} else {
+				nodes.update(node, cost, fromNode);
+				// Only an inconsistent heuristic lets a closed state be reached more cheaply
+				nodes.setClosed(node, false);
+			}
+			parentWorker[node] = fromWorker;
+			int estimate = nodes.getH(node);
+			if (estimate != Integer.MAX_VALUE && cost + estimate < search.incumbent) {
+				open.insertOrDecrease(node, cost + estimate, estimate);
+			}
+		}
+
+		private void flush() {
+			for (int owner = 0; owner < outboxes.size(); owner++) {
+				if (!outboxes.get(owner).isEmpty()) {
+					send(owner);
+				}
+			}
+		}
+
+		private void send(int owner) {
+			List<Message<V>> outbox = outboxes.get(owner);
+			sentCount += outbox.size();
+			outboxes.set(owner, new ArrayList<>(BATCH_SIZE));
+			// Counted before it can be seen, while this worker still counts as busy
+			search.work.incrementAndGet();
+			Worker<V> target = search.workers.get(owner);
+			target.mailbox.add(outbox);
+			LockSupport.unpark(target.thread);
+		}
+	}
+}
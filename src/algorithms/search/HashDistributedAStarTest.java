@@ -0,0 +1,147 @@
+package algorithms.search;
+
+import algorithms.search.SearchFixtures.Cell;
+import algorithms.search.SearchFixtures.Node;
+import algorithms.search.SearchFixtures.Road;
+import core.components.Heuristic;
+import core.components.WeightedEdge;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for HashDistributedAStar.
+ *
+ * @author agent
+ */
+public class HashDistributedAStarTest {
+
+    private static final int SIZE = 40;
+
+    @Test
+    public void search_gridWithWalls_sameCostAsAStar() {
+        boolean[][] wall = new boolean[SIZE][SIZE];
+        Random random = new Random(3);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                wall[x][y] = random.nextInt(4) == 0;
+            }
+        }
+        wall[0][0] = false;
+        wall[SIZE - 1][SIZE - 1] = false;
+        SuccessorFunction<Cell> moves = (cell, successors) -> {
+            int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+            for (int[] step : steps) {
+                int x = cell.x + step[0];
+                int y = cell.y + step[1];
+                if (x >= 0 && y >= 0 && x < SIZE && y < SIZE && !wall[x][y]) {
+                    // Steps up cost more, so costs aren't all equal
+                    successors.add(new Cell(x, y), step[1] > 0 ? 3 : 1);
+                }
+            }
+        };
+        Heuristic<Cell> manhattan = cell -> (SIZE - 1 - cell.x) + 3 * (SIZE - 1 - cell.y);
+        Cell start = new Cell(0, 0);
+        Cell goal = new Cell(SIZE - 1, SIZE - 1);
+
+        AStarSearch<Cell, WeightedEdge> aStar = new AStarSearch<>(moves, manhattan);
+        List<Cell> expected = aStar.search(start, goal);
+        for (int workerCount : new int[] {1, 4}) {
+            HashDistributedAStar<Cell> search = new HashDistributedAStar<>(moves, manhattan, workerCount);
+            List<Cell> path = search.search(start, goal);
+            if (expected == null) {
+                assertNull(path);
+                continue;
+            }
+            assertEquals(aStar.getPathCost(), search.getPathCost(), 0.0);
+            assertEquals(start, path.get(0));
+            assertEquals(goal, path.get(path.size() - 1));
+            double cost = 0;
+            for (int i = 1; i < path.size(); i++) {
+                Cell a = path.get(i - 1);
+                Cell b = path.get(i);
+                assertEquals(1, Math.abs(a.x - b.x) + Math.abs(a.y - b.y));
+                cost += b.y > a.y ? 3 : 1;
+            }
+            assertEquals(search.getPathCost(), cost, 0.0);
+
+            long[] counts = search.getExpandedCounts();
+            assertEquals(workerCount, counts.length);
+            long total = 0;
+            for (long count : counts) {
+                assertTrue(count > 0);
+                total += count;
+            }
+            assertEquals(search.getExpandedCount(), total);
+        }
+    }
+
+    @Test
+    public void search_inconsistentHeuristic_staysOptimal() {
+        Graph<Node, Road> graph = new DirectedSparseGraph<>();
+        Node s = new Node("S", 0);
+        Node a = new Node("A", 5);
+        Node b = new Node("B", 0);
+        Node g = new Node("G", 0);
+        graph.addEdge(new Road(1), s, a);
+        graph.addEdge(new Road(3), s, b);
+        graph.addEdge(new Road(1), a, b);
+        graph.addEdge(new Road(5), b, g);
+
+        HashDistributedAStar<Node> search = new HashDistributedAStar<>(graph, node -> node.estimate, 3);
+        for (int i = 0; i < 20; i++) {
+            List<Node> path = search.search(s, g);
+            assertEquals(7.0, search.getPathCost(), 0.0);
+            assertEquals(g, path.get(path.size() - 1));
+        }
+    }
+
+    @Test
+    public void search_unreachableGoal_returnsNull() {
+        Graph<Node, Road> graph = new DirectedSparseGraph<>();
+        Node[] nodes = new Node[50];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i, 0);
+        }
+        for (int i = 0; i + 2 < nodes.length; i++) {
+            graph.addEdge(new Road(1), nodes[i], nodes[i + 1]);
+            graph.addEdge(new Road(2), nodes[i + 1], nodes[i]);
+        }
+        graph.addEdge(new Road(1), nodes[nodes.length - 1], nodes[0]);
+
+        HashDistributedAStar<Node> search = new HashDistributedAStar<>(graph, node -> 0, 4);
+        assertNull(search.search(nodes[0], nodes[nodes.length - 1]));
+        assertEquals(Double.POSITIVE_INFINITY, search.getPathCost(), 0.0);
+        assertEquals(nodes.length - 1, search.getExpandedCount());
+    }
+
+    @Test
+    public void search_callerInterrupted_finishesAndKeepsFlag() {
+        Graph<Node, Road> graph = new DirectedSparseGraph<>();
+        Node[] nodes = new Node[200];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node("n" + i, 0);
+        }
+        for (int i = 0; i + 1 < nodes.length; i++) {
+            graph.addEdge(new Road(1), nodes[i], nodes[i + 1]);
+        }
+
+        HashDistributedAStar<Node> search = new HashDistributedAStar<>(graph, node -> 0, 4);
+        Thread.currentThread().interrupt();
+        List<Node> path;
+        try {
+            path = search.search(nodes[0], nodes[nodes.length - 1]);
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        assertEquals(nodes.length, path.size());
+        assertEquals(nodes.length - 1, search.getPathCost(), 0.0);
+    }
+}
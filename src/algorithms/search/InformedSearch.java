@@ -0,0 +1,106 @@
+package algorithms.search;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Paint;
+import java.awt.Toolkit;
+import java.util.List;
+
+import javax.swing.JFrame;
+
+import org.apache.commons.collections15.Transformer;
+
+import core.components.State;
+import edu.uci.ics.jung.algorithms.layout.KKLayout;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.visualization.VisualizationViewer;
+import edu.uci.ics.jung.visualization.decorators.ToStringLabeller;
+
+/**
+ * Generic interface for searches guided by a heuristic over {@link State}s.
+ *
+ * @author agent
+ *
+ * @param <V> - State type
+ * @param <E> - Edge type
+ */
+public interface InformedSearch<V extends State, E> {
+
+	/**
+	 * Main search method.
+	 *
+	 * @param start - The state to search from.
+	 * @param goal - The state to search for.
+	 * @return - The states on the path from the start to the goal, or null
+	 * 			if the goal can't be reached.
+	 */
+	List<V> search(V start, V goal);
+
+	/**
+	 * @return The records the last search kept about the states it reached.
+	 */
+	SearchNodeTable<V> getNodes();
+
+	/**
+	 * Displays the graph after a search, colouring the states by what the
+	 * last search recorded about them.
+	 *
+	 * @param graph - The graph that was searched.
+	 */
+	default void visualizeSearch(Graph<V, E> graph) {
+		Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+
+		KKLayout<V, E> layout = new KKLayout<>(graph);
+		layout.setSize(screenSize);
+		layout.setLengthFactor(1.5);
+
+		VisualizationViewer<V, E> viewer = new VisualizationViewer<>(layout);
+		viewer.setPreferredSize(screenSize);
+		viewer.getRenderContext().setVertexFillPaintTransformer(new VertexPaint<V>(getNodes()));
+		viewer.getRenderContext().setVertexLabelTransformer(new ToStringLabeller<V>());
+
+		JFrame frame = new JFrame("Informed Search");
+		frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+		frame.getContentPane().add(viewer);
+		frame.pack();
+		frame.setVisible(true);
+	}
+
+	/**
+	 * Colours the start and goal, the states on the path and the states
+	 * that were expanded.
+	 *
+	 * @author agent
+	 *
+	 * @param <T> The state type
+	 */
+	class VertexPaint<T extends State> implements Transformer<T, Paint> {
+
+		private final SearchNodeTable<T> nodes;
+
+		public VertexPaint(SearchNodeTable<T> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		public Paint transform(T state) {
+			int node = nodes.indexOf(state);
+			if (node < 0) {
+				return Color.WHITE;
+			}
+			if (node == 0) {
+				return Color.GREEN;
+			}
+			if (node == nodes.getGoal()) {
+				return Color.RED;
+			}
+			if (nodes.isOnPath(node)) {
+				return Color.YELLOW;
+			}
+			if (nodes.isClosed(node)) {
+				return Color.BLUE;
+			}
+			return Color.GRAY;
+		}
+	}
+}
@@ -0,0 +1,304 @@
+package algorithms.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import core.components.Heuristic;
+import core.components.State;
+
+/**
+ * Iterative deepening A* (IDA*). Runs depth first searches that cut off every
+ * path whose f = g + h exceeds a threshold, starting from the heuristic value
+ * of the start and raising the threshold each time to the smallest f that was
+ * cut off. With an admissible heuristic the first goal found is optimal. Only
+ * the current path and the successors of the states on it are kept, so the
+ * memory used grows with the depth of the solution instead of the number of
+ * states, at the price of expanding states again in every iteration.
+ *
+ * Without further help the search only avoids stepping straight back to the
+ * parent of a state, and closing a cycle of zero cost steps, which would
+ * never pass the threshold. A {@link TranspositionTable} can be set to also prune
+ * states already reached at least as cheaply in the same iteration, which
+ * removes most of the repeated work in spaces with many transpositions while
+ * keeping the memory bounded by the table.
+ *
+ * The depth first search keeps its own stack, deep solutions don't
+ * overflow the call stack.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ */
+public class IterativeDeepeningAStar<V extends State> {
+
+	private final SuccessorFunction<V> successorFunction;
+	private final Heuristic<V> heuristic;
+	private TranspositionTable transpositions;
+	private StateEncoder<? super V> encoder;
+	private double costLimit = Double.POSITIVE_INFINITY;
+
+	/**
+	 * The states on the current path and their costs, by depth
+	 */
+	private Object[] path = new Object[64];
+	private double[] g = new double[64];
+	/**
+	 * The successors of the state at each depth and the next one to try
+	 */
+	private final List<Level<V>> levels = new ArrayList<>();
+	private int depth;
+
+	private List<V> solution;
+	private double solutionCost;
+	private int iterationCount;
+	private long expandedCount;
+	private long prunedCount;
+
+	/**
+	 * @param successorFunction Generates the successors of a state
+	 * @param heuristic An admissible estimate of the cost to the goal
+	 */
+	public IterativeDeepeningAStar(SuccessorFunction<V> successorFunction, Heuristic<V> heuristic) {
+		this.successorFunction = successorFunction;
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * Prunes states reached before in the same iteration through their keys
+	 * in a transposition table, when the table knows a path to them that is
+	 * at least as cheap. The table is cleared at the start of every
+	 * iteration.
+	 *
+	 * @param table The table to use, null to stop using one
+	 * @param encoder Gives the key of a state
+	 */
+	public void setTranspositionTable(TranspositionTable table, StateEncoder<? super V> encoder) {
+		if (table != null && encoder == null) {
+			throw new IllegalArgumentException("A transposition table needs an encoder");
+		}
+		this.transpositions = table;
+		this.encoder = encoder;
+	}
+
+	/**
+	 * Gives up once the threshold would pass a cost, so a search for a goal
+	 * that can't be reached ends in a state space with cycles.
+	 *
+	 * @param costLimit The largest path cost to search, infinity for no limit
+	 */
+	public void setCostLimit(double costLimit) {
+		this.costLimit = costLimit;
+	}
+
+	/**
+	 * @param start The state to search from
+	 * @param goal The state to search for
+	 * @return The states on a cheapest path from the start to the goal, or
+	 * 		   null if the goal can't be reached.
+	 */
+	public List<V> search(V start, V goal) {
+		return search(start, goal::equals);
+	}
+
+	/**
+	 * Searches for a cheapest path to any state accepted by the goal test.
+	 * If no goal can be reached the search only ends when every path has
+	 * been cut off by its heuristic value or the cost limit.
+	 *
+	 * @param start The state to search from
+	 * @param goalTest Accepts the goal states
+	 * @return The states on the path from the start to the goal, or null if
+	 * 		   no goal can be reached.
+	 * @throws IllegalArgumentException If a step has a negative cost.
+	 */
+	public List<V> search(V start, Predicate<? super V> goalTest) {
+		solution = null;
+		solutionCost = Double.POSITIVE_INFINITY;
+		iterationCount = 0;
+		expandedCount = 0;
+		prunedCount = 0;
+
+		int estimate = heuristic.evaluate(start);
+		if (estimate == Integer.MAX_VALUE) {
+			return null;
+		}
+		double threshold = estimate;
+		while (threshold <= costLimit && threshold != Double.POSITIVE_INFINITY) {
+			iterationCount++;
+			threshold = iterate(start, threshold, goalTest);
+			if (solution != null) {
+				break;
+			}
+		}
+		Arrays.fill(path, null);
+		return solution;
+	}
+
+	/**
+	 * One depth first search bounded by the threshold.
+	 *
+	 * @return The smallest f that exceeded the threshold, infinity if none
+	 * 		   did or a goal was found.
+	 */
+	private double iterate(V start, double threshold, Predicate<? super V> goalTest) {
+		if (transpositions != null) {
+			transpositions.clear();
+			transpositions.offer(encoder.encode(start), 0.0);
+		}
+		double next = Double.POSITIVE_INFINITY;
+		depth = 0;
+		path[0] = start;
+		g[0] = 0.0;
+		if (goalTest.test(start)) {
+			found();
+			return next;
+		}
+		expand();
+
+		while (depth >= 0) {
+			Level<V> level = levels.get(depth);
+			if (level.next == level.size) {
+				depth--;
+				continue;
+			}
+			int i = level.next++;
+			V successor = level.states.get(i);
+			if (depth > 0 && successor.equals(path[depth - 1])) {
+				continue;
+			}
+			double cost = g[depth] + level.costs[i];
+			if (closesZeroCostCycle(successor, cost)) {
+				continue;
+			}
+			int estimate = heuristic.evaluate(successor);
+			if (estimate == Integer.MAX_VALUE) {
+				continue;
+			}
+			double f = cost + estimate;
+			if (f > threshold) {
+				next = Math.min(next, f);
+				continue;
+			}
+			if (transpositions != null && !transpositions.offer(encoder.encode(successor), cost)) {
+				prunedCount++;
+				continue;
+			}
+
+			push(successor, cost);
+			if (goalTest.test(successor)) {
+				found();
+				return Double.POSITIVE_INFINITY;
+			}
+			expand();
+		}
+		return next;
+	}
+
+	/**
+	 * A cycle of zero cost steps never passes the threshold and would grow the
+	 * path without end. Only states on the path reached with the same cost
+	 * can close one, which with positive step costs is at most the top one.
+	 */
+	private boolean closesZeroCostCycle(V successor, double cost) {
+		for (int i = depth; i >= 0 && g[i] == cost; i--) {
+			if (successor.equals(path[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void push(V state, double cost) {
+		depth++;
+		if (depth == path.length) {
+			path = Arrays.copyOf(path, 2 * depth);
+			g = Arrays.copyOf(g, 2 * depth);
+		}
+		path[depth] = state;
+		g[depth] = cost;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void expand() {
+		if (depth == levels.size()) {
+			levels.add(new Level<>());
+		}
+		Level<V> level = levels.get(depth);
+		level.clear();
+		expandedCount++;
+		successorFunction.expand((V) path[depth], level);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void found() {
+		solution = new ArrayList<>(depth + 1);
+		for (int i = 0; i <= depth; i++) {
+			solution.add((V) path[i]);
+		}
+		solutionCost = g[depth];
+		for (Level<V> level : levels) {
+			level.clear();
+		}
+	}
+
+	/**
+	 * @return The cost of the path found by the last search, infinity if
+	 * 		   there is none.
+	 */
+	public double getPathCost() {
+		return solutionCost;
+	}
+
+	/**
+	 * @return The number of thresholds tried by the last search.
+	 */
+	public int getIterationCount() {
+		return iterationCount;
+	}
+
+	/**
+	 * @return The number of expansions over all iterations of the last search.
+	 */
+	public long getExpandedCount() {
+		return expandedCount;
+	}
+
+	/**
+	 * @return The number of states the transposition table pruned in the
+	 * 		   last search.
+	 */
+	public long getPrunedCount() {
+		return prunedCount;
+	}
+
+	/**
+	 * The successors of one state on the path.
+	 */
+	private static class Level<V> implements SuccessorFunction.Successors<V> {
+
+		final List<V> states = new ArrayList<>();
+		double[] costs = new double[8];
+		int size;
+		int next;
+
+		@Override
+		public void add(V successor, double cost) {
+			if (cost < 0) {
+				throw new IllegalArgumentException("Negative cost " + cost + " to " + successor);
+			}
+			if (size == costs.length) {
+				costs = Arrays.copyOf(costs, 2 * size);
+			}
+			states.add(successor);
+			costs[size++] = cost;
+		}
+
+		void clear() {
+			states.clear();
+			size = 0;
+			next = 0;
+		}
+	}
+}
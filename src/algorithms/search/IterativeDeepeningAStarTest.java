@@ -0,0 +1,136 @@
+package algorithms.search;
+
+import algorithms.search.SearchFixtures.Cell;
+import core.components.Heuristic;
+import core.components.WeightedEdge;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for IterativeDeepeningAStar and MemoryBoundedAStar.
+ *
+ * @author agent
+ */
+public class IterativeDeepeningAStarTest {
+
+    private static final int SIZE = 9;
+
+    private final boolean[][] wall = new boolean[SIZE][SIZE];
+    private final SuccessorFunction<Cell> moves = (cell, successors) -> {
+        int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int[] step : steps) {
+            int x = cell.x + step[0];
+            int y = cell.y + step[1];
+            if (x >= 0 && y >= 0 && x < SIZE && y < SIZE && !wall[x][y]) {
+                // Steps to the right cost more, so costs aren't all equal
+                successors.add(new Cell(x, y), step[0] > 0 ? 2 : 1);
+            }
+        }
+    };
+    private final Heuristic<Cell> manhattan = cell -> (SIZE - 1 - cell.x) + Math.abs(SIZE - 1 - cell.y);
+
+    public IterativeDeepeningAStarTest() {
+        Random random = new Random(4);
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                wall[x][y] = random.nextInt(5) == 0;
+            }
+        }
+        wall[0][0] = false;
+        wall[SIZE - 1][SIZE - 1] = false;
+    }
+
+    @Test
+    public void search_gridWithWalls_sameCostAsAStar() {
+        Cell start = new Cell(0, 0);
+        Cell goal = new Cell(SIZE - 1, SIZE - 1);
+        AStarSearch<Cell, WeightedEdge> aStar = new AStarSearch<>(moves, manhattan);
+        List<Cell> expected = aStar.search(start, goal);
+
+        IterativeDeepeningAStar<Cell> plain = new IterativeDeepeningAStar<>(moves, manhattan);
+        IterativeDeepeningAStar<Cell> pruned = new IterativeDeepeningAStar<>(moves, manhattan);
+        pruned.setTranspositionTable(new TranspositionTable(1 << 10, TranspositionTable.Replacement.ALWAYS),
+                cell -> cell.x * SIZE + cell.y);
+        List<Cell> path = plain.search(start, goal);
+        List<Cell> prunedPath = pruned.search(start, goal);
+
+        if (expected == null) {
+            assertNull(path);
+            assertNull(prunedPath);
+            return;
+        }
+        assertEquals(aStar.getPathCost(), plain.getPathCost(), 0.0);
+        assertEquals(aStar.getPathCost(), pruned.getPathCost(), 0.0);
+        assertEquals(goal, path.get(path.size() - 1));
+        assertTrue(plain.getIterationCount() > 1);
+        assertTrue(pruned.getPrunedCount() > 0);
+        assertTrue(pruned.getExpandedCount() < plain.getExpandedCount());
+
+        // Walled in, only the cost limit ends the search
+        wall[SIZE - 2][SIZE - 1] = true;
+        wall[SIZE - 1][SIZE - 2] = true;
+        pruned.setCostLimit(40);
+        assertNull(pruned.search(start, goal));
+        assertEquals(Double.POSITIVE_INFINITY, pruned.getPathCost(), 0.0);
+    }
+
+    @Test
+    public void search_zeroCostCycle_terminates() {
+        // 1 -> 2 -> 3 -> 1 costs nothing, only 3 leads on to the goal 4
+        SuccessorFunction<Cell> ring = (cell, successors) -> {
+            switch (cell.x) {
+                case 0:
+                    successors.add(new Cell(1, 0), 1);
+                    break;
+                case 1:
+                    successors.add(new Cell(2, 0), 0);
+                    break;
+                case 2:
+                    successors.add(new Cell(3, 0), 0);
+                    break;
+                case 3:
+                    successors.add(new Cell(1, 0), 0);
+                    successors.add(new Cell(4, 0), 2);
+                    break;
+                default:
+                    break;
+            }
+        };
+        IterativeDeepeningAStar<Cell> search = new IterativeDeepeningAStar<>(ring, cell -> 0);
+        List<Cell> path = search.search(new Cell(0, 0), new Cell(4, 0));
+        assertEquals(5, path.size());
+        assertEquals(3.0, search.getPathCost(), 0.0);
+
+        assertNull(search.search(new Cell(0, 0), new Cell(5, 0)));
+    }
+
+    @Test
+    public void search_smallNodeBudget_forgetsLeavesAndStaysOptimal() {
+        Cell start = new Cell(0, 0);
+        Cell goal = new Cell(SIZE - 1, SIZE - 1);
+        AStarSearch<Cell, WeightedEdge> aStar = new AStarSearch<>(moves, manhattan);
+        List<Cell> expected = aStar.search(start, goal);
+
+        MemoryBoundedAStar<Cell> bounded = new MemoryBoundedAStar<>(moves, manhattan, 60);
+        List<Cell> path = bounded.search(start, goal);
+        if (expected == null) {
+            assertNull(path);
+            return;
+        }
+        assertEquals(aStar.getPathCost(), bounded.getPathCost(), 0.0);
+        assertEquals(start, path.get(0));
+        assertEquals(goal, path.get(path.size() - 1));
+        assertTrue(bounded.getForgottenCount() > 0);
+
+        // Too small to hold any path to the goal
+        MemoryBoundedAStar<Cell> tiny = new MemoryBoundedAStar<>(moves, manhattan, 5);
+        assertNull(tiny.search(start, goal));
+        assertEquals(Double.POSITIVE_INFINITY, tiny.getPathCost(), 0.0);
+    }
+}
@@ -0,0 +1,146 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+import core.components.IndexedDaryHeap;
+import core.components.IntGraph;
+
+/**
+ * Point to point A* search using the {@link Landmarks} lower bounds as the
+ * heuristic (ALT). The bounds are consistent, so every vertex is settled at
+ * most once with its final distance, as in {@link DijkstraSearch}, but the
+ * vertices are taken in order of their distance plus the bound to the
+ * target, which steers the search towards the target instead of growing a
+ * ball around the source. Vertices whose bound is infinite can't reach the
+ * target and are never queued.
+ *
+ * Like {@link DijkstraSearch} the engine is reusable and resets its arrays
+ * lazily per query.
+ *
+ * @author agent
+ */
+public class LandmarkSearch {
+
+	private final IntGraph graph;
+	private final Landmarks landmarks;
+	private final IndexedDaryHeap heap;
+	private final double[] distance;
+	private final int[] parent;
+	/**
+	 * The query each vertex was last reached in
+	 */
+	private final int[] reached;
+	private int query;
+	private int settledCount;
+	private int target = -1;
+
+	/**
+	 * @param graph The graph to search, arc weights must not be negative
+	 * @param landmarks Landmarks computed for the same graph
+	 */
+	public LandmarkSearch(IntGraph graph, Landmarks landmarks) {
+		if (landmarks.getVertexCount() != graph.getVertexCount()) {
+			throw new IllegalArgumentException("The landmarks were computed for a different graph");
+		}
+		this.graph = graph;
+		this.landmarks = landmarks;
+		int n = graph.getVertexCount();
+		heap = new IndexedDaryHeap(n);
+		distance = new double[n];
+		parent = new int[n];
+		reached = new int[n];
+	}
+
+	/**
+	 * Searches for a shortest path from the source to the target.
+	 *
+	 * @param source Index of the vertex to start from
+	 * @param target Index of the goal vertex
+	 * @return True if the target can be reached.
+	 * @throws IllegalArgumentException If the search runs into a negative weight.
+	 */
+	public boolean search(int source, int target) {
+		if (++query == Integer.MAX_VALUE) {
+			Arrays.fill(reached, 0);
+			query = 1;
+		}
+		this.target = target;
+		heap.clear();
+		settledCount = 0;
+		reach(source, 0.0, -1);
+
+		while (!heap.isEmpty()) {
+			int vertex = heap.poll();
+			settledCount++;
+			if (vertex == target) {
+				return true;
+			}
+
+			double base = distance[vertex];
+			int degree = graph.getOutDegree(vertex);
+			for (int i = 0; i < degree; i++) {
+				int neighbour = graph.getNeighbour(vertex, i);
+				double weight = graph.getWeight(vertex, i);
+				if (weight < 0) {
+					throw new IllegalArgumentException("Negative weight " + weight
+							+ " on arc " + vertex + "->" + neighbour);
+				}
+				double alternateDistance = base + weight;
+				if (reached[neighbour] != query) {
+					reach(neighbour, alternateDistance, vertex);
+				} else if (alternateDistance < distance[neighbour] && heap.contains(neighbour)) {
+					// The bound of a vertex doesn't change, so the key drops by the same amount
+					double bound = heap.getKey(neighbour) - distance[neighbour];
+					distance[neighbour] = alternateDistance;
+					parent[neighbour] = vertex;
+					heap.decreaseKey(neighbour, alternateDistance + bound);
+				}
+			}
+		}
+		return false;
+	}
+
+	private void reach(int vertex, double pathDistance, int from) {
+		reached[vertex] = query;
+		distance[vertex] = pathDistance;
+		parent[vertex] = from;
+		double bound = landmarks.lowerBound(vertex, target);
+		if (bound != Double.POSITIVE_INFINITY) {
+			heap.insert(vertex, pathDistance + bound);
+		}
+	}
+
+	/**
+	 * @return The number of vertices settled by the last query.
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * @return The length of the path found by the last query, infinity if
+	 * 		   there is none.
+	 */
+	public double getDistance() {
+		return target >= 0 && reached[target] == query ? distance[target] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return The indices on the path found by the last query from the
+	 * 		   source to the target, or null if there is none.
+	 */
+	public int[] getPath() {
+		if (target < 0 || reached[target] != query) {
+			return null;
+		}
+		int length = 1;
+		for (int ancestor = parent[target]; ancestor != -1; ancestor = parent[ancestor]) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int vertex = target; vertex != -1; vertex = parent[vertex]) {
+			path[--length] = vertex;
+		}
+		return path;
+	}
+}
@@ -0,0 +1,392 @@
+package algorithms.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import core.components.IntGraph;
+
+/**
+ * Landmark distance tables for goal directed search (Goldberg and Harrelson,
+ * "Computing the Shortest Path: A* Search Meets Graph Theory"). For a few
+ * landmark vertices L the distances d(L, v) and d(v, L) to and from every
+ * vertex are precomputed. By the triangle inequality
+ *
+ *   d(v, t) >= d(L, t) - d(L, v)   and   d(v, t) >= d(v, L) - d(t, L)
+ *
+ * so the largest of these over all landmarks is a lower bound on the distance
+ * from v to t, which {@link LandmarkSearch} uses as the A* heuristic. Bounds
+ * are tight for vertices that lie behind v as seen from a landmark, so good
+ * landmarks sit at the edge of the graph, spread out in different directions.
+ *
+ * Two ways of picking them are supported:
+ *
+ * - FARTHEST adds the vertex whose distance to the closest landmark chosen so
+ *   far is largest, starting from the vertex farthest from vertex 0.
+ * - AVOID (Goldberg and Werneck) grows a shortest path tree from a random
+ *   vertex, weighs every vertex by how much the current landmarks
+ *   underestimate its distance from the root, and follows the heaviest
+ *   subtree without a landmark down to a leaf. It places new landmarks where
+ *   the current ones give the worst bounds.
+ *
+ * Once the landmarks are picked the 2k tables are computed in parallel, one
+ * Dijkstra search each. Tables can be written to a file and read back for
+ * the same graph.
+ *
+ * @author agent
+ */
+public class Landmarks {
+
+	public static final int MAGIC = 0x4A474C4D;
+	public static final int VERSION = 1;
+
+	public enum Strategy {
+		FARTHEST, AVOID
+	}
+
+	private final int[] landmarks;
+	/**
+	 * fromLandmark[i][v] is the distance from landmark i to v
+	 */
+	private final double[][] fromLandmark;
+	/**
+	 * toLandmark[i][v] is the distance from v to landmark i
+	 */
+	private final double[][] toLandmark;
+
+	private Landmarks(int[] landmarks, double[][] fromLandmark, double[][] toLandmark) {
+		this.landmarks = landmarks;
+		this.fromLandmark = fromLandmark;
+		this.toLandmark = toLandmark;
+	}
+
+	/**
+	 * Picks landmarks on a graph that is its own reverse, or a compact snapshot.
+	 *
+	 * @param graph The graph, arc weights must not be negative
+	 * @param count The number of landmarks, at most the number of vertices
+	 * @param strategy How to pick them
+	 * @return The landmarks with their distance tables.
+	 */
+	public static Landmarks select(IntGraph graph, int count, Strategy strategy) {
+		return select(graph, BidirectionalDijkstra.reverseOf(graph), count, strategy);
+	}
+
+	/**
+	 * Picks landmarks and computes their distance tables.
+	 *
+	 * @param graph The graph, arc weights must not be negative
+	 * @param reverse The graph with every arc reversed, the graph itself if
+	 * 		  it is not directed
+	 * @param count The number of landmarks, at most the number of vertices
+	 * @param strategy How to pick them
+	 * @return The landmarks with their distance tables.
+	 */
+	public static Landmarks select(IntGraph graph, IntGraph reverse, int count, Strategy strategy) {
+		int n = graph.getVertexCount();
+		if (count <= 0 || count > n) {
+			throw new IllegalArgumentException("Can't pick " + count + " landmarks from " + n + " vertices");
+		}
+		DijkstraSearch forward = new DijkstraSearch(graph);
+		int[] landmarks = new int[count];
+		double[][] fromLandmark = new double[count][];
+		double[][] toLandmark = new double[count][];
+
+		if (strategy == Strategy.FARTHEST) {
+			// Distance from each vertex to the closest landmark chosen so far
+			double[] closest = distances(forward, 0);
+			for (int i = 0; i < count; i++) {
+				landmarks[i] = farthest(closest);
+				fromLandmark[i] = distances(forward, landmarks[i]);
+				for (int v = 0; v < n; v++) {
+					closest[v] = i == 0 ? fromLandmark[i][v] : Math.min(closest[v], fromLandmark[i][v]);
+				}
+			}
+		} else {
+			DijkstraSearch backward = new DijkstraSearch(reverse);
+			Random random = new Random(n);
+			for (int i = 0; i < count; i++) {
+				landmarks[i] = avoid(forward, new Landmarks(Arrays.copyOf(landmarks, i),
+						fromLandmark, toLandmark), random.nextInt(n));
+				fromLandmark[i] = distances(forward, landmarks[i]);
+				toLandmark[i] = distances(backward, landmarks[i]);
+			}
+			return new Landmarks(landmarks, fromLandmark, toLandmark);
+		}
+
+		// The tables to the landmarks are independent, one search each
+		IntStream.range(0, count).parallel().forEach(
+				i -> toLandmark[i] = distances(new DijkstraSearch(reverse), landmarks[i]));
+		return new Landmarks(landmarks, fromLandmark, toLandmark);
+	}
+
+	/**
+	 * Computes the distance tables for landmarks picked elsewhere, all 2k
+	 * searches in parallel.
+	 *
+	 * @param graph The graph, arc weights must not be negative
+	 * @param reverse The graph with every arc reversed, the graph itself if
+	 * 		  it is not directed
+	 * @param landmarks Indices of the landmark vertices
+	 * @return The landmarks with their distance tables.
+	 */
+	public static Landmarks of(IntGraph graph, IntGraph reverse, int[] landmarks) {
+		int count = landmarks.length;
+		double[][] fromLandmark = new double[count][];
+		double[][] toLandmark = new double[count][];
+		IntStream.range(0, 2 * count).parallel().forEach(task -> {
+			if (task < count) {
+				fromLandmark[task] = distances(new DijkstraSearch(graph), landmarks[task]);
+			} else {
+				toLandmark[task - count] = distances(new DijkstraSearch(reverse), landmarks[task - count]);
+			}
+		});
+		return new Landmarks(landmarks.clone(), fromLandmark, toLandmark);
+	}
+
+	private static double[] distances(DijkstraSearch dijkstra, int source) {
+		dijkstra.search(source);
+		double[] distance = new double[dijkstra.getGraph().getVertexCount()];
+		for (int v = 0; v < distance.length; v++) {
+			distance[v] = dijkstra.getDistance(v);
+		}
+		return distance;
+	}
+
+	/**
+	 * @return The vertex with the largest distance, unreachable vertices
+	 * 		   count as farthest, ties go to the lowest index.
+	 */
+	private static int farthest(double[] distance) {
+		int best = 0;
+		for (int v = 1; v < distance.length; v++) {
+			if (distance[v] > distance[best]) {
+				best = v;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * One step of the avoid strategy from the given root.
+	 */
+	private static int avoid(DijkstraSearch dijkstra, Landmarks current, int root) {
+		IntGraph graph = dijkstra.getGraph();
+		int n = graph.getVertexCount();
+		dijkstra.search(root);
+
+		// Children of each vertex in the shortest path tree, in CSR form
+		int[] childOffsets = new int[n + 1];
+		for (int v = 0; v < n; v++) {
+			if (dijkstra.getParent(v) >= 0) {
+				childOffsets[dijkstra.getParent(v) + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			childOffsets[v + 1] += childOffsets[v];
+		}
+		int[] children = new int[childOffsets[n]];
+		int[] fill = Arrays.copyOf(childOffsets, n);
+		for (int v = 0; v < n; v++) {
+			if (dijkstra.getParent(v) >= 0) {
+				children[fill[dijkstra.getParent(v)]++] = v;
+			}
+		}
+
+		// Tree vertices in breadth first order, so every child comes after its parent
+		int[] order = new int[n];
+		int count = 0;
+		order[count++] = root;
+		for (int i = 0; i < count; i++) {
+			int v = order[i];
+			for (int c = childOffsets[v]; c < childOffsets[v + 1]; c++) {
+				order[count++] = children[c];
+			}
+		}
+
+		// Weight of each subtree, zero if it holds a landmark
+		double[] size = new double[n];
+		boolean[] hasLandmark = new boolean[n];
+		for (int landmark : current.landmarks) {
+			hasLandmark[landmark] = true;
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			int v = order[i];
+			size[v] += dijkstra.getDistance(v) - current.lowerBound(root, v);
+			int parent = dijkstra.getParent(v);
+			if (parent >= 0) {
+				hasLandmark[parent] |= hasLandmark[v];
+			}
+			if (hasLandmark[v]) {
+				size[v] = 0.0;
+			} else if (parent >= 0) {
+				size[parent] += size[v];
+			}
+		}
+
+		int best = root;
+		for (int i = 0; i < count; i++) {
+			if (size[order[i]] > size[best]) {
+				best = order[i];
+			}
+		}
+		if (size[best] == 0.0) {
+			// Every subtree is covered, fall back to the farthest vertex not yet a landmark
+			best = -1;
+			for (int i = 0; i < count; i++) {
+				int v = order[i];
+				if (!hasLandmark[v] && (best < 0 || dijkstra.getDistance(v) > dijkstra.getDistance(best))) {
+					best = v;
+				}
+			}
+			return best >= 0 ? best : firstNonLandmark(current, n);
+		}
+		// Follow the heaviest child down to a leaf
+		while (childOffsets[best] < childOffsets[best + 1]) {
+			int next = children[childOffsets[best]];
+			for (int c = childOffsets[best] + 1; c < childOffsets[best + 1]; c++) {
+				if (size[children[c]] > size[next]) {
+					next = children[c];
+				}
+			}
+			best = next;
+		}
+		return best;
+	}
+
+	private static int firstNonLandmark(Landmarks current, int n) {
+		boolean[] used = new boolean[n];
+		for (int landmark : current.landmarks) {
+			used[landmark] = true;
+		}
+		for (int v = 0; v < n; v++) {
+			if (!used[v]) {
+				return v;
+			}
+		}
+		throw new IllegalStateException("Every vertex is a landmark");
+	}
+
+	/**
+	 * Reads landmark tables written by {@link #write(File)}.
+	 *
+	 * @param file The file to read
+	 * @return The landmarks with their distance tables.
+	 * @throws IOException If the file can't be read or does not hold landmarks.
+	 */
+	public static Landmarks read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a landmark file");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported landmark file version " + version);
+			}
+			int vertexCount = in.readInt();
+			int count = in.readInt();
+			int[] landmarks = new int[count];
+			double[][] fromLandmark = new double[count][vertexCount];
+			double[][] toLandmark = new double[count][vertexCount];
+			for (int i = 0; i < count; i++) {
+				landmarks[i] = in.readInt();
+				for (int v = 0; v < vertexCount; v++) {
+					fromLandmark[i][v] = in.readDouble();
+				}
+				for (int v = 0; v < vertexCount; v++) {
+					toLandmark[i][v] = in.readDouble();
+				}
+			}
+			return new Landmarks(landmarks, fromLandmark, toLandmark);
+		}
+	}
+
+	/**
+	 * Saves the landmarks and their tables to a file, see {@link #read(File)}.
+	 *
+	 * @param file The file to write
+	 * @throws IOException If the file can't be written.
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(getVertexCount());
+			out.writeInt(landmarks.length);
+			for (int i = 0; i < landmarks.length; i++) {
+				out.writeInt(landmarks[i]);
+				for (double distance : fromLandmark[i]) {
+					out.writeDouble(distance);
+				}
+				for (double distance : toLandmark[i]) {
+					out.writeDouble(distance);
+				}
+			}
+		}
+	}
+
+	public int getVertexCount() {
+		return landmarks.length == 0 ? 0 : fromLandmark[0].length;
+	}
+
+	/**
+	 * @return The indices of the landmark vertices.
+	 */
+	public int[] getLandmarks() {
+		return landmarks.clone();
+	}
+
+	/**
+	 * @param i Position of the landmark
+	 * @param v A vertex index
+	 * @return The distance from landmark i to v.
+	 */
+	public double getDistanceFrom(int i, int v) {
+		return fromLandmark[i][v];
+	}
+
+	/**
+	 * @param i Position of the landmark
+	 * @param v A vertex index
+	 * @return The distance from v to landmark i.
+	 */
+	public double getDistanceTo(int i, int v) {
+		return toLandmark[i][v];
+	}
+
+	/**
+	 * Lower bound on the distance from v to target. Differences of two
+	 * infinite distances say nothing and are skipped, a target that a
+	 * landmark can't reach while it reaches v can't be reached from v and
+	 * gets an infinite bound.
+	 *
+	 * @param v A vertex index
+	 * @param target The goal vertex index
+	 * @return A lower bound on the distance, never negative.
+	 */
+	public double lowerBound(int v, int target) {
+		double bound = 0.0;
+		for (int i = 0; i < landmarks.length; i++) {
+			double[] from = fromLandmark[i];
+			double[] to = toLandmark[i];
+			// Comparisons with NaN are false, so undefined differences are skipped
+			double ahead = from[target] - from[v];
+			if (ahead > bound) {
+				bound = ahead;
+			}
+			double behind = to[v] - to[target];
+			if (behind > bound) {
+				bound = behind;
+			}
+		}
+		return bound;
+	}
+}
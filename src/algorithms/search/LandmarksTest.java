@@ -0,0 +1,66 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import core.components.Edge;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static algorithms.search.SearchFixtures.createRandomGraph;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for Landmarks and LandmarkSearch.
+ *
+ * @author agent
+ */
+public class LandmarksTest {
+
+    @Test
+    public void search_bothStrategies_sameDistancesAsDijkstra() {
+        CompactGraph<Integer, Edge> graph = createRandomGraph(400, 1600, 21);
+        DijkstraSearch dijkstra = new DijkstraSearch(graph);
+
+        for (Landmarks.Strategy strategy : Landmarks.Strategy.values()) {
+            Landmarks landmarks = Landmarks.select(graph, 6, strategy);
+            LandmarkSearch search = new LandmarkSearch(graph, landmarks);
+            Random random = new Random(2);
+            for (int query = 0; query < 100; query++) {
+                int source = random.nextInt(400);
+                int target = random.nextInt(400);
+                dijkstra.search(source, target);
+                assertTrue(landmarks.lowerBound(source, target) <= dijkstra.getDistance(target));
+                assertEquals(dijkstra.getDistance(target) != Double.POSITIVE_INFINITY, search.search(source, target));
+                assertEquals(dijkstra.getDistance(target), search.getDistance(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void write_readBack_sameBoundsAndPaths() throws IOException {
+        CompactGraph<Integer, Edge> graph = createRandomGraph(200, 800, 9);
+        Landmarks landmarks = Landmarks.select(graph, 4, Landmarks.Strategy.FARTHEST);
+        File file = File.createTempFile("landmarks", ".bin");
+        file.deleteOnExit();
+        landmarks.write(file);
+        Landmarks read = Landmarks.read(file);
+
+        assertArrayEquals(landmarks.getLandmarks(), read.getLandmarks());
+        ShortestPath<Integer, Edge> shortestPath = new ShortestPath<>();
+        for (int v = 0; v < 200; v += 7) {
+            assertEquals(landmarks.lowerBound(v, 199 - v), read.lowerBound(v, 199 - v), 0.0);
+            List<Integer> expected = shortestPath.search(graph, v, 199 - v);
+            List<Integer> path = shortestPath.search(graph, v, 199 - v, read);
+            assertEquals(expected == null, path == null);
+            if (path != null) {
+                assertEquals(Integer.valueOf(v), path.get(0));
+                assertEquals(Integer.valueOf(199 - v), path.get(path.size() - 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package algorithms.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import core.components.Heuristic;
+import core.components.State;
+
+/**
+ * Simplified memory-bounded A* (SMA*). Runs like A* over a search tree until
+ * the number of nodes held reaches a budget, then makes room for each new
+ * node by forgetting the worst leaf, the one with the largest f and of those
+ * the shallowest. The parent of a forgotten leaf remembers the smallest f of
+ * its forgotten children and goes back on the open list with that value, so
+ * the forgotten successors are regenerated only when nothing else looks
+ * better. Children inherit the f of their parent when it is larger than their
+ * own (path-max), which carries what was learned about a forgotten subtree
+ * into the regenerated one.
+ *
+ * Successors are told apart by the position they are generated in, so the
+ * successor function has to generate them in the same order every time.
+ *
+ * The result is optimal when the budget holds the states on an optimal path,
+ * that is it exceeds the number of steps of an optimal solution. Paths that
+ * can't be completed within the budget are given an f of infinity. The
+ * search doesn't detect repeated states other than an immediate step back
+ * to the parent.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ */
+public class MemoryBoundedAStar<V extends State> {
+
+	private final SuccessorFunction<V> successorFunction;
+	private final Heuristic<V> heuristic;
+	private final int maxNodes;
+
+	/**
+	 * The leaves and the nodes waiting to regenerate forgotten children, best first
+	 */
+	private final TreeSet<Node<V>> open = new TreeSet<>();
+	private int nodeCount;
+	private long created;
+	private double solutionCost;
+	private long expandedCount;
+	private long forgottenCount;
+
+	/**
+	 * @param successorFunction Generates the successors of a state
+	 * @param heuristic An admissible estimate of the cost to the goal
+	 * @param maxNodes The most search nodes held at once, at least 2
+	 */
+	public MemoryBoundedAStar(SuccessorFunction<V> successorFunction, Heuristic<V> heuristic, int maxNodes) {
+		if (maxNodes < 2) {
+			throw new IllegalArgumentException("Need room for at least two nodes, not " + maxNodes);
+		}
+		this.successorFunction = successorFunction;
+		this.heuristic = heuristic;
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * @param start The state to search from
+	 * @param goal The state to search for
+	 * @return The states on the path from the start to the goal, or null if
+	 * 		   the goal can't be reached within the node budget.
+	 */
+	public List<V> search(V start, V goal) {
+		return search(start, goal::equals);
+	}
+
+	/**
+	 * Searches for a cheapest path to any state accepted by the goal test.
+	 *
+	 * @param start The state to search from
+	 * @param goalTest Accepts the goal states
+	 * @return The states on the path from the start to the goal, or null if
+	 * 		   no goal can be reached within the node budget.
+	 * @throws IllegalArgumentException If a step has a negative cost.
+	 */
+	public List<V> search(V start, Predicate<? super V> goalTest) {
+		open.clear();
+		nodeCount = 0;
+		created = 0;
+		solutionCost = Double.POSITIVE_INFINITY;
+		expandedCount = 0;
+		forgottenCount = 0;
+
+		int estimate = heuristic.evaluate(start);
+		if (estimate == Integer.MAX_VALUE) {
+			return null;
+		}
+		Node<V> root = new Node<>(start, null, -1, 0.0, estimate, created++);
+		nodeCount = 1;
+		open.add(root);
+
+		List<Successor<V>> successors = new ArrayList<>();
+		while (!open.isEmpty()) {
+			Node<V> best = open.pollFirst();
+			if (best.key == Double.POSITIVE_INFINITY) {
+				break;
+			}
+			if (best.children.isEmpty()) {
+				// Any forgotten children were worth at least this much
+				best.f = Math.max(best.f, best.key);
+				if (goalTest.test(best.state)) {
+					solutionCost = best.g;
+					List<V> path = new ArrayList<>();
+					for (Node<V> node = best; node != null; node = node.parent) {
+						path.add(node.state);
+					}
+					Collections.reverse(path);
+					open.clear();
+					return path;
+				}
+			}
+
+			// Only forgotten successors are generated, none of them was worth less than the key
+			double floor = best.key;
+			successors.clear();
+			successorFunction.expand(best.state, (successor, cost) -> {
+				if (cost < 0) {
+					throw new IllegalArgumentException("Negative cost " + cost + " from " + best.state);
+				}
+				successors.add(new Successor<>(successor, cost));
+			});
+			expandedCount++;
+			best.forgotten = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < successors.size(); i++) {
+				Successor<V> successor = successors.get(i);
+				if (best.hasChild(i) || (best.parent != null && successor.state.equals(best.parent.state))) {
+					continue;
+				}
+				generate(best, i, successor, floor, goalTest);
+			}
+			if (best.forgotten != Double.POSITIVE_INFINITY || best.children.isEmpty()) {
+				// Some children didn't fit, or it is a dead end that can be forgotten later
+				best.key = best.forgotten;
+				open.add(best);
+			}
+		}
+		open.clear();
+		return null;
+	}
+
+	private void generate(Node<V> parent, int index, Successor<V> successor, double floor,
+			Predicate<? super V> goalTest) {
+		int estimate = heuristic.evaluate(successor.state);
+		if (estimate == Integer.MAX_VALUE) {
+			return;
+		}
+		double g = parent.g + successor.cost;
+		double f = Math.max(Math.max(parent.f, floor), g + estimate);
+		if (parent.depth + 2 >= maxNodes && !goalTest.test(successor.state)) {
+			// The path can't be extended without going over the budget
+			f = Double.POSITIVE_INFINITY;
+		}
+		Node<V> child = new Node<>(successor.state, parent, index, g, f, created++);
+
+		if (nodeCount == maxNodes) {
+			Node<V> worst = worstLeaf();
+			if (worst == null || worst.compareTo(child) < 0) {
+				// The new child is the worst leaf itself
+				parent.forgotten = Math.min(parent.forgotten, f);
+				forgottenCount++;
+				return;
+			}
+			forget(worst, parent);
+		}
+		parent.children.add(child);
+		open.add(child);
+		nodeCount++;
+	}
+
+	/**
+	 * @return The open node with the largest key that has no children and
+	 * 		   can be forgotten, null if there is none.
+	 */
+	private Node<V> worstLeaf() {
+		for (Node<V> node : open.descendingSet()) {
+			if (node.children.isEmpty() && node.parent != null) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Drops a leaf, backing its f up into its parent, which goes back on the
+	 * open list unless it is being expanded.
+	 */
+	private void forget(Node<V> leaf, Node<V> expanding) {
+		open.remove(leaf);
+		nodeCount--;
+		forgottenCount++;
+		Node<V> parent = leaf.parent;
+		// Its order depends on its children, so it leaves the open list while they change
+		boolean wasOpen = open.remove(parent);
+		parent.children.remove(leaf);
+		parent.forgotten = Math.min(parent.forgotten, Math.max(leaf.f, leaf.key));
+		if (parent != expanding
+				&& (wasOpen || parent.forgotten != Double.POSITIVE_INFINITY || parent.children.isEmpty())) {
+			parent.key = parent.forgotten;
+			open.add(parent);
+		}
+	}
+
+	/**
+	 * @return The cost of the path found by the last search, infinity if
+	 * 		   there is none.
+	 */
+	public double getPathCost() {
+		return solutionCost;
+	}
+
+	/**
+	 * @return The number of expansions in the last search, counting a state
+	 * 		   again each time its subtree is regenerated.
+	 */
+	public long getExpandedCount() {
+		return expandedCount;
+	}
+
+	/**
+	 * @return The number of nodes dropped to stay within the budget in the
+	 * 		   last search.
+	 */
+	public long getForgottenCount() {
+		return forgottenCount;
+	}
+
+	private static class Successor<V> {
+
+		final V state;
+		final double cost;
+
+		Successor(V state, double cost) {
+			this.state = state;
+			this.cost = cost;
+		}
+	}
+
+	/**
+	 * A node of the search tree. Open nodes are ordered on their key, then
+	 * leaves before nodes waiting to regenerate forgotten children, then
+	 * deeper first, then older first. Without the second rule a parent
+	 * whose forgotten child ties with every leaf would be taken again and
+	 * again without the child ever fitting.
+	 */
+	private static class Node<V> implements Comparable<Node<V>> {
+
+		final V state;
+		final Node<V> parent;
+		/**
+		 * The position of the state among the successors of the parent
+		 */
+		final int index;
+		final double g;
+		final int depth;
+		final long id;
+		final List<Node<V>> children = new ArrayList<>(4);
+		/**
+		 * Lower bound on the cost of a solution through the node
+		 */
+		double f;
+		/**
+		 * The f of the node when it is first opened, then the smallest f of
+		 * its forgotten children
+		 */
+		double key;
+		/**
+		 * The smallest f of the children forgotten since the last expansion
+		 */
+		double forgotten = Double.POSITIVE_INFINITY;
+
+		Node(V state, Node<V> parent, int index, double g, double f, long id) {
+			this.state = state;
+			this.parent = parent;
+			this.index = index;
+			this.g = g;
+			this.f = f;
+			this.key = f;
+			this.depth = parent == null ? 0 : parent.depth + 1;
+			this.id = id;
+		}
+
+		boolean hasChild(int index) {
+			for (Node<V> child : children) {
+				if (child.index == index) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public int compareTo(Node<V> other) {
+			int byKey = Double.compare(key, other.key);
+			if (byKey != 0) {
+				return byKey;
+			}
+			if (children.isEmpty() != other.children.isEmpty()) {
+				return children.isEmpty() ? -1 : 1;
+			}
+			if (depth != other.depth) {
+				return depth > other.depth ? -1 : 1;
+			}
+			return Long.compare(id, other.id);
+		}
+	}
+}
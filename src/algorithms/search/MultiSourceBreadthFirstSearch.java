@@ -0,0 +1,187 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+import core.components.IntGraph;
+
+/**
+ * Breadth first search from many sources at once (Then et al., "The More the
+ * Merrier: Efficient Multi-Source Graph Traversal"). Every vertex keeps a
+ * bitmask with one bit per source, marking the sources that have already
+ * reached it and the sources whose frontier it is on. A level is expanded by
+ * a single pass over the adjacency lists of the vertices that are on any
+ * frontier, pushing the whole mask along each arc, so searches that overlap
+ * share their adjacency scans instead of repeating them.
+ *
+ * Sources are processed in batches of 64 per mask word, the number of words
+ * per vertex is set when the search is created. Wider masks share more scans
+ * between sources but need 3 * words longs per vertex while a batch runs.
+ *
+ * @author agent
+ */
+public class MultiSourceBreadthFirstSearch {
+
+	/**
+	 * Called once for every vertex reached from every source.
+	 */
+	public interface Visitor {
+
+		/**
+		 * @param source Position of the source in the array passed to the search
+		 * @param vertex Index of the reached vertex
+		 * @param depth The number of arcs on a shortest path from the source
+		 */
+		void visit(int source, int vertex, int depth);
+	}
+
+	private final int words;
+
+	/**
+	 * Creates a search processing 64 sources per batch.
+	 */
+	public MultiSourceBreadthFirstSearch() {
+		this(1);
+	}
+
+	/**
+	 * @param words The number of 64 bit mask words per vertex, so each batch
+	 * 		  holds up to 64 * words sources
+	 */
+	public MultiSourceBreadthFirstSearch(int words) {
+		if (words <= 0) {
+			throw new IllegalArgumentException("words must be positive");
+		}
+		this.words = words;
+	}
+
+	public int getBatchSize() {
+		return 64 * words;
+	}
+
+	/**
+	 * Computes the distance from every source to every vertex. The result
+	 * holds sources.length * n ints, use {@link #search} with a visitor to
+	 * aggregate on the fly for many sources.
+	 *
+	 * @param graph The graph to search
+	 * @param sources Indices of the vertices to start from
+	 * @return The distances by source position and vertex index, -1 for
+	 * 		   vertices a source does not reach.
+	 */
+	public int[][] distances(IntGraph graph, int[] sources) {
+		int[][] distances = new int[sources.length][graph.getVertexCount()];
+		for (int[] row : distances) {
+			Arrays.fill(row, -1);
+		}
+		search(graph, sources, (source, vertex, depth) -> distances[source][vertex] = depth);
+		return distances;
+	}
+
+	/**
+	 * Computes the closeness centrality of each source, the number of other
+	 * vertices it reaches divided by the sum of their distances.
+	 *
+	 * @param graph The graph to search
+	 * @param sources Indices of the vertices to compute the closeness of
+	 * @return The closeness by source position, 0 for sources that reach no
+	 * 		   other vertex.
+	 */
+	public double[] closeness(IntGraph graph, int[] sources) {
+		long[] reached = new long[sources.length];
+		long[] total = new long[sources.length];
+		search(graph, sources, (source, vertex, depth) -> {
+			if (depth > 0) {
+				reached[source]++;
+				total[source] += depth;
+			}
+		});
+		double[] closeness = new double[sources.length];
+		for (int i = 0; i < sources.length; i++) {
+			closeness[i] = total[i] == 0 ? 0.0 : (double) reached[i] / total[i];
+		}
+		return closeness;
+	}
+
+	/**
+	 * Searches the graph from every source, reporting each vertex a source
+	 * reaches to the visitor, level by level within each batch.
+	 *
+	 * @param graph The graph to search
+	 * @param sources Indices of the vertices to start from, the same vertex
+	 * 		  may appear more than once
+	 * @param visitor Receives every (source, vertex, depth) triple
+	 */
+	public void search(IntGraph graph, int[] sources, Visitor visitor) {
+		int n = graph.getVertexCount();
+		int batchSize = getBatchSize();
+		int width = Math.min(words, (sources.length + 63) >>> 6);
+		long[] seen = new long[n * width];
+		long[] visit = new long[n * width];
+		long[] visitNext = new long[n * width];
+		int[] neighbours = new int[graph.getMaxDegree()];
+
+		for (int first = 0; first < sources.length; first += batchSize) {
+			int last = Math.min(sources.length, first + batchSize);
+			if (first > 0) {
+				Arrays.fill(seen, 0L);
+				Arrays.fill(visit, 0L);
+			}
+			for (int i = first; i < last; i++) {
+				int bit = i - first;
+				int s = sources[i];
+				seen[s * width + (bit >>> 6)] |= 1L << bit;
+				visit[s * width + (bit >>> 6)] |= 1L << bit;
+				visitor.visit(i, s, 0);
+			}
+
+			int depth = 0;
+			boolean active = true;
+			while (active) {
+				for (int v = 0; v < n; v++) {
+					if (isEmpty(visit, v * width, width)) {
+						continue;
+					}
+					int degree = graph.getNeighbours(v, neighbours);
+					for (int j = 0; j < degree; j++) {
+						int u = neighbours[j];
+						for (int w = 0; w < width; w++) {
+							long next = visit[v * width + w] & ~seen[u * width + w];
+							if (next != 0) {
+								visitNext[u * width + w] |= next;
+								seen[u * width + w] |= next;
+							}
+						}
+					}
+				}
+
+				depth++;
+				active = false;
+				for (int v = 0; v < n; v++) {
+					for (int w = 0; w < width; w++) {
+						long next = visitNext[v * width + w];
+						while (next != 0) {
+							int bit = (w << 6) + Long.numberOfTrailingZeros(next);
+							next &= next - 1;
+							visitor.visit(first + bit, v, depth);
+							active = true;
+						}
+					}
+				}
+
+				long[] swap = visit;
+				visit = visitNext;
+				visitNext = swap;
+				Arrays.fill(visitNext, 0L);
+			}
+		}
+	}
+
+	private static boolean isEmpty(long[] masks, int from, int width) {
+		for (int w = 0; w < width; w++) {
+			if (masks[from + w] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,64 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for MultiSourceBreadthFirstSearch.
+ *
+ * @author agent
+ */
+public class MultiSourceBreadthFirstSearchTest {
+
+    @Test
+    public void distances_moreSourcesThanBatch_sameAsSingleSearches() {
+        Graph<Integer, String> graph = new DirectedSparseGraph<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 400; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 800; i++) {
+            graph.addEdge("e" + i, random.nextInt(400), random.nextInt(400));
+        }
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(graph);
+        // 150 sources with a repeat, spread over three batches of one word
+        int[] sources = new int[150];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = (i * 37) % 400;
+        }
+        sources[149] = sources[0];
+
+        int[][] oneWord = new MultiSourceBreadthFirstSearch().distances(snapshot, sources);
+        int[][] twoWords = new MultiSourceBreadthFirstSearch(2).distances(snapshot, sources);
+        for (int i = 0; i < sources.length; i++) {
+            int[] expected = new DirectionOptimizingSearch().search(snapshot, null, sources[i]).getDepths();
+            assertArrayEquals(expected, oneWord[i]);
+            assertArrayEquals(expected, twoWords[i]);
+        }
+    }
+
+    @Test
+    public void closeness_pathGraph_inverseMeanDistance() {
+        Graph<Integer, String> graph = new DirectedSparseGraph<>();
+        for (int i = 0; i < 5; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            graph.addEdge(i + "-" + (i + 1), i, i + 1);
+        }
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(graph);
+        double[] closeness = new MultiSourceBreadthFirstSearch().closeness(snapshot,
+                new int[]{snapshot.indexOf(0), snapshot.indexOf(3), snapshot.indexOf(4)});
+
+        assertEquals(4.0 / 10.0, closeness[0], 1e-12);
+        assertEquals(1.0, closeness[1], 1e-12);
+        assertEquals(0.0, closeness[2], 1e-12);
+    }
+}
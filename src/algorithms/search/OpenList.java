@@ -0,0 +1,147 @@
+package algorithms.search;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Open list for the best-first searches over generated states. Search nodes
+ * are numbered as they are created, so unlike {@link core.components.IndexedDaryHeap}
+ * the heap grows with the number of nodes. It is a 4-ary min-heap ordered
+ * on a primary key with ties broken by a secondary key, f and h for A*, and
+ * keeps the position of every node so keys can be lowered in place.
+ *
+ * @author agent
+ */
+class OpenList {
+
+	private static final int ARITY = 4;
+
+	private int[] nodes = new int[64];
+	private double[] primary = new double[64];
+	private double[] secondary = new double[64];
+	/**
+	 * Position of each node in the heap, -1 if it is not in the heap
+	 */
+	private int[] position = new int[0];
+	private int size;
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	boolean contains(int node) {
+		return node < position.length && position[node] >= 0;
+	}
+
+	/**
+	 * Removes every node, in time proportional to the size of the list.
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			position[nodes[i]] = -1;
+		}
+		size = 0;
+	}
+
+	double peekPrimary() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return primary[0];
+	}
+
+	/**
+	 * Adds a node that is not in the list, or moves a node in the list to
+	 * new keys that are not larger than its current ones.
+	 */
+	void insertOrDecrease(int node, double primaryKey, double secondaryKey) {
+		if (node >= position.length) {
+			int length = Math.max(node + 1, 2 * position.length);
+			int old = position.length;
+			position = Arrays.copyOf(position, length);
+			Arrays.fill(position, old, length, -1);
+		}
+		int i = position[node];
+		if (i < 0) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, 2 * size);
+				primary = Arrays.copyOf(primary, 2 * size);
+				secondary = Arrays.copyOf(secondary, 2 * size);
+			}
+			i = size++;
+		}
+		siftUp(i, node, primaryKey, secondaryKey);
+	}
+
+	/**
+	 * Removes the node with the smallest keys.
+	 */
+	int poll() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int top = nodes[0];
+		position[top] = -1;
+		size--;
+		if (size > 0) {
+			siftDown(0, nodes[size], primary[size], secondary[size]);
+		}
+		return top;
+	}
+
+	private static boolean less(double p1, double s1, double p2, double s2) {
+		return p1 < p2 || (p1 == p2 && s1 < s2);
+	}
+
+	private void siftUp(int i, int node, double p, double s) {
+		while (i > 0) {
+			int parent = (i - 1) / ARITY;
+			if (!less(p, s, primary[parent], secondary[parent])) {
+				break;
+			}
+			move(parent, i);
+			i = parent;
+		}
+		place(i, node, p, s);
+	}
+
+	private void siftDown(int i, int node, double p, double s) {
+		while (true) {
+			int first = i * ARITY + 1;
+			if (first >= size) {
+				break;
+			}
+			int last = Math.min(first + ARITY, size);
+			int smallest = first;
+			for (int child = first + 1; child < last; child++) {
+				if (less(primary[child], secondary[child], primary[smallest], secondary[smallest])) {
+					smallest = child;
+				}
+			}
+			if (!less(primary[smallest], secondary[smallest], p, s)) {
+				break;
+			}
+			move(smallest, i);
+			i = smallest;
+		}
+		place(i, node, p, s);
+	}
+
+	private void move(int from, int to) {
+		nodes[to] = nodes[from];
+		primary[to] = primary[from];
+		secondary[to] = secondary[from];
+		position[nodes[to]] = to;
+	}
+
+	private void place(int i, int node, double p, double s) {
+		nodes[i] = node;
+		primary[i] = p;
+		secondary[i] = s;
+		position[node] = i;
+	}
+}
@@ -0,0 +1,297 @@
+package algorithms.search;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import core.components.IntGraph;
+
+/**
+ * Level synchronous breadth first search that expands each level of the
+ * frontier in parallel on a ForkJoinPool. The frontier is cut into chunks,
+ * each chunk is expanded by one task into its own buffer, and the buffers are
+ * concatenated in chunk order once the level is done, with the offsets taken
+ * from a prefix sum over the chunk sizes so no locks are needed.
+ *
+ * Vertices are claimed with an atomic mark holding the position in the visit
+ * order of the vertex that discovered them. A task only takes a vertex over
+ * when its own position is smaller, so at the end of a level every new vertex
+ * is marked with the first frontier vertex that reaches it, which is the
+ * vertex a queue based search would have discovered it from. Chunks record
+ * every take over and drop the ones that were overruled when they are merged,
+ * so the visit order, depths and parents are the same as a sequential
+ * top-down search, whatever the number of threads.
+ *
+ * Tasks read single neighbours with {@link IntGraph#getNeighbour(int, int)},
+ * so the graph should have fast random access to its lists, and must be safe
+ * to read from several threads, which holds for the immutable snapshots.
+ *
+ * @author agent
+ */
+public class ParallelBreadthFirstSearch {
+
+	/**
+	 * Levels are not split into chunks smaller than this
+	 */
+	public static final int MIN_CHUNK_SIZE = 256;
+	/**
+	 * Number of chunks per thread a large level is split into, so threads that
+	 * finish early can steal work from ones with high degree vertices
+	 */
+	public static final int CHUNKS_PER_THREAD = 8;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a search running on the common pool.
+	 */
+	public ParallelBreadthFirstSearch() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool The pool the levels are expanded on. It stays owned by the
+	 * 		  caller, who shuts it down once no more searches will run on it.
+	 */
+	public ParallelBreadthFirstSearch(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Searches a graph from the root.
+	 *
+	 * @param graph The graph to search
+	 * @param root Index of the vertex to start from
+	 * @return The search tree, the same as the top-down search of
+	 * 		   {@link DirectionOptimizingSearch#search(IntGraph, IntGraph, int)}
+	 * 		   without a reverse graph.
+	 */
+	public BreadthFirstTree search(IntGraph graph, int root) {
+		int n = graph.getVertexCount();
+		Level level = new Level(graph, n);
+		level.order[0] = root;
+		level.depth[root] = 0;
+		level.claimed.set(root, -1);
+
+		int levelStart = 0;
+		int levelEnd = 1;
+		int depth = 0;
+		while (levelStart < levelEnd) {
+			int size = levelEnd - levelStart;
+			int chunkCount = Math.max(1, Math.min((size + MIN_CHUNK_SIZE - 1) / MIN_CHUNK_SIZE,
+					CHUNKS_PER_THREAD * pool.getParallelism()));
+			level.start(levelStart, levelEnd, depth + 1, chunkCount);
+
+			// Expand every chunk, then drop the overruled claims and count what is left
+			level.run(pool, Level.EXPAND);
+			level.run(pool, Level.FILTER);
+			int tail = levelEnd;
+			for (int c = 0; c < chunkCount; c++) {
+				level.offsets[c] = tail;
+				tail += level.counts[c];
+			}
+			level.run(pool, Level.MERGE);
+
+			levelStart = levelEnd;
+			levelEnd = tail;
+			depth++;
+		}
+
+		return new BreadthFirstTree(root, level.order, levelEnd, level.depth, level.parent);
+	}
+
+	/**
+	 * State of a search, shared by the tasks expanding one level.
+	 */
+	private static class Level {
+
+		static final int EXPAND = 0;
+		static final int FILTER = 1;
+		static final int MERGE = 2;
+
+		final IntGraph graph;
+		final int[] order;
+		final int[] depth;
+		final int[] parent;
+		/**
+		 * Position in order of the vertex each vertex was discovered from,
+		 * Integer.MAX_VALUE while unvisited and -1 for the root.
+		 */
+		final AtomicIntegerArray claimed;
+
+		/**
+		 * The claims made by each chunk, packed as position and vertex
+		 */
+		long[][] buffers = new long[0][];
+		int[] counts = new int[0];
+		/**
+		 * Where the kept claims of each chunk start in the visit order
+		 */
+		int[] offsets = new int[0];
+		int levelStart;
+		int levelEnd;
+		int nextDepth;
+		int chunkCount;
+
+		Level(IntGraph graph, int n) {
+			this.graph = graph;
+			order = new int[n];
+			depth = new int[n];
+			parent = new int[n];
+			Arrays.fill(depth, -1);
+			Arrays.fill(parent, -1);
+			claimed = new AtomicIntegerArray(n);
+			for (int v = 0; v < n; v++) {
+				claimed.set(v, Integer.MAX_VALUE);
+			}
+		}
+
+		void start(int levelStart, int levelEnd, int nextDepth, int chunkCount) {
+			this.levelStart = levelStart;
+			this.levelEnd = levelEnd;
+			this.nextDepth = nextDepth;
+			this.chunkCount = chunkCount;
+			if (buffers.length < chunkCount) {
+				buffers = Arrays.copyOf(buffers, chunkCount);
+				counts = new int[chunkCount];
+				offsets = new int[chunkCount];
+			}
+		}
+
+		void run(ForkJoinPool pool, int phase) {
+			if (chunkCount == 1) {
+				// Not worth handing a single chunk to the pool
+				runChunk(phase, 0);
+			} else {
+				pool.invoke(new ChunkTask(this, phase, 0, chunkCount));
+			}
+		}
+
+		void runChunk(int phase, int chunk) {
+			switch (phase) {
+				case EXPAND:
+					expand(chunk);
+					break;
+				case FILTER:
+					filter(chunk);
+					break;
+				default:
+					merge(chunk);
+					break;
+			}
+		}
+
+		/**
+		 * Claims the unvisited neighbours of the vertices in a chunk of the
+		 * frontier, recording every claim that lowered the mark.
+		 */
+		private void expand(int chunk) {
+			int size = levelEnd - levelStart;
+			int from = levelStart + (int) ((long) size * chunk / chunkCount);
+			int to = levelStart + (int) ((long) size * (chunk + 1) / chunkCount);
+			long[] buffer = buffers[chunk];
+			if (buffer == null) {
+				buffer = new long[64];
+			}
+			int count = 0;
+			for (int p = from; p < to; p++) {
+				int v = order[p];
+				int degree = graph.getOutDegree(v);
+				for (int i = 0; i < degree; i++) {
+					int w = graph.getNeighbour(v, i);
+					if (claim(w, p)) {
+						if (count == buffer.length) {
+							buffer = Arrays.copyOf(buffer, 2 * count);
+						}
+						buffer[count++] = ((long) p << 32) | w;
+					}
+				}
+			}
+			buffers[chunk] = buffer;
+			counts[chunk] = count;
+		}
+
+		/**
+		 * Lowers the mark of w to position p, vertices visited on earlier
+		 * levels always have a smaller mark so they are never claimed again.
+		 */
+		private boolean claim(int w, int p) {
+			int current = claimed.get(w);
+			while (current > p) {
+				if (claimed.compareAndSet(w, current, p)) {
+					return true;
+				}
+				current = claimed.get(w);
+			}
+			return false;
+		}
+
+		/**
+		 * Keeps the claims of a chunk that were not overruled by a smaller position.
+		 */
+		private void filter(int chunk) {
+			long[] buffer = buffers[chunk];
+			int count = counts[chunk];
+			int kept = 0;
+			for (int i = 0; i < count; i++) {
+				int p = (int) (buffer[i] >>> 32);
+				int w = (int) buffer[i];
+				if (claimed.get(w) == p) {
+					buffer[kept++] = buffer[i];
+				}
+			}
+			counts[chunk] = kept;
+		}
+
+		/**
+		 * Copies the kept claims of a chunk to its offset in the visit order.
+		 */
+		private void merge(int chunk) {
+			long[] buffer = buffers[chunk];
+			int tail = offsets[chunk];
+			for (int i = 0; i < counts[chunk]; i++) {
+				int p = (int) (buffer[i] >>> 32);
+				int w = (int) buffer[i];
+				order[tail++] = w;
+				depth[w] = nextDepth;
+				parent[w] = order[p];
+			}
+		}
+	}
+
+	/**
+	 * Runs one phase over a range of chunks, splitting the range in halves.
+	 */
+	private static class ChunkTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Level level;
+		private final int phase;
+		private final int from;
+		private final int to;
+
+		ChunkTask(Level level, int phase, int from, int to) {
+			this.level = level;
+			this.phase = phase;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				level.runChunk(phase, from);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ChunkTask(level, phase, from, middle),
+						new ChunkTask(level, phase, middle, to));
+			}
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for ParallelBreadthFirstSearch.
+ *
+ * @author agent
+ */
+public class ParallelBreadthFirstSearchTest {
+
+    @Test
+    public void search_randomGraph_sameTreeAsSequential() {
+        // Large enough for the middle levels to be split into several chunks
+        Graph<Integer, String> graph = new DirectedSparseGraph<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            for (int j = 0; j < 4; j++) {
+                graph.addEdge(i + "-" + j, i, random.nextInt(5000));
+            }
+        }
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(graph);
+        int root = snapshot.indexOf(0);
+
+        BreadthFirstTree sequential = new DirectionOptimizingSearch().search(snapshot, null, root);
+        for (int parallelism : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                BreadthFirstTree parallel = new ParallelBreadthFirstSearch(pool).search(snapshot, root);
+                assertEquals(sequential.getVisitedCount(), parallel.getVisitedCount());
+                assertArrayEquals(sequential.getOrder(), parallel.getOrder());
+                assertArrayEquals(sequential.getDepths(), parallel.getDepths());
+                assertArrayEquals(sequential.getParents(), parallel.getParents());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
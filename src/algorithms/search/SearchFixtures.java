@@ -0,0 +1,130 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import core.components.DoubleWeightedEdge;
+import core.components.Edge;
+import core.components.State;
+import core.components.WeightedEdge;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * States, edges and graphs shared by the tests of the searches.
+ *
+ * @author agent
+ */
+final class SearchFixtures {
+
+    private SearchFixtures() {
+    }
+
+    /**
+     * @return A snapshot of a random directed graph with weights from 1 to 50,
+     *         the vertices are the integers 0 to n - 1.
+     */
+    static CompactGraph<Integer, Edge> createRandomGraph(int n, int m, long seed) {
+        Graph<Integer, Edge> graph = new DirectedSparseGraph<>();
+        Random random = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < m; i++) {
+            graph.addEdge(new DoubleWeightedEdge("e" + i, 1 + random.nextInt(50)),
+                    random.nextInt(n), random.nextInt(n));
+        }
+        return CompactGraph.of(graph);
+    }
+
+    /**
+     * @return The weight of the lightest arc from u to v, infinity if there is none.
+     */
+    static double arcWeight(CompactGraph<Integer, Edge> graph, int u, int v) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < graph.getOutDegree(u); i++) {
+            if (graph.getNeighbour(u, i) == v) {
+                best = Math.min(best, graph.getWeight(u, i));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return The length of a path given as vertex indices.
+     */
+    static double pathLength(CompactGraph<Integer, Edge> graph, int[] path) {
+        double length = 0.0;
+        for (int i = 1; i < path.length; i++) {
+            length += arcWeight(graph, path[i - 1], path[i]);
+        }
+        return length;
+    }
+
+    /**
+     * @return The length of a path given as vertices.
+     */
+    static double pathLength(CompactGraph<Integer, Edge> graph, List<Integer> path) {
+        double length = 0.0;
+        for (int i = 1; i < path.size(); i++) {
+            length += arcWeight(graph, graph.indexOf(path.get(i - 1)), graph.indexOf(path.get(i)));
+        }
+        return length;
+    }
+
+    /**
+     * A cell of a grid, equal to any other cell with the same coordinates.
+     */
+    static class Cell extends State {
+
+        final int x;
+        final int y;
+
+        Cell(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Cell && ((Cell) obj).x == x && ((Cell) obj).y == y;
+        }
+
+        @Override
+        public int hashCode() {
+            return x * 31 + y;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + x + ", " + y + ")";
+        }
+    }
+
+    /**
+     * A named vertex with a fixed heuristic value, equal only to itself.
+     */
+    static class Node extends State {
+
+        final String name;
+        final int estimate;
+
+        Node(String name, int estimate) {
+            this.name = name;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static class Road extends WeightedEdge {
+
+        Road(int weight) {
+            super(weight);
+        }
+    }
+}
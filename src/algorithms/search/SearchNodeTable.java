@@ -0,0 +1,162 @@
+package algorithms.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The records a single search keeps about the states it reaches, held apart
+ * from the states themselves so that any number of searches can run over
+ * the same states at once and none of them has to reset the states first.
+ *
+ * States are numbered 0, 1, 2, ... in the order they are added, the start
+ * state being 0, and the cost so far (g), heuristic value (h), parent and
+ * flags of each are stored in parallel arrays indexed by that number. The
+ * arrays grow with the table and are kept by {@link #clear()}, so a search
+ * engine reusing its table allocates nothing per state once warmed up.
+ *
+ * A table is not thread safe, every concurrent search needs its own.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ */
+public class SearchNodeTable<V> {
+
+	private static final byte CLOSED = 1;
+	private static final byte ON_PATH = 2;
+
+	private final StateIndex<V> index = new StateIndex<>();
+	private double[] g = new double[64];
+	private int[] h = new int[64];
+	private int[] parent = new int[64];
+	private byte[] flags = new byte[64];
+	private int goal = -1;
+
+	/**
+	 * @return The number of states in the table.
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * Removes every record, keeping the arrays for the next search.
+	 */
+	public void clear() {
+		index.clear();
+		goal = -1;
+	}
+
+	/**
+	 * @param state The state to look for
+	 * @return The number of the state, -1 if it isn't in the table.
+	 */
+	public int indexOf(V state) {
+		return index.get(state);
+	}
+
+	/**
+	 * Adds a record for a state that is not in the table yet.
+	 *
+	 * @param state The state reached
+	 * @param cost The cost of the path it was reached by
+	 * @param estimate The heuristic value of the state
+	 * @param from The number of the state it was reached from, -1 for the start
+	 * @return The number of the state.
+	 */
+	public int add(V state, double cost, int estimate, int from) {
+		int node = index.add(state);
+		if (node == g.length) {
+			int length = 2 * node;
+			g = Arrays.copyOf(g, length);
+			h = Arrays.copyOf(h, length);
+			parent = Arrays.copyOf(parent, length);
+			flags = Arrays.copyOf(flags, length);
+		}
+		g[node] = cost;
+		h[node] = estimate;
+		parent[node] = from;
+		flags[node] = 0;
+		return node;
+	}
+
+	public V getState(int node) {
+		return index.getState(node);
+	}
+
+	public double getG(int node) {
+		return g[node];
+	}
+
+	public int getH(int node) {
+		return h[node];
+	}
+
+	public int getParent(int node) {
+		return parent[node];
+	}
+
+	/**
+	 * Records a cheaper path to a state.
+	 *
+	 * @param node The number of the state
+	 * @param cost The cost of the new path
+	 * @param from The number of the state it was reached from
+	 */
+	public void update(int node, double cost, int from) {
+		g[node] = cost;
+		parent[node] = from;
+	}
+
+	/**
+	 * @return True if the state has been expanded and not re-opened since.
+	 */
+	public boolean isClosed(int node) {
+		return (flags[node] & CLOSED) != 0;
+	}
+
+	public void setClosed(int node, boolean closed) {
+		flags[node] = (byte) (closed ? flags[node] | CLOSED : flags[node] & ~CLOSED);
+	}
+
+	public boolean isOnPath(int node) {
+		return (flags[node] & ON_PATH) != 0;
+	}
+
+	/**
+	 * @return The number of the goal state, -1 if no goal was reached.
+	 */
+	public int getGoal() {
+		return goal;
+	}
+
+	/**
+	 * Records the goal and marks the states on the path to it.
+	 *
+	 * @param node The number of the goal state
+	 */
+	public void setGoal(int node) {
+		goal = node;
+		for (int ancestor = node; ancestor != -1; ancestor = parent[ancestor]) {
+			flags[ancestor] |= ON_PATH;
+		}
+	}
+
+	/**
+	 * @return The states on the path from the start to the goal, or null if
+	 * 		   no goal was reached.
+	 */
+	public List<V> getPath() {
+		if (goal < 0) {
+			return null;
+		}
+		List<V> path = new ArrayList<>();
+		for (int node = goal; node != -1; node = parent[node]) {
+			path.add(index.getState(node));
+		}
+		Collections.reverse(path);
+		return path;
+	}
+}
@@ -1,15 +1,10 @@
 package algorithms.search;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.PriorityQueue;
 
+import core.components.CompactGraph;
 import core.components.Edge;
-import core.components.Pair;
+import core.components.IntGraph;
 import edu.uci.ics.jung.graph.Graph;
 
 /**
@@ -23,6 +18,21 @@ import edu.uci.ics.jung.graph.Graph;
  */
 public class ShortestPath<V, E extends Edge> {
 
+	/**
+	 * Engine of the landmark searches, kept while they run on the same
+	 * snapshot and landmarks
+	 */
+	private LandmarkSearch landmarkSearch;
+	private CompactGraph<V,E> landmarkGraph;
+	private Landmarks landmarks;
+
+	/**
+	 * Engine of the bidirectional searches and the snapshot it was built
+	 * for, which holds the reversed graph of a directed snapshot
+	 */
+	private BidirectionalDijkstra bidirectionalDijkstra;
+	private CompactGraph<V,E> bidirectionalGraph;
+
 	/**
 	 * Searches the graph and searches for the shortest path
 	 * from a given start node to the destination. Returns {@code null}
@@ -51,164 +61,132 @@ public class ShortestPath<V, E extends Edge> {
 			return null;
 		}
 		
-		// Keep record of distance to each vertex, map each vertex
-		// in the graph to it's distance
-		HashMap<V, Number> distanceTable = new HashMap<>();
-		
-		// Unvisited node queue, uses a pair <Vertex, Double> and ordered
-		// by the distance to the vertex
-		PriorityQueue<Pair<V, Number> > queue = new PriorityQueue<>(new QueueComparator());
-		
-		// Map of nodes on the path, parents is value, key is child
-		HashMap<V, V> parent = new HashMap<>();
-		
-		Number maxValue;
-		E edgeTest = graph.getEdges().iterator().next();
-
-		// This is so ugly, I hate Java Numbers
-		int numberType = 0;
-		if (edgeTest.getWeight() instanceof Integer) {
-			numberType = 1;
-		} else if (edgeTest.getWeight() instanceof Double) {
-			numberType = 2;
-		}
-		// Place each vertex in the map, initialize distances and put
-		// the pairings into the queue.
-		for (V vertex : graph.getVertices()) {
-			if (numberType == 1) {
-				maxValue = Integer.MAX_VALUE;
-				if (vertex.equals(source)) {
-					distanceTable.put(source, 0);
-					queue.add(new Pair<>(vertex, 0));
-				} else {
-					distanceTable.put(vertex, Integer.MAX_VALUE);
-					queue.add(new Pair<>(vertex, maxValue));
-				}
-			} else if (numberType == 2) {
-				maxValue = Double.MAX_VALUE;
-				if (vertex.equals(source)) {
-					distanceTable.put(source, 0.0);
-					queue.add(new Pair<>(vertex, 0.0));
-				} else {
-					distanceTable.put(vertex, Double.MAX_VALUE);
-					queue.add(new Pair<>(vertex, maxValue));
-				}
-			}
+		return search(CompactGraph.of(graph), source, destination);
+	}
+
+	/**
+	 * Same as {@link #search(Graph, Object, Object)} but runs on a compact
+	 * snapshot of the graph, which can be reused between queries.
+	 *
+	 * @param graph The snapshot to search
+	 * @param source The vertex to start the search from
+	 * @param destination The goal vertex
+	 *
+	 * @return A list with the order of vertices on the shortest path,
+	 * 		   null if no path exists in the graph.
+	 */
+	public List<V> search(CompactGraph<V,E> graph, V source, V destination) {
+
+		int sourceIndex = graph.indexOf(source);
+		int destinationIndex = graph.indexOf(destination);
+		if (sourceIndex < 0 || destinationIndex < 0) {
+			return null;
 		}
-		
-		parent.put(source, null);
-
-		while (!queue.isEmpty()) {
-			
-			Pair<V, Number> topPair = queue.remove();
-			V vertex = topPair.getLeft();
-			
-			// Goal test, return the list of nodes on the path
-			// if we reach the destination
-			if (vertex.equals(destination)) {
-				return tracePath(parent, destination);
-			}
-			
-			Collection<V> neighbours = graph.getNeighbors(vertex);
-			
-			for (V neighbour : neighbours) {
-				
-				E edge = graph.findEdge(vertex, neighbour);
-				assert(edge != null);
-								
-				// Test for type of number used for weight, work accordingly
-				// Did I mention I hate the Java Number class.
-				if (numberType == 1) {
-
-					Integer alternateDistance = (Integer)edge.getWeight();
-
-					if (alternateDistance < (Integer)distanceTable.get(neighbour)) {
-						distanceTable.put(neighbour, alternateDistance);
-						parent.put(neighbour, vertex);
-						queue.add(new Pair<>(neighbour, alternateDistance));
-					}
-				} else if (numberType == 2) {
-					Double alternateDistance = (Double)edge.getWeight();
-
-					if (alternateDistance < (Double)distanceTable.get(neighbour)) {
-						distanceTable.put(neighbour, alternateDistance);
-						parent.put(neighbour, vertex);
-						queue.add(new Pair<>(neighbour, alternateDistance));
-					}
-				}
-			}
+
+		int[] path = searchIndices(graph, sourceIndex, destinationIndex);
+		if (path == null) {
+			return null;
 		}
-		// Exhausted all possible paths from source, could not find a path
-		// to the goal.
-		return null;
+		return graph.toVertices(path, path.length);
 	}
 
 	/**
-	 * Traces back through the hashmap to find all the nodes
-	 * in order from the destination node.
-	 * 
-	 * @param parentMap The map of child, parents
+	 * Same as {@link #search(CompactGraph, Object, Object)} but searches from
+	 * both ends at once with a {@link BidirectionalDijkstra}, which settles
+	 * far fewer vertices on large graphs. Returns a path of the same length,
+	 * which can differ from the one-way search when there are ties.
+	 *
+	 * The engine, and the reversed graph of a directed snapshot, are built
+	 * by the first query and reused by later queries on the same snapshot.
+	 * Like the landmark search this makes the object unsafe to share between
+	 * threads.
+	 *
+	 * @param graph The snapshot to search
+	 * @param source The vertex to start the search from
 	 * @param destination The goal vertex
-	 * @return A list of the path from source to destination
+	 *
+	 * @return A list with the order of vertices on the shortest path,
+	 * 		   null if no path exists in the graph.
 	 */
-	private List<V> tracePath(HashMap<V, V> parentMap, V destination) {
-		
-		List<V> path = new ArrayList<>();
+	public List<V> bidirectionalSearch(CompactGraph<V,E> graph, V source, V destination) {
 
-		V ancestor = parentMap.get(destination);
-		path.add(destination);
-		
-		while (ancestor != null) {
-			path.add(ancestor);
-			ancestor = parentMap.get(ancestor);
+		int sourceIndex = graph.indexOf(source);
+		int destinationIndex = graph.indexOf(destination);
+		if (sourceIndex < 0 || destinationIndex < 0) {
+			return null;
 		}
-		
-		Collections.reverse(path);
-		
-		return path;
-	
+
+		if (bidirectionalDijkstra == null || bidirectionalGraph != graph) {
+			bidirectionalDijkstra = new BidirectionalDijkstra(graph);
+			bidirectionalGraph = graph;
+		}
+		BidirectionalDijkstra dijkstra = bidirectionalDijkstra;
+		if (!dijkstra.search(sourceIndex, destinationIndex)) {
+			return null;
+		}
+		int[] path = dijkstra.getPath();
+		return graph.toVertices(path, path.length);
 	}
 
 	/**
-	 * Private comparator used to order the pairings in the queue
+	 * Same as {@link #search(CompactGraph, Object, Object)} but runs an A*
+	 * search guided by landmark lower bounds, see {@link LandmarkSearch}.
+	 * Returns a path of the same length, which can differ from the plain
+	 * search when there are ties.
 	 *
-	 * Generic numbers suck for comparisons..
+	 * The engine is kept and reused by the next query on the same snapshot
+	 * and landmarks, so repeated queries allocate nothing. It makes this
+	 * object unsafe to use for landmark searches from several threads, give
+	 * each thread its own or use a {@link LandmarkSearch} per thread.
 	 *
-	 * @author Michael Nowicki
+	 * @param graph The snapshot to search
+	 * @param source The vertex to start the search from
+	 * @param destination The goal vertex
+	 * @param landmarks Landmarks computed for the snapshot
 	 *
+	 * @return A list with the order of vertices on the shortest path,
+	 * 		   null if no path exists in the graph.
 	 */
-	private class QueueComparator implements Comparator<Pair<V, Number> > {
-
-		@Override
-		public int compare(Pair<V, Number> pairOne, Pair<V, Number> pairTwo) {
-
-			Number leftSide = pairOne.getRight();
-			Number rightSide = pairTwo.getRight();
-					
-			if (leftSide.getClass() == Double.class) {
-				Double left = (Double)leftSide;
-				Double right = (Double)rightSide;
-			
-				if (left > right) {
-					return 1;
-				} else if (right > left) {
-					return -1;
-				}
-			
-			} else if (leftSide.getClass() == Integer.class) {
-				Integer left = (Integer)leftSide;
-				Integer right = (Integer)rightSide;
-			
-				if (left > right) {
-					return 1;
-				} else if (right > left) {
-					return -1;
-				}
-			
-			}
-			
-			return 0;
+	public List<V> search(CompactGraph<V,E> graph, V source, V destination, Landmarks landmarks) {
+
+		int sourceIndex = graph.indexOf(source);
+		int destinationIndex = graph.indexOf(destination);
+		if (sourceIndex < 0 || destinationIndex < 0) {
+			return null;
+		}
+
+		if (landmarkSearch == null || landmarkGraph != graph || this.landmarks != landmarks) {
+			landmarkSearch = new LandmarkSearch(graph, landmarks);
+			landmarkGraph = graph;
+			this.landmarks = landmarks;
+		}
+		LandmarkSearch search = landmarkSearch;
+		if (!search.search(sourceIndex, destinationIndex)) {
+			return null;
+		}
+		int[] path = search.getPath();
+		return graph.toVertices(path, path.length);
+	}
+
+	/**
+	 * Index based Dijkstra search on a {@link DijkstraSearch} engine, stopping
+	 * as soon as the destination is settled. Works on any {@link IntGraph},
+	 * use the engine directly to run many queries on the same graph.
+	 *
+	 * @param graph The graph to search
+	 * @param source Index of the vertex to start from
+	 * @param destination Index of the goal vertex
+	 * @return The indices of the vertices on the shortest path, or null
+	 * 		   if the destination can't be reached.
+	 */
+	public static int[] searchIndices(IntGraph graph, int source, int destination) {
+		DijkstraSearch dijkstra = new DijkstraSearch(graph);
+		if (!dijkstra.search(source, destination)) {
+			// Exhausted all possible paths from source, could not find a path
+			// to the goal.
+			return null;
 		}
+		return dijkstra.getPath(destination);
 	}
 
 }
@@ -0,0 +1,22 @@
+package algorithms.search;
+
+/**
+ * Reduces a state to a 64 bit key for a {@link TranspositionTable}. Two
+ * states that are the same configuration must get the same key, whatever
+ * their equals says, and different configurations should rarely share one.
+ * Small states can be packed into the key exactly, larger ones can use a
+ * {@link ZobristEncoder}.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ */
+@FunctionalInterface
+public interface StateEncoder<V> {
+
+	/**
+	 * @param state The state to encode
+	 * @return The key of the state.
+	 */
+	long encode(V state);
+}
@@ -0,0 +1,105 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+/**
+ * Numbers the states reached by a search, 0, 1, 2, ... in the order they
+ * are added, and finds the number of a state again through its equals and
+ * hashCode. It is an open addressing table with linear probing over plain
+ * arrays, so unlike a HashMap from states to Integers it costs no entry or
+ * boxed value per state, which matters once a search reaches tens of
+ * millions of them.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ */
+class StateIndex<V> {
+
+	private static final int MIN_CAPACITY = 64;
+
+	/**
+	 * Table slots holding the id of a state plus one, 0 for an empty slot
+	 */
+	private int[] slots = new int[2 * MIN_CAPACITY];
+	private int[] hashes = new int[MIN_CAPACITY];
+	private Object[] states = new Object[MIN_CAPACITY];
+	private int size;
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return The id of the state, -1 if it hasn't been added.
+	 */
+	int get(V state) {
+		int hash = hash(state);
+		int mask = slots.length - 1;
+		for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+			int id = slots[slot] - 1;
+			if (hashes[id] == hash && state.equals(states[id])) {
+				return id;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds a state that is not in the index yet.
+	 *
+	 * @return The id of the state.
+	 */
+	int add(V state) {
+		if (size == states.length) {
+			grow();
+		}
+		int hash = hash(state);
+		int id = size++;
+		states[id] = state;
+		hashes[id] = hash;
+		insert(id, hash);
+		return id;
+	}
+
+	@SuppressWarnings("unchecked")
+	V getState(int id) {
+		return (V) states[id];
+	}
+
+	/**
+	 * Removes every state, keeping the arrays for the next search.
+	 */
+	void clear() {
+		Arrays.fill(slots, 0);
+		Arrays.fill(states, 0, size, null);
+		size = 0;
+	}
+
+	private void insert(int id, int hash) {
+		int mask = slots.length - 1;
+		int slot = hash & mask;
+		while (slots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = id + 1;
+	}
+
+	/**
+	 * Doubles the capacity, the table is kept at most half full.
+	 */
+	private void grow() {
+		int capacity = 2 * states.length;
+		states = Arrays.copyOf(states, capacity);
+		hashes = Arrays.copyOf(hashes, capacity);
+		slots = new int[2 * capacity];
+		for (int id = 0; id < size; id++) {
+			insert(id, hashes[id]);
+		}
+	}
+
+	private static int hash(Object state) {
+		int hash = state.hashCode() * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+}
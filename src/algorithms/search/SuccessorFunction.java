@@ -0,0 +1,56 @@
+package algorithms.search;
+
+import core.components.WeightedEdge;
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * Generates the successors of a state on demand, so a search can run over a
+ * state space that is never built as a graph. Successors are handed to a
+ * callback instead of being returned in a collection, which keeps the
+ * expansion loop free of allocations apart from the states themselves.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ */
+public interface SuccessorFunction<V> {
+
+	/**
+	 * Receives the successors of an expanded state.
+	 *
+	 * @param <V> The state type
+	 */
+	interface Successors<V> {
+
+		/**
+		 * @param successor A state reachable in one step
+		 * @param cost The cost of the step, must not be negative
+		 */
+		void add(V successor, double cost);
+	}
+
+	/**
+	 * Passes every successor of the state to the callback.
+	 *
+	 * @param state The state to expand
+	 * @param successors Receives each successor and the cost of reaching it
+	 */
+	void expand(V state, Successors<V> successors);
+
+	/**
+	 * Successors of an explicit graph, the opposite ends of the out edges of
+	 * a vertex with the edge weight as the cost.
+	 *
+	 * @param graph The graph
+	 * @param <V> The vertex type
+	 * @param <E> The edge type
+	 * @return A successor function over the graph.
+	 */
+	static <V, E extends WeightedEdge> SuccessorFunction<V> of(Graph<V, E> graph) {
+		return (state, successors) -> {
+			for (E edge : graph.getOutEdges(state)) {
+				successors.add(graph.getOpposite(state, edge), edge.getEdgeWeight());
+			}
+		};
+	}
+}
@@ -0,0 +1,188 @@
+package algorithms.search;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size table of the cheapest cost each state has been reached with,
+ * keyed on the 64 bit key of a {@link StateEncoder}, for detecting states a
+ * search has seen before when their equals can't, or when keeping every
+ * state is too expensive. The memory used is fixed when the table is made,
+ * once it fills up new entries push out old ones as chosen by the
+ * {@link Replacement} policy. Losing an entry only costs the search some
+ * repeated work, never a wrong result, as long as distinct states have
+ * distinct keys.
+ *
+ * Entries are kept in buckets of four slots over two parallel arrays, a
+ * key is looked for in its own bucket only.
+ *
+ * @author agent
+ */
+public class TranspositionTable {
+
+	/**
+	 * Which entry gives way when a key arrives at a full bucket.
+	 */
+	public enum Replacement {
+		/**
+		 * The new entry always replaces the oldest one in the bucket, the
+		 * table keeps the states seen most recently.
+		 */
+		ALWAYS,
+		/**
+		 * The new entry replaces the most expensive one in the bucket, if
+		 * it is cheaper. States close to the start are kept, and those cut
+		 * off the largest parts of the search.
+		 */
+		LOWER_COST
+	}
+
+	private static final int BUCKET = 4;
+	/**
+	 * Marks an empty slot, a key that is really 0 is stored as this instead
+	 */
+	private static final long EMPTY = 0L;
+	private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+
+	private final long[] keys;
+	private final double[] costs;
+	/**
+	 * Next slot to replace in each bucket for {@link Replacement#ALWAYS}
+	 */
+	private final byte[] victims;
+	private final Replacement replacement;
+	private final int shift;
+	private int size;
+	private long replacedCount;
+
+	/**
+	 * @param capacity The number of entries, rounded up to a power of two
+	 * 		  of at least eight
+	 * @param replacement The replacement policy
+	 */
+	public TranspositionTable(int capacity, Replacement replacement) {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity " + capacity + " out of range");
+		}
+		int slots = Math.max(2 * BUCKET, Integer.highestOneBit(capacity - 1) << 1);
+		keys = new long[slots];
+		costs = new double[slots];
+		victims = new byte[slots / BUCKET];
+		this.replacement = replacement;
+		shift = 64 - Integer.numberOfTrailingZeros(slots / BUCKET);
+	}
+
+	/**
+	 * @return The number of entries the table holds when full.
+	 */
+	public int getCapacity() {
+		return keys.length;
+	}
+
+	/**
+	 * @return The number of entries.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of entries pushed out since the table was made or
+	 * 		   last cleared.
+	 */
+	public long getReplacedCount() {
+		return replacedCount;
+	}
+
+	/**
+	 * Removes every entry.
+	 */
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		Arrays.fill(victims, (byte) 0);
+		size = 0;
+		replacedCount = 0;
+	}
+
+	/**
+	 * @param key The key of a state
+	 * @return The cheapest cost recorded for the state, infinity if it
+	 * 		   isn't in the table.
+	 */
+	public double getCost(long key) {
+		key = stored(key);
+		int first = bucket(key);
+		for (int slot = first; slot < first + BUCKET; slot++) {
+			if (keys[slot] == key) {
+				return costs[slot];
+			}
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Offers a state reached with some cost. The cost is recorded unless the
+	 * table already holds a cost for the state that is at most as large, in
+	 * which case the state has been reached at least as cheaply before.
+	 *
+	 * @param key The key of the state
+	 * @param cost The cost it was reached with
+	 * @return False if the state was reached at least as cheaply before and
+	 * 		   can be pruned, true otherwise.
+	 */
+	public boolean offer(long key, double cost) {
+		key = stored(key);
+		int first = bucket(key);
+		int empty = -1;
+		for (int slot = first; slot < first + BUCKET; slot++) {
+			if (keys[slot] == key) {
+				if (costs[slot] <= cost) {
+					return false;
+				}
+				costs[slot] = cost;
+				return true;
+			}
+			if (keys[slot] == EMPTY && empty < 0) {
+				empty = slot;
+			}
+		}
+		if (empty >= 0) {
+			keys[empty] = key;
+			costs[empty] = cost;
+			size++;
+			return true;
+		}
+
+		int victim;
+		if (replacement == Replacement.ALWAYS) {
+			int b = first / BUCKET;
+			victim = first + victims[b];
+			victims[b] = (byte) ((victims[b] + 1) % BUCKET);
+		} else {
+			victim = first;
+			for (int slot = first + 1; slot < first + BUCKET; slot++) {
+				if (costs[slot] > costs[victim]) {
+					victim = slot;
+				}
+			}
+			if (costs[victim] <= cost) {
+				return true;
+			}
+		}
+		keys[victim] = key;
+		costs[victim] = cost;
+		replacedCount++;
+		return true;
+	}
+
+	private static long stored(long key) {
+		return key == EMPTY ? ZERO_KEY : key;
+	}
+
+	/**
+	 * @return The first slot of the bucket of a key, taken from the high bits
+	 * 		   of the key times the golden ratio so packed keys spread well.
+	 */
+	private int bucket(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift) * BUCKET;
+	}
+}
@@ -0,0 +1,159 @@
+package algorithms.search;
+
+import core.components.State;
+import core.components.WeightedEdge;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for TranspositionTable and the state encoders.
+ *
+ * @author agent
+ */
+public class TranspositionTableTest {
+
+    @Test
+    public void offer_fullTable_keepsCheapestEntriesWithLowerCost() {
+        TranspositionTable table = new TranspositionTable(64, TranspositionTable.Replacement.LOWER_COST);
+        assertTrue(table.offer(0L, 5.0));
+        assertFalse(table.offer(0L, 5.0));
+        assertTrue(table.offer(0L, 4.0));
+        assertEquals(4.0, table.getCost(0L), 0.0);
+
+        for (long key = 1; key < 10_000; key++) {
+            table.offer(key, 10 + key % 100);
+        }
+        assertEquals(table.getCapacity(), table.size());
+        assertTrue(table.getReplacedCount() > 0);
+        assertEquals(4.0, table.getCost(0L), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, table.getCost(-1L), 0.0);
+    }
+
+    @Test
+    public void zobristEncoder_update_sameKeyAsEncode() {
+        ZobristEncoder<int[]> encoder = new ZobristEncoder<>(9, 9, (tiles, i) -> tiles[i], 1L);
+        int[] tiles = {1, 2, 3, 4, 5, 6, 7, 8, 0};
+        long key = encoder.encode(tiles);
+        // Slide tile 8 into the blank
+        long moved = encoder.update(encoder.update(key, 7, 8, 0), 8, 0, 8);
+        tiles[7] = 0;
+        tiles[8] = 8;
+        assertEquals(encoder.encode(tiles), moved);
+        assertTrue(moved != key);
+    }
+
+    @Test
+    public void search_puzzleWithIdentityStates_prunesRepeatedStates() {
+        Board goal = new Board(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 0});
+        Board start = goal;
+        Random random = new Random(2);
+        for (int i = 0; i < 200; i++) {
+            start = start.slide(random);
+        }
+        Board scrambled = new Board(start.tiles);
+
+        SuccessorFunction<Board> moves = (board, successors) -> {
+            for (Board next : board.successors()) {
+                successors.add(next, 1);
+            }
+        };
+        ZobristEncoder<Board> encoder = new ZobristEncoder<>(9, 9, (board, i) -> board.tiles[i], 7L);
+        TranspositionTable table = new TranspositionTable(1 << 16, TranspositionTable.Replacement.LOWER_COST);
+
+        AStarSearch<Board, WeightedEdge> plain = new AStarSearch<>(moves, Board::manhattan);
+        AStarSearch<Board, WeightedEdge> pruned = new AStarSearch<>(moves, Board::manhattan);
+        pruned.setTranspositionTable(table, encoder);
+        plain.search(scrambled, Board::isSolved);
+        pruned.search(scrambled, Board::isSolved);
+
+        assertEquals(plain.getPathCost(), pruned.getPathCost(), 0.0);
+        assertTrue(pruned.getPrunedCount() > 0);
+        assertTrue(pruned.getExpandedCount() * 10 <= plain.getExpandedCount());
+
+        UniformCostSearch<Board, ?> uniform = new UniformCostSearch<>(moves);
+        uniform.setTranspositionTable(table, encoder);
+        uniform.search(scrambled, Board::isSolved);
+        assertEquals(plain.getPathCost(), uniform.getPathCost(), 0.0);
+    }
+
+    /**
+     * Eight puzzle board, equal only to itself as the State default.
+     */
+    private static class Board extends State {
+
+        final byte[] tiles;
+        final int blank;
+
+        Board(byte[] tiles) {
+            this.tiles = tiles;
+            int b = 0;
+            while (tiles[b] != 0) {
+                b++;
+            }
+            blank = b;
+        }
+
+        Board move(int to) {
+            byte[] next = tiles.clone();
+            next[blank] = next[to];
+            next[to] = 0;
+            return new Board(next);
+        }
+
+        Board[] successors() {
+            int row = blank / 3;
+            int column = blank % 3;
+            Board[] boards = new Board[(row > 0 ? 1 : 0) + (row < 2 ? 1 : 0) + (column > 0 ? 1 : 0) + (column < 2 ? 1 : 0)];
+            int i = 0;
+            if (row > 0) {
+                boards[i++] = move(blank - 3);
+            }
+            if (row < 2) {
+                boards[i++] = move(blank + 3);
+            }
+            if (column > 0) {
+                boards[i++] = move(blank - 1);
+            }
+            if (column < 2) {
+                boards[i++] = move(blank + 1);
+            }
+            return boards;
+        }
+
+        Board slide(Random random) {
+            Board[] next = successors();
+            return next[random.nextInt(next.length)];
+        }
+
+        boolean isSolved() {
+            for (int i = 0; i < 8; i++) {
+                if (tiles[i] != i + 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int manhattan() {
+            int distance = 0;
+            for (int i = 0; i < 9; i++) {
+                if (tiles[i] != 0) {
+                    int home = tiles[i] - 1;
+                    distance += Math.abs(home / 3 - i / 3) + Math.abs(home % 3 - i % 3);
+                }
+            }
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(tiles);
+        }
+    }
+}
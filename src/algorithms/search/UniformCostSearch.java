@@ -1,89 +1,224 @@
 package algorithms.search;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.function.Predicate;
 
 import core.components.Edge;
-import core.components.Vertex;
 import edu.uci.ics.jung.graph.Graph;
 
 /**
- * Generic Uniform cost search method. This is meant for well defined graph searches, 
- * does not handle implicit generation of states (YET). Graph must be an implementation
- * of the generic Node and Edge classes provided.
- * 
+ * Generic Uniform cost search method. Works on a JUNG graph of the generic
+ * Node and Edge classes provided, or on a state space generated on demand by
+ * a {@link SuccessorFunction}, so large spaces never have to be built as a
+ * graph first.
+ *
+ * The search keeps its own record for every state it reaches in a
+ * {@link SearchNodeTable} instead of writing costs into the states, the
+ * table is also the closed list, and the frontier is an indexed heap so a
+ * cheaper path lowers the cost of a queued state in place. Ties are broken
+ * in the order states were reached.
+ *
  * @author Mike Nowicki
  *
- * @param <V> - The weight type for the search
+ * @param <V> - The state type
+ * @param <E> - The edge type when searching a graph
  */
-public class UniformCostSearch<V extends Vertex, E extends Edge> {
+public class UniformCostSearch<V, E extends Edge> {
 
-	public UniformCostSearch() { }
+	private final SuccessorFunction<V> successorFunction;
+	private final SuccessorFunction.Successors<V> relax = this::relax;
+	private final OpenList frontier = new OpenList();
+	private final SearchNodeTable<V> nodes = new SearchNodeTable<>();
+	private TranspositionTable transpositions;
+	private StateEncoder<? super V> encoder;
+	private int current;
+	private long expandedCount;
+	private long prunedCount;
 
-	public List<V> search(Graph<V, E> graph, V root, V goal) {
+	/**
+	 * Creates a search over the graphs passed to {@link #search(Graph, Object, Object)}.
+	 */
+	public UniformCostSearch() {
+		this.successorFunction = null;
+	}
+
+	/**
+	 * Creates a search over the states generated by a successor function.
+	 *
+	 * @param successorFunction Generates the successors of a state
+	 */
+	public UniformCostSearch(SuccessorFunction<V> successorFunction) {
+		this.successorFunction = successorFunction;
+	}
 
+	/**
+	 * Detects states reached before through their keys in a transposition
+	 * table as well, pruning a state when the table knows a path to it that
+	 * is at least as cheap. This catches repeated states whose equals can't
+	 * tell they are the same. The table is cleared at the start of every
+	 * search.
+	 *
+	 * @param table The table to use, null to stop using one
+	 * @param encoder Gives the key of a state
+	 */
+	public void setTranspositionTable(TranspositionTable table, StateEncoder<? super V> encoder) {
+		if (table != null && encoder == null) {
+			throw new IllegalArgumentException("A transposition table needs an encoder");
+		}
+		this.transpositions = table;
+		this.encoder = encoder;
+	}
+
+	/**
+	 * Searches a graph, the cost of a step is the weight of the edge.
+	 *
+	 * @param graph The graph to search
+	 * @param root The node to start from
+	 * @param goal The node to search for
+	 * @return The nodes in the order they were expanded ending with the
+	 * 			goal, or null if the goal can't be reached.
+	 */
+	public List<V> search(Graph<V, E> graph, V root, V goal) {
 		List<V> nodeOrdering = new ArrayList<>();
-		List<V> closedList = new ArrayList<>();
-		Queue<V> frontier = new PriorityQueue<V>(new NodeComparator());
-		int totalCost = 0;
-		
-		frontier.add(root);
-		
-		while (!frontier.isEmpty()) {
-			
-			V currentNode = frontier.poll();
-			nodeOrdering.add(currentNode);
-			
-			totalCost += (Double)currentNode.getCost();
-			
-			if (currentNode.equals(goal)) {
-				System.out.println(totalCost);
-				return nodeOrdering;
+		SuccessorFunction<V> edges = (node, successors) -> {
+			nodeOrdering.add(node);
+			for (E edge : graph.getOutEdges(node)) {
+				successors.add(graph.getOpposite(node, edge), edge.getDoubleWeight());
 			}
-			
-			closedList.add(currentNode);
-			
-			for (V neighbour : graph.getNeighbors(currentNode)) {
-				
-				E e = graph.findEdge(currentNode, neighbour);
-				
-				Double pathCost = (Double)currentNode.getCost() + (Double)e.getWeight();
-				neighbour.setCost(pathCost);
-				
-				if (!closedList.contains(neighbour) && !frontier.contains(neighbour)) {
-					frontier.add(neighbour);
-				} else if (frontier.contains(neighbour)) {
-					// Something here breaks it, might need a custom queue..........
-					for (Vertex n : frontier) {
-						if (n.equals(neighbour)) {
-							if (n.getCost().doubleValue() > neighbour.getCost().doubleValue()) {
-								frontier.remove(n);
-								frontier.add(neighbour);
-								break;
-							}
-						}
-					}
-					
-					frontier.remove(neighbour);
-					frontier.add(neighbour);
-				}
-			}	
+		};
+		if (run(edges, root, goal::equals) < 0) {
+			return null;
 		}
-		return null;
+		nodeOrdering.add(goal);
+		return nodeOrdering;
+	}
+
+	/**
+	 * Searches the generated state space for a cheapest path to the goal.
+	 *
+	 * @param root The state to start from
+	 * @param goal The state to search for
+	 * @return The states on the path from the root to the goal, or null if
+	 * 			the goal can't be reached.
+	 */
+	public List<V> search(V root, V goal) {
+		return search(root, goal::equals);
 	}
-	
-	private class NodeComparator implements Comparator<Vertex>{
-		@Override
-		public int compare(Vertex lhs, Vertex rhs) {
-			if (lhs.getCost().doubleValue() < rhs.getCost().doubleValue()) {
-				return -1;
-			} else if (lhs.getCost() == rhs.getCost()) {
-				return 0;
+
+	/**
+	 * Searches the generated state space for a cheapest path to any state
+	 * accepted by the goal test.
+	 *
+	 * @param root The state to start from
+	 * @param goalTest Accepts the goal states
+	 * @return The states on the path from the root to the goal, or null if
+	 * 			no goal can be reached.
+	 * @throws IllegalStateException If the search was created without a
+	 * 			successor function.
+	 */
+	public List<V> search(V root, Predicate<? super V> goalTest) {
+		if (successorFunction == null) {
+			throw new IllegalStateException("No successor function, search a graph instead");
+		}
+		run(successorFunction, root, goalTest);
+		return nodes.getPath();
+	}
+
+	/**
+	 * @return The node of the goal, -1 if none was reached.
+	 * @throws IllegalArgumentException If a step has a negative cost.
+	 */
+	private int run(SuccessorFunction<V> successors, V root, Predicate<? super V> goalTest) {
+		nodes.clear();
+		frontier.clear();
+		expandedCount = 0;
+		prunedCount = 0;
+		if (transpositions != null) {
+			transpositions.clear();
+			transpositions.offer(encoder.encode(root), 0.0);
+		}
+
+		nodes.add(root, 0.0, 0, -1);
+		frontier.insertOrDecrease(0, 0.0, 0);
+		while (!frontier.isEmpty()) {
+			int node = frontier.poll();
+			nodes.setClosed(node, true);
+			expandedCount++;
+			V state = nodes.getState(node);
+			if (goalTest.test(state)) {
+				nodes.setGoal(node);
+				break;
 			}
-			return 1;
-		}	
+			current = node;
+			successors.expand(state, relax);
+		}
+		return nodes.getGoal();
+	}
+
+	private void relax(V successor, double stepCost) {
+		if (stepCost < 0) {
+			throw new IllegalArgumentException("Negative cost " + stepCost + " from " + nodes.getState(current));
+		}
+		double pathCost = nodes.getG(current) + stepCost;
+		if (transpositions != null && !transpositions.offer(encoder.encode(successor), pathCost)) {
+			prunedCount++;
+			return;
+		}
+		int node = nodes.indexOf(successor);
+		if (node < 0) {
+			node = nodes.add(successor, pathCost, 0, current);
+		} else if (nodes.isClosed(node) || pathCost >= nodes.getG(node)) {
+			return;
+		} else {
+			nodes.update(node, pathCost, current);
+		}
+		frontier.insertOrDecrease(node, pathCost, node);
+	}
+
+	/**
+	 * @return The states on the path found by the last search from the root
+	 * 			to the goal, or null if there is none.
+	 */
+	public List<V> getPath() {
+		return nodes.getPath();
+	}
+
+	/**
+	 * @return The records of the last search, valid until the next one.
+	 */
+	public SearchNodeTable<V> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return The cost of the path found by the last search, infinity if
+	 * 			there is none.
+	 */
+	public double getPathCost() {
+		int goal = nodes.getGoal();
+		return goal >= 0 ? nodes.getG(goal) : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return The number of states expanded by the last search.
+	 */
+	public long getExpandedCount() {
+		return expandedCount;
+	}
+
+	/**
+	 * @return The number of distinct states reached by the last search.
+	 */
+	public int getGeneratedCount() {
+		return nodes.size();
+	}
+
+	/**
+	 * @return The number of states the transposition table pruned in the
+	 * 		   last search.
+	 */
+	public long getPrunedCount() {
+		return prunedCount;
 	}
 }
@@ -0,0 +1,89 @@
+package algorithms.search;
+
+import core.components.CompactGraph;
+import core.components.DoubleWeightedEdge;
+import core.components.Edge;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for UniformCostSearch.
+ *
+ * @author agent
+ */
+public class UniformCostSearchTest {
+
+    @Test
+    public void search_randomGraph_sameCostAsDijkstra() {
+        Graph<Integer, Edge> graph = new DirectedSparseGraph<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 400; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 2000; i++) {
+            graph.addEdge(new DoubleWeightedEdge("e" + i, random.nextInt(50)),
+                    random.nextInt(400), random.nextInt(400));
+        }
+        CompactGraph<Integer, Edge> snapshot = CompactGraph.of(graph);
+        DijkstraSearch dijkstra = new DijkstraSearch(snapshot);
+        UniformCostSearch<Integer, Edge> graphSearch = new UniformCostSearch<>();
+        UniformCostSearch<Integer, Edge> implicitSearch = new UniformCostSearch<>((node, successors) -> {
+            for (Edge edge : graph.getOutEdges(node)) {
+                successors.add(graph.getDest(edge), edge.getDoubleWeight());
+            }
+        });
+
+        for (int target = 1; target < 400; target += 7) {
+            dijkstra.search(snapshot.indexOf(0), snapshot.indexOf(target));
+            double expected = dijkstra.getDistance(snapshot.indexOf(target));
+
+            List<Integer> order = graphSearch.search(graph, 0, target);
+            List<Integer> path = implicitSearch.search(0, target);
+            if (Double.isInfinite(expected)) {
+                assertNull(order);
+                assertNull(path);
+                continue;
+            }
+            assertEquals(expected, graphSearch.getPathCost(), 0.0);
+            assertEquals(expected, implicitSearch.getPathCost(), 0.0);
+            assertEquals(Integer.valueOf(target), order.get(order.size() - 1));
+            assertEquals(graphSearch.getExpandedCount(), order.size());
+
+            double length = 0;
+            for (int i = 1; i < path.size(); i++) {
+                double best = Double.POSITIVE_INFINITY;
+                for (Edge edge : graph.findEdgeSet(path.get(i - 1), path.get(i))) {
+                    best = Math.min(best, edge.getDoubleWeight());
+                }
+                length += best;
+            }
+            assertEquals(expected, length, 0.0);
+        }
+    }
+
+    @Test
+    public void search_implicitCounter_expandsEachStateOnce() {
+        // Reach n from 0 with steps of +1 costing 1 and *2 costing 1
+        UniformCostSearch<Long, Edge> search = new UniformCostSearch<>((n, successors) -> {
+            if (n < 1_000_000) {
+                successors.add(n + 1, 1);
+                successors.add(n * 2, 1);
+            }
+        });
+        List<Long> path = search.search(1L, 1_000_000L);
+
+        assertEquals(Long.valueOf(1_000_000L), path.get(path.size() - 1));
+        assertEquals(path.size() - 1, search.getPathCost(), 0.0);
+        // 1000000 is 11110100001001000000 in binary, 19 doublings and 6 increments for the ones after the first
+        assertEquals(25.0, search.getPathCost(), 0.0);
+        assertTrue(search.getExpandedCount() <= search.getGeneratedCount());
+    }
+}
@@ -0,0 +1,83 @@
+package algorithms.search;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing for states made up of a fixed number of features that
+ * each take one of a small number of values, like the tiles of a sliding
+ * puzzle or the squares of a board. Every (feature, value) pair is given a
+ * random 64 bit word and the key of a state is the exclusive or of the words
+ * of its features. A move that changes a few features changes the key by the
+ * words of the old and new values only, see {@link #update(long, int, int, int)}.
+ *
+ * @author agent
+ *
+ * @param <V> The state type
+ */
+public class ZobristEncoder<V> implements StateEncoder<V> {
+
+	/**
+	 * Reads the features of a state.
+	 *
+	 * @param <V> The state type
+	 */
+	@FunctionalInterface
+	public interface Features<V> {
+
+		/**
+		 * @param state The state
+		 * @param feature The feature to read, from 0 to the number of features
+		 * @return The value of the feature, from 0 to the number of values.
+		 */
+		int valueOf(V state, int feature);
+	}
+
+	private final int featureCount;
+	private final int valueCount;
+	private final Features<V> features;
+	private final long[] words;
+
+	/**
+	 * @param featureCount The number of features of every state
+	 * @param valueCount The number of values a feature can take
+	 * @param features Reads the features of a state
+	 * @param seed Seed for the random words, encoders with the same seed
+	 * 		  produce the same keys
+	 */
+	public ZobristEncoder(int featureCount, int valueCount, Features<V> features, long seed) {
+		if (featureCount <= 0 || valueCount <= 0) {
+			throw new IllegalArgumentException("Need at least one feature and one value");
+		}
+		this.featureCount = featureCount;
+		this.valueCount = valueCount;
+		this.features = features;
+		words = new long[featureCount * valueCount];
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = 0; i < words.length; i++) {
+			words[i] = random.nextLong();
+		}
+	}
+
+	@Override
+	public long encode(V state) {
+		long key = 0L;
+		for (int feature = 0; feature < featureCount; feature++) {
+			key ^= words[feature * valueCount + features.valueOf(state, feature)];
+		}
+		return key;
+	}
+
+	/**
+	 * The key after one feature changes value.
+	 *
+	 * @param key The key before the change
+	 * @param feature The feature that changed
+	 * @param oldValue Its value before the change
+	 * @param newValue Its value after the change
+	 * @return The key of the changed state.
+	 */
+	public long update(long key, int feature, int oldValue, int newValue) {
+		int base = feature * valueCount;
+		return key ^ words[base + oldValue] ^ words[base + newValue];
+	}
+}
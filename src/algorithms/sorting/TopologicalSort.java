@@ -1,10 +1,11 @@
 package algorithms.sorting;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 
+import algorithms.search.DepthFirstTraversal;
+import algorithms.search.DepthFirstVisitor;
+import core.components.CompactGraph;
+import core.components.IntGraph;
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 
@@ -36,9 +37,8 @@ public class TopologicalSort<V, E> {
 	 * Sorts the vertices in the given graph if the graph is directed.
 	 * 
 	 * @param graph The graph to perform the sort on
-	 * @return An topological ordering of the vertices
-	 * 			from an arbitrarily picked vertex in 
-	 * 			the graph that has no ancestors. Returns
+	 * @return An topological ordering of the vertices,
+	 * 			see {@link #sortIndices(IntGraph)}. Returns
 	 * 			null if the graph does not have directed
 	 * 			edges or if the graph contains cycles.
 	 */
@@ -51,59 +51,53 @@ public class TopologicalSort<V, E> {
 			return null;
 		}
 		
-		// List of sorted vertices
-		ArrayList<V> topSort = new ArrayList<>();
-		// Get collection of vertices to initialize structures
-		Collection<V> vertexSet = graph.getVertices();
+		CompactGraph<V, E> snapshot = CompactGraph.of(graph);
+		int[] order = sortIndices(snapshot);
 		
-		// Set stores all vertices with no incident edges
-		HashSet<V> set = new HashSet<>();
-		HashMap<V,Integer> edgeCounter = new HashMap<>();
-		
-		// Iterate over all vertices, if the vertex does not
-		// have a predecessor add it to the set of vertices
-		// to explore
-		for (V vertex : vertexSet) {
-			if (graph.getPredecessorCount(vertex) == 0) {
-				set.add(vertex);
-			}
-			// Keep count of incident edges, need to know
-			// when all have been "removed" so that the vertex
-			// can be added to the set if it was not already
-			edgeCounter.put(vertex, graph.getPredecessorCount(vertex));
+		// Case where the search ran into an edge back to a vertex
+		// still on the path, then the graph has at least one cycle
+		// and the vertices cannot be sorted.
+		if (order == null) {
+			System.out.println("Graph contains cycles, cannot sort vertices");
+			return null;
 		}
-		
-		while (!set.isEmpty()) {
-		
-			// Take one arbitrary vertex out
-			V vertex = set.iterator().next();
-			set.remove(vertex);
-			// Add it to the sorted list
-			topSort.add(vertex);
+		return new ArrayList<>(snapshot.toVertices(order, order.length));
+	}
+	
+	/**
+	 * Index based topological sort, run on a {@link DepthFirstTraversal}.
+	 * Every vertex is placed before all the vertices it has an edge to by
+	 * listing the vertices in reverse order of their finish times. A back
+	 * edge means the graph has a cycle, which stops the search.
+	 * 
+	 * @param graph The graph to sort, every arc is taken as directed
+	 * @return The vertex indices in topological order, or null if the
+	 * 			graph contains a cycle.
+	 */
+	public static int[] sortIndices(IntGraph graph) {
+		int[] order = new int[graph.getVertexCount()];
+		DepthFirstVisitor visitor = new DepthFirstVisitor() {
+			private int next = order.length;
+			private boolean cycle = false;
 			
-			// Cycle through all descendants, 			
-			Collection<V> neighbours = new HashSet<>();
-			for (E edge : graph.getOutEdges(vertex)) {
-				neighbours.add(graph.getDest(edge));
+			@Override
+			public void finishVertex(int v, int time) {
+				order[--next] = v;
 			}
-			for (V descendant : neighbours) {			
-				// Decrease edge count by one
-				edgeCounter.put(descendant, edgeCounter.get(descendant) - 1);
-				// Add the descendant to the set if it has not inward edges
-				// anymore, ie the edgeCounter value is 0.
-				if (edgeCounter.get(descendant) == 0) {
-					set.add(descendant);
-				}
+			
+			@Override
+			public void backEdge(int u, int w) {
+				cycle = true;
 			}
-		}
-		
-		// Case where failed to remove all edges from the graph
-		// then the graph has at least one cycle and the vertices
-		// cannot be sorted.
-		if (topSort.size() != graph.getVertexCount()) {
-			System.out.println("Graph contains cycles, cannot sort vertices");
+			
+			@Override
+			public boolean isDone() {
+				return cycle;
+			}
+		};
+		if (!new DepthFirstTraversal(graph).traverseAll(visitor)) {
 			return null;
 		}
-		return topSort;	
+		return order;	
 	}
 }
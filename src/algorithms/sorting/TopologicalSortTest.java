@@ -0,0 +1,53 @@
+package algorithms.sorting;
+
+import core.components.CompactGraph;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for TopologicalSort.
+ *
+ * @author agent
+ */
+public class TopologicalSortTest {
+
+    @Test
+    public void sortIndices_acyclicGraph_everyArcPointsForward() {
+        CompactGraph<Integer, String> dag = CompactGraph.of(createGraph(5,
+                new int[][]{{3, 1}, {1, 0}, {3, 4}, {4, 0}, {2, 3}}));
+        int[] order = TopologicalSort.sortIndices(dag);
+        assertEquals(dag.getVertexCount(), order.length);
+        int[] position = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        for (int v = 0; v < dag.getVertexCount(); v++) {
+            for (int i = 0; i < dag.getOutDegree(v); i++) {
+                assertTrue(position[v] < position[dag.getNeighbour(v, i)]);
+            }
+        }
+    }
+
+    @Test
+    public void sortIndices_cyclicGraph_null() {
+        CompactGraph<Integer, String> cyclic = CompactGraph.of(createGraph(3,
+                new int[][]{{0, 1}, {1, 2}, {2, 1}}));
+        assertNull(TopologicalSort.sortIndices(cyclic));
+    }
+
+    private Graph<Integer, String> createGraph(int n, int[][] arcs) {
+        Graph<Integer, String> graph = new DirectedSparseGraph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addVertex(i);
+        }
+        for (int[] arc : arcs) {
+            graph.addEdge(arc[0] + "-" + arc[1], arc[0], arc[1]);
+        }
+        return graph;
+    }
+}
@@ -1,8 +1,6 @@
 package algorithms.spanningtree;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 
 import core.components.UnionFind;
@@ -10,6 +8,7 @@ import core.components.Edge;
 import edu.uci.ics.jung.graph.DelegateForest;
 import edu.uci.ics.jung.graph.Forest;
 import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.util.Pair;
 
 /**
  * Spanning tree generator using Kruskall's algorithm.
@@ -35,7 +34,7 @@ public class KruskallMinimalSpanningTree<V, E extends Edge> implements MinimalSp
 		}
 		
 		Forest<V, E> spanningTree = new DelegateForest<>();
-		UnionFind<V> unionFind = new UnionFind<>();
+		UnionFind<V> unionFind = new UnionFind<>(graph.getVertexCount());
 		
 		// Place each vertex into its own set, also add to the forest
 		for (V vertex : graph.getVertices()) {
@@ -44,40 +43,25 @@ public class KruskallMinimalSpanningTree<V, E extends Edge> implements MinimalSp
 		}
 		
 		// Place list of edges into sortable list
-		List<E> orderedEdgeWeights = new ArrayList<>();
-		for (E edge : graph.getEdges()) {
-			orderedEdgeWeights.add(edge);
-		}
+		List<E> orderedEdgeWeights = new ArrayList<>(graph.getEdges());
 		orderedEdgeWeights.sort(new EdgeComparator<>());
 		
+		int treeEdges = 0;
 		// Loop over edges
-		for (int i = 0; i < orderedEdgeWeights.size(); i++) {
-			
-			E edge = orderedEdgeWeights.get(i);
-			Collection<V> vertices = graph.getIncidentVertices(edge);
-			V u = null;
-			V v = null;
+		for (E edge : orderedEdgeWeights) {
 			
-			// Lame way to get the source and dest of edge
-			int ctr = 0;
-			Iterator<V> itr = vertices.iterator();
-			while (itr.hasNext()) {
-				if (ctr == 0) {
-					u = itr.next();
-				} else {
-					v = itr.next();
-				}
-				ctr++;
-			}
+			Pair<V> endpoints = graph.getEndpoints(edge);
+			V u = endpoints.getFirst();
+			V v = endpoints.getSecond();
 			
-			// If u and v are not in the same set, add an edge between them
-			// in the tree and union their two sets
-			if (!unionFind.find(u).equals(unionFind.find(v))){
+			// If u and v are not in the same set union their two sets
+			// and add an edge between them in the tree
+			if (unionFind.union(u, v)) {
 				spanningTree.addEdge(edge, u, v);
-				unionFind.union(u, v);
+				treeEdges++;
 			}
 			// Once we have n-1 edges on n vertices the tree is complete
-			if (spanningTree.getEdgeCount() == (spanningTree.getVertexCount() - 1)) {
+			if (treeEdges == (graph.getVertexCount() - 1)) {
 				break;
 			}
 		}
@@ -27,7 +27,8 @@ public interface MinimalSpanningTree<V, E extends Edge> {
 	public Forest<V, E> findMinimalSpanningTree(Graph<V, E> graph);
 
 	/**
-	 * Hacky casting but w/e
+	 * Orders edges by ascending weight, read through the primitive
+	 * weight accessor so any mix of weight types compares correctly.
 	 *
 	 * @author Mike Nowicki
 	 *
@@ -36,23 +37,7 @@ public interface MinimalSpanningTree<V, E extends Edge> {
 
 		@Override
 		public int compare(T e1, T e2) {
-			if (e1.getWeight().getClass() == Double.class) {
-				if ((Double)e1.getWeight() < (Double)e2.getWeight()) {
-					return -1;
-				} else if ((Double)e1.getWeight() > (Double)e2.getWeight()) {
-					return 1;
-				}
-				return 0;
-			} else if (e1.getWeight().getClass() == Integer.class) {
-				if ((Integer)e1.getWeight() < (Integer)e2.getWeight()) {
-					return -1;
-				} else if ((Integer)e1.getWeight() > (Integer)e2.getWeight()) {
-					return 1;
-				}
-				return 0;
-			} else {
-				return 0;
-			}
+			return Double.compare(e1.getDoubleWeight(), e2.getDoubleWeight());
 		}
 	}
 }
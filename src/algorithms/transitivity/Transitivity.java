@@ -1,5 +1,6 @@
 package algorithms.transitivity;
 
+import core.components.BitMatrixGraph;
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.util.Pair;
 
@@ -14,6 +15,8 @@ public class Transitivity {
 
     /**
      * Approximates the transitivity of a given graph by edge sampling.
+     * Dense graphs are converted to a bit matrix first, so the neighbours
+     * of the endpoints are intersected a word at a time.
      *
      * @param graph The graph for which to approximate the transitivity.
      * @param numSamples The number of samples to take.
@@ -36,8 +39,15 @@ public class Transitivity {
         }
 
         //calculate transitivity of each edge
-        for (E edge : sample) {
-            transitivity += edgeClustering(graph, edge);
+        if (BitMatrixGraph.isDense(graph)) {
+            BitMatrixGraph<V> matrix = BitMatrixGraph.of(graph, true);
+            for (E edge : sample) {
+                transitivity += edgeClustering(matrix, graph.getEndpoints(edge));
+            }
+        } else {
+            for (E edge : sample) {
+                transitivity += edgeClustering(graph, edge);
+            }
         }
 
         return (transitivity / (numSamples));
@@ -62,6 +72,27 @@ public class Transitivity {
         }
     }
 
+    /**
+     * Computes the edge clustering coefficient of the edge between the given
+     * endpoints using the symmetric bit matrix of the graph.
+     *
+     * @param matrix The bit matrix of the graph, ignoring edge directions.
+     * @param ends The endpoints of the edge.
+     * @return The edge clustering.
+     */
+    private static <V> double edgeClustering(BitMatrixGraph<V> matrix, Pair<V> ends) {
+        int u = matrix.indexOf(ends.getFirst());
+        int v = matrix.indexOf(ends.getSecond());
+        int embeddedness = matrix.commonNeighbourCount(u, v);
+        int triplets = (matrix.getOutDegree(u) + matrix.getOutDegree(v) - 2) / 2;
+
+        if (triplets != 0) {
+            return ((double) embeddedness) / ((double) triplets);
+        } else {
+            return 0.0;
+        }
+    }
+
     /**
      * Computes the edge embeddedness of the given edge.
      *
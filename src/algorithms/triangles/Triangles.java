@@ -1,5 +1,8 @@
 package algorithms.triangles;
 
+import core.components.BitMatrixGraph;
+import core.components.CompactGraph;
+import core.components.IntGraph;
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.SparseGraph;
 import edu.uci.ics.jung.graph.util.Pair;
@@ -15,14 +18,19 @@ import java.util.stream.Collectors;
 public class Triangles {
 
     /**
-     * Counts the number of triangles in a graph. Uses the Node-Iteration algorithm.
+     * Counts the number of triangles in a graph. Uses the Node-Iteration algorithm, or the
+     * bit matrix algorithm if the graph is dense enough for it.
      *
      * @param graph The graph on which the triangles are counted.
      * @param <V>   The type of the vertices.
      * @param <E>   The type of the edges.
      * @return The number of triangles in the graph.
+     * @see BitMatrixGraph#isDense(Graph)
      */
     public static <V extends Comparable<V>, E> int count(Graph<V, E> graph) {
+        if (BitMatrixGraph.isDense(graph)) {
+            return bitMatrixCount(graph).getTotalTriangles();
+        }
         return nodeIterationCount(graph).getTotalTriangles();
     }
 
@@ -46,6 +54,8 @@ public class Triangles {
                 return nodeIterationCount(graph);
             case FAST_FORWARD:
                 return fastForwardCount(graph);
+            case BIT_MATRIX:
+                return bitMatrixCount(graph);
             default:
                 return nodeIterationCount(graph);
         }
@@ -109,6 +119,42 @@ public class Triangles {
         return graphTriangles;
     }
 
+    /**
+     * Counts the number of triangles for each edge as well as the total number of edges
+     * in a graph using its adjacency bit matrix. The number of triangles on an edge is the
+     * number of common neighbours of its endpoints, found by intersecting the rows of the
+     * matrix a word at a time. Edge directions are ignored, as in the other algorithms.
+     *
+     * Building the matrix takes quadratic memory in the number of vertices, so this is
+     * meant for dense graphs.
+     *
+     * @param graph The graph on which the triangles are counted.
+     * @param <V>   The type of the vertices.
+     * @param <E>   The type of the edges.
+     * @return A special object containing the total number of triangles in the graph as well as the
+     * number of triangles for each edge.
+     * @see GraphTriangles
+     * @see BitMatrixGraph
+     */
+    public static <V, E> GraphTriangles<E> bitMatrixCount(Graph<V, E> graph) {
+        BitMatrixGraph<V> matrix = BitMatrixGraph.of(graph, true);
+
+        GraphTriangles<E> graphTriangles = new GraphTriangles<>();
+        for (E edge : graph.getEdges()) {
+            Pair<V> endpoints = graph.getEndpoints(edge);
+            int u = matrix.indexOf(endpoints.getFirst());
+            int v = matrix.indexOf(endpoints.getSecond());
+            if (u == v) {
+                continue;
+            }
+            int common = matrix.commonNeighbourCount(u, v);
+            if (common > 0) {
+                graphTriangles.addTriangleCount(edge, common);
+            }
+        }
+        return graphTriangles;
+    }
+
     /**
      * Creates a new copy of the given graph
      *
@@ -188,11 +234,170 @@ public class Triangles {
         return graphTriangles;
     }
 
+    /**
+     * Counts the number of triangles in an undirected {@link IntGraph}, such as a compact
+     * snapshot or a graph mapped from disk. Uses the Fast-Forward algorithm.
+     *
+     * @param graph The graph on which the triangles are counted.
+     * @return The number of triangles in the graph.
+     */
+    public static long count(IntGraph graph) {
+        if (graph instanceof BitMatrixGraph && !graph.isDirected()) {
+            return count((BitMatrixGraph<?>) graph);
+        }
+        long total = 0;
+        for (int count : fastForwardArcCounts(graph)) {
+            total += count;
+        }
+        // Each triangle is counted on 3 arcs.
+        return total / 3;
+    }
+
+    /**
+     * Counts the triangles of a symmetric bit matrix by intersecting the rows of the
+     * endpoints of every edge. Each triangle is found once from each of its three edges.
+     */
+    private static long count(BitMatrixGraph<?> matrix) {
+        int n = matrix.getVertexCount();
+        int[] neighbours = new int[matrix.getMaxDegree()];
+        long total = 0;
+        for (int u = 0; u < n; u++) {
+            int degree = matrix.getNeighbours(u, neighbours);
+            for (int i = 0; i < degree; i++) {
+                int v = neighbours[i];
+                if (u < v) {
+                    total += matrix.commonNeighbourCount(u, v);
+                }
+            }
+        }
+        return total / 3;
+    }
+
+    /**
+     * Counts the number of triangles for each edge as well as the total number of edges
+     * in a compact snapshot of an undirected graph using the Fast-Forward counting algorithm.
+     *
+     * @param graph The snapshot on which the triangles are counted.
+     * @param <V>   The type of the vertices.
+     * @param <E>   The type of the edges.
+     * @return A special object containing the total number of triangles in the graph as well as the
+     * number of triangles for each edge.
+     * @see GraphTriangles
+     * @see #fastForwardArcCounts(IntGraph)
+     */
+    public static <V, E> GraphTriangles<E> fastForwardCount(CompactGraph<V, E> graph) {
+        int[] arcCounts = fastForwardArcCounts(graph);
+
+        // The arcs are numbered in the same order as the snapshot stores them,
+        // translate them back to the edges they came from.
+        int[] edgeCounts = new int[graph.getEdgeCount()];
+        int arc = 0;
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            int degree = graph.getOutDegree(v);
+            for (int i = 0; i < degree; i++) {
+                edgeCounts[graph.getEdgeIndex(v, i)] += arcCounts[arc++];
+            }
+        }
+
+        GraphTriangles<E> graphTriangles = new GraphTriangles<>();
+        for (int e = 0; e < edgeCounts.length; e++) {
+            if (edgeCounts[e] > 0) {
+                graphTriangles.addTriangleCount(graph.getEdge(e), edgeCounts[e]);
+            }
+        }
+        return graphTriangles;
+    }
+
+    /**
+     * Index based version of the Fast-Forward algorithm.
+     *
+     * Works the same way as {@link #fastForwardCount(Graph)} but the sets A(v) are
+     * stored in a single int array laid out like the graph's arcs, and the
+     * intersections are done with a marker array instead of sets. The vertices
+     * are ranked by descending degree with ties broken by index.
+     *
+     * The arcs are numbered vertex by vertex in neighbour order, so arc
+     * {@code offset(v) + i} is the i'th arc of v where offset(v) is the sum of the
+     * degrees of the vertices before v. Each triangle is counted on one of the two
+     * arcs of each of its edges.
+     *
+     * @param graph The graph on which the triangles are counted.
+     * @return The number of triangles counted on each arc.
+     */
+    public static int[] fastForwardArcCounts(IntGraph graph) {
+        int n = graph.getVertexCount();
+
+        // Sort the vertices by descending degree and record the position of each.
+        Integer[] byDescendingDegree = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            byDescendingDegree[v] = v;
+        }
+        Arrays.sort(byDescendingDegree, (v1, v2) -> {
+            int diff = graph.getOutDegree(v2) - graph.getOutDegree(v1);
+            return diff != 0 ? diff : Integer.compare(v1, v2);
+        });
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[byDescendingDegree[i]] = i;
+        }
+
+        // A(v) is stored from start[v], together with the arc back to the vertex that added it.
+        int[] start = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            start[v + 1] = start[v] + graph.getOutDegree(v);
+        }
+        int[] size = new int[n];
+        int[] setVertex = new int[start[n]];
+        int[] setArc = new int[start[n]];
+
+        // Marker arrays used to intersect A(s) and A(t)
+        int[] mark = new int[n];
+        int[] markArc = new int[n];
+        Arrays.fill(mark, -1);
+
+        int[] arcCounts = new int[start[n]];
+
+        for (int i = 0; i < n; i++) {
+            int s = byDescendingDegree[i];
+            int degree = graph.getOutDegree(s);
+            for (int j = 0; j < degree; j++) {
+                int t = graph.getNeighbour(s, j);
+                if (rank[s] >= rank[t]) {
+                    continue;
+                }
+                int arcST = start[s] + j;
+
+                // Mark A(s) using t as the marker value, then look for the marked entries of A(t)
+                for (int k = start[s]; k < start[s] + size[s]; k++) {
+                    mark[setVertex[k]] = t;
+                    markArc[setVertex[k]] = setArc[k];
+                }
+                for (int k = start[t]; k < start[t] + size[t]; k++) {
+                    int v = setVertex[k];
+                    if (mark[v] == t) {
+                        arcCounts[arcST]++;
+                        arcCounts[markArc[v]]++;
+                        arcCounts[setArc[k]]++;
+                    }
+                }
+                // Clear the marks so t can be used as a marker value again
+                for (int k = start[s]; k < start[s] + size[s]; k++) {
+                    mark[setVertex[k]] = -1;
+                }
+
+                setVertex[start[t] + size[t]] = s;
+                setArc[start[t] + size[t]] = arcST;
+                size[t]++;
+            }
+        }
+        return arcCounts;
+    }
+
     /**
      * Constants that are used to indicate which counting algorithm to run.
      */
     public enum CountAlgorithm {
-        NODE_ITERATOR, FAST_FORWARD
+        NODE_ITERATOR, FAST_FORWARD, BIT_MATRIX
     }
 
     /**
@@ -228,6 +433,17 @@ public class Triangles {
             totalTriangles += 1;
         }
 
+        /**
+         * Adds a number of triangles to the count of the given edge.
+         * @param edge The edge whose triangle count needs to be increased.
+         * @param count The number of triangles to add.
+         */
+        private void addTriangleCount(E edge, int count) {
+            Integer numTriangles = edgeTriangleCountMap.get(edge);
+            edgeTriangleCountMap.put(edge, numTriangles == null ? count : numTriangles + count);
+            totalTriangles += count;
+        }
+
         /**
          * Returns the total number of triangles in the graph.
          * @return The total number of triangles in the graph.
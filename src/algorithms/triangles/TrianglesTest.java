@@ -1,5 +1,7 @@
 package algorithms.triangles;
 
+import core.components.BitMatrixGraph;
+import core.components.CompactGraph;
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.SparseGraph;
 import org.junit.Test;
@@ -95,6 +97,40 @@ public class TrianglesTest {
         assertEquals(48, graphTriangles.getNumberOfTrianglesForEdge("1-2"));
     }
 
+    @Test
+    public void count_10vertexCompactGraph_10triangles() {
+        Triangles.GraphTriangles<String> graphTriangles = Triangles.fastForwardCount(CompactGraph.of(create10vertexGraphWith10Triangles()));
+
+        assertEquals(10, graphTriangles.getTotalTriangles());
+        assertEquals(2, graphTriangles.getNumberOfTrianglesForEdge("1-2"));
+    }
+
+    @Test
+    public void count_10vertexCompactGraph_0triangles() {
+        assertEquals(0, Triangles.count(CompactGraph.of(create10vertexGraph())));
+    }
+
+    @Test
+    public void count_50vertexCompleteCompactGraph_19600triangles() {
+        Triangles.GraphTriangles<String> graphTriangles = Triangles.fastForwardCount(CompactGraph.of(create50VertexCompleteGraph()));
+
+        assertEquals(19600, graphTriangles.getTotalTriangles());
+        assertEquals(48, graphTriangles.getNumberOfTrianglesForEdge("1-2"));
+    }
+
+    @Test
+    public void count_10vertexGraphWithBitMatrix_10triangles() {
+        Triangles.GraphTriangles<String> graphTriangles = Triangles.count(create10vertexGraphWith10Triangles(), Triangles.CountAlgorithm.BIT_MATRIX);
+
+        assertEquals(10, graphTriangles.getTotalTriangles());
+        assertEquals(2, graphTriangles.getNumberOfTrianglesForEdge("1-2"));
+    }
+
+    @Test
+    public void count_50vertexCompleteBitMatrixGraph_19600triangles() {
+        assertEquals(19600, Triangles.count(BitMatrixGraph.of(create50VertexCompleteGraph())));
+    }
+
     private Graph<Integer, String> create50VertexCompleteGraph() {
         Graph<Integer, String> graph = new SparseGraph<>();
 
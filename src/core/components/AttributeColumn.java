@@ -0,0 +1,586 @@
+package core.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A single attribute stored for every row of an {@link AttributeTable}. Numeric
+ * and boolean values are kept in primitive arrays and strings are dictionary
+ * encoded, so each distinct string is stored once no matter how many rows use it.
+ *
+ * A column can have a default value, which is returned for rows the attribute
+ * was never set on.
+ * 
+ * @author agent
+ *
+ */
+public abstract class AttributeColumn {
+
+	private final String key;
+	private final AttributeType type;
+	/**
+	 * Rows that have a value set
+	 */
+	protected final BitSet present;
+	/**
+	 * Value returned for rows without a value, may be null
+	 */
+	private String defaultValue;
+
+	protected AttributeColumn(String key, AttributeType type) {
+		this.key = key;
+		this.type = type;
+		this.present = new BitSet();
+	}
+
+	/**
+	 * Creates an empty column of the given type.
+	 * 
+	 * @param key The attribute name
+	 * @param type The type of the values
+	 * @return A new column.
+	 */
+	public static AttributeColumn create(String key, AttributeType type) {
+		switch(type) {
+			case INT:
+				return new IntColumn(key);
+			case LONG:
+				return new LongColumn(key);
+			case FLOAT:
+				return new FloatColumn(key);
+			case DOUBLE:
+				return new DoubleColumn(key);
+			case BOOLEAN:
+				return new BooleanColumn(key);
+			default:
+				return new StringColumn(key);
+		}
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public AttributeType getType() {
+		return type;
+	}
+
+	/**
+	 * @param row The row index
+	 * @return True if a value was set for the row.
+	 */
+	public boolean isSet(int row) {
+		return present.get(row);
+	}
+
+	public void remove(int row) {
+		present.clear(row);
+	}
+
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * @param defaultValue Value to return for rows without a value, must
+	 * 		  parse as the column's type. May be null.
+	 * @throws NumberFormatException If the value doesn't parse as the
+	 * 		   column's type, the default is left as it was.
+	 */
+	public void setDefaultValue(String defaultValue) {
+		if (defaultValue != null) {
+			parse(defaultValue);
+		}
+		this.defaultValue = defaultValue;
+	}
+
+	/**
+	 * @param row The row index
+	 * @return The value formatted as a string, the default value if the row
+	 * 		   has no value set.
+	 */
+	public String getString(int row) {
+		return present.get(row) ? format(row) : defaultValue;
+	}
+
+	/**
+	 * Parses the value according to the column's type and stores it.
+	 * 
+	 * @param row The row index
+	 * @param value The value, must parse as the column's type
+	 */
+	public abstract void setString(int row, String value);
+
+	/**
+	 * @param row The row index
+	 * @return The value boxed as its type (Integer, Long, Float, Double, Boolean
+	 * 		   or String), the parsed default value if the row has no value set,
+	 * 		   or null if there is no default either.
+	 */
+	public Object getValue(int row) {
+		if (present.get(row)) {
+			return box(row);
+		}
+		return defaultValue == null ? null : parse(defaultValue);
+	}
+
+	/**
+	 * Stores a value given as an object. Numbers are converted to the column's
+	 * type, anything else is converted with toString and parsed.
+	 * 
+	 * @param row The row index
+	 * @param value The value
+	 */
+	public abstract void setValue(int row, Object value);
+
+	/**
+	 * Boxes a row that is known to have a value.
+	 */
+	protected abstract Object box(int row);
+
+	/**
+	 * Parses a string to a boxed value of the column's type.
+	 */
+	protected abstract Object parse(String value);
+
+	/**
+	 * Formats a row that is known to have a value.
+	 */
+	protected abstract String format(int row);
+
+	/**
+	 * Grows the array so it can hold the given row, doubling the size
+	 * to keep appends amortised constant time.
+	 */
+	protected static int grow(int length, int row) {
+		return Math.max(Math.max(16, 2 * length), row + 1);
+	}
+
+	/**
+	 * Column of int values.
+	 */
+	public static class IntColumn extends AttributeColumn {
+
+		private int[] values = new int[0];
+
+		public IntColumn(String key) {
+			super(key, AttributeType.INT);
+		}
+
+		public int getInt(int row) {
+			return values[row];
+		}
+
+		public void setInt(int row, int value) {
+			if (row >= values.length) {
+				values = Arrays.copyOf(values, grow(values.length, row));
+			}
+			values[row] = value;
+			present.set(row);
+		}
+
+		@Override
+		public void setString(int row, String value) {
+			setInt(row, Integer.parseInt(value.trim()));
+		}
+
+		@Override
+		public void setValue(int row, Object value) {
+			if (value instanceof Number) {
+				setInt(row, ((Number) value).intValue());
+			} else {
+				setString(row, value.toString());
+			}
+		}
+
+		@Override
+		public void remove(int row) {
+			super.remove(row);
+			if (row < values.length) {
+				values[row] = 0;
+			}
+		}
+
+		/**
+		 * Sums the values of all rows, rows without a value count as 0.
+		 * 
+		 * @return The sum of the column.
+		 */
+		public long sum() {
+			long total = 0;
+			for (int value : values) {
+				total += value;
+			}
+			return total;
+		}
+
+		@Override
+		protected Object box(int row) {
+			return values[row];
+		}
+
+		@Override
+		protected Object parse(String value) {
+			return Integer.parseInt(value.trim());
+		}
+
+		@Override
+		protected String format(int row) {
+			return Integer.toString(values[row]);
+		}
+	}
+
+	/**
+	 * Column of long values.
+	 */
+	public static class LongColumn extends AttributeColumn {
+
+		private long[] values = new long[0];
+
+		public LongColumn(String key) {
+			super(key, AttributeType.LONG);
+		}
+
+		public long getLong(int row) {
+			return values[row];
+		}
+
+		public void setLong(int row, long value) {
+			if (row >= values.length) {
+				values = Arrays.copyOf(values, grow(values.length, row));
+			}
+			values[row] = value;
+			present.set(row);
+		}
+
+		@Override
+		public void setString(int row, String value) {
+			setLong(row, Long.parseLong(value.trim()));
+		}
+
+		@Override
+		public void setValue(int row, Object value) {
+			if (value instanceof Number) {
+				setLong(row, ((Number) value).longValue());
+			} else {
+				setString(row, value.toString());
+			}
+		}
+
+		@Override
+		public void remove(int row) {
+			super.remove(row);
+			if (row < values.length) {
+				values[row] = 0;
+			}
+		}
+
+		/**
+		 * Sums the values of all rows, rows without a value count as 0.
+		 * 
+		 * @return The sum of the column.
+		 */
+		public long sum() {
+			long total = 0;
+			for (long value : values) {
+				total += value;
+			}
+			return total;
+		}
+
+		@Override
+		protected Object box(int row) {
+			return values[row];
+		}
+
+		@Override
+		protected Object parse(String value) {
+			return Long.parseLong(value.trim());
+		}
+
+		@Override
+		protected String format(int row) {
+			return Long.toString(values[row]);
+		}
+	}
+
+	/**
+	 * Column of float values.
+	 */
+	public static class FloatColumn extends AttributeColumn {
+
+		private float[] values = new float[0];
+
+		public FloatColumn(String key) {
+			super(key, AttributeType.FLOAT);
+		}
+
+		public float getFloat(int row) {
+			return values[row];
+		}
+
+		public void setFloat(int row, float value) {
+			if (row >= values.length) {
+				values = Arrays.copyOf(values, grow(values.length, row));
+			}
+			values[row] = value;
+			present.set(row);
+		}
+
+		@Override
+		public void setString(int row, String value) {
+			setFloat(row, Float.parseFloat(value.trim()));
+		}
+
+		@Override
+		public void setValue(int row, Object value) {
+			if (value instanceof Number) {
+				setFloat(row, ((Number) value).floatValue());
+			} else {
+				setString(row, value.toString());
+			}
+		}
+
+		@Override
+		public void remove(int row) {
+			super.remove(row);
+			if (row < values.length) {
+				values[row] = 0;
+			}
+		}
+
+		/**
+		 * Sums the values of all rows, rows without a value count as 0.
+		 * 
+		 * @return The sum of the column.
+		 */
+		public double sum() {
+			double total = 0;
+			for (float value : values) {
+				total += value;
+			}
+			return total;
+		}
+
+		@Override
+		protected Object box(int row) {
+			return values[row];
+		}
+
+		@Override
+		protected Object parse(String value) {
+			return Float.parseFloat(value.trim());
+		}
+
+		@Override
+		protected String format(int row) {
+			return Float.toString(values[row]);
+		}
+	}
+
+	/**
+	 * Column of double values.
+	 */
+	public static class DoubleColumn extends AttributeColumn {
+
+		private double[] values = new double[0];
+
+		public DoubleColumn(String key) {
+			super(key, AttributeType.DOUBLE);
+		}
+
+		public double getDouble(int row) {
+			return values[row];
+		}
+
+		public void setDouble(int row, double value) {
+			if (row >= values.length) {
+				values = Arrays.copyOf(values, grow(values.length, row));
+			}
+			values[row] = value;
+			present.set(row);
+		}
+
+		@Override
+		public void setString(int row, String value) {
+			setDouble(row, Double.parseDouble(value.trim()));
+		}
+
+		@Override
+		public void setValue(int row, Object value) {
+			if (value instanceof Number) {
+				setDouble(row, ((Number) value).doubleValue());
+			} else {
+				setString(row, value.toString());
+			}
+		}
+
+		@Override
+		public void remove(int row) {
+			super.remove(row);
+			if (row < values.length) {
+				values[row] = 0;
+			}
+		}
+
+		/**
+		 * Sums the values of all rows, rows without a value count as 0.
+		 * 
+		 * @return The sum of the column.
+		 */
+		public double sum() {
+			double total = 0;
+			for (double value : values) {
+				total += value;
+			}
+			return total;
+		}
+
+		@Override
+		protected Object box(int row) {
+			return values[row];
+		}
+
+		@Override
+		protected Object parse(String value) {
+			return Double.parseDouble(value.trim());
+		}
+
+		@Override
+		protected String format(int row) {
+			return Double.toString(values[row]);
+		}
+	}
+
+	/**
+	 * Column of boolean values, stored as bits.
+	 */
+	public static class BooleanColumn extends AttributeColumn {
+
+		private final BitSet values = new BitSet();
+
+		public BooleanColumn(String key) {
+			super(key, AttributeType.BOOLEAN);
+		}
+
+		public boolean getBoolean(int row) {
+			return values.get(row);
+		}
+
+		public void setBoolean(int row, boolean value) {
+			values.set(row, value);
+			present.set(row);
+		}
+
+		@Override
+		public void setString(int row, String value) {
+			setBoolean(row, Boolean.parseBoolean(value.trim()));
+		}
+
+		@Override
+		public void setValue(int row, Object value) {
+			if (value instanceof Boolean) {
+				setBoolean(row, (Boolean) value);
+			} else {
+				setString(row, value.toString());
+			}
+		}
+
+		@Override
+		public void remove(int row) {
+			super.remove(row);
+			values.clear(row);
+		}
+
+		@Override
+		protected Object box(int row) {
+			return values.get(row);
+		}
+
+		@Override
+		protected Object parse(String value) {
+			return Boolean.parseBoolean(value.trim());
+		}
+
+		@Override
+		protected String format(int row) {
+			return Boolean.toString(values.get(row));
+		}
+	}
+
+	/**
+	 * Dictionary encoded column of strings. Each row stores the code of its
+	 * value, and each distinct value is stored once in the dictionary.
+	 */
+	public static class StringColumn extends AttributeColumn {
+
+		private int[] codes = new int[0];
+		private final List<String> dictionary = new ArrayList<>();
+		private final HashMap<String, Integer> codeOf = new HashMap<>();
+
+		public StringColumn(String key) {
+			super(key, AttributeType.STRING);
+		}
+
+		/**
+		 * @param row The row index
+		 * @return The dictionary code of the row's value.
+		 */
+		public int getCode(int row) {
+			return codes[row];
+		}
+
+		/**
+		 * @param code A dictionary code
+		 * @return The string the code stands for.
+		 */
+		public String decode(int code) {
+			return dictionary.get(code);
+		}
+
+		/**
+		 * @return The number of distinct values in the column.
+		 */
+		public int getDictionarySize() {
+			return dictionary.size();
+		}
+
+		@Override
+		public void setString(int row, String value) {
+			Integer code = codeOf.get(value);
+			if (code == null) {
+				code = dictionary.size();
+				dictionary.add(value);
+				codeOf.put(value, code);
+			}
+			if (row >= codes.length) {
+				codes = Arrays.copyOf(codes, grow(codes.length, row));
+			}
+			codes[row] = code;
+			present.set(row);
+		}
+
+		@Override
+		public void setValue(int row, Object value) {
+			setString(row, value.toString());
+		}
+
+		@Override
+		protected Object box(int row) {
+			return dictionary.get(codes[row]);
+		}
+
+		@Override
+		protected Object parse(String value) {
+			return value;
+		}
+
+		@Override
+		protected String format(int row) {
+			return dictionary.get(codes[row]);
+		}
+	}
+}
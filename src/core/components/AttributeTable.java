@@ -0,0 +1,270 @@
+package core.components;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Graph level attribute store. Each attribute key is one {@link AttributeColumn}
+ * and each vertex or edge attached to the table owns one row, so the values of
+ * an attribute for the whole graph sit together in one array instead of in a
+ * separate map per element.
+ * 
+ * Columns can be declared up front with their type, as the GraphML reader does from
+ * the &lt;key&gt; definitions. Setting a string value for an undeclared key creates
+ * a string column for it.
+ * 
+ * @author agent
+ *
+ */
+public class AttributeTable {
+
+	private final LinkedHashMap<String, AttributeColumn> columns;
+	private int rowCount;
+
+	public AttributeTable() {
+		columns = new LinkedHashMap<>();
+		rowCount = 0;
+	}
+
+	/**
+	 * @return The index of a new, empty row.
+	 */
+	public int addRow() {
+		return rowCount++;
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Declares a column, or returns the existing column if the key was
+	 * already declared.
+	 * 
+	 * @param key The attribute name
+	 * @param type The type of the values
+	 * @return The column for the key.
+	 */
+	public AttributeColumn declare(String key, AttributeType type) {
+		AttributeColumn column = columns.get(key);
+		if (column == null) {
+			column = AttributeColumn.create(key, type);
+			columns.put(key, column);
+		}
+		return column;
+	}
+
+	/**
+	 * @param key The attribute name
+	 * @return The column, null if the key has not been declared.
+	 */
+	public AttributeColumn getColumn(String key) {
+		return columns.get(key);
+	}
+
+	public Collection<AttributeColumn> getColumns() {
+		return Collections.unmodifiableCollection(columns.values());
+	}
+
+	/**
+	 * @param key The attribute name
+	 * @return The int column for the key, declaring it if needed.
+	 * @throws ClassCastException If the key was declared with a different type.
+	 */
+	public AttributeColumn.IntColumn getIntColumn(String key) {
+		return (AttributeColumn.IntColumn) declare(key, AttributeType.INT);
+	}
+
+	/**
+	 * @param key The attribute name
+	 * @return The long column for the key, declaring it if needed.
+	 * @throws ClassCastException If the key was declared with a different type.
+	 */
+	public AttributeColumn.LongColumn getLongColumn(String key) {
+		return (AttributeColumn.LongColumn) declare(key, AttributeType.LONG);
+	}
+
+	/**
+	 * @param key The attribute name
+	 * @return The double column for the key, declaring it if needed.
+	 * @throws ClassCastException If the key was declared with a different type.
+	 */
+	public AttributeColumn.DoubleColumn getDoubleColumn(String key) {
+		return (AttributeColumn.DoubleColumn) declare(key, AttributeType.DOUBLE);
+	}
+
+	/**
+	 * @param row The row index
+	 * @param key The attribute name
+	 * @return The value formatted as a string, null if the key is not declared
+	 * 		   or the row has no value and the column has no default.
+	 */
+	public String getString(int row, String key) {
+		AttributeColumn column = columns.get(key);
+		return column == null ? null : column.getString(row);
+	}
+
+	/**
+	 * Stores the value, parsing it according to the column's type. Undeclared
+	 * keys get a string column.
+	 * 
+	 * @param row The row index
+	 * @param key The attribute name
+	 * @param value The value
+	 */
+	public void setString(int row, String key, String value) {
+		declare(key, AttributeType.STRING).setString(row, value);
+	}
+
+	/**
+	 * Stores the value like {@link #setString(int, String, String)}, but a null
+	 * value, or one that can't be parsed as the column's type, clears the row
+	 * instead of throwing. The row then reads as the column default.
+	 * 
+	 * @param row The row index
+	 * @param key The attribute name
+	 * @param value The value, may be null
+	 * @return True if the value was stored.
+	 */
+	public boolean trySetString(int row, String key, String value) {
+		if (value != null) {
+			try {
+				setString(row, key, value);
+				return true;
+			} catch (NumberFormatException e) {
+				// Not of the column's type, cleared below
+			}
+		}
+		clear(row, key);
+		return false;
+	}
+
+	/**
+	 * @param row The row index
+	 * @param key The attribute name
+	 * @return The boxed value, see {@link AttributeColumn#getValue(int)}, null
+	 * 		   if the key is not declared.
+	 */
+	public Object getValue(int row, String key) {
+		AttributeColumn column = columns.get(key);
+		return column == null ? null : column.getValue(row);
+	}
+
+	/**
+	 * Stores a value given as an object. Undeclared keys get a column matching
+	 * the value's class, strings for anything that is not a number or boolean.
+	 * 
+	 * @param row The row index
+	 * @param key The attribute name
+	 * @param value The value
+	 */
+	public void setValue(int row, String key, Object value) {
+		AttributeType type;
+		if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			type = AttributeType.INT;
+		} else if (value instanceof Long) {
+			type = AttributeType.LONG;
+		} else if (value instanceof Float) {
+			type = AttributeType.FLOAT;
+		} else if (value instanceof Number) {
+			type = AttributeType.DOUBLE;
+		} else if (value instanceof Boolean) {
+			type = AttributeType.BOOLEAN;
+		} else {
+			type = AttributeType.STRING;
+		}
+		declare(key, type).setValue(row, value);
+	}
+
+	/**
+	 * Stores the value like {@link #setValue(int, String, Object)}, but a null
+	 * value, or a string that can't be parsed as the column's type, clears the
+	 * row instead of throwing. The row then reads as the column default.
+	 * 
+	 * @param row The row index
+	 * @param key The attribute name
+	 * @param value The value, may be null
+	 * @return True if the value was stored.
+	 */
+	public boolean trySetValue(int row, String key, Object value) {
+		if (value != null) {
+			try {
+				setValue(row, key, value);
+				return true;
+			} catch (NumberFormatException e) {
+				// Not of the column's type, cleared below
+			}
+		}
+		clear(row, key);
+		return false;
+	}
+
+	private void clear(int row, String key) {
+		AttributeColumn column = columns.get(key);
+		if (column != null) {
+			column.remove(row);
+		}
+	}
+
+	/**
+	 * Sums a numeric column over all rows with a linear scan of its array.
+	 * 
+	 * @param key The attribute name
+	 * @return The sum of the column, 0 if the key is not declared.
+	 * @throws IllegalArgumentException If the column is not numeric.
+	 */
+	public double sum(String key) {
+		AttributeColumn column = columns.get(key);
+		if (column == null) {
+			return 0.0;
+		}
+		switch(column.getType()) {
+			case INT:
+				return ((AttributeColumn.IntColumn) column).sum();
+			case LONG:
+				return ((AttributeColumn.LongColumn) column).sum();
+			case FLOAT:
+				return ((AttributeColumn.FloatColumn) column).sum();
+			case DOUBLE:
+				return ((AttributeColumn.DoubleColumn) column).sum();
+			default:
+				throw new IllegalArgumentException("Attribute " + key + " is not numeric");
+		}
+	}
+
+	/**
+	 * Collects the values of a row as boxed objects, including column defaults.
+	 * 
+	 * @param row The row index
+	 * @return A new map from attribute name to value.
+	 */
+	public HashMap<String, Object> toValueMap(int row) {
+		HashMap<String, Object> values = new HashMap<>();
+		for (AttributeColumn column : columns.values()) {
+			Object value = column.getValue(row);
+			if (value != null) {
+				values.put(column.getKey(), value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Collects the values of a row, including column defaults.
+	 * 
+	 * @param row The row index
+	 * @return A new map from attribute name to value.
+	 */
+	public HashMap<String, String> toMap(int row) {
+		HashMap<String, String> values = new HashMap<>();
+		for (AttributeColumn column : columns.values()) {
+			String value = column.getString(row);
+			if (value != null) {
+				values.put(column.getKey(), value);
+			}
+		}
+		return values;
+	}
+}
@@ -0,0 +1,123 @@
+package core.components;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for AttributeTable and the edge attribute binding.
+ *
+ * @author agent
+ */
+public class AttributeTableTest {
+
+    @Test
+    public void sum_intColumnWithUnsetRows_sumOfSetRows() {
+        AttributeTable table = new AttributeTable();
+        AttributeColumn.IntColumn column = table.getIntColumn("capacity");
+        for (int i = 0; i < 100; i++) {
+            int row = table.addRow();
+            if (i % 2 == 0) {
+                column.setInt(row, i);
+            }
+        }
+        column.remove(98);
+
+        assertEquals(2352L, column.sum());
+        assertEquals(2352.0, table.sum("capacity"), 0.0);
+    }
+
+    @Test
+    public void addAttribute_declaredDoubleColumn_storesParsedValue() {
+        AttributeTable table = new AttributeTable();
+        table.declare("length", AttributeType.DOUBLE);
+        Edge first = new Edge("e1");
+        Edge second = new Edge("e2");
+        first.setAttributeTable(table);
+        second.setAttributeTable(table);
+
+        first.addAttribute("length", "1.5");
+        second.addAttribute("length", 2);
+
+        assertEquals(0, first.getAttributeRow());
+        assertEquals(1, second.getAttributeRow());
+        assertEquals(1.5, first.getAttribute("length"));
+        assertEquals(2.0, second.getAttribute("length"));
+        assertEquals(3.5, table.sum("length"), 0.0);
+    }
+
+    @Test
+    public void setAttributeTable_edgeWithAttributes_movesValuesToTable() {
+        Edge edge = new Edge("e1");
+        edge.addAttribute("label", "road");
+        edge.addAttribute("lanes", 3);
+
+        AttributeTable table = new AttributeTable();
+        edge.setAttributeTable(table);
+
+        assertEquals(AttributeType.STRING, table.getColumn("label").getType());
+        assertEquals(AttributeType.INT, table.getColumn("lanes").getType());
+        assertEquals("road", edge.getAttribute("label"));
+        assertEquals(3, edge.getAttribute("lanes"));
+        assertNull(edge.getAttribute("speed"));
+    }
+
+    @Test
+    public void getAttribute_unsetRowWithDefault_defaultValue() {
+        AttributeTable table = new AttributeTable();
+        table.declare("speed", AttributeType.INT).setDefaultValue("50");
+        Edge edge = new Edge("e1");
+        edge.setAttributeTable(table);
+
+        assertEquals(50, edge.getAttribute("speed"));
+    }
+
+    @Test
+    public void addAttribute_notOfColumnType_leftUnset() {
+        AttributeTable table = new AttributeTable();
+        table.declare("age", AttributeType.INT).setDefaultValue("7");
+        table.declare("length", AttributeType.DOUBLE);
+        Vertex vertex = new Vertex("v");
+        vertex.addAttribute("age", "old");
+        vertex.setAttributeTable(table);
+        Edge edge = new Edge("e");
+        edge.setAttributeTable(table);
+
+        assertEquals("7", vertex.getAttribute("age"));
+        vertex.addAttribute("age", "3");
+        assertEquals("3", vertex.getAttribute("age"));
+        vertex.addAttribute("age", "three");
+        assertEquals("7", vertex.getAttribute("age"));
+        vertex.addAttribute("age", null);
+        assertEquals("7", vertex.getAttribute("age"));
+
+        edge.addAttribute("length", 2.5);
+        assertEquals(2.5, edge.addAttribute("length", "long"));
+        assertNull(edge.getAttribute("length"));
+        edge.addAttribute("length", null);
+        assertNull(edge.getAttribute("length"));
+        assertEquals(0.0, table.sum("length"), 0.0);
+    }
+
+    @Test
+    public void setDefaultValue_notOfColumnType_rejectedAndOldKept() {
+        AttributeTable table = new AttributeTable();
+        AttributeColumn column = table.declare("speed", AttributeType.LONG);
+        column.setDefaultValue("50");
+        boolean rejected = false;
+        try {
+            column.setDefaultValue("fast");
+        } catch (NumberFormatException e) {
+            rejected = true;
+        }
+
+        assertTrue(rejected);
+        assertEquals("50", column.getDefaultValue());
+        int row = table.addRow();
+        column.setString(row, " 120 ");
+        assertEquals(120L, column.getValue(row));
+        assertEquals(50L, column.getValue(table.addRow()));
+    }
+}
@@ -0,0 +1,40 @@
+package core.components;
+
+/**
+ * Value types an attribute column can hold, matching the GraphML
+ * attr.type values.
+ * 
+ * @author agent
+ *
+ */
+public enum AttributeType {
+
+	INT, LONG, FLOAT, DOUBLE, BOOLEAN, STRING;
+
+	/**
+	 * Converts a GraphML attr.type value to the matching type.
+	 * 
+	 * @param type The GraphML type name
+	 * @return The attribute type, STRING for unknown or missing types.
+	 */
+	public static AttributeType fromGraphML(String type) {
+		if (type == null) {
+			return STRING;
+		}
+		switch(type) {
+			case "int":
+			case "integer":
+				return INT;
+			case "long":
+				return LONG;
+			case "float":
+				return FLOAT;
+			case "double":
+				return DOUBLE;
+			case "boolean":
+				return BOOLEAN;
+			default:
+				return STRING;
+		}
+	}
+}
@@ -0,0 +1,380 @@
+package core.components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * Immutable snapshot of a JUNG graph stored in compressed sparse row (CSR) form.
+ * Vertices are numbered 0 to n-1 and the out-neighbours of vertex v are stored in
+ * {@code targets[offsets[v]]} to {@code targets[offsets[v+1]-1]}, with the weight of
+ * each of those arcs in the parallel {@code weights} array. Undirected edges are
+ * stored once in each direction.
+ *
+ * The snapshot keeps a mapping in both directions between the user's vertices/edges
+ * and their indices, so algorithms can work on primitive arrays and translate the
+ * result back at the end. Changes made to the original graph after the snapshot was
+ * taken are not reflected, build a new snapshot instead.
+ *
+ * @author agent
+ *
+ * @param <V> The vertex type
+ * @param <E> The edge type
+ */
+public class CompactGraph<V, E> implements IntGraph {
+
+	/**
+	 * Start of the arcs for each vertex, has one extra entry at the end
+	 * holding the total number of arcs.
+	 */
+	private final int[] offsets;
+	/**
+	 * The destination vertex of each arc
+	 */
+	private final int[] targets;
+	/**
+	 * The weight of each arc, parallel to targets
+	 */
+	private final double[] weights;
+	/**
+	 * The index of the edge each arc was created from, parallel to targets
+	 */
+	private final int[] arcEdges;
+	/**
+	 * Index to vertex mapping
+	 */
+	private final List<V> vertices;
+	/**
+	 * Index to edge mapping
+	 */
+	private final List<E> edges;
+	/**
+	 * Vertex to index mapping
+	 */
+	private final HashMap<V, Integer> vertexIndex;
+	/**
+	 * Edge to index mapping
+	 */
+	private final HashMap<E, Integer> edgeIndex;
+	/**
+	 * True if at least one edge in the original graph was directed
+	 */
+	private final boolean directed;
+	/**
+	 * Largest out-degree of any vertex
+	 */
+	private final int maxDegree;
+
+	private CompactGraph(int[] offsets, int[] targets, double[] weights, int[] arcEdges,
+			List<V> vertices, List<E> edges, HashMap<V, Integer> vertexIndex,
+			HashMap<E, Integer> edgeIndex, boolean directed) {
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.arcEdges = arcEdges;
+		this.vertices = vertices;
+		this.edges = edges;
+		this.vertexIndex = vertexIndex;
+		this.edgeIndex = edgeIndex;
+		this.directed = directed;
+
+		int max = 0;
+		for (int v = 0; v < vertices.size(); v++) {
+			max = Math.max(max, offsets[v + 1] - offsets[v]);
+		}
+		this.maxDegree = max;
+	}
+
+	/**
+	 * Builds a snapshot of the given graph. Vertices and edges are numbered in the
+	 * order the graph iterates over them. The arcs of each vertex are taken from
+	 * {@code getOutEdges}, so undirected edges appear in the list of both endpoints.
+	 *
+	 * @param graph The graph to take a snapshot of.
+	 * @param <V> The vertex type
+	 * @param <E> The edge type
+	 * @return An immutable CSR copy of the graph.
+	 */
+	public static <V, E> CompactGraph<V, E> of(Graph<V, E> graph) {
+
+		int vertexCount = graph.getVertexCount();
+		List<V> vertices = new ArrayList<>(vertexCount);
+		HashMap<V, Integer> vertexIndex = new HashMap<>(2 * vertexCount);
+		List<E> edges = new ArrayList<>(graph.getEdgeCount());
+		HashMap<E, Integer> edgeIndex = new HashMap<>(2 * graph.getEdgeCount());
+		boolean directed = false;
+
+		for (V vertex : graph.getVertices()) {
+			vertexIndex.put(vertex, vertices.size());
+			vertices.add(vertex);
+		}
+		for (E edge : graph.getEdges()) {
+			edgeIndex.put(edge, edges.size());
+			edges.add(edge);
+			if (graph.getEdgeType(edge) == EdgeType.DIRECTED) {
+				directed = true;
+			}
+		}
+
+		// Offsets first so the arc arrays can be allocated at their final size
+		int[] offsets = new int[vertexCount + 1];
+		for (int v = 0; v < vertexCount; v++) {
+			offsets[v + 1] = offsets[v] + graph.getOutEdges(vertices.get(v)).size();
+		}
+
+		int arcCount = offsets[vertexCount];
+		int[] targets = new int[arcCount];
+		double[] weights = new double[arcCount];
+		int[] arcEdges = new int[arcCount];
+
+		for (int v = 0; v < vertexCount; v++) {
+			V vertex = vertices.get(v);
+			int arc = offsets[v];
+			for (E edge : graph.getOutEdges(vertex)) {
+				targets[arc] = vertexIndex.get(graph.getOpposite(vertex, edge));
+				weights[arc] = weightOf(edge);
+				arcEdges[arc] = edgeIndex.get(edge);
+				arc++;
+			}
+		}
+
+		return new CompactGraph<>(offsets, targets, weights, arcEdges, vertices, edges,
+				vertexIndex, edgeIndex, directed);
+	}
+
+	/**
+	 * Creates a copy of this snapshot with the vertices relabelled, for example
+	 * with one of the orderings in algorithms.ordering.VertexOrdering. The new
+	 * snapshot maps its indices to the same vertices and edges, so results
+	 * computed on it translate back with {@link #getVertex(int)} as usual. The
+	 * arcs of each vertex are sorted by their new target index.
+	 *
+	 * @param permutation The new index of each vertex, must contain every
+	 * 		  index from 0 to n-1 exactly once.
+	 * @return The relabelled snapshot.
+	 * @throws IllegalArgumentException If the permutation is not valid.
+	 */
+	public CompactGraph<V, E> permute(int[] permutation) {
+		int n = vertices.size();
+		if (permutation.length != n) {
+			throw new IllegalArgumentException("Permutation has " + permutation.length
+					+ " entries for " + n + " vertices");
+		}
+		int[] inverse = new int[n];
+		boolean[] used = new boolean[n];
+		for (int v = 0; v < n; v++) {
+			int p = permutation[v];
+			if (p < 0 || p >= n || used[p]) {
+				throw new IllegalArgumentException("Not a permutation, index " + p + " at " + v);
+			}
+			used[p] = true;
+			inverse[p] = v;
+		}
+
+		List<V> newVertices = new ArrayList<>(n);
+		HashMap<V, Integer> newVertexIndex = new HashMap<>(2 * n);
+		int[] newOffsets = new int[n + 1];
+		for (int p = 0; p < n; p++) {
+			V vertex = vertices.get(inverse[p]);
+			newVertices.add(vertex);
+			newVertexIndex.put(vertex, p);
+			newOffsets[p + 1] = newOffsets[p] + getOutDegree(inverse[p]);
+		}
+
+		int[] newTargets = new int[targets.length];
+		double[] newWeights = new double[weights.length];
+		int[] newArcEdges = new int[arcEdges.length];
+		long[] keys = new long[maxDegree];
+		for (int p = 0; p < n; p++) {
+			int v = inverse[p];
+			int degree = getOutDegree(v);
+			// Sort the arcs on the new target, keeping the arc position in the low bits
+			for (int i = 0; i < degree; i++) {
+				keys[i] = ((long) permutation[targets[offsets[v] + i]] << 32) | i;
+			}
+			Arrays.sort(keys, 0, degree);
+			for (int i = 0; i < degree; i++) {
+				int arc = offsets[v] + (int) keys[i];
+				newTargets[newOffsets[p] + i] = (int) (keys[i] >>> 32);
+				newWeights[newOffsets[p] + i] = weights[arc];
+				newArcEdges[newOffsets[p] + i] = arcEdges[arc];
+			}
+		}
+
+		return new CompactGraph<>(newOffsets, newTargets, newWeights, newArcEdges, newVertices,
+				edges, newVertexIndex, edgeIndex, directed);
+	}
+
+	/**
+	 * Creates the transpose of this snapshot, with every arc pointing the other
+	 * way, so the out-neighbours of a vertex in the result are its in-neighbours
+	 * here. Vertex and edge indices stay the same. For a graph that is not
+	 * directed the transpose has the same arcs, and this snapshot is returned.
+	 *
+	 * @return The reversed snapshot.
+	 */
+	public CompactGraph<V, E> reverse() {
+		if (!directed) {
+			return this;
+		}
+		int n = vertices.size();
+		int[] newOffsets = new int[n + 1];
+		for (int target : targets) {
+			newOffsets[target + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			newOffsets[v + 1] += newOffsets[v];
+		}
+
+		int[] fill = Arrays.copyOf(newOffsets, n);
+		int[] newTargets = new int[targets.length];
+		double[] newWeights = new double[weights.length];
+		int[] newArcEdges = new int[arcEdges.length];
+		for (int v = 0; v < n; v++) {
+			for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+				int position = fill[targets[arc]]++;
+				newTargets[position] = v;
+				newWeights[position] = weights[arc];
+				newArcEdges[position] = arcEdges[arc];
+			}
+		}
+
+		return new CompactGraph<>(newOffsets, newTargets, newWeights, newArcEdges, vertices,
+				edges, vertexIndex, edgeIndex, directed);
+	}
+
+	/**
+	 * Reads the weight of an edge. The unboxed edge variants are read through
+	 * the primitive accessor, edges with a null weight and edges that are not
+	 * core.components.Edge instances count as 1.
+	 */
+	private static double weightOf(Object edge) {
+		if (edge instanceof DoubleWeightedEdge || edge instanceof LongWeightedEdge) {
+			return ((Edge) edge).getDoubleWeight();
+		}
+		if (edge instanceof Edge) {
+			Number weight = ((Edge) edge).getWeight();
+			if (weight != null) {
+				return weight.doubleValue();
+			}
+		}
+		return 1.0;
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertices.size();
+	}
+
+	/**
+	 * @return The number of edges in the original graph.
+	 */
+	public int getEdgeCount() {
+		return edges.size();
+	}
+
+	@Override
+	public int getArcCount() {
+		return targets.length;
+	}
+
+	@Override
+	public boolean isDirected() {
+		return directed;
+	}
+
+	@Override
+	public int getMaxDegree() {
+		return maxDegree;
+	}
+
+	@Override
+	public int getOutDegree(int v) {
+		return offsets[v + 1] - offsets[v];
+	}
+
+	@Override
+	public int getNeighbour(int v, int i) {
+		return targets[offsets[v] + i];
+	}
+
+	@Override
+	public boolean hasRandomAccess() {
+		return true;
+	}
+
+	@Override
+	public double getWeight(int v, int i) {
+		return weights[offsets[v] + i];
+	}
+
+	/**
+	 * @param v The vertex index
+	 * @param i Position in the neighbour list of v
+	 * @return The index of the edge the arc to the i'th out-neighbour of v came from.
+	 */
+	public int getEdgeIndex(int v, int i) {
+		return arcEdges[offsets[v] + i];
+	}
+
+	@Override
+	public int getNeighbours(int v, int[] buffer) {
+		int degree = offsets[v + 1] - offsets[v];
+		System.arraycopy(targets, offsets[v], buffer, 0, degree);
+		return degree;
+	}
+
+	/**
+	 * @param vertex A vertex of the original graph
+	 * @return Its index, or -1 if the vertex was not in the graph.
+	 */
+	public int indexOf(V vertex) {
+		Integer index = vertexIndex.get(vertex);
+		return index == null ? -1 : index;
+	}
+
+	public V getVertex(int index) {
+		return vertices.get(index);
+	}
+
+	/**
+	 * @param edge An edge of the original graph
+	 * @return Its index, or -1 if the edge was not in the graph.
+	 */
+	public int indexOfEdge(E edge) {
+		Integer index = edgeIndex.get(edge);
+		return index == null ? -1 : index;
+	}
+
+	public E getEdge(int index) {
+		return edges.get(index);
+	}
+
+	/**
+	 * @return The vertices of the original graph in index order.
+	 */
+	public Collection<V> getVertices() {
+		return Collections.unmodifiableList(vertices);
+	}
+
+	/**
+	 * Translates a sequence of vertex indices back to the original vertices.
+	 *
+	 * @param indices Vertex indices
+	 * @param length The number of entries of indices to translate
+	 * @return A list of the vertices in the same order.
+	 */
+	public List<V> toVertices(int[] indices, int length) {
+		List<V> result = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) {
+			result.add(vertices.get(indices[i]));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,779 @@
+package core.components;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Read-only graph with compressed adjacency lists, for graphs that don't fit
+ * in memory even as a {@link CompactGraph}. The neighbour lists are sorted and
+ * stored in a single bit stream using the techniques of the WebGraph framework
+ * (Boldi and Vigna, "The WebGraph Framework I: Compression Techniques"):
+ *
+ * <ul>
+ * <li>Reference compression. A list can be described as a copy of part of the
+ * list of one of the previous {@code window} vertices, given as alternating
+ * runs of copied and skipped entries.</li>
+ * <li>Intervals. Runs of at least {@value #MIN_INTERVAL} consecutive
+ * neighbours are stored as a start and a length.</li>
+ * <li>Gap encoding. The remaining neighbours are stored as the differences
+ * between consecutive entries, written with zeta-3 codes.</li>
+ * </ul>
+ *
+ * Lists are only encoded against lists that reach at most
+ * {@code maxReferenceChain} further references, which bounds the work of
+ * decoding a single list. Use {@link #getNeighbours(int, int[])} or a
+ * {@link NodeIterator} to read lists, {@link #getNeighbour(int, int)} decodes
+ * the whole list to return one entry. Arc weights are not stored, every arc
+ * has weight 1.
+ *
+ * How small the graph gets depends on how local its links are in the vertex
+ * order. On a synthetic 1M vertex graph with about 16 arcs per vertex and
+ * copied lists, the defaults give 8.4 bits per arc when 60% of the links
+ * point to nearby vertices, 5.4 bits at 90% and 4.4 bits at 97%. Number the
+ * vertices so neighbours get close indices, for example in crawl order or by
+ * URL, before compressing. Decoding costs time: on the 60% graph a breadth
+ * first search runs about 4 times slower than on a {@link CompactGraph}, and
+ * about 3.5 times slower with references turned off. Shorter reference
+ * chains trade size for speed.
+ *
+ * The bit stream is addressed with long offsets and can grow past 2GB, but
+ * like every {@link IntGraph} the arc count is an int, so a graph has at most
+ * 2^31 - 1 arcs. Compressing a {@link MappedGraph} with 555 million arcs took
+ * 70 to 80 seconds with a 4GB heap.
+ *
+ * @author agent
+ */
+public class CompressedGraph implements IntGraph {
+
+	public static final int DEFAULT_WINDOW = 7;
+	public static final int DEFAULT_MAX_REFERENCE_CHAIN = 3;
+
+	/**
+	 * Shortest run of consecutive neighbours stored as an interval
+	 */
+	public static final int MIN_INTERVAL = 3;
+
+	/**
+	 * "JGRC" in ASCII
+	 */
+	public static final int MAGIC = 0x4A475243;
+	public static final int VERSION = 1;
+
+	private final int vertexCount;
+	private final int arcCount;
+	private final int maxDegree;
+	private final boolean directed;
+	private final int window;
+	private final int maxReferenceChain;
+
+	/**
+	 * Bit position of the list of each vertex, has one extra entry at the end
+	 * holding the length of the stream.
+	 */
+	private final long[] offsets;
+	/**
+	 * The encoded lists, most significant bit first
+	 */
+	private final long[] bits;
+
+	/**
+	 * Decoding buffers for random access, one set per thread
+	 */
+	private final ThreadLocal<Scratch> scratch;
+
+	private CompressedGraph(int vertexCount, int arcCount, int maxDegree, boolean directed,
+			int window, int maxReferenceChain, long[] offsets, long[] bits) {
+		this.vertexCount = vertexCount;
+		this.arcCount = arcCount;
+		this.maxDegree = maxDegree;
+		this.directed = directed;
+		this.window = window;
+		this.maxReferenceChain = maxReferenceChain;
+		this.offsets = offsets;
+		this.bits = bits;
+		this.scratch = ThreadLocal.withInitial(() -> new Scratch(maxDegree, maxReferenceChain + 1));
+	}
+
+	/**
+	 * Compresses a graph with the default window and reference chain length.
+	 *
+	 * @param graph The graph to compress, for example a {@link MappedGraph} so
+	 * 		  the uncompressed graph never has to be loaded into the heap.
+	 * @return The compressed graph.
+	 */
+	public static CompressedGraph of(IntGraph graph) {
+		return of(graph, DEFAULT_WINDOW, DEFAULT_MAX_REFERENCE_CHAIN);
+	}
+
+	/**
+	 * Compresses a graph. Larger windows and chains find more lists to copy
+	 * from and compress better, at the cost of slower compression and slower
+	 * random access.
+	 *
+	 * @param graph The graph to compress
+	 * @param window How many of the previous vertices a list may reference,
+	 * 		  0 disables reference compression.
+	 * @param maxReferenceChain The most references followed to decode a list.
+	 * @return The compressed graph.
+	 */
+	public static CompressedGraph of(IntGraph graph, int window, int maxReferenceChain) {
+		if (window < 0 || maxReferenceChain < 0) {
+			throw new IllegalArgumentException("Window and reference chain can't be negative");
+		}
+		if (maxReferenceChain == 0) {
+			window = 0;
+		}
+
+		int n = graph.getVertexCount();
+		int maxDegree = graph.getMaxDegree();
+		long[] offsets = new long[n + 1];
+		BitOutput out = new BitOutput(false);
+		BitOutput counter = new BitOutput(true);
+		ListEncoder encoder = new ListEncoder(maxDegree);
+
+		// The sorted lists and chain lengths of the last window + 1 vertices
+		int[][] lists = new int[window + 1][maxDegree];
+		int[] lengths = new int[window + 1];
+		int[] chains = new int[window + 1];
+
+		for (int v = 0; v < n; v++) {
+			int slot = v % (window + 1);
+			int[] list = lists[slot];
+			int degree = graph.getNeighbours(v, list);
+			Arrays.sort(list, 0, degree);
+			lengths[slot] = degree;
+
+			// Pick the reference giving the shortest encoding
+			int bestReference = 0;
+			long bestCost = Long.MAX_VALUE;
+			for (int r = 0; r <= window && r <= v; r++) {
+				int referenceSlot = (v - r) % (window + 1);
+				if (r > 0 && (lengths[referenceSlot] == 0 || chains[referenceSlot] >= maxReferenceChain)) {
+					continue;
+				}
+				counter.reset();
+				encoder.write(counter, v, list, degree, window,
+						r, lists[referenceSlot], lengths[referenceSlot]);
+				if (counter.length() < bestCost) {
+					bestCost = counter.length();
+					bestReference = r;
+				}
+			}
+
+			int referenceSlot = (v - bestReference) % (window + 1);
+			offsets[v] = out.length();
+			encoder.write(out, v, list, degree, window,
+					bestReference, lists[referenceSlot], lengths[referenceSlot]);
+			chains[slot] = bestReference == 0 ? 0 : chains[referenceSlot] + 1;
+		}
+		offsets[n] = out.length();
+
+		return new CompressedGraph(n, graph.getArcCount(), maxDegree, graph.isDirected(),
+				window, maxReferenceChain, offsets, out.toArray());
+	}
+
+	/**
+	 * Reads a graph saved with {@link #write(File)}.
+	 *
+	 * @param file The file to read
+	 * @return The compressed graph.
+	 * @throws IOException If the file can't be read or is not a compressed graph file.
+	 */
+	public static CompressedGraph read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a compressed graph file");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported compressed graph version " + version);
+			}
+			int vertexCount = in.readInt();
+			int arcCount = in.readInt();
+			int maxDegree = in.readInt();
+			boolean directed = in.readBoolean();
+			int window = in.readInt();
+			int maxReferenceChain = in.readInt();
+
+			long[] offsets = new long[vertexCount + 1];
+			for (int v = 0; v <= vertexCount; v++) {
+				offsets[v] = in.readLong();
+			}
+			long[] bits = new long[(int) ((offsets[vertexCount] + 63) >>> 6)];
+			for (int i = 0; i < bits.length; i++) {
+				bits[i] = in.readLong();
+			}
+			return new CompressedGraph(vertexCount, arcCount, maxDegree, directed,
+					window, maxReferenceChain, offsets, bits);
+		}
+	}
+
+	/**
+	 * Saves the compressed graph to a file, see {@link #read(File)}.
+	 *
+	 * @param file The file to write
+	 * @throws IOException If the file can't be written.
+	 */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(vertexCount);
+			out.writeInt(arcCount);
+			out.writeInt(maxDegree);
+			out.writeBoolean(directed);
+			out.writeInt(window);
+			out.writeInt(maxReferenceChain);
+			for (long offset : offsets) {
+				out.writeLong(offset);
+			}
+			for (long word : bits) {
+				out.writeLong(word);
+			}
+		}
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	@Override
+	public int getArcCount() {
+		return arcCount;
+	}
+
+	@Override
+	public boolean isDirected() {
+		return directed;
+	}
+
+	@Override
+	public int getMaxDegree() {
+		return maxDegree;
+	}
+
+	@Override
+	public int getOutDegree(int v) {
+		BitInput in = new BitInput(bits);
+		in.position = offsets[v];
+		return (int) in.readGamma();
+	}
+
+	/**
+	 * Decodes the list of v to find one entry. Prefer
+	 * {@link #getNeighbours(int, int[])} when going over a whole list.
+	 */
+	@Override
+	public int getNeighbour(int v, int i) {
+		Scratch buffers = scratch.get();
+		decode(new BitInput(bits), v, buffers.list, buffers, 0);
+		return buffers.list[i];
+	}
+
+	@Override
+	public double getWeight(int v, int i) {
+		return 1.0;
+	}
+
+	/**
+	 * Decodes the neighbour list of v, the neighbours come out sorted.
+	 */
+	@Override
+	public int getNeighbours(int v, int[] buffer) {
+		return decode(new BitInput(bits), v, buffer, scratch.get(), 0);
+	}
+
+	/**
+	 * @return The size of the encoded lists in bits.
+	 */
+	public long getBitLength() {
+		return offsets[vertexCount];
+	}
+
+	/**
+	 * @return The average number of bits used per arc, not counting the
+	 * 		   offsets of the lists.
+	 */
+	public double getBitsPerArc() {
+		return arcCount == 0 ? 0.0 : offsets[vertexCount] / (double) arcCount;
+	}
+
+	/**
+	 * @return An iterator that decodes every list in vertex order, reusing the
+	 * 		   lists it has already decoded to resolve references.
+	 */
+	public NodeIterator nodeIterator() {
+		return new NodeIterator();
+	}
+
+	/**
+	 * Decodes the list of v, following its reference recursively.
+	 *
+	 * @param level The number of references followed to get to v
+	 */
+	private int decode(BitInput in, int v, int[] out, Scratch buffers, int level) {
+		in.position = offsets[v];
+		int degree = (int) in.readGamma();
+		if (degree == 0) {
+			return 0;
+		}
+		int reference = window > 0 ? (int) in.readGamma() : 0;
+		int[] referenceList = null;
+		int referenceLength = 0;
+		if (reference > 0) {
+			long position = in.position;
+			referenceList = buffers.references[level];
+			referenceLength = decode(in, v - reference, referenceList, buffers, level + 1);
+			in.position = position;
+		}
+		return decodeLinks(in, v, degree, referenceList, referenceLength, out, buffers);
+	}
+
+	/**
+	 * Decodes the part of a list following the reference, merging the copied
+	 * entries, the intervals and the gap encoded entries into one sorted list.
+	 */
+	private static int decodeLinks(BitInput in, int v, int degree, int[] referenceList,
+			int referenceLength, int[] out, Scratch buffers) {
+
+		int[] copied = buffers.copied;
+		int copiedCount = 0;
+		if (referenceList != null) {
+			int blocks = (int) in.readGamma();
+			int position = 0;
+			boolean copy = true;
+			for (int b = 0; b < blocks; b++) {
+				int length = (int) in.readGamma() + (b == 0 ? 0 : 1);
+				if (copy) {
+					System.arraycopy(referenceList, position, copied, copiedCount, length);
+					copiedCount += length;
+				}
+				position += length;
+				copy = !copy;
+			}
+			// The last block is implicit and runs to the end of the reference list
+			if (copy) {
+				System.arraycopy(referenceList, position, copied, copiedCount, referenceLength - position);
+				copiedCount += referenceLength - position;
+			}
+		}
+
+		int extraCount = degree - copiedCount;
+		if (extraCount == 0) {
+			System.arraycopy(copied, 0, out, 0, copiedCount);
+			return degree;
+		}
+
+		int[] intervals = buffers.intervals;
+		int intervalCount = 0;
+		int intervalTotal = (int) in.readGamma();
+		int end = v;
+		for (int i = 0; i < intervalTotal; i++) {
+			int left = i == 0 ? v + (int) unzigzag(in.readGamma()) : end + (int) in.readGamma();
+			int length = (int) in.readGamma() + MIN_INTERVAL;
+			for (int k = 0; k < length; k++) {
+				intervals[intervalCount++] = left + k;
+			}
+			end = left + length;
+		}
+
+		// Without copied entries or intervals the residuals are the whole list
+		int[] residuals = copiedCount == 0 && intervalCount == 0 ? out : buffers.residuals;
+		int residualCount = extraCount - intervalCount;
+		int previous = v;
+		for (int i = 0; i < residualCount; i++) {
+			previous = i == 0 ? v + (int) unzigzag(in.readZeta()) : previous + (int) in.readZeta();
+			residuals[i] = previous;
+		}
+
+		// Merge the three sorted sources
+		int[] extras = residuals;
+		if (intervalCount > 0) {
+			extras = residualCount > 0 ? buffers.extras : intervals;
+			if (residualCount > 0) {
+				merge(intervals, intervalCount, residuals, residualCount, extras);
+			}
+		}
+		if (copiedCount == 0) {
+			if (extras != out) {
+				System.arraycopy(extras, 0, out, 0, extraCount);
+			}
+		} else {
+			merge(copied, copiedCount, extras, extraCount, out);
+		}
+		return degree;
+	}
+
+	private static void merge(int[] a, int aLength, int[] b, int bLength, int[] out) {
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (i < aLength && j < bLength) {
+			out[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+		}
+		while (i < aLength) {
+			out[k++] = a[i++];
+		}
+		while (j < bLength) {
+			out[k++] = b[j++];
+		}
+	}
+
+	private static long zigzag(long x) {
+		return (x << 1) ^ (x >> 63);
+	}
+
+	private static long unzigzag(long x) {
+		return (x >>> 1) ^ -(x & 1);
+	}
+
+	/**
+	 * Decodes the lists one after the other. The lists of the last
+	 * {@code window} vertices are kept so references are resolved without
+	 * decoding anything twice, which makes a full scan much faster than
+	 * calling {@link #getNeighbours(int, int[])} for every vertex.
+	 */
+	public class NodeIterator {
+
+		private final BitInput in = new BitInput(bits);
+		private final Scratch buffers = new Scratch(maxDegree, 0);
+		private final int[][] lists = new int[window + 1][maxDegree];
+		private final int[] lengths = new int[window + 1];
+		private int current = -1;
+
+		private NodeIterator() {
+			in.position = 0;
+		}
+
+		public boolean hasNext() {
+			return current + 1 < vertexCount;
+		}
+
+		/**
+		 * Decodes the list of the next vertex.
+		 *
+		 * @return The index of the vertex.
+		 */
+		public int nextVertex() {
+			current++;
+			int slot = current % (window + 1);
+			int degree = (int) in.readGamma();
+			if (degree > 0) {
+				int reference = window > 0 ? (int) in.readGamma() : 0;
+				int referenceSlot = (current - reference) % (window + 1);
+				degree = decodeLinks(in, current, degree,
+						reference > 0 ? lists[referenceSlot] : null, lengths[referenceSlot],
+						lists[slot], buffers);
+			}
+			lengths[slot] = degree;
+			return current;
+		}
+
+		public int getOutDegree() {
+			return lengths[current % (window + 1)];
+		}
+
+		/**
+		 * @return The sorted neighbours of the current vertex in the first
+		 * 		   {@link #getOutDegree()} entries. The array is reused, it
+		 * 		   is only valid until the next call to {@link #nextVertex()}.
+		 */
+		public int[] getNeighbours() {
+			return lists[current % (window + 1)];
+		}
+	}
+
+	/**
+	 * Writes one list in the format read by {@link #decode}.
+	 */
+	private static class ListEncoder {
+
+		private final int[] extras;
+		private final int[] residuals;
+		private final int[] blocks;
+		private final int[] intervalLeft;
+		private final int[] intervalLength;
+
+		ListEncoder(int maxDegree) {
+			extras = new int[maxDegree];
+			residuals = new int[maxDegree];
+			blocks = new int[maxDegree + 1];
+			intervalLeft = new int[maxDegree / MIN_INTERVAL + 1];
+			intervalLength = new int[maxDegree / MIN_INTERVAL + 1];
+		}
+
+		void write(BitOutput out, int v, int[] list, int degree, int window,
+				int reference, int[] referenceList, int referenceLength) {
+
+			out.writeGamma(degree);
+			if (degree == 0) {
+				return;
+			}
+			if (window > 0) {
+				out.writeGamma(reference);
+			}
+
+			// Split the list into entries copied from the reference and extra entries
+			int extraCount = 0;
+			if (reference > 0) {
+				int blockCount = 0;
+				int blockLength = 0;
+				boolean copy = true;
+				int j = 0;
+				for (int i = 0; i < referenceLength; i++) {
+					int value = referenceList[i];
+					while (j < degree && list[j] < value) {
+						extras[extraCount++] = list[j++];
+					}
+					boolean copied = j < degree && list[j] == value;
+					if (copied) {
+						j++;
+					}
+					if (copied != copy) {
+						blocks[blockCount++] = blockLength;
+						blockLength = 0;
+						copy = copied;
+					}
+					blockLength++;
+				}
+				while (j < degree) {
+					extras[extraCount++] = list[j++];
+				}
+
+				// The last block is left implicit
+				out.writeGamma(blockCount);
+				for (int b = 0; b < blockCount; b++) {
+					out.writeGamma(b == 0 ? blocks[b] : blocks[b] - 1);
+				}
+			} else {
+				System.arraycopy(list, 0, extras, 0, degree);
+				extraCount = degree;
+			}
+
+			if (extraCount == 0) {
+				return;
+			}
+
+			// Find the runs of consecutive entries long enough to be intervals. A run
+			// starting inside the previous interval, which happens with repeated
+			// entries, is left as residuals.
+			int intervalCount = 0;
+			int residualCount = 0;
+			long end = v;
+			for (int i = 0; i < extraCount; ) {
+				int j = i;
+				while (j + 1 < extraCount && extras[j + 1] == extras[j] + 1) {
+					j++;
+				}
+				int length = j - i + 1;
+				if (length >= MIN_INTERVAL && (intervalCount == 0 || extras[i] >= end)) {
+					intervalLeft[intervalCount] = extras[i];
+					intervalLength[intervalCount] = length;
+					intervalCount++;
+					end = (long) extras[i] + length;
+				} else {
+					for (int k = i; k <= j; k++) {
+						residuals[residualCount++] = extras[k];
+					}
+				}
+				i = j + 1;
+			}
+
+			out.writeGamma(intervalCount);
+			for (int i = 0; i < intervalCount; i++) {
+				out.writeGamma(i == 0 ? zigzag((long) intervalLeft[i] - v)
+						: intervalLeft[i] - (intervalLeft[i - 1] + intervalLength[i - 1]));
+				out.writeGamma(intervalLength[i] - MIN_INTERVAL);
+			}
+
+			for (int i = 0; i < residualCount; i++) {
+				out.writeZeta(i == 0 ? zigzag((long) residuals[i] - v) : residuals[i] - residuals[i - 1]);
+			}
+		}
+	}
+
+	/**
+	 * Decoding buffers, all of them hold a full list.
+	 */
+	private static class Scratch {
+
+		final int[] list;
+		final int[] copied;
+		final int[] intervals;
+		final int[] residuals;
+		final int[] extras;
+		/**
+		 * The decoded reference list at each level of a reference chain
+		 */
+		final int[][] references;
+
+		Scratch(int maxDegree, int levels) {
+			list = new int[maxDegree];
+			copied = new int[maxDegree];
+			intervals = new int[maxDegree];
+			residuals = new int[maxDegree];
+			extras = new int[maxDegree];
+			references = new int[levels][maxDegree];
+		}
+	}
+
+	/**
+	 * Growable bit stream, written most significant bit first. A counting
+	 * stream only keeps track of its length, it is used to compare encodings.
+	 */
+	private static class BitOutput {
+
+		private final boolean counting;
+		private long[] words;
+		private long length;
+
+		BitOutput(boolean counting) {
+			this.counting = counting;
+			this.words = counting ? null : new long[1024];
+		}
+
+		long length() {
+			return length;
+		}
+
+		void reset() {
+			length = 0;
+		}
+
+		long[] toArray() {
+			return Arrays.copyOf(words, (int) ((length + 63) >>> 6));
+		}
+
+		void writeBits(long value, int count) {
+			if (counting) {
+				length += count;
+				return;
+			}
+			while (count > 0) {
+				int index = (int) (length >>> 6);
+				if (index == words.length) {
+					words = Arrays.copyOf(words, 2 * words.length);
+				}
+				int free = 64 - (int) (length & 63);
+				int take = Math.min(free, count);
+				long chunk = (value >>> (count - take)) & (take == 64 ? -1L : (1L << take) - 1);
+				words[index] |= chunk << (free - take);
+				length += take;
+				count -= take;
+			}
+		}
+
+		/**
+		 * Writes count zeros followed by a one.
+		 */
+		void writeUnary(int count) {
+			while (count > 32) {
+				writeBits(0, 32);
+				count -= 32;
+			}
+			writeBits(1, count + 1);
+		}
+
+		/**
+		 * Elias gamma code of x + 1
+		 */
+		void writeGamma(long x) {
+			long y = x + 1;
+			int log = 63 - Long.numberOfLeadingZeros(y);
+			writeUnary(log);
+			writeBits(y, log);
+		}
+
+		/**
+		 * Zeta-3 code of x + 1, a unary bucket followed by a minimal binary code
+		 */
+		void writeZeta(long x) {
+			long y = x + 1;
+			int h = (63 - Long.numberOfLeadingZeros(y)) / 3;
+			writeUnary(h);
+			long left = 1L << (3 * h);
+			long value = y - left;
+			int bits = 3 * h + 3;
+			// Values below left get one bit less
+			if (value < left) {
+				writeBits(value, bits - 1);
+			} else {
+				writeBits(value + left, bits);
+			}
+		}
+	}
+
+	/**
+	 * Reader over an encoded bit stream.
+	 */
+	private static class BitInput {
+
+		private final long[] words;
+		long position;
+
+		BitInput(long[] words) {
+			this.words = words;
+		}
+
+		/**
+		 * Reads up to 63 bits as an unsigned number.
+		 */
+		long readBits(int count) {
+			if (count == 0) {
+				return 0;
+			}
+			int index = (int) (position >>> 6);
+			int offset = (int) (position & 63);
+			position += count;
+			long high = (words[index] << offset) >>> (64 - count);
+			int rest = offset + count - 64;
+			if (rest <= 0) {
+				return high;
+			}
+			// The value continues in the next word
+			return high | (words[index + 1] >>> (64 - rest));
+		}
+
+		/**
+		 * Counts and skips zeros up to and including the next one.
+		 */
+		int readUnary() {
+			int count = 0;
+			while (true) {
+				int offset = (int) (position & 63);
+				long word = words[(int) (position >>> 6)] << offset;
+				if (word != 0) {
+					int zeros = Long.numberOfLeadingZeros(word);
+					position += zeros + 1;
+					return count + zeros;
+				}
+				count += 64 - offset;
+				position += 64 - offset;
+			}
+		}
+
+		long readGamma() {
+			int log = readUnary();
+			return ((1L << log) | readBits(log)) - 1;
+		}
+
+		long readZeta() {
+			int h = readUnary();
+			long left = 1L << (3 * h);
+			int bits = 3 * h + 3;
+			long value = readBits(bits - 1);
+			if (value >= left) {
+				value = ((value << 1) | readBits(1)) - left;
+			}
+			return value + left - 1;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package core.components;
+
+import algorithms.connectivity.PathBasedComponents;
+import algorithms.search.BreadthFirstSearch;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for CompressedGraph.
+ *
+ * @author agent
+ */
+public class CompressedGraphTest {
+
+    @Test
+    public void getNeighbours_compressedGraph_sortedSnapshotLists() {
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(createLinkGraph(200));
+        CompressedGraph compressed = CompressedGraph.of(snapshot);
+
+        assertEquals(snapshot.getVertexCount(), compressed.getVertexCount());
+        assertEquals(snapshot.getArcCount(), compressed.getArcCount());
+        assertTrue(compressed.isDirected());
+        for (int v = 0; v < snapshot.getVertexCount(); v++) {
+            assertArrayEquals(sortedNeighbours(snapshot, v), sortedNeighbours(compressed, v));
+            assertEquals(snapshot.getOutDegree(v), compressed.getOutDegree(v));
+        }
+    }
+
+    @Test
+    public void nodeIterator_compressedGraph_visitsEveryList() {
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(createLinkGraph(200));
+        CompressedGraph compressed = CompressedGraph.of(snapshot);
+
+        CompressedGraph.NodeIterator iterator = compressed.nodeIterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            int v = iterator.nextVertex();
+            int[] neighbours = Arrays.copyOf(iterator.getNeighbours(), iterator.getOutDegree());
+            assertArrayEquals(sortedNeighbours(snapshot, v), neighbours);
+            count++;
+        }
+        assertEquals(snapshot.getVertexCount(), count);
+    }
+
+    @Test
+    public void read_writtenGraph_sameComponents() throws IOException {
+        CompactGraph<Integer, String> snapshot = CompactGraph.of(createLinkGraph(200));
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        CompressedGraph.of(snapshot).write(file);
+        CompressedGraph compressed = CompressedGraph.read(file);
+
+        assertArrayEquals(PathBasedComponents.findComponentIndices(snapshot),
+                PathBasedComponents.findComponentIndices(compressed));
+        assertEquals(BreadthFirstSearch.searchIndices(snapshot, 0).length,
+                BreadthFirstSearch.searchIndices(compressed, 0).length);
+    }
+
+    private int[] sortedNeighbours(IntGraph graph, int v) {
+        int[] neighbours = new int[graph.getOutDegree(v)];
+        graph.getNeighbours(v, neighbours);
+        Arrays.sort(neighbours);
+        return neighbours;
+    }
+
+    /**
+     * Creates a graph with the features the compression looks for: runs of
+     * consecutive neighbours, lists similar to the previous list and a few
+     * links far away.
+     */
+    private Graph<Integer, String> createLinkGraph(int n) {
+        Graph<Integer, String> graph = new DirectedSparseGraph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 1; j <= 4; j++) {
+                graph.addEdge(i + "-" + (i + j) % n, i, (i + j) % n);
+            }
+            int block = (i / 10) * 10;
+            graph.addEdge(i + "-" + (block + 50) % n, i, (block + 50) % n);
+            graph.addEdge(i + "-" + (block + 97) % n, i, (block + 97) % n);
+            if (i % 7 == 0) {
+                graph.addEdge(i + "-" + (i * 31 + 11) % n, i, (i * 31 + 11) % n);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,164 @@
+package core.components;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Thread-safe, lock-free version of {@link DisjointSetForest} for merging
+ * components from several threads at once. The parent links are kept in an
+ * AtomicIntegerArray:
+ *
+ * - find follows parent links and splits the path, pointing each element it
+ *   passes at its grandparent with a single compare-and-set. Failures are
+ *   ignored since another thread already shortened the path, so find never
+ *   retries and is wait-free.
+ * - union links one root below the other with compare-and-set, retrying only if
+ *   another thread changed one of the roots in the meantime.
+ *
+ * Roots are linked by a fixed random priority derived from their index instead
+ * of by rank, which keeps the trees shallow without a second array that would
+ * have to be updated together with the parent.
+ *
+ * The number of elements is fixed when the forest is created.
+ *
+ * @author agent
+ */
+public class ConcurrentDisjointSetForest {
+
+	private final AtomicIntegerArray parent;
+
+	/**
+	 * Creates a forest of the given number of singleton sets, numbered
+	 * 0 to size-1.
+	 *
+	 * @param size The number of elements
+	 */
+	public ConcurrentDisjointSetForest(int size) {
+		parent = new AtomicIntegerArray(size);
+		for (int i = 0; i < size; i++) {
+			parent.set(i, i);
+		}
+	}
+
+	/**
+	 * Finds the root of the set x belongs to, splitting the path on the way:
+	 * every element passed is pointed at its grandparent, and the walk
+	 * continues from its old parent.
+	 *
+	 * @param x The element
+	 * @return The representative of the set at some point during the call.
+	 */
+	public int find(int x) {
+		int p = parent.get(x);
+		while (p != x) {
+			int grandparent = parent.get(p);
+			if (grandparent != p) {
+				parent.compareAndSet(x, p, grandparent);
+			}
+			x = p;
+			p = parent.get(x);
+		}
+		return x;
+	}
+
+	/**
+	 * Joins the sets that u and v belong to.
+	 *
+	 * @param u First element
+	 * @param v Second element
+	 * @return True if this call merged the sets, false if u and v were
+	 * 		   already in the same set.
+	 */
+	public boolean union(int u, int v) {
+		while (true) {
+			int rootU = find(u);
+			int rootV = find(v);
+			if (rootU == rootV) {
+				return false;
+			}
+			// Always link the lower priority root below the higher one
+			if (higherPriority(rootU, rootV)) {
+				int tmp = rootU;
+				rootU = rootV;
+				rootV = tmp;
+			}
+			if (parent.compareAndSet(rootU, rootU, rootV)) {
+				return true;
+			}
+			// rootU stopped being a root, search again
+			u = rootU;
+			v = rootV;
+		}
+	}
+
+	/**
+	 * Joins the sets of each pair (us[i], vs[i]) using all the threads of
+	 * the common fork/join pool.
+	 *
+	 * @param us First element of each pair
+	 * @param vs Second element of each pair
+	 * @return The number of unions that merged two sets.
+	 */
+	public long union(int[] us, int[] vs) {
+		if (us.length != vs.length) {
+			throw new IllegalArgumentException("Both arrays must have the same length");
+		}
+		return IntStream.range(0, us.length)
+				.parallel()
+				.filter(i -> union(us[i], vs[i]))
+				.count();
+	}
+
+	/**
+	 * @param u First element
+	 * @param v Second element
+	 * @return True if u and v were in the same set at some point during the call.
+	 */
+	public boolean connected(int u, int v) {
+		while (true) {
+			int rootU = find(u);
+			int rootV = find(v);
+			if (rootU == rootV) {
+				return true;
+			}
+			// Only trust the answer if rootU was still a root after finding rootV
+			if (parent.get(rootU) == rootU) {
+				return false;
+			}
+			u = rootU;
+		}
+	}
+
+	public int size() {
+		return parent.length();
+	}
+
+	/**
+	 * Counts the roots. Only exact when no unions are running at the same time.
+	 *
+	 * @return The number of disjoint sets.
+	 */
+	public int countSets() {
+		int count = 0;
+		for (int i = 0; i < parent.length(); i++) {
+			if (parent.get(i) == i) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Fixed pseudo random ordering of the elements, ties broken by index.
+	 */
+	private static boolean higherPriority(int a, int b) {
+		int priorityA = mix(a);
+		int priorityB = mix(b);
+		return priorityA != priorityB ? priorityA > priorityB : a > b;
+	}
+
+	private static int mix(int x) {
+		x *= 0x9E3779B9;
+		return x ^ (x >>> 16);
+	}
+}
@@ -0,0 +1,115 @@
+package core.components;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for ConcurrentDisjointSetForest.
+ *
+ * @author agent
+ */
+public class ConcurrentDisjointSetForestTest {
+
+    private static final int SIZE = 20_000;
+    private static final int PAIRS = 15_000;
+
+    @Test
+    public void union_overlappingPairsFromManyThreads_samePartitionAsSequential() throws Exception {
+        Random random = new Random(11);
+        int[] us = new int[PAIRS];
+        int[] vs = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            us[i] = random.nextInt(SIZE);
+            vs[i] = random.nextInt(SIZE);
+        }
+        DisjointSetForest expected = new DisjointSetForest(SIZE);
+        for (int i = 0; i < PAIRS; i++) {
+            expected.union(us[i], vs[i]);
+        }
+
+        // Every thread unions all the pairs, starting at a different offset
+        ConcurrentDisjointSetForest forest = new ConcurrentDisjointSetForest(SIZE);
+        int threadCount = 8;
+        AtomicLong merged = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int offset = t * PAIRS / threadCount;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long count = 0;
+                for (int k = 0; k < PAIRS; k++) {
+                    int i = (offset + k) % PAIRS;
+                    if (forest.union(us[i], vs[i])) {
+                        count++;
+                    }
+                }
+                merged.addAndGet(count);
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Each merge removed exactly one set, whichever thread made it
+        assertEquals(expected.getSetCount(), forest.countSets());
+        assertEquals(SIZE - expected.getSetCount(), merged.get());
+        assertSamePartition(expected, forest);
+        for (int i = 0; i < PAIRS; i++) {
+            assertFalse(forest.union(us[i], vs[i]));
+            assertTrue(forest.connected(us[i], vs[i]));
+        }
+    }
+
+    @Test
+    public void union_bulkPairs_samePartitionAsSequential() {
+        Random random = new Random(12);
+        int[] us = new int[PAIRS];
+        int[] vs = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            us[i] = random.nextInt(SIZE);
+            vs[i] = random.nextInt(SIZE);
+        }
+        DisjointSetForest expected = new DisjointSetForest(SIZE);
+        for (int i = 0; i < PAIRS; i++) {
+            expected.union(us[i], vs[i]);
+        }
+
+        ConcurrentDisjointSetForest forest = new ConcurrentDisjointSetForest(SIZE);
+        assertEquals(SIZE - expected.getSetCount(), forest.union(us, vs));
+        assertEquals(0, forest.union(us, vs));
+        assertSamePartition(expected, forest);
+    }
+
+    /**
+     * Checks that the roots of both forests correspond one to one, and that
+     * find keeps returning the same root once the unions are done.
+     */
+    private static void assertSamePartition(DisjointSetForest expected, ConcurrentDisjointSetForest forest) {
+        Map<Integer, Integer> rootOf = new HashMap<>();
+        Map<Integer, Integer> expectedRootOf = new HashMap<>();
+        for (int i = 0; i < SIZE; i++) {
+            int root = forest.find(i);
+            assertEquals(root, forest.find(i));
+            assertEquals(root, forest.find(root));
+            int expectedRoot = expected.find(i);
+            assertEquals(root, (int) rootOf.computeIfAbsent(expectedRoot, key -> root));
+            assertEquals(expectedRoot, (int) expectedRootOf.computeIfAbsent(root, key -> expectedRoot));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package core.components;
+
+import java.util.Arrays;
+
+/**
+ * Int indexed disjoint-set forest. Each set is a tree stored in the parent
+ * array, sets are linked by rank and finds use path halving, so any sequence
+ * of operations runs in near linear time. Uses one int and one byte per element.
+ *
+ * @author agent
+ */
+public class DisjointSetForest {
+
+	/**
+	 * Parent of each element, roots are their own parent
+	 */
+	private int[] parent;
+	/**
+	 * Upper bound on the height of the tree below each root
+	 */
+	private byte[] rank;
+	/**
+	 * Number of elements
+	 */
+	private int size;
+	/**
+	 * Number of disjoint sets
+	 */
+	private int setCount;
+
+	/**
+	 * Creates a forest of the given number of singleton sets, numbered
+	 * 0 to size-1.
+	 *
+	 * @param size The number of elements
+	 */
+	public DisjointSetForest(int size) {
+		this(size, size);
+	}
+
+	/**
+	 * Creates a forest of the given number of singleton sets, with room for
+	 * more elements to be added by {@link #makeSet()} before the arrays grow.
+	 *
+	 * @param size The number of elements
+	 * @param capacity The number of elements expected in total
+	 */
+	public DisjointSetForest(int size, int capacity) {
+		if (size < 0 || capacity < 0) {
+			throw new IllegalArgumentException("Negative size " + size + " or capacity " + capacity);
+		}
+		parent = new int[Math.max(Math.max(size, capacity), 16)];
+		rank = new byte[parent.length];
+		for (int i = 0; i < size; i++) {
+			parent[i] = i;
+		}
+		this.size = size;
+		this.setCount = size;
+	}
+
+	/**
+	 * Adds a new singleton set, growing the arrays if needed.
+	 *
+	 * @return The index of the new element.
+	 */
+	public int makeSet() {
+		if (size == parent.length) {
+			parent = Arrays.copyOf(parent, 2 * size);
+			rank = Arrays.copyOf(rank, 2 * size);
+		}
+		parent[size] = size;
+		setCount++;
+		return size++;
+	}
+
+	/**
+	 * Finds the root of the set x belongs to, halving the path on the way.
+	 *
+	 * @param x The element
+	 * @return The representative of the set.
+	 */
+	public int find(int x) {
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+		return x;
+	}
+
+	/**
+	 * Joins the sets that u and v belong to.
+	 *
+	 * @param u First element
+	 * @param v Second element
+	 * @return True if the sets were merged, false if u and v were already
+	 * 		   in the same set.
+	 */
+	public boolean union(int u, int v) {
+		int rootU = find(u);
+		int rootV = find(v);
+		if (rootU == rootV) {
+			return false;
+		}
+		// Attach the shorter tree below the taller one
+		if (rank[rootU] < rank[rootV]) {
+			parent[rootU] = rootV;
+		} else if (rank[rootU] > rank[rootV]) {
+			parent[rootV] = rootU;
+		} else {
+			parent[rootV] = rootU;
+			rank[rootU]++;
+		}
+		setCount--;
+		return true;
+	}
+
+	public boolean connected(int u, int v) {
+		return find(u) == find(v);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getSetCount() {
+		return setCount;
+	}
+}
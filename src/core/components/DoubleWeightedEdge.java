@@ -0,0 +1,50 @@
+package core.components;
+
+/**
+ * Edge that stores its weight as a primitive double. {@link #getDoubleWeight()}
+ * reads the field directly, {@link #getWeight()} still works but boxes the
+ * value on every call.
+ * 
+ * @author agent
+ *
+ */
+public class DoubleWeightedEdge extends Edge {
+
+	/**
+	 * The weight of the edge
+	 */
+	private double weight;
+
+	public DoubleWeightedEdge(double weight) {
+		this("", weight);
+	}
+
+	public DoubleWeightedEdge(String id, double weight) {
+		super(id, null);
+		this.weight = weight;
+	}
+
+	@Override
+	public Number getWeight() {
+		return this.weight;
+	}
+
+	@Override
+	public void setWeight(Number weight) {
+		this.weight = weight.doubleValue();
+	}
+
+	@Override
+	public double getDoubleWeight() {
+		return this.weight;
+	}
+
+	@Override
+	public long getLongWeight() {
+		return (long) this.weight;
+	}
+
+	public void setDoubleWeight(double weight) {
+		this.weight = weight;
+	}
+}
@@ -19,9 +19,19 @@ public class Edge {
 	 */
 	private Number weight;
 	/**
-	 * Collection of attributes defining the edge
+	 * Collection of attributes defining the edge, only used while the
+	 * edge is not attached to an attribute table
 	 */
 	private HashMap<String, Object> edgeAttributes;
+	/**
+	 * Graph level attribute store holding this edge's attributes, if any
+	 */
+	private AttributeTable attributeTable;
+	/**
+	 * The row of this edge in the attribute table, edges attached in order
+	 * get dense indices
+	 */
+	private int attributeRow = -1;
 	
 	public Edge() {
 		// Initialize to empty string and Integer 0
@@ -43,24 +53,113 @@ public class Edge {
 	}
 
 	/**
-	 * Add the given attribute to the map with the provided value.
+	 * Moves the attributes of this edge into a new row of the table. From then
+	 * on all attribute reads and writes go through the table.
+	 * 
+	 * @param table The graph level attribute table
+	 */
+	public void setAttributeTable(AttributeTable table) {
+		int row = table.addRow();
+		if (attributeTable != null) {
+			for (AttributeColumn column : attributeTable.getColumns()) {
+				if (column.isSet(attributeRow)) {
+					table.setValue(row, column.getKey(), column.getValue(attributeRow));
+				}
+			}
+		} else if (edgeAttributes != null) {
+			for (String key : edgeAttributes.keySet()) {
+				table.trySetValue(row, key, edgeAttributes.get(key));
+			}
+		}
+		edgeAttributes = null;
+		attributeTable = table;
+		attributeRow = row;
+	}
+
+	/**
+	 * @return The attribute table this edge is attached to, null if
+	 * 			its attributes are stored on the edge.
+	 */
+	public AttributeTable getAttributeTable() {
+		return attributeTable;
+	}
+
+	/**
+	 * @return The row of this edge in its attribute table, -1 if
+	 * 			it is not attached to one.
+	 */
+	public int getAttributeRow() {
+		return attributeRow;
+	}
+
+	/**
+	 * Add the given attribute to the map with the provided value. When the
+	 * edge is attached to an attribute table the value is converted to the
+	 * type of the attribute's column, a null value or a string that is not
+	 * of that type leaves the attribute unset, so it reads as the column
+	 * default.
 	 * @param attribute The attribute name/type
 	 * @param value The attribute value
 	 *
-	 * @return An object if successfully added, null otherwise.
+	 * @return The previous value of the attribute, null if there was none.
 	 */
 	public Object addAttribute(String attribute, Object value) {
+		if (attributeTable != null) {
+			AttributeColumn column = attributeTable.getColumn(attribute);
+			Object previous = column != null && column.isSet(attributeRow)
+					? column.getValue(attributeRow) : null;
+			attributeTable.trySetValue(attributeRow, attribute, value);
+			return previous;
+		}
 		if (edgeAttributes == null) {
 			edgeAttributes = new HashMap<>();
 		}
 		return edgeAttributes.put(attribute, value);
 	}
 
+	/**
+	 * @param attribute The attribute name/type
+	 * @return The attribute value, the column default if the edge is attached
+	 * 			to a table and has no value of its own, null if neither exists.
+	 */
+	public Object getAttribute(String attribute) {
+		if (attributeTable != null) {
+			return attributeTable.getValue(attributeRow, attribute);
+		}
+		if (edgeAttributes == null) {
+			return null;
+		}
+		return edgeAttributes.get(attribute);
+	}
+
 	// Collection of getters/setters for weights and ID's
 	
 	public Number getWeight() {
 		return this.weight;
 	}
+
+	/**
+	 * The weight as a primitive double. Weighted algorithms should read weights
+	 * through this (or {@link #getLongWeight()}) rather than {@link #getWeight()},
+	 * the edge variants in this package store the weight unboxed and return it
+	 * without allocating.
+	 *
+	 * @return The weight of the edge, 0 if no weight is set.
+	 * @see DoubleWeightedEdge
+	 * @see LongWeightedEdge
+	 */
+	public double getDoubleWeight() {
+		return this.weight == null ? 0.0 : this.weight.doubleValue();
+	}
+
+	/**
+	 * The weight as a primitive long, fractional weights are truncated.
+	 *
+	 * @return The weight of the edge, 0 if no weight is set.
+	 */
+	public long getLongWeight() {
+		return this.weight == null ? 0L : this.weight.longValue();
+	}
 	
 	public void setWeight(Number weight) {
 		this.weight = weight;
@@ -0,0 +1,238 @@
+package core.components;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min-heap of the int items 0 to capacity-1 keyed by a double, with the
+ * position of every item tracked so its key can be lowered in place. Each
+ * node has d children, 4 by default, which makes the heap shallower than a
+ * binary heap and keeps the children of a node next to each other in memory,
+ * and the keys are stored in heap order beside the items so sifting only
+ * touches the heap arrays.
+ *
+ * All arrays are allocated when the heap is created, inserting, removing and
+ * decreasing keys allocate nothing.
+ *
+ * @author agent
+ */
+public class IndexedDaryHeap {
+
+	public static final int DEFAULT_ARITY = 4;
+
+	private final int arity;
+	/**
+	 * The items in heap order
+	 */
+	private final int[] items;
+	/**
+	 * The key of each item in heap order, parallel to items
+	 */
+	private final double[] keys;
+	/**
+	 * Position of each item in the heap, -1 if it is not in the heap
+	 */
+	private final int[] position;
+	private int size;
+
+	/**
+	 * @param capacity The number of items, items are numbered 0 to capacity-1
+	 */
+	public IndexedDaryHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+
+	/**
+	 * @param capacity The number of items, items are numbered 0 to capacity-1
+	 * @param arity The number of children of each node
+	 */
+	public IndexedDaryHeap(int capacity, int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("arity must be at least 2");
+		}
+		this.arity = arity;
+		items = new int[capacity];
+		keys = new double[capacity];
+		position = new int[capacity];
+		Arrays.fill(position, -1);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean contains(int item) {
+		return position[item] >= 0;
+	}
+
+	/**
+	 * @param item An item in the heap
+	 * @return Its key.
+	 */
+	public double getKey(int item) {
+		return keys[position[item]];
+	}
+
+	/**
+	 * Removes every item, in time proportional to the size of the heap.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			position[items[i]] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * @param item An item not in the heap
+	 * @param key Its key
+	 * @throws IllegalArgumentException If the item is already in the heap.
+	 */
+	public void insert(int item, double key) {
+		if (position[item] >= 0) {
+			throw new IllegalArgumentException("Item " + item + " is already in the heap");
+		}
+		siftUp(size++, item, key);
+	}
+
+	/**
+	 * Lowers the key of an item in the heap.
+	 *
+	 * @param item An item in the heap
+	 * @param key The new key, not larger than the current one
+	 * @throws IllegalArgumentException If the key is larger than the current one.
+	 */
+	public void decreaseKey(int item, double key) {
+		int i = position[item];
+		if (key > keys[i]) {
+			throw new IllegalArgumentException("New key " + key + " is larger than " + keys[i]);
+		}
+		siftUp(i, item, key);
+	}
+
+	/**
+	 * Inserts the item, or lowers its key if it is in the heap with a larger key.
+	 *
+	 * @return True if the heap changed.
+	 */
+	public boolean insertOrDecrease(int item, double key) {
+		int i = position[item];
+		if (i < 0) {
+			siftUp(size++, item, key);
+			return true;
+		}
+		if (key < keys[i]) {
+			siftUp(i, item, key);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Sets the key of an item in the heap, moving it up or down as needed.
+	 *
+	 * @param item An item in the heap
+	 * @param key The new key
+	 */
+	public void changeKey(int item, double key) {
+		int i = position[item];
+		if (key < keys[i]) {
+			siftUp(i, item, key);
+		} else {
+			siftDown(i, item, key);
+		}
+	}
+
+	/**
+	 * @return The item with the smallest key.
+	 * @throws NoSuchElementException If the heap is empty.
+	 */
+	public int peek() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return items[0];
+	}
+
+	/**
+	 * @return The smallest key.
+	 * @throws NoSuchElementException If the heap is empty.
+	 */
+	public double peekKey() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return keys[0];
+	}
+
+	/**
+	 * Removes the item with the smallest key.
+	 *
+	 * @return The removed item.
+	 * @throws NoSuchElementException If the heap is empty.
+	 */
+	public int poll() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int top = items[0];
+		position[top] = -1;
+		size--;
+		if (size > 0) {
+			siftDown(0, items[size], keys[size]);
+		}
+		return top;
+	}
+
+	/**
+	 * Moves the hole at i up until the key fits and places the item there.
+	 */
+	private void siftUp(int i, int item, double key) {
+		while (i > 0) {
+			int parent = (i - 1) / arity;
+			if (keys[parent] <= key) {
+				break;
+			}
+			items[i] = items[parent];
+			keys[i] = keys[parent];
+			position[items[i]] = i;
+			i = parent;
+		}
+		items[i] = item;
+		keys[i] = key;
+		position[item] = i;
+	}
+
+	/**
+	 * Moves the hole at i down past every smaller child and places the item there.
+	 */
+	private void siftDown(int i, int item, double key) {
+		while (true) {
+			int first = i * arity + 1;
+			if (first >= size) {
+				break;
+			}
+			int last = Math.min(first + arity, size);
+			int smallest = first;
+			for (int child = first + 1; child < last; child++) {
+				if (keys[child] < keys[smallest]) {
+					smallest = child;
+				}
+			}
+			if (keys[smallest] >= key) {
+				break;
+			}
+			items[i] = items[smallest];
+			keys[i] = keys[smallest];
+			position[items[i]] = i;
+			i = smallest;
+		}
+		items[i] = item;
+		keys[i] = key;
+		position[item] = i;
+	}
+}
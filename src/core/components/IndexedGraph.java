@@ -0,0 +1,247 @@
+package core.components;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.GraphDecorator;
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * Decorator for any JUNG graph that keeps hash indexes from vertex and edge
+ * ids to the vertices and edges, so they can be found in constant time rather
+ * than by scanning the graph. The indexes are updated on every add and remove
+ * made through the decorator. {@link core.tools.Tools#getVertex(Graph, String)}
+ * and {@link core.tools.Tools#getEdge(Graph, String)} use the indexes whenever
+ * they are given an IndexedGraph.
+ *
+ * Ids need not be unique, edges made without one all have the id "". Like
+ * the scan, a lookup returns one element with the id, the first of them
+ * added that is still in the graph, and removing it makes the next one the
+ * result.
+ *
+ * Ids are read when an element is added, changing the id of a vertex or edge
+ * that is already in the graph, or changing the wrapped graph directly, leaves
+ * the indexes out of date.
+ *
+ * @author agent
+ *
+ * @param <V> The vertex type, extending core.Vertex
+ * @param <E> The edge type, extending core.Edge
+ */
+public class IndexedGraph<V extends Vertex, E extends Edge> extends GraphDecorator<V, E> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Vertex id to vertex
+	 */
+	private final IdIndex<V> vertexIndex;
+	/**
+	 * Edge id to edge
+	 */
+	private final IdIndex<E> edgeIndex;
+
+	/**
+	 * Wraps the graph and indexes the vertices and edges it already has.
+	 *
+	 * @param graph The graph to decorate
+	 */
+	public IndexedGraph(Graph<V, E> graph) {
+		super(graph);
+		vertexIndex = new IdIndex<>(graph.getVertexCount());
+		edgeIndex = new IdIndex<>(graph.getEdgeCount());
+		for (V vertex : graph.getVertices()) {
+			vertexIndex.add(vertex.getId(), vertex);
+		}
+		for (E edge : graph.getEdges()) {
+			edgeIndex.add(edge.getId(), edge);
+		}
+	}
+
+	/**
+	 * @param id The string ID of the vertex.
+	 * @return The vertex with that string ID, null if one doesn't exist.
+	 */
+	public V getVertex(String id) {
+		return vertexIndex.get(id);
+	}
+
+	/**
+	 * @param id The string ID of the edge.
+	 * @return The edge with that string ID, null if one doesn't exist.
+	 */
+	public E getEdge(String id) {
+		return edgeIndex.get(id);
+	}
+
+	@Override
+	public boolean addVertex(V vertex) {
+		boolean added = super.addVertex(vertex);
+		if (added) {
+			vertexIndex.add(vertex.getId(), vertex);
+		}
+		return added;
+	}
+
+	@Override
+	public boolean removeVertex(V vertex) {
+		// The incident edges are removed with the vertex
+		Collection<E> incident = containsVertex(vertex)
+				? new ArrayList<>(getIncidentEdges(vertex))
+				: null;
+		boolean removed = super.removeVertex(vertex);
+		if (removed) {
+			vertexIndex.remove(vertex.getId(), vertex);
+			for (E edge : incident) {
+				edgeIndex.remove(edge.getId(), edge);
+			}
+		}
+		return removed;
+	}
+
+	@Override
+	public boolean addEdge(E edge, Collection<? extends V> vertices) {
+		return indexEdge(super.addEdge(edge, vertices), edge, vertices);
+	}
+
+	@Override
+	public boolean addEdge(E edge, Collection<? extends V> vertices, EdgeType edgeType) {
+		return indexEdge(super.addEdge(edge, vertices, edgeType), edge, vertices);
+	}
+
+	@Override
+	public boolean addEdge(E edge, V v1, V v2) {
+		return indexEdge(super.addEdge(edge, v1, v2), edge, v1, v2);
+	}
+
+	@Override
+	public boolean addEdge(E edge, V v1, V v2, EdgeType edgeType) {
+		return indexEdge(super.addEdge(edge, v1, v2, edgeType), edge, v1, v2);
+	}
+
+	@Override
+	public boolean removeEdge(E edge) {
+		boolean removed = super.removeEdge(edge);
+		if (removed) {
+			edgeIndex.remove(edge.getId(), edge);
+		}
+		return removed;
+	}
+
+	/**
+	 * Indexes a newly added edge along with its endpoints, which the
+	 * wrapped graph adds if they were not in the graph yet.
+	 */
+	private boolean indexEdge(boolean added, E edge, V v1, V v2) {
+		if (added) {
+			edgeIndex.add(edge.getId(), edge);
+			indexEndpoint(v1);
+			indexEndpoint(v2);
+		}
+		return added;
+	}
+
+	private boolean indexEdge(boolean added, E edge, Collection<? extends V> vertices) {
+		if (added) {
+			edgeIndex.add(edge.getId(), edge);
+			for (V vertex : vertices) {
+				indexEndpoint(vertex);
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Indexes an endpoint unless it was in the graph before the edge.
+	 */
+	private void indexEndpoint(V vertex) {
+		if (!vertexIndex.contains(vertex.getId(), vertex)) {
+			vertexIndex.add(vertex.getId(), vertex);
+		}
+	}
+
+	/**
+	 * Id to element map allowing several elements per id. The first element
+	 * added with an id is kept in a plain map, so unique ids cost one entry,
+	 * and later ones wait in an insertion ordered set per id until it is
+	 * removed. The sets compare by identity, as vertices with equal ids are
+	 * equal, and let any element be removed in constant time even when every
+	 * edge shares the default id.
+	 */
+	private static class IdIndex<T> {
+
+		private final HashMap<String, T> first;
+		private final HashMap<String, LinkedHashSet<Identity<T>>> others = new HashMap<>();
+
+		IdIndex(int expectedSize) {
+			first = new HashMap<>(2 * expectedSize);
+		}
+
+		T get(String id) {
+			return first.get(id);
+		}
+
+		boolean contains(String id, T element) {
+			T head = first.get(id);
+			if (head == null) {
+				return false;
+			}
+			if (head == element) {
+				return true;
+			}
+			LinkedHashSet<Identity<T>> rest = others.get(id);
+			return rest != null && rest.contains(new Identity<>(element));
+		}
+
+		void add(String id, T element) {
+			T head = first.putIfAbsent(id, element);
+			if (head != null) {
+				others.computeIfAbsent(id, key -> new LinkedHashSet<>()).add(new Identity<>(element));
+			}
+		}
+
+		void remove(String id, T element) {
+			LinkedHashSet<Identity<T>> rest = others.get(id);
+			if (first.get(id) == element) {
+				if (rest == null) {
+					first.remove(id);
+					return;
+				}
+				Iterator<Identity<T>> next = rest.iterator();
+				first.put(id, next.next().element);
+				next.remove();
+			} else if (rest == null || !rest.remove(new Identity<>(element))) {
+				return;
+			}
+			if (rest.isEmpty()) {
+				others.remove(id);
+			}
+		}
+	}
+
+	/**
+	 * Wraps an element so it is compared by identity.
+	 */
+	private static final class Identity<T> {
+
+		final T element;
+
+		Identity(T element) {
+			this.element = element;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Identity && ((Identity<?>) obj).element == element;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(element);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package core.components;
+
+import core.tools.Tools;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+import edu.uci.ics.jung.graph.Graph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test class for IndexedGraph.
+ *
+ * @author agent
+ */
+public class IndexedGraphTest {
+
+    @Test
+    public void addAndRemove_uniqueIds_indexFollowsGraph() {
+        Graph<Vertex, Edge> base = new DirectedSparseGraph<>();
+        Vertex a = new Vertex("a");
+        base.addVertex(a);
+        IndexedGraph<Vertex, Edge> graph = new IndexedGraph<>(base);
+        Vertex b = new Vertex("b");
+        Vertex c = new Vertex("c");
+        Edge ab = new Edge("ab");
+        Edge bc = new Edge("bc");
+        graph.addEdge(ab, a, b);
+        graph.addEdge(bc, b, c);
+
+        assertSame(a, graph.getVertex("a"));
+        assertSame(c, graph.getVertex("c"));
+        assertSame(bc, graph.getEdge("bc"));
+
+        graph.removeEdge(ab);
+        assertNull(graph.getEdge("ab"));
+        graph.removeVertex(b);
+        assertNull(graph.getVertex("b"));
+        assertNull(graph.getEdge("bc"));
+        assertSame(c, graph.getVertex("c"));
+    }
+
+    @Test
+    public void removeEdge_duplicateIds_otherEdgesStillFound() {
+        IndexedGraph<Vertex, Edge> graph = new IndexedGraph<>(new DirectedSparseGraph<>());
+        Vertex a = new Vertex("a");
+        Vertex b = new Vertex("b");
+        Edge first = new Edge();
+        Edge second = new Edge();
+        Edge third = new Edge();
+        graph.addEdge(first, a, b);
+        graph.addEdge(second, b, a);
+        graph.addEdge(third, a, a);
+
+        // The first added wins, the next one takes over when it goes
+        assertSame(first, graph.getEdge(""));
+        graph.removeEdge(second);
+        assertSame(first, graph.getEdge(""));
+        graph.removeEdge(first);
+        assertSame(third, graph.getEdge(""));
+        graph.removeEdge(third);
+        assertNull(graph.getEdge(""));
+    }
+
+    @Test
+    public void removeEdge_manyEdgesSharingId_earliestRemainingFound() {
+        // Like graphs loaded from TGF, where every edge keeps the default id
+        IndexedGraph<Vertex, Edge> graph = new IndexedGraph<>(new DirectedSparseGraph<>());
+        int count = 50000;
+        Edge[] edges = new Edge[count];
+        Vertex previous = new Vertex("v0");
+        for (int i = 0; i < count; i++) {
+            Vertex next = new Vertex("v" + (i + 1));
+            edges[i] = new Edge();
+            graph.addEdge(edges[i], previous, next);
+            previous = next;
+        }
+
+        for (int i = count - 1; i > 0; i -= 2) {
+            graph.removeEdge(edges[i]);
+        }
+        assertSame(edges[0], graph.getEdge(""));
+        for (int i = 0; i < count; i += 2) {
+            assertSame(edges[i], graph.getEdge(""));
+            graph.removeEdge(edges[i]);
+        }
+        assertNull(graph.getEdge(""));
+    }
+
+    @Test
+    public void toolsLookups_indexedGraph_sameAsScan() {
+        Graph<Vertex, Edge> base = new DirectedSparseGraph<>();
+        for (int i = 0; i < 20; i++) {
+            base.addEdge(new Edge("e" + i), new Vertex("v" + i), new Vertex("v" + (i + 1)));
+        }
+        IndexedGraph<Vertex, Edge> graph = new IndexedGraph<>(base);
+
+        for (int i = 0; i < 21; i++) {
+            assertSame(Tools.getVertex(base, "v" + i), Tools.getVertex(graph, "v" + i));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertSame(Tools.getEdge(base, "e" + i), Tools.getEdge(graph, "e" + i));
+        }
+        assertNull(Tools.getVertex(graph, "v21"));
+        assertNull(Tools.getEdge(graph, "e20"));
+    }
+}
@@ -0,0 +1,76 @@
+package core.components;
+
+/**
+ * Read-only adjacency view of a graph whose vertices are numbered 0 to n-1.
+ * Implemented by the array and file backed graph representations so the
+ * index based versions of the algorithms can run on any of them without
+ * creating vertex or edge objects.
+ *
+ * @author agent
+ */
+public interface IntGraph {
+
+	int getVertexCount();
+
+	/**
+	 * @return The number of arcs stored, undirected edges are counted twice.
+	 */
+	int getArcCount();
+
+	/**
+	 * @return False if the graph is undirected, so every arc has a matching
+	 * 		   arc going in the opposite direction. True if it may contain arcs
+	 * 		   without one, which for a graph built from edges means at least
+	 * 		   one edge was directed. A mixed graph is directed, though its
+	 * 		   undirected edges still have arcs both ways, so callers can only
+	 * 		   rely on symmetry when this is false.
+	 */
+	boolean isDirected();
+
+	/**
+	 * @return The largest out-degree of any vertex, useful for sizing buffers
+	 * 		   passed to {@link #getNeighbours(int, int[])}.
+	 */
+	int getMaxDegree();
+
+	int getOutDegree(int v);
+
+	/**
+	 * @param v The vertex index
+	 * @param i Position in the neighbour list of v, from 0 to getOutDegree(v) - 1
+	 * @return The index of the i'th out-neighbour of v.
+	 */
+	int getNeighbour(int v, int i);
+
+	/**
+	 * @param v The vertex index
+	 * @param i Position in the neighbour list of v
+	 * @return The weight of the arc to the i'th out-neighbour of v.
+	 */
+	double getWeight(int v, int i);
+
+	/**
+	 * @return True if {@link #getNeighbour(int, int)} takes constant time.
+	 * 		   False if it has to decode or scan the list, then reading a
+	 * 		   whole list with {@link #getNeighbours(int, int[])} is much
+	 * 		   cheaper than reading it one neighbour at a time.
+	 */
+	default boolean hasRandomAccess() {
+		return false;
+	}
+
+	/**
+	 * Copies the out-neighbours of v into the buffer.
+	 *
+	 * @param v The vertex index
+	 * @param buffer Array with room for at least getOutDegree(v) entries
+	 * @return The number of neighbours copied.
+	 */
+	default int getNeighbours(int v, int[] buffer) {
+		int degree = getOutDegree(v);
+		for (int i = 0; i < degree; i++) {
+			buffer[i] = getNeighbour(v, i);
+		}
+		return degree;
+	}
+}
@@ -0,0 +1,51 @@
+package core.components;
+
+/**
+ * Edge that stores its weight as a primitive long, for integral weights such
+ * as the ones in TGF files. {@link #getLongWeight()} and {@link #getDoubleWeight()}
+ * read the field directly, {@link #getWeight()} still works but boxes the
+ * value on every call.
+ * 
+ * @author agent
+ *
+ */
+public class LongWeightedEdge extends Edge {
+
+	/**
+	 * The weight of the edge
+	 */
+	private long weight;
+
+	public LongWeightedEdge(long weight) {
+		this("", weight);
+	}
+
+	public LongWeightedEdge(String id, long weight) {
+		super(id, null);
+		this.weight = weight;
+	}
+
+	@Override
+	public Number getWeight() {
+		return this.weight;
+	}
+
+	@Override
+	public void setWeight(Number weight) {
+		this.weight = weight.longValue();
+	}
+
+	@Override
+	public double getDoubleWeight() {
+		return this.weight;
+	}
+
+	@Override
+	public long getLongWeight() {
+		return this.weight;
+	}
+
+	public void setLongWeight(long weight) {
+		this.weight = weight;
+	}
+}
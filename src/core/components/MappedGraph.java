@@ -0,0 +1,465 @@
+package core.components;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import edu.uci.ics.jung.graph.Graph;
+
+/**
+ * Read-only graph backed by a memory mapped binary graph file. Opening a file
+ * only maps it, the adjacency arrays are read straight from the page cache so
+ * large graphs can be analysed without loading them into the heap or creating
+ * any vertex or edge objects.
+ *
+ * The file holds the same arrays as a {@link CompactGraph}. All values are
+ * little endian and every section starts on an 8 byte boundary:
+ *
+ * <pre>
+ * header    magic, version, flags, vertex count, arc count, max degree,
+ *           then the file position of each of the sections below
+ * offsets   (n + 1) ints, start of the arcs of each vertex
+ * targets   m ints, destination of each arc
+ * weights   m doubles, only present if the weighted flag is set
+ * id index  (n + 1) ints, start of each vertex id in the id data
+ * id order  n ints, vertex indices sorted by id, used to look up ids
+ * id data   the UTF-8 bytes of the vertex ids
+ * </pre>
+ *
+ * Each section is mapped in windows of 1GB, so a section can be larger than
+ * the 2GB a single buffer can map. The offsets are ints, which limits a graph
+ * to 2^31 - 1 arcs.
+ *
+ * @author agent
+ */
+public class MappedGraph implements IntGraph {
+
+	/**
+	 * "JGRB" in ASCII
+	 */
+	public static final int MAGIC = 0x4A475242;
+	public static final int VERSION = 1;
+
+	private static final int FLAG_DIRECTED = 1;
+	private static final int FLAG_WEIGHTED = 2;
+
+	/**
+	 * Bytes mapped by one buffer, a multiple of every element size so no
+	 * element is split between two buffers
+	 */
+	private static final int WINDOW_SHIFT = 30;
+
+	/**
+	 * Six ints followed by the positions of the six sections
+	 */
+	private static final int HEADER_SIZE = 6 * 4 + 6 * 8;
+
+	private final int vertexCount;
+	private final int arcCount;
+	private final int maxDegree;
+	private final boolean directed;
+
+	private final Section offsets;
+	private final Section targets;
+	/**
+	 * Null for unweighted graphs
+	 */
+	private final Section weights;
+	private final Section idIndex;
+	private final Section idOrder;
+	private final Section idData;
+
+	private MappedGraph(FileChannel channel, int windowShift) throws IOException {
+
+		ByteBuffer header = mapHeader(channel, FileChannel.MapMode.READ_ONLY);
+		if (header.getInt() != MAGIC) {
+			throw new IOException("Not a binary graph file");
+		}
+		int version = header.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported binary graph version " + version);
+		}
+		int flags = header.getInt();
+		directed = (flags & FLAG_DIRECTED) != 0;
+		vertexCount = header.getInt();
+		arcCount = header.getInt();
+		maxDegree = header.getInt();
+
+		long offsetsPos = header.getLong();
+		long targetsPos = header.getLong();
+		long weightsPos = header.getLong();
+		long idIndexPos = header.getLong();
+		long idOrderPos = header.getLong();
+		long idDataPos = header.getLong();
+
+		offsets = new Section(channel, false, offsetsPos, 4L * (vertexCount + 1), windowShift);
+		targets = new Section(channel, false, targetsPos, 4L * arcCount, windowShift);
+		weights = (flags & FLAG_WEIGHTED) != 0
+				? new Section(channel, false, weightsPos, 8L * arcCount, windowShift)
+				: null;
+		idIndex = new Section(channel, false, idIndexPos, 4L * (vertexCount + 1), windowShift);
+		idOrder = new Section(channel, false, idOrderPos, 4L * vertexCount, windowShift);
+		idData = new Section(channel, false, idDataPos, idIndex.getInt(vertexCount), windowShift);
+	}
+
+	/**
+	 * Maps a binary graph file written by {@link #write(CompactGraph, File)}.
+	 *
+	 * @param file The file to open
+	 * @return A read-only view of the graph in the file.
+	 * @throws IOException If the file can't be read or is not a binary graph file.
+	 */
+	public static MappedGraph open(File file) throws IOException {
+		return open(file, WINDOW_SHIFT);
+	}
+
+	/**
+	 * Maps the file with windows of 2^windowShift bytes, at least 8. Small
+	 * windows let the tests cross window boundaries on small graphs.
+	 */
+	static MappedGraph open(File file, int windowShift) throws IOException {
+		// The mappings stay valid after the channel is closed
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+			 FileChannel channel = raf.getChannel()) {
+			return new MappedGraph(channel, windowShift);
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the graph and writes it, see {@link #write(CompactGraph, File)}.
+	 *
+	 * @param graph The graph to write
+	 * @param file The file to create or overwrite
+	 * @throws IOException If the file can't be written.
+	 */
+	public static <V, E> void write(Graph<V, E> graph, File file) throws IOException {
+		write(CompactGraph.of(graph), file);
+	}
+
+	/**
+	 * Writes the snapshot to a binary graph file. Vertex ids are taken from
+	 * {@link Vertex#getId()} for Vertex instances and toString otherwise.
+	 * Weights are only written if at least one arc has a weight other than 1.
+	 *
+	 * @param graph The snapshot to write
+	 * @param file The file to create or overwrite
+	 * @throws IOException If the file can't be written.
+	 */
+	public static <V, E> void write(CompactGraph<V, E> graph, File file) throws IOException {
+
+		int n = graph.getVertexCount();
+		int m = graph.getArcCount();
+
+		boolean weighted = false;
+		for (int v = 0; v < n && !weighted; v++) {
+			for (int i = 0; i < graph.getOutDegree(v); i++) {
+				if (graph.getWeight(v, i) != 1.0) {
+					weighted = true;
+					break;
+				}
+			}
+		}
+
+		// Encode the ids and sort them so they can be binary searched
+		byte[][] ids = new byte[n][];
+		Integer[] order = new Integer[n];
+		long idBytes = 0;
+		for (int v = 0; v < n; v++) {
+			V vertex = graph.getVertex(v);
+			String id = vertex instanceof Vertex ? ((Vertex) vertex).getId() : String.valueOf(vertex);
+			ids[v] = id.getBytes(StandardCharsets.UTF_8);
+			order[v] = v;
+			idBytes += ids[v].length;
+		}
+		if (idBytes > Integer.MAX_VALUE) {
+			throw new IOException("Vertex ids are too large for the binary graph format");
+		}
+		Arrays.sort(order, (a, b) -> compareBytes(ids[a], ids[b]));
+
+		long offsetsPos = align(HEADER_SIZE);
+		long targetsPos = align(offsetsPos + 4L * (n + 1));
+		long weightsPos = align(targetsPos + 4L * m);
+		long idIndexPos = align(weightsPos + (weighted ? 8L * m : 0));
+		long idOrderPos = align(idIndexPos + 4L * (n + 1));
+		long idDataPos = align(idOrderPos + 4L * n);
+		long length = idDataPos + idBytes;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			 FileChannel channel = raf.getChannel()) {
+
+			raf.setLength(0);
+			raf.setLength(length);
+
+			ByteBuffer header = mapHeader(channel, FileChannel.MapMode.READ_WRITE);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putInt((graph.isDirected() ? FLAG_DIRECTED : 0) | (weighted ? FLAG_WEIGHTED : 0));
+			header.putInt(n);
+			header.putInt(m);
+			header.putInt(graph.getMaxDegree());
+			header.putLong(offsetsPos);
+			header.putLong(targetsPos);
+			header.putLong(weightsPos);
+			header.putLong(idIndexPos);
+			header.putLong(idOrderPos);
+			header.putLong(idDataPos);
+
+			Section offsetSection = new Section(channel, true, offsetsPos, 4L * (n + 1), WINDOW_SHIFT);
+			Section targetSection = new Section(channel, true, targetsPos, 4L * m, WINDOW_SHIFT);
+			Section weightSection = weighted
+					? new Section(channel, true, weightsPos, 8L * m, WINDOW_SHIFT)
+					: null;
+			int arc = 0;
+			for (int v = 0; v < n; v++) {
+				offsetSection.putInt(v, arc);
+				int degree = graph.getOutDegree(v);
+				for (int i = 0; i < degree; i++) {
+					targetSection.putInt(arc + i, graph.getNeighbour(v, i));
+					if (weighted) {
+						weightSection.putDouble(arc + i, graph.getWeight(v, i));
+					}
+				}
+				arc += degree;
+			}
+			offsetSection.putInt(n, arc);
+
+			Section idIndexSection = new Section(channel, true, idIndexPos, 4L * (n + 1), WINDOW_SHIFT);
+			Section idDataSection = new Section(channel, true, idDataPos, idBytes, WINDOW_SHIFT);
+			int idPosition = 0;
+			for (int v = 0; v < n; v++) {
+				idIndexSection.putInt(v, idPosition);
+				for (byte b : ids[v]) {
+					idDataSection.putByte(idPosition++, b);
+				}
+			}
+			idIndexSection.putInt(n, idPosition);
+
+			Section idOrderSection = new Section(channel, true, idOrderPos, 4L * n, WINDOW_SHIFT);
+			for (int v = 0; v < n; v++) {
+				idOrderSection.putInt(v, order[v]);
+			}
+		}
+	}
+
+	private static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+
+	private static ByteBuffer mapHeader(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+		ByteBuffer header = channel.map(mode, 0, HEADER_SIZE);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		return header;
+	}
+
+	/**
+	 * Unsigned lexicographic comparison, matches the ordering of the ids as strings
+	 * of code points.
+	 */
+	private static int compareBytes(byte[] left, byte[] right) {
+		int length = Math.min(left.length, right.length);
+		for (int i = 0; i < length; i++) {
+			int diff = (left[i] & 0xFF) - (right[i] & 0xFF);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return left.length - right.length;
+	}
+
+	@Override
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	@Override
+	public int getArcCount() {
+		return arcCount;
+	}
+
+	@Override
+	public boolean isDirected() {
+		return directed;
+	}
+
+	@Override
+	public int getMaxDegree() {
+		return maxDegree;
+	}
+
+	@Override
+	public int getOutDegree(int v) {
+		return offsets.getInt(v + 1) - offsets.getInt(v);
+	}
+
+	@Override
+	public int getNeighbour(int v, int i) {
+		return targets.getInt(offsets.getInt(v) + i);
+	}
+
+	@Override
+	public boolean hasRandomAccess() {
+		return true;
+	}
+
+	@Override
+	public double getWeight(int v, int i) {
+		return weights == null ? 1.0 : weights.getDouble(offsets.getInt(v) + i);
+	}
+
+	@Override
+	public int getNeighbours(int v, int[] buffer) {
+		int start = offsets.getInt(v);
+		int degree = offsets.getInt(v + 1) - start;
+		targets.getInts(start, buffer, degree);
+		return degree;
+	}
+
+	/**
+	 * @param v The vertex index
+	 * @return The id the vertex had when the file was written.
+	 */
+	public String getId(int v) {
+		int start = idIndex.getInt(v);
+		byte[] bytes = new byte[idIndex.getInt(v + 1) - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = idData.getByte(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Binary searches the sorted id section for the given id.
+	 *
+	 * @param id The vertex id
+	 * @return The index of the vertex with that id, -1 if there isn't one.
+	 */
+	public int indexOf(String id) {
+		byte[] key = id.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = vertexCount - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int v = idOrder.getInt(mid);
+			int cmp = compareId(v, key);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return v;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Compares the stored id of v with the key without decoding it.
+	 */
+	private int compareId(int v, byte[] key) {
+		int start = idIndex.getInt(v);
+		int length = idIndex.getInt(v + 1) - start;
+		int common = Math.min(length, key.length);
+		for (int i = 0; i < common; i++) {
+			int diff = (idData.getByte(start + i) & 0xFF) - (key[i] & 0xFF);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return length - key.length;
+	}
+
+	/**
+	 * A section of the file mapped as consecutive windows of 2^windowShift
+	 * bytes, addressed by element index. Every window is also viewed as ints
+	 * and doubles, which read faster than the byte buffer.
+	 */
+	private static class Section {
+
+		private final ByteBuffer[] windows;
+		private final IntBuffer[] ints;
+		private final DoubleBuffer[] doubles;
+		private final int shift;
+		private final long mask;
+
+		Section(FileChannel channel, boolean writable, long position, long size, int windowShift)
+				throws IOException {
+			FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+			long windowSize = 1L << windowShift;
+			int count = (int) Math.max(1, (size + windowSize - 1) >>> windowShift);
+			windows = new ByteBuffer[count];
+			ints = new IntBuffer[count];
+			doubles = new DoubleBuffer[count];
+			for (int w = 0; w < count; w++) {
+				long start = (long) w << windowShift;
+				windows[w] = channel.map(mode, position + start, Math.min(windowSize, size - start));
+				windows[w].order(ByteOrder.LITTLE_ENDIAN);
+				ints[w] = windows[w].asIntBuffer();
+				doubles[w] = windows[w].asDoubleBuffer();
+			}
+			shift = windowShift;
+			mask = windowSize - 1;
+		}
+
+		int getInt(long index) {
+			if (ints.length == 1) {
+				return ints[0].get((int) index);
+			}
+			long offset = index << 2;
+			return ints[(int) (offset >>> shift)].get((int) ((offset & mask) >>> 2));
+		}
+
+		/**
+		 * Copies count ints starting at index, looking up the window once
+		 * for each window the run touches rather than once per int.
+		 */
+		void getInts(long index, int[] out, int count) {
+			if (ints.length == 1) {
+				IntBuffer window = ints[0];
+				for (int i = 0; i < count; i++) {
+					out[i] = window.get((int) index + i);
+				}
+				return;
+			}
+			int i = 0;
+			while (i < count) {
+				long offset = (index + i) << 2;
+				IntBuffer window = ints[(int) (offset >>> shift)];
+				int position = (int) ((offset & mask) >>> 2);
+				int end = i + Math.min(count - i, window.limit() - position);
+				for (; i < end; i++) {
+					out[i] = window.get(position++);
+				}
+			}
+		}
+
+		double getDouble(long index) {
+			long offset = index << 3;
+			return doubles[(int) (offset >>> shift)].get((int) ((offset & mask) >>> 3));
+		}
+
+		byte getByte(long index) {
+			return windows[(int) (index >>> shift)].get((int) (index & mask));
+		}
+
+		void putInt(long index, int value) {
+			long offset = index << 2;
+			ints[(int) (offset >>> shift)].put((int) ((offset & mask) >>> 2), value);
+		}
+
+		void putDouble(long index, double value) {
+			long offset = index << 3;
+			doubles[(int) (offset >>> shift)].put((int) ((offset & mask) >>> 3), value);
+		}
+
+		void putByte(long index, byte value) {
+			windows[(int) (index >>> shift)].put((int) (index & mask), value);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package core.components;
+
+import algorithms.search.BreadthFirstSearch;
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.SparseGraph;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test class for MappedGraph.
+ *
+ * @author agent
+ */
+public class MappedGraphTest {
+
+    @Test
+    public void open_writtenWeightedGraph_sameAdjacency() throws IOException {
+        CompactGraph<Vertex, Edge> snapshot = CompactGraph.of(createWeightedPath());
+        MappedGraph mapped = writeAndOpen(snapshot);
+
+        assertEquals(snapshot.getVertexCount(), mapped.getVertexCount());
+        assertEquals(snapshot.getArcCount(), mapped.getArcCount());
+        assertEquals(snapshot.getMaxDegree(), mapped.getMaxDegree());
+        assertFalse(mapped.isDirected());
+
+        for (int v = 0; v < snapshot.getVertexCount(); v++) {
+            assertEquals(snapshot.getOutDegree(v), mapped.getOutDegree(v));
+            for (int i = 0; i < snapshot.getOutDegree(v); i++) {
+                assertEquals(snapshot.getNeighbour(v, i), mapped.getNeighbour(v, i));
+                assertEquals(snapshot.getWeight(v, i), mapped.getWeight(v, i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void indexOf_writtenGraph_findsEveryId() throws IOException {
+        CompactGraph<Vertex, Edge> snapshot = CompactGraph.of(createWeightedPath());
+        MappedGraph mapped = writeAndOpen(snapshot);
+
+        for (int v = 0; v < snapshot.getVertexCount(); v++) {
+            String id = snapshot.getVertex(v).getId();
+            assertEquals(id, mapped.getId(v));
+            assertEquals(v, mapped.indexOf(id));
+        }
+        assertEquals(-1, mapped.indexOf("missing"));
+    }
+
+    @Test
+    public void searchIndices_mappedGraph_sameOrderAsSnapshot() throws IOException {
+        CompactGraph<Vertex, Edge> snapshot = CompactGraph.of(createWeightedPath());
+        MappedGraph mapped = writeAndOpen(snapshot);
+
+        assertArrayEquals(BreadthFirstSearch.searchIndices(snapshot, 0),
+                BreadthFirstSearch.searchIndices(mapped, 0));
+    }
+
+    @Test
+    public void open_smallWindows_sameGraphAcrossWindowBoundaries() throws IOException {
+        CompactGraph<Vertex, Edge> snapshot = CompactGraph.of(createWeightedPath());
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        MappedGraph.write(snapshot, file);
+        // 8 byte windows hold one weight or two targets each
+        MappedGraph mapped = MappedGraph.open(file, 3);
+
+        for (int v = 0; v < snapshot.getVertexCount(); v++) {
+            assertEquals(snapshot.getOutDegree(v), mapped.getOutDegree(v));
+            for (int i = 0; i < snapshot.getOutDegree(v); i++) {
+                assertEquals(snapshot.getNeighbour(v, i), mapped.getNeighbour(v, i));
+                assertEquals(snapshot.getWeight(v, i), mapped.getWeight(v, i), 0.0);
+            }
+            String id = snapshot.getVertex(v).getId();
+            assertEquals(id, mapped.getId(v));
+            assertEquals(v, mapped.indexOf(id));
+        }
+    }
+
+    private MappedGraph writeAndOpen(CompactGraph<Vertex, Edge> snapshot) throws IOException {
+        File file = File.createTempFile("graph", ".bin");
+        file.deleteOnExit();
+        MappedGraph.write(snapshot, file);
+        return MappedGraph.open(file);
+    }
+
+    private Graph<Vertex, Edge> createWeightedPath() {
+        Graph<Vertex, Edge> graph = new SparseGraph<>();
+        Vertex previous = null;
+        for (int i = 0; i < 10; i++) {
+            Vertex vertex = new Vertex("v" + i);
+            graph.addVertex(vertex);
+            if (previous != null) {
+                graph.addEdge(new Edge(previous + "-" + vertex, i * 1.5), previous, vertex);
+            }
+            previous = vertex;
+        }
+        return graph;
+    }
+}
@@ -1,10 +1,12 @@
 package core.components;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 
 /**
- * Generic Union-Find data structure
+ * Generic Union-Find data structure. Maps each object to an index
+ * in a {@link DisjointSetForest}, which does the actual work.
  * 
  * @author Michael
  *
@@ -12,31 +14,65 @@ import java.util.HashSet;
  */
 public class UnionFind<V> {
 
-	private HashMap<V, HashSet<V> > mapping;
+	/**
+	 * Object to index mapping
+	 */
+	private HashMap<V, Integer> mapping;
+	/**
+	 * Index to object mapping
+	 */
+	private List<V> elements;
+	private DisjointSetForest forest;
 
 	public UnionFind() {	
-		mapping = new HashMap<>();
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize - Number of objects expected, avoids rehashing
+	 */
+	public UnionFind(int expectedSize) {
+		mapping = new HashMap<>(2 * expectedSize);
+		elements = new ArrayList<>(expectedSize);
+		forest = new DisjointSetForest(0, expectedSize);
 	}
 
 	/**
 	 * Initialize the set of nodes in the neighbourhood of v,
-	 * namely v itself to begin.
+	 * namely v itself to begin. Does nothing if v already has a set.
 	 * 
-	 * @param v - The node to store the key for and create a hashset for
+	 * @param v - The node to create a set for
 	 */
 	public void makeSet(V v) {
-		HashSet<V> set = new HashSet<V>();
-		set.add(v);
-		mapping.put(v, set);
+		if (!mapping.containsKey(v)) {
+			mapping.put(v, forest.makeSet());
+			elements.add(v);
+		}
 	}
 	
 	/**
-	 * Get the hashset for the vertex v
+	 * Get the representative of the set containing v. Two objects are
+	 * in the same set exactly when they have the same representative.
+	 * 
 	 * @param v - Current vertex who's component we want to examine.
-	 * @return - The set of vetices in the neighbourhood of v.
+	 * @return - The representative of the set v belongs to, null
+	 * 			 if no set was made for v.
 	 */
-	public HashSet<V> find(V v) {
-		return mapping.get(v);
+	public V find(V v) {
+		Integer index = mapping.get(v);
+		if (index == null) {
+			return null;
+		}
+		return elements.get(forest.find(index));
+	}
+
+	/**
+	 * @param u - First vertex
+	 * @param v - Second vertex
+	 * @return - True if both are in the same set.
+	 */
+	public boolean connected(V u, V v) {
+		return forest.connected(mapping.get(u), mapping.get(v));
 	}
 
 	/**
@@ -45,21 +81,17 @@ public class UnionFind<V> {
 	 * 
 	 * @param u - First vertex to union with.
 	 * @param v - Second vertex to union with.
+	 * @return - True if the sets were joined, false if u and v
+	 * 			 were already in the same set.
 	 */
-	public void union(V u, V v) {
-		HashSet<V> union = new HashSet<>();
-		HashSet<V> setOne = mapping.get(u);
-		HashSet<V> setTwo = mapping.get(v);
-		// Combine all vertices into a new set
-		for (V neighbour : setOne) {
-			union.add(neighbour);
-		}
-		for (V neighbour : setTwo) {
-			union.add(neighbour);
-		}
-		// Place the new set into the hashmap for each key
-		for (V neighbour : union) {
-			mapping.put(neighbour, union);
-		}
-	}	
+	public boolean union(V u, V v) {
+		return forest.union(mapping.get(u), mapping.get(v));
+	}
+
+	/**
+	 * @return - The number of disjoint sets.
+	 */
+	public int getSetCount() {
+		return forest.getSetCount();
+	}
 }
@@ -0,0 +1,76 @@
+package core.components;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for UnionFind and DisjointSetForest.
+ *
+ * @author agent
+ */
+public class UnionFindTest {
+
+    @Test
+    public void union_chainOfElements_oneSet() {
+        DisjointSetForest forest = new DisjointSetForest(1000);
+        for (int i = 1; i < 1000; i++) {
+            assertTrue(forest.union(i - 1, i));
+        }
+
+        assertEquals(1, forest.getSetCount());
+        assertTrue(forest.connected(0, 999));
+        assertFalse(forest.union(999, 0));
+    }
+
+    @Test
+    public void union_evenAndOddElements_twoSets() {
+        DisjointSetForest forest = new DisjointSetForest(100);
+        for (int i = 2; i < 100; i++) {
+            forest.union(i - 2, i);
+        }
+
+        assertEquals(2, forest.getSetCount());
+        assertTrue(forest.connected(0, 98));
+        assertFalse(forest.connected(0, 99));
+    }
+
+    @Test
+    public void makeSet_pastInitialCapacity_grows() {
+        DisjointSetForest forest = new DisjointSetForest(0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, forest.makeSet());
+        }
+        forest.union(3, 97);
+
+        assertEquals(100, forest.size());
+        assertEquals(99, forest.getSetCount());
+        assertEquals(forest.find(3), forest.find(97));
+    }
+
+    @Test
+    public void makeSet_withCapacity_startsAfterInitialElements() {
+        DisjointSetForest forest = new DisjointSetForest(5, 1000);
+        assertEquals(5, forest.getSetCount());
+        assertEquals(5, forest.makeSet());
+        assertEquals(6, forest.size());
+        assertEquals(6, forest.getSetCount());
+    }
+
+    @Test
+    public void find_unionedStrings_sameRepresentative() {
+        UnionFind<String> unionFind = new UnionFind<>();
+        unionFind.makeSet("a");
+        unionFind.makeSet("b");
+        unionFind.makeSet("c");
+        unionFind.union("a", "b");
+
+        assertEquals(unionFind.find("a"), unionFind.find("b"));
+        assertFalse(unionFind.connected("a", "c"));
+        assertEquals(2, unionFind.getSetCount());
+        assertNull(unionFind.find("d"));
+    }
+}
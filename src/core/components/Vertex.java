@@ -22,10 +22,21 @@ public class Vertex implements Comparable<Vertex> {
 	private Number cost;
 	
 	/**
-	 * Collection of attributes defining vertex
+	 * Collection of attributes defining vertex, only used while the
+	 * vertex is not attached to an attribute table
 	 */
 	private HashMap<String, String> attributes;
 
+	/**
+	 * Graph level attribute store holding this vertex's attributes, if any
+	 */
+	private AttributeTable attributeTable;
+
+	/**
+	 * The row of this vertex in the attribute table
+	 */
+	private int attributeRow = -1;
+
 	public Vertex() {}
 	
 	public Vertex(String name) {
@@ -33,13 +44,59 @@ public class Vertex implements Comparable<Vertex> {
 	}
 	
 	/**
-	 * Get the collection of attributes defining the vertex
+	 * Moves the attributes of this vertex into a new row of the table. From then
+	 * on all attribute reads and writes go through the table.
+	 * 
+	 * @param table The graph level attribute table
+	 */
+	public void setAttributeTable(AttributeTable table) {
+		int row = table.addRow();
+		if (attributeTable != null) {
+			for (AttributeColumn column : attributeTable.getColumns()) {
+				if (column.isSet(attributeRow)) {
+					table.setString(row, column.getKey(), column.getString(attributeRow));
+				}
+			}
+		} else if (attributes != null) {
+			for (String key : attributes.keySet()) {
+				table.trySetString(row, key, attributes.get(key));
+			}
+		}
+		attributes = null;
+		attributeTable = table;
+		attributeRow = row;
+	}
+
+	/**
+	 * @return The attribute table this vertex is attached to, null if
+	 * 			its attributes are stored on the vertex.
+	 */
+	public AttributeTable getAttributeTable() {
+		return attributeTable;
+	}
+
+	/**
+	 * @return The row of this vertex in its attribute table, -1 if
+	 * 			it is not attached to one.
+	 */
+	public int getAttributeRow() {
+		return attributeRow;
+	}
+
+	/**
+	 * Get the collection of attributes defining the vertex. When the vertex
+	 * is attached to an attribute table this is a copy, changes to it are
+	 * not stored.
 	 * 
 	 * @return A hashmap where keys are the attribute type and
 	 * 			values define the attribute value.
 	 */
 	public HashMap<String, String> getAttributes() {
 		
+		if (attributeTable != null) {
+			return attributeTable.toMap(attributeRow);
+		}
+		
 		if (attributes == null) {
 			attributes = new HashMap<>();
 		}
@@ -49,13 +106,21 @@ public class Vertex implements Comparable<Vertex> {
 	
 	/**
 	 * Add an attribute to the vertex specified by Strings for 
-	 * the key and value.
+	 * the key and value. When the vertex is attached to an attribute
+	 * table the value is parsed as the type of the key's column, a null
+	 * value or one that is not of that type leaves the attribute unset,
+	 * so it reads as the column default.
 	 * 
 	 * @param key The attribute identifier
 	 * @param value The value for the attribute
 	 */
 	public void addAttribute(String key, String value) {
 
+		if (attributeTable != null) {
+			attributeTable.trySetString(attributeRow, key, value);
+			return;
+		}
+
 		if (attributes == null) {
 			attributes = new HashMap<>();
 		}
@@ -71,12 +136,36 @@ public class Vertex implements Comparable<Vertex> {
 	 * 			does not exist or no attributes have been defined.
 	 */
 	public String getAttribute(String key) {
+		if (attributeTable != null) {
+			return attributeTable.getString(attributeRow, key);
+		}
 		if (attributes == null) {
 			return null;
 		}
 		return attributes.get(key);
 	}
 	
+	/**
+	 * Add an int attribute to the vertex. When the vertex is attached to an
+	 * attribute table the value goes into an int column, otherwise it is
+	 * stored as a string.
+	 * 
+	 * @param key The attribute identifier
+	 * @param value The value for the attribute
+	 */
+	public void addAttribute(String key, int value) {
+		if (attributeTable != null) {
+			AttributeColumn column = attributeTable.declare(key, AttributeType.INT);
+			if (column instanceof AttributeColumn.IntColumn) {
+				((AttributeColumn.IntColumn) column).setInt(attributeRow, value);
+			} else {
+				column.setString(attributeRow, Integer.toString(value));
+			}
+			return;
+		}
+		addAttribute(key, Integer.toString(value));
+	}
+
 	public void setId(String id) { this.id = id; }
 
 	public String getId() { return this.id; }
@@ -1,6 +1,7 @@
 package core.tools;
 
 import core.components.Edge;
+import core.components.IndexedGraph;
 import core.components.Vertex;
 
 import edu.uci.ics.jung.graph.Graph;
@@ -13,7 +14,8 @@ import edu.uci.ics.jung.graph.util.EdgeType;
 public class Tools<V extends Vertex,E extends Edge> {
 
     /**
-     * Find a vertex in the graph.
+     * Find a vertex in the graph. Uses the id index when the graph is an
+     * IndexedGraph, otherwise scans every vertex.
      * @param graph The graph to search.
      * @param id The string ID of the vertex.
      * @param <V> The vertex type, extending the core.Vertex class.
@@ -21,6 +23,9 @@ public class Tools<V extends Vertex,E extends Edge> {
      * @return The vertex with that string ID, null if one doesn't exist.
      */
     public static<V extends Vertex,E extends Edge> V getVertex(Graph<V,E> graph, String id) {
+        if (graph instanceof IndexedGraph) {
+            return ((IndexedGraph<V,E>) graph).getVertex(id);
+        }
         for (V vertex : graph.getVertices()) {
             if (vertex.getId().equals(id)) {
                 return vertex;
@@ -30,7 +35,8 @@ public class Tools<V extends Vertex,E extends Edge> {
     }
 
     /**
-     * Find an edge in the graph.
+     * Find an edge in the graph. Uses the id index when the graph is an
+     * IndexedGraph, otherwise scans every edge.
      * @param graph The graph to search.
      * @param id The string ID of the edge.
      * @param <V> The vertex type, extending the core.Vertex class.
@@ -38,6 +44,9 @@ public class Tools<V extends Vertex,E extends Edge> {
      * @return The edge with that string ID, null if one doesn't exist.
      */
     public static<V extends Vertex,E extends Edge> E getEdge(Graph<V,E> graph, String id) {
+        if (graph instanceof IndexedGraph) {
+            return ((IndexedGraph<V,E>) graph).getEdge(id);
+        }
         for (E edge : graph.getEdges()) {
             if (edge.getId().equals(id)) {
                 return edge;